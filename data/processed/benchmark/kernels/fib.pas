@@ -0,0 +1,16 @@
+(*
+ * Runtime benchmark kernel: Naive recursive Fibonacci, call heavy
+ *)
+program fib;
+var n: integer;
+
+function fib(n: integer): integer;
+begin
+  if n < 2 then fib := n
+  else fib := fib(n - 1) + fib(n - 2);
+end;
+
+begin
+  n := 27;
+  writeln(fib(n));
+end.
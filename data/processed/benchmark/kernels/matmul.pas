@@ -0,0 +1,29 @@
+(*
+ * Runtime benchmark kernel: 100x100 integer matrix product, matrices given by functions of the indices (no arrays)
+ *)
+program matmul;
+var i, j, k, n, c, sum: integer;
+
+function a(i, k: integer): integer;
+begin
+  a := (i * 3 + k) mod 17;
+end;
+
+function b(k, j: integer): integer;
+begin
+  b := (k + j * 5) mod 13;
+end;
+
+begin
+  n := 100;
+  sum := 0;
+  for i := 1 to n do
+    for j := 1 to n do
+    begin
+      c := 0;
+      for k := 1 to n do
+        c := c + a(i, k) * b(k, j);
+      sum := (sum + c) mod 1000007;
+    end;
+  writeln(sum);
+end.
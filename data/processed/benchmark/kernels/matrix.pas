@@ -0,0 +1,30 @@
+(*
+ * Runtime benchmark kernel: 120x120 integer matrix product over arrays (flat, row-major)
+ *)
+program matrix;
+const n = 120;
+var
+  a, b, c: array[1..n, 1..n] of integer;
+  i, j, k, sum: integer;
+
+begin
+  for i := 1 to n do
+    for j := 1 to n do
+    begin
+      a[i, j] := (i * 3 + j) mod 17;
+      b[i, j] := (i + j * 5) mod 13;
+    end;
+  for i := 1 to n do
+    for j := 1 to n do
+    begin
+      sum := 0;
+      for k := 1 to n do
+        sum := sum + a[i, k] * b[k, j];
+      c[i, j] := sum;
+    end;
+  sum := 0;
+  for i := 1 to n do
+    for j := 1 to n do
+      sum := (sum + c[i, j]) mod 1000007;
+  writeln(sum);
+end.
@@ -0,0 +1,46 @@
+(*
+ * Runtime benchmark kernel: 3-body simulation, 20000 steps, square root by Newton iterations
+ *)
+program nbody;
+var x1, y1, x2, y2, x3, y3: real;
+    vx1, vy1, vx2, vy2, vx3, vy3: real;
+    dx, dy, d2, f, dt, e: real;
+    step: integer;
+
+function sqroot(v: real): real;
+var r: real;
+    i: integer;
+begin
+  r := v;
+  if r < 1.0 then r := 1.0;
+  for i := 1 to 8 do
+    r := (r + v / r) / 2.0;
+  sqroot := r;
+end;
+
+begin
+  x1 := 0.0; y1 := 0.0; vx1 := 0.0; vy1 := 0.0;
+  x2 := 1.0; y2 := 0.0; vx2 := 0.0; vy2 := 1.0;
+  x3 := -1.0; y3 := 0.0; vx3 := 0.0; vy3 := -1.0;
+  dt := 0.001;
+  for step := 1 to 20000 do
+  begin
+    dx := x2 - x1; dy := y2 - y1; d2 := dx * dx + dy * dy + 0.01;
+    f := dt / (d2 * sqroot(d2));
+    vx1 := vx1 + dx * f; vy1 := vy1 + dy * f;
+    vx2 := vx2 - dx * f; vy2 := vy2 - dy * f;
+    dx := x3 - x1; dy := y3 - y1; d2 := dx * dx + dy * dy + 0.01;
+    f := dt / (d2 * sqroot(d2));
+    vx1 := vx1 + dx * f; vy1 := vy1 + dy * f;
+    vx3 := vx3 - dx * f; vy3 := vy3 - dy * f;
+    dx := x3 - x2; dy := y3 - y2; d2 := dx * dx + dy * dy + 0.01;
+    f := dt / (d2 * sqroot(d2));
+    vx2 := vx2 + dx * f; vy2 := vy2 + dy * f;
+    vx3 := vx3 - dx * f; vy3 := vy3 - dy * f;
+    x1 := x1 + vx1 * dt; y1 := y1 + vy1 * dt;
+    x2 := x2 + vx2 * dt; y2 := y2 + vy2 * dt;
+    x3 := x3 + vx3 * dt; y3 := y3 + vy3 * dt;
+  end;
+  e := 0.5 * (vx1 * vx1 + vy1 * vy1 + vx2 * vx2 + vy2 * vy2 + vx3 * vx3 + vy3 * vy3);
+  writeln(e);
+end.
@@ -0,0 +1,24 @@
+(*
+ * Runtime benchmark kernel: Prime count below 1000 by trial division (sieve without arrays)
+ *)
+program primes;
+var n, count: integer;
+function isPrime(n: integer): integer;
+var d, p: integer;
+begin
+  p := 1;
+  if n < 2 then p := 0;
+  d := 2;
+  while d * d <= n do
+  begin
+    if n mod d = 0 then p := 0;
+    d := d + 1;
+  end;
+  isPrime := p;
+end;
+begin
+  count := 0;
+  for n := 1 to 1000 do
+    count := count + isPrime(n);
+  writeln(count);
+end.
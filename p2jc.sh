@@ -0,0 +1,3 @@
+#!/bin/bash
+# thin client of the compiler daemon (started by "./p2j.sh daemon [port]"), port taken from PTJ_PORT
+java -cp ./target/pascal-to-jvm-compiler-jar-with-dependencies.jar driver.PascalCompilerClient "$@"
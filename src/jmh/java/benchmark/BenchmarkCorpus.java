@@ -0,0 +1,109 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sources the compiler benchmarks run on
+ * <p>
+ * - "pascal_test": the sample programs under src/main/resources/pascal_test
+ * (another directory may be given with -Dptj.bench.corpus=<dir>)
+ * - "synthetic_<lines>": a generated program of about that many lines, only made of constructs
+ * every phase (code generation included) supports: functions, integer arithmetic, if, while, for, writeln
+ * </p>
+ */
+public class BenchmarkCorpus {
+
+    public static final String CORPUS_DIR_PROPERTY = "ptj.bench.corpus";
+    public static final String DEFAULT_CORPUS_DIR = "src/main/resources/pascal_test";
+    public static final String PASCAL_TEST = "pascal_test";
+    public static final String SYNTHETIC_PREFIX = "synthetic_";
+
+    private BenchmarkCorpus() {
+    }
+
+    public static List<Source> load(String corpus) throws IOException {
+        if (corpus.startsWith(SYNTHETIC_PREFIX)) {
+            int lines = Integer.parseInt(corpus.substring(SYNTHETIC_PREFIX.length()));
+            return List.of(new Source(corpus + ".pas", synthetic(lines)));
+        }
+        if (!PASCAL_TEST.equals(corpus)) throw new IllegalArgumentException("Unknown corpus " + corpus);
+
+        Path dir = Path.of(System.getProperty(CORPUS_DIR_PROPERTY, DEFAULT_CORPUS_DIR));
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("Corpus directory " + dir.toAbsolutePath()
+                    + " not found, run from the project root or set -D" + CORPUS_DIR_PROPERTY);
+        }
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(dir)) {
+            files = walk.filter(each -> each.toString().endsWith(".pas")).sorted().collect(Collectors.toList());
+        }
+        List<Source> sources = new ArrayList<>(files.size());
+        for (Path each : files) sources.add(new Source(each.toString(), Files.readString(each)));
+        return sources;
+    }
+
+    /**
+     * Generate a program of about the given number of lines, a function (13 lines) plus its call per step
+     */
+    public static String synthetic(int lines) {
+        int functions = Math.max(1, lines / 14);
+        StringBuilder program = new StringBuilder();
+        program.append("program synthetic;\n")
+                .append("var total, i: integer;\n\n");
+        for (int k = 0; k < functions; k++) {
+            program.append("function f").append(k).append("(x: integer): integer;\n")
+                    .append("var a, b: integer;\n")
+                    .append("begin\n")
+                    .append("  a := x * ").append(k % 7 + 2).append(" + ").append(k).append(";\n")
+                    .append("  b := 0;\n")
+                    .append("  while b < a do\n")
+                    .append("  begin\n")
+                    .append("    b := b + 3;\n")
+                    .append("    if b > 10 then a := a - 1 else a := a + 1;\n")
+                    .append("  end;\n")
+                    .append("  f").append(k).append(" := a + b;\n")
+                    .append("end;\n\n");
+        }
+        program.append("begin\n")
+                .append("  total := 0;\n")
+                .append("  for i := 1 to 10 do\n")
+                .append("  begin\n");
+        for (int k = 0; k < functions; k++) {
+            program.append("    total := total + f").append(k).append("(i) mod 1000;\n");
+        }
+        program.append("  end;\n")
+                .append("  writeln(total);\n")
+                .append("end.\n");
+        return program.toString();
+    }
+
+    public static class Source {
+        private final String name;
+        private final String text;
+        private final int lines;
+
+        public Source(String name, String text) {
+            this.name = name;
+            this.text = text;
+            this.lines = (int) text.lines().count();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public int getLines() {
+            return lines;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package benchmark;
+
+import ast.visitor.PascalCustomLexer;
+import ast.visitor.PascalLexer;
+import ast.visitor.PascalParser;
+import ast.visitor.impl.PascalCheckerVisitor;
+import ast.visitor.impl.PascalEncoderVisitor;
+import driver.CompilationContext;
+import driver.DriverArgument;
+import driver.DriverCommand;
+import driver.PascalCompilerDriverBuilder;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of every compiler phase taken separately
+ * <p>
+ * Each benchmark operation runs one phase over the whole corpus, the inputs of a phase are produced by the
+ * previous phases beforehand (tokens for the parser, parse trees for the checker, checked tables for the encoder).
+ * Sources failing a phase are left out of the following ones, pascal_test is used as is.
+ * - "lines" (secondary result) is the throughput in source lines/sec
+ * - with -prof gc, gc.alloc.rate.norm is the allocation per operation, divide it by the lines per operation
+ * (printed at setup) for the allocation per line, or by the identifiers per operation (check & encode, each one
+ * goes through the tables) for the allocation per identifier
+ * </p>
+ * Run: mvn -P jmh package -DskipTests, then
+ * java -cp target/pascal-to-jvm-compiler-jar-with-dependencies.jar org.openjdk.jmh.Main CompilerPhaseBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompilerPhaseBenchmark {
+
+    @Param({BenchmarkCorpus.PASCAL_TEST, "synthetic_1000", "synthetic_20000"})
+    public String corpus;
+
+    private List<BenchmarkCorpus.Source> lexInputs;
+    private List<List<? extends Token>> parseInputs;
+    private List<Parsed> checkInputs;
+    private List<Parsed> encodeInputs;
+    private int lexLines;
+    private int parseLines;
+    private int checkLines;
+    private int encodeLines;
+    private int checkIdentifiers;
+    private int encodeIdentifiers;
+
+    private PrintStream originalOut;
+
+    /**
+     * Parse tree with the token stream & parser it comes from (the visitors need both)
+     */
+    static class Parsed {
+        final BenchmarkCorpus.Source source;
+        final CommonTokenStream tokens;
+        final PascalParser parser;
+        final ParseTree tree;
+
+        Parsed(BenchmarkCorpus.Source source, CommonTokenStream tokens, PascalParser parser, ParseTree tree) {
+            this.source = source;
+            this.tokens = tokens;
+            this.parser = parser;
+            this.tree = tree;
+        }
+
+        CompilationContext newContext() {
+            CompilationContext context = new CompilationContext(new DriverArgument(DriverCommand.COMPILE, source.getName()));
+            context.setTokens(tokens);
+            context.setParser(parser);
+            return context;
+        }
+    }
+
+    /**
+     * Source lines processed, reported as lines/sec
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class LineCounter {
+        public long lines;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            lines = 0;
+        }
+    }
+
+    /**
+     * Freshly checked compilations, the encoder takes over (and fills) the tables of the checker
+     */
+    @State(Scope.Thread)
+    public static class CheckedInputs {
+        List<CompilationContext> contexts;
+
+        @Setup(Level.Invocation)
+        public void check(CompilerPhaseBenchmark benchmark) {
+            contexts = new ArrayList<>(benchmark.encodeInputs.size());
+            for (Parsed each : benchmark.encodeInputs) {
+                CompilationContext context = each.newContext();
+                new PascalCheckerVisitor(context).visit(each.tree);
+                contexts.add(context);
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() throws IOException {
+        // the encoder traces to standard output
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+
+        lexInputs = new ArrayList<>();
+        parseInputs = new ArrayList<>();
+        checkInputs = new ArrayList<>();
+        encodeInputs = new ArrayList<>();
+        for (BenchmarkCorpus.Source each : BenchmarkCorpus.load(corpus)) {
+            PascalCustomLexer lexer = newLexer(each);
+            CommonTokenStream tokens = new CommonTokenStream(lexer);
+            tokens.fill();
+            if (lexer.getTokenErrors() > 0) continue;
+            lexInputs.add(each);
+            lexLines += each.getLines();
+
+            PascalParser parser = newParser(tokens);
+            ParseTree tree = PascalCompilerDriverBuilder.parseProgram(parser);
+            if (parser.getNumberOfSyntaxErrors() > 0) continue;
+            parseInputs.add(tokens.getTokens());
+            parseLines += each.getLines();
+
+            Parsed parsed = new Parsed(each, tokens, parser, tree);
+            CompilationContext context = parsed.newContext();
+            PascalCheckerVisitor checker = new PascalCheckerVisitor(context);
+            checker.visit(tree);
+            if (checker.getNumberOfContextualErrors() > 0) continue;
+            checkInputs.add(parsed);
+            checkLines += each.getLines();
+            int identifiers = countIdentifiers(tokens);
+            checkIdentifiers += identifiers;
+
+            try {
+                PascalEncoderVisitor encoder = new PascalEncoderVisitor(context);
+                encoder.visit(tree);
+                encoder.getByteCode();
+            } catch (Exception | LinkageError e) {
+                // construct not supported by code generation yet
+                continue;
+            }
+            encodeInputs.add(parsed);
+            encodeLines += each.getLines();
+            encodeIdentifiers += identifiers;
+        }
+        originalOut.printf("%n%s - lines per operation: lex %d, parse %d, check %d, encode %d"
+                        + " - identifiers per operation: check %d, encode %d%n",
+                corpus, lexLines, parseLines, checkLines, encodeLines, checkIdentifiers, encodeIdentifiers);
+    }
+
+    @TearDown(Level.Trial)
+    public void restore() {
+        System.setOut(originalOut);
+    }
+
+    private static int countIdentifiers(CommonTokenStream tokens) {
+        int count = 0;
+        for (Token each : tokens.getTokens()) {
+            if (each.getType() == PascalLexer.IDENT) count++;
+        }
+        return count;
+    }
+
+    private static PascalCustomLexer newLexer(BenchmarkCorpus.Source source) {
+        PascalCustomLexer lexer = new PascalCustomLexer(CharStreams.fromString(source.getText(), source.getName()));
+        lexer.removeErrorListeners();
+        return lexer;
+    }
+
+    private static PascalParser newParser(CommonTokenStream tokens) {
+        PascalParser parser = new PascalParser(tokens);
+        parser.removeErrorListeners();
+        return parser;
+    }
+
+    @Benchmark
+    public void lex(LineCounter counter, Blackhole blackhole) {
+        for (BenchmarkCorpus.Source each : lexInputs) {
+            CommonTokenStream tokens = new CommonTokenStream(newLexer(each));
+            tokens.fill();
+            blackhole.consume(tokens);
+        }
+        counter.lines += lexLines;
+    }
+
+    /**
+     * Parsing as the driver does it, SLL prediction first (full LL only if SLL fails)
+     */
+    @Benchmark
+    public void parse(LineCounter counter, Blackhole blackhole) {
+        for (List<? extends Token> each : parseInputs) {
+            PascalParser parser = newParser(new CommonTokenStream(new ListTokenSource(each)));
+            blackhole.consume(PascalCompilerDriverBuilder.parseProgram(parser));
+        }
+        counter.lines += parseLines;
+    }
+
+    /**
+     * Full LL prediction only (ANTLR's default), baseline of {@link #parse}
+     */
+    @Benchmark
+    public void parseFullLL(LineCounter counter, Blackhole blackhole) {
+        for (List<? extends Token> each : parseInputs) {
+            PascalParser parser = newParser(new CommonTokenStream(new ListTokenSource(each)));
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            blackhole.consume(parser.program());
+        }
+        counter.lines += parseLines;
+    }
+
+    @Benchmark
+    public void check(LineCounter counter, Blackhole blackhole) {
+        for (Parsed each : checkInputs) {
+            PascalCheckerVisitor checker = new PascalCheckerVisitor(each.newContext());
+            checker.visit(each.tree);
+            blackhole.consume(checker);
+        }
+        counter.lines += checkLines;
+    }
+
+    @Benchmark
+    public void encode(CheckedInputs inputs, LineCounter counter, Blackhole blackhole) {
+        for (int i = 0; i < encodeInputs.size(); i++) {
+            PascalEncoderVisitor encoder = new PascalEncoderVisitor(inputs.contexts.get(i));
+            encoder.visit(encodeInputs.get(i).tree);
+            blackhole.consume(encoder.getByteCode());
+        }
+        counter.lines += encodeLines;
+    }
+}
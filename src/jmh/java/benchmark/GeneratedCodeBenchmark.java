@@ -0,0 +1,91 @@
+package benchmark;
+
+import driver.DriverArgument;
+import driver.DriverCommand;
+import driver.PascalCompilerDriverBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Run time of generated programs, compiled in-process once per fork
+ * <p>
+ * Every invocation is one whole run of the program's main method (output discarded), JVM start-up & compilation
+ * are not part of the measure. Warm-up & forks are chosen by {@link RuntimeBenchmarkHarness}:
+ * no warm-up for the first run, warm-up iterations for the steady state.
+ * </p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GeneratedCodeBenchmark {
+
+    public static final String PROGRAMS_DIR_PROPERTY = "ptj.bench.programs";
+    public static final String DEFAULT_PROGRAMS_DIR = "data/processed/benchmark";
+
+    @Param({"benchmark1", "benchmark2", "benchmark3", "benchmark4", "primes", "matmul", "matrix", "nbody", "fib"})
+    public String program;
+
+    private Path dir;
+    private Method main;
+    private PrintStream originalOut;
+
+    /**
+     * @return source of the program, benchmarkN.pas or kernels/name.pas under the programs directory
+     */
+    public static Path locate(String program) {
+        Path dir = Path.of(System.getProperty(PROGRAMS_DIR_PROPERTY, DEFAULT_PROGRAMS_DIR));
+        Path source = dir.resolve(program + ".pas");
+        return Files.exists(source) ? source : dir.resolve("kernels").resolve(program + ".pas");
+    }
+
+    /**
+     * Class loader defining the single generated class
+     */
+    private static class ProgramClassLoader extends ClassLoader {
+        Class<?> define(String name, byte[] byteCode) {
+            return defineClass(name, byteCode, 0, byteCode.length);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void compile() throws Exception {
+        // compile a copy, the class file lands next to it
+        dir = Files.createTempDirectory("ptj-bench");
+        Path source = Files.copy(locate(program), dir.resolve(program + ".pas"));
+        PascalCompilerDriverBuilder builder = new PascalCompilerDriverBuilder(
+                new DriverArgument(DriverCommand.COMPILE, source.toString()));
+
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        builder.parse().check().run();
+
+        // the class is named after the program header, not the file
+        try (Stream<Path> files = Files.list(dir)) {
+            Path classFile = files.filter(each -> each.toString().endsWith(".class")).findFirst().orElseThrow();
+            String className = classFile.getFileName().toString().replace(".class", "");
+            main = new ProgramClassLoader().define(className, builder.getByteCode()).getMethod("main", String[].class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void restore() throws IOException {
+        System.setOut(originalOut);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path each : (Iterable<Path>) files::iterator) Files.delete(each);
+        }
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public void run() throws Exception {
+        main.invoke(null, (Object) new String[0]);
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import org.openjdk.jmh.results.BenchmarkResult;
+import org.openjdk.jmh.results.IterationResult;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Run time of generated programs, in place of data/processed/benchmark/eval.sh
+ * <p>
+ * Each program is measured twice with {@link GeneratedCodeBenchmark}:
+ * - first run: a fresh JVM per sample, the very first execution of main (no warm-up)
+ * - steady state: executions of main after warm-up iterations
+ * Results are written like ptj_benchmark1.csv (a "time" column, milliseconds, one sample per line):
+ * ptj_&lt;program&gt;_first.csv & ptj_&lt;program&gt;_steady.csv
+ * </p>
+ * Usage: RuntimeBenchmarkHarness [output directory (default target/benchmark)] [programs (default all)]
+ * Sample counts: -Dptj.bench.firstRuns=20 -Dptj.bench.steadyForks=2 -Dptj.bench.warmups=10 -Dptj.bench.iterations=20
+ */
+public class RuntimeBenchmarkHarness {
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        Path output = Path.of(args.length > 0 ? args[0] : "target/benchmark");
+        List<String> programs = args.length > 1
+                ? Arrays.asList(args).subList(1, args.length)
+                : allPrograms();
+        Files.createDirectories(output);
+
+        int firstRuns = Integer.getInteger("ptj.bench.firstRuns", 20);
+        int steadyForks = Integer.getInteger("ptj.bench.steadyForks", 2);
+        int warmups = Integer.getInteger("ptj.bench.warmups", 10);
+        int iterations = Integer.getInteger("ptj.bench.iterations", 20);
+
+        for (String program : programs) {
+            List<Double> first = samples(run(program, firstRuns, 0, 1));
+            List<Double> steady = samples(run(program, steadyForks, warmups, iterations));
+            writeCsv(output.resolve("ptj_" + program + "_first.csv"), first);
+            writeCsv(output.resolve("ptj_" + program + "_steady.csv"), steady);
+            System.out.printf("%s: first run %.3f ms (median of %d), steady state %.3f ms (median of %d)%n",
+                    program, median(first), first.size(), median(steady), steady.size());
+        }
+    }
+
+    private static List<String> allPrograms() {
+        try {
+            return Arrays.asList(GeneratedCodeBenchmark.class.getField("program")
+                    .getAnnotation(org.openjdk.jmh.annotations.Param.class).value());
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Collection<RunResult> run(String program, int forks, int warmups, int iterations)
+            throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(GeneratedCodeBenchmark.class.getName() + ".run")
+                .param("program", program)
+                .forks(forks)
+                .warmupIterations(warmups)
+                .measurementIterations(iterations)
+                .verbosity(VerboseMode.SILENT)
+                .build();
+        return new Runner(options).run();
+    }
+
+    /**
+     * @return every measured iteration (one main execution each) of every fork, in milliseconds
+     */
+    private static List<Double> samples(Collection<RunResult> results) {
+        List<Double> samples = new ArrayList<>();
+        for (RunResult result : results) {
+            for (BenchmarkResult fork : result.getBenchmarkResults()) {
+                for (IterationResult iteration : fork.getIterationResults()) {
+                    samples.add(iteration.getPrimaryResult().getScore());
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static void writeCsv(Path file, List<Double> samples) throws IOException {
+        List<String> lines = new ArrayList<>(samples.size() + 1);
+        lines.add("time");
+        samples.forEach(each -> lines.add(String.format(Locale.ROOT, "%.3f", each)));
+        Files.write(file, lines);
+    }
+
+    private static double median(List<Double> samples) {
+        if (samples.isEmpty()) return Double.NaN;
+        List<Double> sorted = new ArrayList<>(samples);
+        sorted.sort(Double::compare);
+        return sorted.get(sorted.size() / 2);
+    }
+}
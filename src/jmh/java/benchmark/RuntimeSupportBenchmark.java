@@ -0,0 +1,132 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import runtime.support.PascalInput;
+import runtime.support.PascalMath;
+import runtime.support.PascalOutput;
+import runtime.support.PascalRange;
+import runtime.support.PascalStrings;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers of the runtime support library (runtime.support) the generated programs call, next to the JDK code
+ * the encoder used to emit (or would emit) for the same builtin
+ * <p>
+ * - read/write: VALUES integers read from a byte array / written to a discarded stream, one operation per value
+ * - charToString, round, rangeCheck: VALUES calls on random inputs, one operation per call
+ * </p>
+ * Run: mvn -P jmh package -DskipTests, then
+ * java -cp target/pascal-to-jvm-compiler-jar-with-dependencies.jar org.openjdk.jmh.Main RuntimeSupportBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuntimeSupportBenchmark {
+
+    private static final int VALUES = 10000;
+
+    private byte[] input;
+    private int[] ints;
+    private char[] chars;
+    private double[] reals;
+    private PrintStream discarded;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        Random random = new Random(42);
+        ints = new int[VALUES];
+        chars = new char[VALUES];
+        reals = new double[VALUES];
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < VALUES; i++) {
+            ints[i] = random.nextInt(1000000) - 500000;
+            chars[i] = (char) ('a' + random.nextInt(26));
+            reals[i] = (random.nextDouble() - 0.5D) * 1000;
+            text.append(ints[i]).append(i % 10 == 9 ? '\n' : ' ');
+        }
+        input = text.toString().getBytes(StandardCharsets.US_ASCII);
+        discarded = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long readPascalInput() {
+        PascalInput pascalInput = new PascalInput(new ByteArrayInputStream(input));
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) sum += pascalInput.readInt();
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long readScanner() {
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input));
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) sum += Integer.parseInt(scanner.next());
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void writePascalOutput() {
+        PascalOutput output = new PascalOutput(discarded);
+        for (int i = 0; i < VALUES; i++) {
+            output.writeInt(ints[i]);
+            output.writeln();
+        }
+        output.flush();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void writePrintStream() {
+        for (int i = 0; i < VALUES; i++) discarded.println(ints[i]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void charToStringCached(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) blackhole.consume(PascalStrings.valueOf(chars[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public void charToStringValueOf(Blackhole blackhole) {
+        for (int i = 0; i < VALUES; i++) blackhole.consume(String.valueOf(chars[i]));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long round() {
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) sum += PascalMath.round(reals[i]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long roundMath() {
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) sum += Math.round(reals[i]);
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUES)
+    public long rangeCheck() {
+        long sum = 0;
+        for (int i = 0; i < VALUES; i++) sum += PascalRange.check(ints[i], -500000, 500000);
+        return sum;
+    }
+}
@@ -0,0 +1,113 @@
+package benchmark;
+
+import ast.visitor.PascalParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import tableUtils.LocalsTable;
+import tableUtils.SymbolTable;
+import tableUtils.Table;
+import tableUtils.TableManager;
+import tableUtils.TypeTable;
+import type.TypeDescriptor;
+import type.primitive.integer.DefaultIntegerType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scoped symbol table operations, as the checker & encoder use them
+ * <p>
+ * - deepNesting: identifiers of the global scope looked up from the innermost of nested scopes
+ * (each scope defining a few identifiers of its own)
+ * - manyIdentifiers: a large global scope, then subprogram after subprogram entering a scope, defining its locals,
+ * looking up locals & globals and leaving
+ * - resolveIdentifier: lookup missing the type table then found in the symbol table, the way the visitors resolve
+ * an identifier against every table of the compilation (per identifier)
+ * </p>
+ * Run: mvn -P jmh package -DskipTests, then
+ * java -cp target/pascal-to-jvm-compiler-jar-with-dependencies.jar org.openjdk.jmh.Main SymbolTableBenchmark -prof gc
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SymbolTableBenchmark {
+
+    private static final int IDS_PER_SCOPE = 4;
+    private static final int LOOKUPS = 1000;
+    private static final int SUBPROGRAMS = 100;
+    private static final int LOCALS = 8;
+
+    @Param({"1", "16", "64"})
+    public int depth;
+
+    @Param({"10000"})
+    public int globals;
+
+    private String[] globalIds;
+    private String[][] scopeIds;
+    private String[] localIds;
+    private TypeDescriptor type;
+    private TableManager<Object, TypeDescriptor> manager;
+    private Table<Object, TypeDescriptor> table;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        globalIds = new String[globals];
+        for (int i = 0; i < globals; i++) globalIds[i] = "global" + i;
+        scopeIds = new String[depth][IDS_PER_SCOPE];
+        for (int d = 0; d < depth; d++) {
+            for (int i = 0; i < IDS_PER_SCOPE; i++) scopeIds[d][i] = "nested" + d + "_" + i;
+        }
+        localIds = new String[LOCALS];
+        for (int i = 0; i < LOCALS; i++) localIds[i] = "local" + i;
+        type = DefaultIntegerType.of(0L, false);
+
+        // global scope filled once, every benchmark leaves the scopes it enters
+        manager = new TableManager<>();
+        table = new SymbolTable<>(manager);
+        new TypeTable<>(manager);
+        new LocalsTable<>(manager);
+        for (String each : globalIds) table.put(each, type);
+    }
+
+    @Benchmark
+    public void deepNesting(Blackhole blackhole) {
+        for (String[] scope : scopeIds) {
+            table.enterLocalScope();
+            for (String each : scope) table.put(each, type);
+        }
+        for (int i = 0; i < LOOKUPS; i++) {
+            blackhole.consume(table.get(globalIds[i % globalIds.length]));
+            blackhole.consume(table.containsKey(scopeIds[i % depth][i % IDS_PER_SCOPE]));
+        }
+        for (int d = 0; d < depth; d++) table.exitLocalScope();
+    }
+
+    @Benchmark
+    public void manyIdentifiers(Blackhole blackhole) {
+        for (int s = 0; s < SUBPROGRAMS; s++) {
+            table.enterLocalScope();
+            for (String each : localIds) table.put(each, type);
+            for (int i = 0; i < LOCALS; i++) {
+                blackhole.consume(table.get(localIds[i]));
+                blackhole.consume(table.get(globalIds[(s * LOCALS + i) % globalIds.length]));
+            }
+            blackhole.consume(table.getAllVarInCurrentScope().size());
+            table.exitLocalScope();
+        }
+    }
+
+    /**
+     * One operation per identifier: with -prof gc, gc.alloc.rate.norm is the allocation per identifier resolved
+     */
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public void resolveIdentifier(Blackhole blackhole) {
+        for (int i = 0; i < LOOKUPS; i++) {
+            // type definition context: missing the type table first, found in the symbol table
+            blackhole.consume(manager.resolve(globalIds[i % globalIds.length], PascalParser.TypeDefinitionContext.class));
+        }
+    }
+}
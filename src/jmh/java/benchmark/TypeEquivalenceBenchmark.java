@@ -0,0 +1,77 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import type.Subrange;
+import type.TypeDescriptor;
+import type.TypeInterner;
+import type.primitive.integer.DefaultIntegerType;
+import type.structured.ArrayType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type equivalence of array declarations, as the checker tests assignments & actual parameters
+ * <p>
+ * - declarations: array types built declaration after declaration (a few distinct shapes, repeated)
+ * - arrayEquiv: every declaration against the next one of the same shape, one operation per equiv
+ * "interned": through the TypeInterner (identity & memoized equiv) or fresh instances (structural walk)
+ * </p>
+ * Run: mvn -P jmh package -DskipTests, then
+ * java -cp target/pascal-to-jvm-compiler-jar-with-dependencies.jar org.openjdk.jmh.Main TypeEquivalenceBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TypeEquivalenceBenchmark {
+
+    private static final int DECLARATIONS = 1000;
+    private static final int SHAPES = 8;
+
+    @Param({"false", "true"})
+    public boolean interned;
+
+    @Param({"1", "3"})
+    public int dimensions;
+
+    private TypeDescriptor[] declared;
+
+    private TypeDescriptor declare(TypeInterner interner, int shape) {
+        List<TypeDescriptor> indexList = new ArrayList<>();
+        for (int d = 0; d < dimensions; d++) {
+            TypeDescriptor subrange = new Subrange(DefaultIntegerType.of(1L, true),
+                    DefaultIntegerType.of(10L + shape + d, true));
+            indexList.add(interned ? interner.intern(subrange) : subrange);
+        }
+        TypeDescriptor arrayType = new ArrayType(DefaultIntegerType.instance, indexList);
+        return interned ? interner.intern(arrayType) : arrayType;
+    }
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        TypeInterner interner = new TypeInterner();
+        declared = new TypeDescriptor[DECLARATIONS];
+        for (int i = 0; i < DECLARATIONS; i++) declared[i] = declare(interner, i % SHAPES);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(DECLARATIONS)
+    public void arrayEquiv(Blackhole blackhole) {
+        for (int i = 0; i < DECLARATIONS; i++) {
+            blackhole.consume(declared[i].equiv(declared[(i + SHAPES) % DECLARATIONS]));
+        }
+    }
+
+    @Benchmark
+    public Object declarations() {
+        TypeInterner interner = new TypeInterner();
+        TypeDescriptor last = null;
+        for (int i = 0; i < DECLARATIONS; i++) last = declare(interner, i % SHAPES);
+        return last;
+    }
+}
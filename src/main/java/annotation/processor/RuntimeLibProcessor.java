@@ -0,0 +1,133 @@
+package annotation.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Generates runtime.RuntimeLibRegistry at compile time: a constructor reference for each runtime
+ * procedure/function (subclass of RuntimeProcedure/RuntimeFunction annotated with @RuntimeAlias),
+ * instead of scanning the class path when the compiler starts
+ * <p>
+ * Registered on the default-compile execution in pom.xml, compiled beforehand by its own execution.
+ * A compilation of some of the runtime classes only (IDE rebuild of a changed file) still registers all of them:
+ * the ones already compiled are found in the runtime packages.
+ * </p>
+ */
+@SupportedAnnotationTypes(RuntimeLibProcessor.ALIAS_ANNOTATION)
+public class RuntimeLibProcessor extends AbstractProcessor {
+
+    static final String ALIAS_ANNOTATION = "annotation.RuntimeAlias";
+    static final String REGISTRY_PACKAGE = "runtime";
+    static final String REGISTRY_NAME = "RuntimeLibRegistry";
+    private static final Set<String> RUNTIME_PACKAGES = Set.of("runtime.proc", "runtime.func");
+    private static final Set<String> BASE_CLASSES = Set.of("runtime.RuntimeProcedure", "runtime.RuntimeFunction");
+
+    // ordered by class name, as the class path scan used to be
+    private final Set<String> runtimeClasses = new TreeSet<>();
+    private boolean generated = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        // no @RuntimeAlias in this round, e.g. compiling the test sources
+        if (generated || annotations.isEmpty()) return false;
+        Elements elements = processingEnv.getElementUtils();
+        TypeElement alias = elements.getTypeElement(ALIAS_ANNOTATION);
+        for (Element each : roundEnv.getElementsAnnotatedWith(alias)) {
+            if (isRuntimeClass(each)) {
+                runtimeClasses.add(((TypeElement) each).getQualifiedName().toString());
+            } else {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@RuntimeAlias on a class that is not a concrete subclass of "
+                                + String.join(" or ", BASE_CLASSES), each);
+            }
+        }
+        // compiled earlier, out of this compilation
+        for (String name : RUNTIME_PACKAGES) {
+            PackageElement runtimePackage = elements.getPackageElement(name);
+            if (runtimePackage == null) continue;
+            for (Element each : runtimePackage.getEnclosedElements()) {
+                if (hasAlias(each) && isRuntimeClass(each)) {
+                    runtimeClasses.add(((TypeElement) each).getQualifiedName().toString());
+                }
+            }
+        }
+        try {
+            generate();
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Cannot generate " + REGISTRY_PACKAGE + "." + REGISTRY_NAME + ": " + e.getMessage());
+        }
+        generated = true;
+        // @RuntimeAlias is read at run time as well, not claimed
+        return false;
+    }
+
+    // by name, the annotation is not on the class path of the processor
+    private static boolean hasAlias(Element element) {
+        for (AnnotationMirror each : element.getAnnotationMirrors()) {
+            if (((TypeElement) each.getAnnotationType().asElement()).getQualifiedName().contentEquals(ALIAS_ANNOTATION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isRuntimeClass(Element element) {
+        if (element.getKind() != ElementKind.CLASS || element.getModifiers().contains(Modifier.ABSTRACT)) return false;
+        Types types = processingEnv.getTypeUtils();
+        for (String base : BASE_CLASSES) {
+            TypeElement baseElement = processingEnv.getElementUtils().getTypeElement(base);
+            if (baseElement != null && types.isSubtype(types.erasure(element.asType()), types.erasure(baseElement.asType()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void generate() throws IOException {
+        String qualifiedName = REGISTRY_PACKAGE + "." + REGISTRY_NAME;
+        try (PrintWriter writer = new PrintWriter(processingEnv.getFiler().createSourceFile(qualifiedName).openWriter())) {
+            writer.println("package " + REGISTRY_PACKAGE + ";");
+            writer.println();
+            writer.println("import java.util.List;");
+            writer.println("import java.util.function.Supplier;");
+            writer.println();
+            writer.println("/**");
+            writer.println(" * Runtime procedures/functions of the compiler, generated by " + getClass().getName());
+            writer.println(" */");
+            writer.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+            writer.println("final class " + REGISTRY_NAME + " {");
+            writer.println();
+            writer.println("    static final List<Supplier<RuntimeProcFuncBaseType>> FACTORIES = List.of(");
+            int remaining = runtimeClasses.size();
+            for (String each : runtimeClasses) {
+                writer.println("            " + each + "::new" + (--remaining > 0 ? "," : ""));
+            }
+            writer.println("    );");
+            writer.println();
+            writer.println("    private " + REGISTRY_NAME + "() {");
+            writer.println("    }");
+            writer.println("}");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ast.visitor;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenSource;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+/**
+ * Token stored by a {@link CompactTokenFactory}, doubling as its own terminal node in the parse tree
+ * <p>
+ * Every token the parser matches ends up referenced by a terminal node, being both saves an object per token.
+ * {@link PascalCustomParser} attaches the token itself, a token already attached to a tree
+ * (e.g. first stage of the two-stage parse) is wrapped in a plain terminal node instead.
+ * </p>
+ */
+public class CompactToken extends TerminalNodeImpl implements Token {
+
+    private final CompactTokenFactory tokens;
+    private final int index;
+
+    CompactToken(CompactTokenFactory tokens, int index) {
+        super(null);
+        this.symbol = this;
+        this.tokens = tokens;
+        this.index = index;
+    }
+
+    @Override
+    public String getText() {
+        return tokens.getText(index);
+    }
+
+    @Override
+    public int getType() {
+        return tokens.getType(index);
+    }
+
+    @Override
+    public int getLine() {
+        return tokens.getLine(index);
+    }
+
+    @Override
+    public int getCharPositionInLine() {
+        return tokens.getCharPositionInLine(index);
+    }
+
+    @Override
+    public int getChannel() {
+        return tokens.getChannel(index);
+    }
+
+    @Override
+    public int getTokenIndex() {
+        return index;
+    }
+
+    @Override
+    public int getStartIndex() {
+        return tokens.getStartIndex(index);
+    }
+
+    @Override
+    public int getStopIndex() {
+        return tokens.getStopIndex(index);
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+        return tokens.getTokenSource();
+    }
+
+    @Override
+    public CharStream getInputStream() {
+        return tokens.getInputStream();
+    }
+}
@@ -0,0 +1,145 @@
+package ast.visitor;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+import org.antlr.v4.runtime.misc.Pair;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Token factory storing the tokens of one lexer in parallel primitive arrays
+ * <p>
+ * A token is its index in the arrays: type, start/stop offsets and line/column (packed in a long),
+ * texts are read from the char stream when asked for. {@link CompactToken}s are views upon an index,
+ * the latest ones are kept so that the parser gets the same object for the same token.
+ * - explicit texts (set by a lexer action) & off-channel tokens are rare, they are kept aside
+ * - tokens conjured by error recovery (no position in the input) are plain CommonTokens
+ * </p>
+ */
+public class CompactTokenFactory implements TokenFactory<Token> {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    /**
+     * Recent views kept, more than the lookahead of any decision
+     */
+    private static final int RECENT_TOKENS = 256;
+
+    private Pair<TokenSource, CharStream> source;
+    private int size;
+    private int[] types = new int[INITIAL_CAPACITY];
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] stops = new int[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private byte[] channels; // null as long as every token is on the default channel
+    private final Map<Integer, String> texts = new HashMap<>();
+    private final CompactToken[] recent = new CompactToken[RECENT_TOKENS];
+
+    @Override
+    public Token create(Pair<TokenSource, CharStream> source, int type, String text, int channel,
+                        int start, int stop, int line, int charPositionInLine) {
+        if (start < 0) {
+            return CommonTokenFactory.DEFAULT.create(source, type, text, channel, start, stop, line, charPositionInLine);
+        }
+        if (this.source == null) this.source = source;
+        if (size == types.length) grow();
+        types[size] = type;
+        starts[size] = start;
+        stops[size] = stop;
+        positions[size] = (long) line << 32 | (charPositionInLine & 0xFFFFFFFFL);
+        if (channel != Token.DEFAULT_CHANNEL) {
+            if (channels == null) channels = new byte[types.length];
+            channels[size] = (byte) channel;
+        }
+        if (text != null) texts.put(size, text);
+        return get(size++);
+    }
+
+    @Override
+    public Token create(int type, String text) {
+        return CommonTokenFactory.DEFAULT.create(type, text);
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, types.length * 2);
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        stops = Arrays.copyOf(stops, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        if (channels != null) channels = Arrays.copyOf(channels, capacity);
+    }
+
+    /**
+     * Drop the spare capacity, once the lexer is done
+     */
+    public void trim() {
+        types = Arrays.copyOf(types, size);
+        starts = Arrays.copyOf(starts, size);
+        stops = Arrays.copyOf(stops, size);
+        positions = Arrays.copyOf(positions, size);
+        if (channels != null) channels = Arrays.copyOf(channels, size);
+    }
+
+    /**
+     * @return view of the token at index, the same object as long as it is one of the latest asked for
+     */
+    public CompactToken get(int index) {
+        int slot = index & (RECENT_TOKENS - 1);
+        CompactToken token = recent[slot];
+        if (token == null || token.getTokenIndex() != index) {
+            token = new CompactToken(this, index);
+            recent[slot] = token;
+        }
+        return token;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getType(int index) {
+        return types[index];
+    }
+
+    public int getChannel(int index) {
+        return channels == null ? Token.DEFAULT_CHANNEL : channels[index];
+    }
+
+    public int getStartIndex(int index) {
+        return starts[index];
+    }
+
+    public int getStopIndex(int index) {
+        return stops[index];
+    }
+
+    public int getLine(int index) {
+        return (int) (positions[index] >>> 32);
+    }
+
+    public int getCharPositionInLine(int index) {
+        return (int) positions[index];
+    }
+
+    /**
+     * Same as CommonToken#getText, "&lt;EOF&gt;" past the end of the input
+     */
+    public String getText(int index) {
+        String text = texts.isEmpty() ? null : texts.get(index);
+        if (text != null) return text;
+        CharStream input = getInputStream();
+        if (input == null) return null;
+        int n = input.size();
+        if (starts[index] < n && stops[index] < n) return input.getText(Interval.of(starts[index], stops[index]));
+        return "<EOF>";
+    }
+
+    public TokenSource getTokenSource() {
+        return source == null ? null : source.a;
+    }
+
+    public CharStream getInputStream() {
+        return source == null ? null : source.b;
+    }
+}
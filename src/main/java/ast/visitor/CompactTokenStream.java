@@ -0,0 +1,191 @@
+package ast.visitor;
+
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.misc.Interval;
+
+/**
+ * Token stream upon a {@link CompactTokenFactory}, CommonTokenStream without a list of token objects
+ * <p>
+ * Installs the factory into the token source, the tokens of the stream are the factory's.
+ * Same behaviour as CommonTokenStream: tokens off the default channel are buffered but skipped by lookahead.
+ * </p>
+ */
+public class CompactTokenStream implements TokenStream {
+
+    private final TokenSource tokenSource;
+    private final CompactTokenFactory tokens = new CompactTokenFactory();
+    private int p = -1; // index of the current token, -1 until initialized
+    private boolean fetchedEOF;
+
+    public CompactTokenStream(TokenSource tokenSource) {
+        this.tokenSource = tokenSource;
+        tokenSource.setTokenFactory(tokens);
+    }
+
+    public CompactTokenFactory getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Fetch every token up to EOF
+     */
+    public void fill() {
+        lazyInit();
+        while (!fetchedEOF) fetch();
+    }
+
+    private void fetch() {
+        if (tokenSource.nextToken().getType() == Token.EOF) {
+            fetchedEOF = true;
+            tokens.trim();
+        }
+    }
+
+    /**
+     * Make sure index i is fetched
+     *
+     * @return false if the stream ends before it
+     */
+    private boolean sync(int i) {
+        while (i >= tokens.size() && !fetchedEOF) fetch();
+        return i < tokens.size();
+    }
+
+    private void lazyInit() {
+        if (p == -1) {
+            sync(0);
+            p = nextTokenOnChannel(0);
+        }
+    }
+
+    private int nextTokenOnChannel(int i) {
+        sync(i);
+        if (i >= tokens.size()) return tokens.size() - 1;
+        while (tokens.getChannel(i) != Token.DEFAULT_CHANNEL) {
+            if (tokens.getType(i) == Token.EOF) return i;
+            i++;
+            sync(i);
+        }
+        return i;
+    }
+
+    private int previousTokenOnChannel(int i) {
+        sync(i);
+        if (i >= tokens.size()) return tokens.size() - 1;
+        while (i >= 0) {
+            if (tokens.getType(i) == Token.EOF || tokens.getChannel(i) == Token.DEFAULT_CHANNEL) return i;
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * @return index of the k-th token of lookahead (backwards if negative), -1 if none
+     */
+    private int lookahead(int k) {
+        lazyInit();
+        if (k == 0) return -1;
+        int i = p;
+        if (k < 0) {
+            if (p + k < 0) return -1;
+            for (int n = 1; n <= -k && i > 0; n++) i = previousTokenOnChannel(i - 1);
+            return i;
+        }
+        for (int n = 1; n < k; n++) {
+            if (sync(i + 1)) i = nextTokenOnChannel(i + 1);
+        }
+        return i;
+    }
+
+    @Override
+    public Token LT(int k) {
+        int i = lookahead(k);
+        return i < 0 ? null : tokens.get(i);
+    }
+
+    @Override
+    public int LA(int k) {
+        int i = lookahead(k);
+        return i < 0 ? Token.INVALID_TYPE : tokens.getType(i);
+    }
+
+    @Override
+    public Token get(int i) {
+        if (i < 0 || i >= tokens.size()) {
+            throw new IndexOutOfBoundsException("token index " + i + " out of range 0.." + (tokens.size() - 1));
+        }
+        return tokens.get(i);
+    }
+
+    @Override
+    public void consume() {
+        if (LA(1) == Token.EOF) throw new IllegalStateException("cannot consume EOF");
+        if (sync(p + 1)) p = nextTokenOnChannel(p + 1);
+    }
+
+    @Override
+    public int mark() {
+        return 0;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return p;
+    }
+
+    @Override
+    public void seek(int index) {
+        lazyInit();
+        p = nextTokenOnChannel(index);
+    }
+
+    @Override
+    public int size() {
+        return tokens.size();
+    }
+
+    @Override
+    public TokenSource getTokenSource() {
+        return tokenSource;
+    }
+
+    @Override
+    public String getSourceName() {
+        return tokenSource.getSourceName();
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = interval.a;
+        int stop = interval.b;
+        if (start < 0 || stop < 0) return "";
+        fill();
+        if (stop >= tokens.size()) stop = tokens.size() - 1;
+        StringBuilder text = new StringBuilder();
+        for (int i = start; i <= stop; i++) {
+            if (tokens.getType(i) == Token.EOF) break;
+            text.append(tokens.getText(i));
+        }
+        return text.toString();
+    }
+
+    @Override
+    public String getText() {
+        return getText(Interval.of(0, size() - 1));
+    }
+
+    @Override
+    public String getText(RuleContext ctx) {
+        return getText(ctx.getSourceInterval());
+    }
+
+    @Override
+    public String getText(Token start, Token stop) {
+        if (start == null || stop == null) return "";
+        return getText(Interval.of(start.getTokenIndex(), stop.getTokenIndex()));
+    }
+}
@@ -0,0 +1,22 @@
+package ast.visitor;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+public class PascalCustomParser extends PascalParser {
+
+    public PascalCustomParser(TokenStream input) {
+        super(input);
+    }
+
+    /**
+     * A compact token is its own terminal node, unless a tree holds it already
+     */
+    @Override
+    public TerminalNode createTerminalNode(ParserRuleContext parent, Token t) {
+        if (t instanceof CompactToken && ((CompactToken) t).getParent() == null) return (CompactToken) t;
+        return super.createTerminalNode(parent, t);
+    }
+}
@@ -2,10 +2,11 @@ package ast.visitor.impl;
 
 import ast.visitor.PascalBaseVisitor;
 import ast.visitor.PascalParser;
-import org.antlr.v4.runtime.CommonTokenStream;
+import driver.CompilationContext;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.TokenStream;
 import org.antlr.v4.runtime.misc.Interval;
 import org.antlr.v4.runtime.tree.ParseTree;
 import org.antlr.v4.runtime.tree.TerminalNode;
@@ -50,26 +51,53 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
     // Contextual errors
     private int errorCount = 0;
 
-    private CommonTokenStream tokens;
+    private TokenStream tokens;
 
     /**
      * Table & Table Manager fields
      */
     private Table<Object, TypeDescriptor> symbolTable;
     private Table<Object, TypeDescriptor> typeTable;
-    private TableManager<Object, TypeDescriptor> tableManager = TableManager.getInstance(); // quick reference
+    private TableManager<Object, TypeDescriptor> tableManager; // quick reference
+    private final CompilationContext context;
 
+    // canonical subrange, array & record types of the compilation
+    private final TypeInterner typeInterner = new TypeInterner();
 
     // Max Builtin Integer Type (default - Integer32)
     static final IntegerBaseType defaultIntegerType = new Integer32();
     private int indexCount = 0;
 
     // Constructor
-    public PascalCheckerVisitor(CommonTokenStream toks) {
+    public PascalCheckerVisitor(CompilationContext context) {
+        this.context = context;
+        tableManager = context.getTableManager();
         tableManager.resetContainer();
-        tokens = toks;
-        symbolTable = new SymbolTable<>();
-        typeTable = new TypeTable<>();
+        tokens = context.getTokens();
+        symbolTable = new SymbolTable<>(tableManager);
+        typeTable = new TypeTable<>(tableManager);
+    }
+
+    /**
+     * Every explicit visit goes through here, the type of an expression node is recorded for the encoder
+     * (see CompilationContext#getExpressionTypes)
+     *
+     * @param tree
+     * @return
+     */
+    @Override
+    public TypeDescriptor visit(ParseTree tree) {
+        TypeDescriptor type = tree.accept(this);
+        if (type != null && (tree instanceof PascalParser.ExpressionContext
+                || tree instanceof PascalParser.SimpleExpressionContext
+                || tree instanceof PascalParser.TermContext)) {
+            context.getExpressionTypes().put(tree, type);
+        }
+        return type;
+    }
+
+    public PascalCheckerVisitor(TokenStream toks) {
+        this(new CompilationContext(toks));
     }
 
     private void reportError(ParserRuleContext ctx, String message) {
@@ -132,7 +160,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
     private void predefine() {
         // Add predefined procedures to the type table.
         //BuiltInUtils.fillTable(symbolTable);
-        symbolTable.put("maxint", DefaultIntegerType.of((long) Integer.MAX_VALUE, true));
+        // shared prelude: maxint & the runtime procedures/functions
         RuntimeLibManager.fillTable(symbolTable);
     }
 
@@ -144,15 +172,12 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
         // Add id with its type to the selectedTable
         // Checking whether id is already declared in the same scope.
         // IGNORE CASE
-        boolean isDuplicatedInOtherTable = false;
-        Map<Class<? extends ParserRuleContext>, Table<Object, TypeDescriptor>> otherTables = tableManager.selectAllTablesExcludedToClass(ctx.getClass());
-        for (Table<Object, TypeDescriptor> eachTable : otherTables.values()) {
-            if (eachTable.containsKey(id.toLowerCase())) isDuplicatedInOtherTable = true;
-        }
+        String key = id.toLowerCase(); // folded once, for every table
+        boolean isDuplicatedInOtherTable = tableManager.isDefinedInOtherTables(key, ctx.getClass());
 
         boolean putSuccessfully = false;
         if (!isDuplicatedInOtherTable && selectedTable != null)
-            putSuccessfully = selectedTable.put(id.toLowerCase(), type);
+            putSuccessfully = selectedTable.put(key, type);
 
         if (isDuplicatedInOtherTable || !putSuccessfully)
             reportError(ctx, id + " is redeclared");
@@ -160,17 +185,10 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
     private TypeDescriptor retrieve(String id, boolean notSuppressError,
                                     ParserRuleContext ctx) {
-        Table<Object, TypeDescriptor> selectedTable = tableManager.selectTable(ctx.getClass());
-        // Retrieve id's type from all the defined table.
+        // Retrieve id's type from all the defined table, the one of the usage context first.
         // Case insensitive
-        TypeDescriptor type = selectedTable.get(id.toLowerCase());
-
+        TypeDescriptor type = tableManager.resolve(id.toLowerCase(), ctx.getClass());
         if (type == null) {
-            Map<Class<? extends ParserRuleContext>, Table<Object, TypeDescriptor>> tablesExcludedToClass = tableManager.selectAllTablesExcludedToClass(ctx.getClass());
-            for (Table<Object, TypeDescriptor> eachTable : tablesExcludedToClass.values()) {
-                type = eachTable.get(id.toLowerCase());
-                if (type != null) return type;
-            }
             if (notSuppressError) reportError(ctx, "Identifier %s is undeclared", id);
             return ErrorType.UNDEFINED_TYPE;
         }
@@ -208,11 +226,25 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
      */
     @Override
     public TypeDescriptor visitProgram(PascalParser.ProgramContext ctx) {
+        beginProgram();
+        visit(ctx.block());
+        endProgram();
+        return null;
+    }
+
+    /**
+     * Set up before the first part of the program block, visitProgram or part by part (streaming compilation)
+     */
+    public void beginProgram() {
         predefine();
         prototypeImplTrackingMap = new LinkedHashMap<>();
         pointedTypeTrackingMap = new LinkedHashMap<>();
-        visit(ctx.block());
+    }
 
+    /**
+     * Checks left once the whole program block has been visited
+     */
+    public void endProgram() {
         // missing implementation, report errors
         if (!prototypeImplTrackingMap.isEmpty()) {
             prototypeImplTrackingMap.forEach((k, v) -> {
@@ -222,7 +254,6 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                         prototypeDecl);
             });
         }
-        return null;
     }
 
     /**
@@ -339,6 +370,8 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             String id = identifierContext.IDENT().getText();
             TypeDescriptor type = visit(ctx.type_());
             define(id, type, ctx);
+            // arrays laid out by the encoder from their index types, subranges stored as their host type
+            if (type instanceof ArrayType || type instanceof Subrange) context.getExpressionTypes().put(ctx, type);
         }
         //symbolTable.displayCurrentScope();
         tableManager.displayAllTablesCurrentScope();
@@ -380,8 +413,16 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
         // suppress errors if constant type is ErrorType
         if (!(type instanceof ErrorType)) {
             BaseType constantType = (BaseType) type;
-            constantType.setConstant(true);
+            // a shared type carries no value, e.g. defined from a variable (except the predefined maxint)
+            if (constantType.isCanonical() && !constantType.isConstant()) {
+                reportError(ctx, "Illegal constant definition [%s], [%s] is not a constant value",
+                        ctx.getText(), ctx.constant().getText());
+            } else {
+                constantType.setConstant(true);
+            }
             define(id, constantType, ctx);
+            // value propagated into the use sites by the encoder
+            context.getExpressionTypes().put(ctx, constantType);
         }
         return null;
     }
@@ -477,7 +518,21 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             }
             return new Integer32(numberValue);
         }
-        return unsignedNumber;
+        return negate(unsignedNumber, monadicOperator);
+    }
+
+    /**
+     * Value of a signed real constant (or of a signed constant identifier)
+     */
+    private static TypeDescriptor negate(TypeDescriptor type, String monadicOperator) {
+        if (!monadicOperator.equals("-")) return type;
+        if (type instanceof IntegerBaseType && ((IntegerBaseType) type).getValue() != null) {
+            return new Integer32(-((IntegerBaseType) type).getValue());
+        }
+        if (type instanceof FloatBaseType && ((FloatBaseType) type).getValue() != null) {
+            return new Real(-((FloatBaseType) type).getValue());
+        }
+        return type;
     }
 
     @Override
@@ -487,7 +542,10 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
     @Override
     public TypeDescriptor visitConstantSignedIdentifier(PascalParser.ConstantSignedIdentifierContext ctx) {
-        return super.visitConstantSignedIdentifier(ctx);
+        TypeDescriptor type = visit(ctx.identifier());
+        // only the value of a constant is negated, anything else is reported by the definition
+        if (!(type instanceof BaseType) || !((BaseType) type).isConstant()) return type;
+        return negate(type, ctx.sign().getText());
     }
 
     @Override
@@ -514,9 +572,9 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             case PascalParser.STRING:
                 return new StringLiteral();
             case PascalParser.CHAR:
-                return new Character();
+                return TypeInterner.CHARACTER;
             case PascalParser.BOOLEAN:
-                return new Boolean();
+                return TypeInterner.BOOLEAN;
             case PascalParser.REAL:
                 return DefaultFloatType.instance;
         }
@@ -589,7 +647,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
         }
 
         Subrange subrange = new Subrange(lowerBound, upperBound);
-        return subrange;
+        return null != subrangeError ? subrange : typeInterner.intern(subrange);
     }
 
     private ErrorType checkSubrangeDecl(TypeDescriptor lowerBound, TypeDescriptor upperBound, PascalParser.SubrangeTypeContext ctx) {
@@ -645,7 +703,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 ((StructuredBaseType) structuredType).setPacked(true);
             }
         }
-        return structuredType;
+        return typeInterner.intern(structuredType);
     }
 
     /**
@@ -1435,6 +1493,8 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
     @Override
     public TypeDescriptor visitReadProcedureStatement(PascalParser.ReadProcedureStatementContext ctx) {
+        // non-args readln, skips a line
+        if (ctx.readParameters() == null) return null;
         visit(ctx.readParameters());
         return null;
     }
@@ -1563,7 +1623,9 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             Set<List<Class<? extends TypeDescriptor>>> formalParamsMap = ((RuntimeFunction) _signature).getFormalParamsMap();
             TypeDescriptor resultType = ((RuntimeFunction) _signature).getResultType();
             // only check if runtime proc/func has signatures defined
-            if (formalParamsMap != null && !formalParamsMap.contains(_acutalParams)) {
+            if (formalParamsMap == null || formalParamsMap.contains(_acutalParams)) {
+                resultType = ((RuntimeFunction) _signature).getResultType(_acutalParams);
+            } else {
                 StringBuilder sb = new StringBuilder(String.format("Actual parameter cannot match the formal parameter of the runtime function [%s].\nGiven actual parameters:\n%s.\nAvailable signatures:", id, _acutalParams));
                 formalParamsMap.forEach(each -> {
                     sb.append(String.format("\n%s", each));
@@ -1828,8 +1890,9 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
         // determine after examine all the fielding/indexing operations
         // whether to return the address () of the variable
 
-        // remove the variableHead node, the remaining nodes should be processed circularly
-        if (!children.isEmpty()) children.remove(0);
+        // skip the variableHead node, the remaining nodes should be processed circularly
+        // (the tree itself is left as is, the encoder walks it again)
+        if (!children.isEmpty()) children = children.subList(1, children.size());
 
         // if any errors, report in this node and throw errorType to upper node, suppressing the errors
         for (ParseTree eachChild : children) {
@@ -1947,8 +2010,8 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                         }
                     }
 
-                    reportError(ctx, "Illegal operation [%s%s] with invalid array scripting [%s].\nExpected: %s.\nActual: %s",
-                            structuredTypeId, ctx.parent.getText(), ctx.getText(), declaredType, expressionType);
+                    reportError(ctx, "Illegal operation [%s] with invalid array scripting [%s].\nExpected: %s.\nActual: %s",
+                            ctx.parent.getText(), ctx.getText(), declaredType, expressionType);
                     //return ErrorType.INVALID_ARRAY_SCRIPTING;
                     return structuredTypeToBeCheckNext;
                 }
@@ -1999,8 +2062,8 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
         Map<String, TypeDescriptor> fieldsMap = null;
         TypeDescriptor recordFieldDesignatorValid = isRecordFieldDesignatorValid(structuredTypeToBeCheckNext, fieldName);
         if (recordFieldDesignatorValid instanceof ErrorType) {
-            reportError(ctx, "Illegal operation [%s%s] with invalid record field [%s].",
-                    structuredTypeId, ctx.parent.getText(), ctx.getText()
+            reportError(ctx, "Illegal operation [%s] with invalid record field [%s].",
+                    ctx.parent.getText(), ctx.getText()
             );
         }
         return recordFieldDesignatorValid;
@@ -2572,7 +2635,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             if (!lType.equiv(rType)) {
                 if (lType instanceof FloatBaseType || rType instanceof FloatBaseType) {
                     //if (lType.equiv(Type.INTEGER) || rType.equiv(Type.INTEGER)) return Type.BOOLEAN;
-                    if (lType instanceof IntegerBaseType || rType instanceof IntegerBaseType) return new Boolean();
+                    if (lType instanceof IntegerBaseType || rType instanceof IntegerBaseType) return TypeInterner.BOOLEAN;
                 }
                 if (lType instanceof Character || rType instanceof Character) {
                     //if (lType.equiv(Type.STRING_LITERAL) || rType.equiv(Type.STRING_LITERAL)) return Type.BOOLEAN;
@@ -2581,19 +2644,19 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 // FIXME: nested type classes, might be refactored
                 if (lType instanceof Subrange) {
                     Class<? extends TypeDescriptor> hostType = ((Subrange) lType).getHostType();
-                    if (hostType == rType.getClass()) return new Boolean();
+                    if (hostType == rType.getClass()) return TypeInterner.BOOLEAN;
                 }
                 if (rType instanceof Subrange) {
                     Class<? extends TypeDescriptor> hostType = ((Subrange) rType).getHostType();
-                    if (hostType == lType.getClass()) return new Boolean();
+                    if (hostType == lType.getClass()) return TypeInterner.BOOLEAN;
                 }
                 if (lType instanceof Param) {
                     TypeDescriptor type = ((Param) lType).getHostType();
-                    if (type.equiv(rType)) return new Boolean();
+                    if (type.equiv(rType)) return TypeInterner.BOOLEAN;
                 }
                 if (rType instanceof Param) {
                     TypeDescriptor type = ((Param) rType).getHostType();
-                    if (type.equiv(lType)) return new Boolean();
+                    if (type.equiv(lType)) return TypeInterner.BOOLEAN;
                 }
 
                 reportError(ctx, "Expression [%s] types are incompatible.\nLtype: %s,\nRtype: %s",
@@ -2603,7 +2666,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
         }
         // if looping statement, return bool otherwise return type of simpleExpression()
-        return rType != null ? new Boolean() : lType;
+        return rType != null ? TypeInterner.BOOLEAN : lType;
     }
 
     /**
@@ -2804,10 +2867,10 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                         reportError(ctx, "All the operands of integer division must be Integer.\nLtype: %s\nRtype: %s",
                                 lType, rType);
                     }
-                    return new Integer32();
+                    return TypeInterner.INTEGER;
                 case "/":
                     //if (_lType instanceof FloatBaseType || _rType instanceof FloatBaseType) {
-                    return new Real();
+                    return TypeInterner.REAL;
                 //}
                 // real division, operands could be int/real
                 //return DefaultFloatType.instance;
@@ -2819,12 +2882,12 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
                                 lType, rType);
                     }
                     //return IntegerBaseType.copy(defaultIntegerType);
-                    return new Integer32();
+                    return TypeInterner.INTEGER;
                 default:
                     // other multiplicative operators: * return specific type
                     if (_lType instanceof FloatBaseType || _rType instanceof FloatBaseType)
-                        return new Real();
-                    else return new Integer32();
+                        return TypeInterner.REAL;
+                    else return TypeInterner.INTEGER;
             }
         }
         return lType;
@@ -2847,7 +2910,7 @@ public class PascalCheckerVisitor extends PascalBaseVisitor<TypeDescriptor> {
             return ErrorType.INVALID_TYPE;
         }
         //return Type.BOOLEAN;
-        return new Boolean();
+        return TypeInterner.BOOLEAN;
     }
 
     /**
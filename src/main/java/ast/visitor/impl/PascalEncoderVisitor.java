@@ -2,43 +2,44 @@ package ast.visitor.impl;
 
 import ast.visitor.PascalBaseVisitor;
 import ast.visitor.PascalParser;
-import driver.PascalCompilerDriver;
-import driver.PascalCompilerDriverBuilder;
+import driver.CompilationContext;
+import driver.CompilationTimings;
 import instruction.*;
-import org.antlr.v4.runtime.CommonTokenStream;
+import ir.ArrayLayout;
+import ir.Interval;
+import ir.IrBlock;
+import ir.IrBytecodeEmitter;
+import ir.IrConstantFolder;
+import ir.IrDeadCodeEliminator;
+import ir.IrDeadStoreEliminator;
+import ir.IrPass;
+import ir.IrRangeCheckEliminator;
 import org.antlr.v4.runtime.ParserRuleContext;
-import org.antlr.v4.runtime.tree.ParseTree;
-import org.antlr.v4.runtime.tree.xpath.XPath;
+import org.antlr.v4.runtime.TokenStream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.objectweb.asm.*;
 import tableUtils.SymbolTable;
 import tableUtils.*;
-import type.BaseType;
 import type.StringLiteral;
+import type.Subrange;
+import type.TypeInterner;
 import type.TypeDescriptor;
 import type.error.ErrorType;
-import type.nestedType.param.FormalParam;
-import type.primitive.Boolean;
-import type.primitive.Character;
+import type.enumerated.EnumeratedType;
 import type.primitive.Primitive;
 import type.primitive.floating.DefaultFloatType;
 import type.primitive.floating.FloatBaseType;
-import type.primitive.floating.Real;
 import type.primitive.integer.DefaultIntegerType;
-import type.primitive.integer.Integer32;
-import type.primitive.integer.IntegerBaseType;
 import type.procOrFunc.Function;
 import type.procOrFunc.ProcFuncBaseType;
 import type.procOrFunc.Procedure;
+import type.structured.ArrayType;
+import utils.log.GlobalLogger;
 
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintStream;
-import java.lang.invoke.CallSite;
-import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
-import java.lang.invoke.StringConcatFactory;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.file.Path;
@@ -48,8 +49,8 @@ import java.util.*;
 public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
     // automatically compute the frames, max stack and locals
-    public static ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
-    public static FieldVisitor fieldVisitor;
+    private final ClassWriter classWriter = new ClassWriter(ClassWriter.COMPUTE_FRAMES);
+    private FieldVisitor fieldVisitor;
 
     /**
      * (General) Execution chains of creating a new method:
@@ -58,52 +59,93 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
      * ! visitMaxs()
      * ! visitEnd()
      */
-    public static MethodVisitor methodVisitor; // main method visitor (default)
-    public static AnnotationVisitor annotationVisitor;
-    public static String className;
-    public static Class<?> classOwner;
-    private static String baseDir = "";
-    private static String outputPath = "";
-    private static String filename;
-    private static String command;
+    private MethodVisitor methodVisitor; // method visitor of the method currently generated
+    private String className;
+    private String filename;
 
-    private CommonTokenStream tokens;
+    private TokenStream tokens;
+    private PascalParser parser;
+    private CompilationContext context;
+    private byte[] byteCode; // assembled once, on first request
+
+    /**
+     * Sequence of compiler generated local variables (function results, scanners),
+     * names must stay deterministic so that the same source always yields the same bytecode
+     */
+    private int generatedLocalCount = 0;
+
+    /**
+     * Passes run on the IR of every body before it is emitted, in order
+     */
+    private final IrDeadCodeEliminator deadCodeEliminator = new IrDeadCodeEliminator();
+    private final IrDeadStoreEliminator deadStoreEliminator = new IrDeadStoreEliminator();
+    private final IrRangeCheckEliminator rangeCheckEliminator = new IrRangeCheckEliminator();
+    private final List<IrPass> irPasses = List.of(rangeCheckEliminator, new IrConstantFolder(), deadCodeEliminator,
+            deadStoreEliminator);
+    private final UnusedMethodRemover unusedMethodRemover = new UnusedMethodRemover();
+
+    /**
+     * Arrays of the program block (static fields), in declaration order
+     */
+    private final Map<String, ArrayLayout> globalArrays = new LinkedHashMap<>();
+
+    /**
+     * Subrange variables of the program block (static fields), set to their lower bound at the start of main
+     */
+    private final Map<String, Subrange> globalSubranges = new LinkedHashMap<>();
 
 
     /**
      * Tables
      */
     // store local variables declared(static fields) or intermediate calculation variable
-    private TableManager<Object, TypeDescriptor> tableManager = TableManager.getInstance(); // quick reference
-    private Table<Object, LocalVariableInformation> localVariableTable;
+    private TableManager<Object, TypeDescriptor> tableManager; // quick reference
+    private LocalsTable<Object, LocalVariableInformation> localVariableTable;
     private Table<Object, TypeDescriptor> symbolTable;
     private Table<Object, TypeDescriptor> typeTable;
 
-    public PascalEncoderVisitor(CommonTokenStream tokens) {
-        this.tokens = tokens;
-    }
-
-    public PascalEncoderVisitor(String outputPath, CommonTokenStream tokens, String command) {
-        this(outputPath, null, tokens, command);
-    }
-
-    public PascalEncoderVisitor(String outputPath, String filename, CommonTokenStream tokens, String command) {
-        this(tokens);
-        this.outputPath = outputPath;
-        this.filename = filename;
-        this.command = command;
+    /**
+     * Encoder of a checked program, tables populated by the checker are taken over from the compilation context
+     *
+     * @param context - compilation context
+     */
+    public PascalEncoderVisitor(CompilationContext context) {
+        this.context = context;
+        this.tokens = context.getTokens();
+        this.parser = context.getParser();
+        this.filename = context.getSourceName();
+        this.tableManager = context.getTableManager();
 
         symbolTable = tableManager.selectTable(SymbolTable.context);
         typeTable = tableManager.selectTable(TypeTable.context);
-        localVariableTable = new LocalsTable<>();
+        localVariableTable = new LocalsTable<>(tableManager);
     }
 
-    public static MethodVisitor getMethodVisitor() {
+    public MethodVisitor getMethodVisitor() {
         return methodVisitor;
     }
 
-    public static byte[] generateByteCode() {
-        return classWriter.toByteArray();
+    /**
+     * Assemble the class file (frames & max stack computed by ASM here) without the unused subprograms,
+     * only the first call pays for it
+     */
+    public byte[] getByteCode() {
+        if (byteCode == null) {
+            try (CompilationTimings.Span span = context.getTimings().begin(CompilationTimings.Phase.ASSEMBLE)) {
+                byteCode = unusedMethodRemover.apply(classWriter.toByteArray());
+                span.setCount(byteCode.length);
+            }
+            GlobalLogger.info("Dead code removed: {} unreachable statement(s), {} dead store(s), " +
+                            "{} unused procedure(s)/function(s)", deadCodeEliminator::getRemovedCount,
+                    deadStoreEliminator::getRemovedCount, unusedMethodRemover::getRemovedCount);
+            GlobalLogger.info("Range checks: {} eliminated, {} hoisted out of loops",
+                    rangeCheckEliminator::getEliminatedCount, rangeCheckEliminator::getHoistedCount);
+        }
+        return byteCode;
+    }
+
+    public String getClassName() {
+        return className;
     }
 
     /**
@@ -126,34 +168,35 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         // Checking whether id is already declared in the same scope.
         // IGNORE CASE
         // Skip LocalVariableTable (Class - LocalsTable)
-        boolean isDuplicatedInOtherTable = false;
-        Map<Class<? extends ParserRuleContext>, Table<Object, TypeDescriptor>> otherTables = tableManager
-                .selectAllTablesExcludedToClass(
-                        ctx.getClass()
-                );
-        for (Table<Object, TypeDescriptor> eachTable : otherTables.values()) {
-            if (eachTable instanceof LocalsTable) continue;
-            if (eachTable.containsKey(id.toLowerCase())) isDuplicatedInOtherTable = true;
-        }
+        String key = id.toLowerCase(); // folded once, for every table
+        boolean isDuplicatedInOtherTable = tableManager.isDefinedInOtherTables(key, ctx.getClass());
 
         boolean putSuccessfully = false;
-        if (!isDuplicatedInOtherTable) putSuccessfully = selectedTable.put(id.toLowerCase(), type);
+        if (!isDuplicatedInOtherTable) putSuccessfully = selectedTable.put(key, type);
+    }
+
+    /**
+     * Subprogram nested in another one, defined in the scope of the enclosing subprogram for its calls
+     * (the checker is done with that scope), the ones of the program block are already defined
+     */
+    private void defineNested(String id, ProcFuncBaseType subprogram, ParserRuleContext ctx) {
+        if (!(retrieve(id, ctx) instanceof ProcFuncBaseType)) define(id, subprogram, ctx);
+    }
+
+    /**
+     * Only value parameters are passed, variable & procedural/functional parameters have no code generated
+     */
+    private static UnsupportedOperationException unsupportedParameter(PascalParser.FormalParameterSectionContext ctx) {
+        return new UnsupportedOperationException(String.format("%d:%d Parameter [%s] not supported by the encoder",
+                ctx.start.getLine(), ctx.start.getCharPositionInLine(), ctx.getText()));
     }
 
     private TypeDescriptor retrieve(String id, boolean notSuppressError,
                                     ParserRuleContext ctx) {
-        Table<Object, TypeDescriptor> selectedTable = tableManager.selectTable(ctx.getClass());
-
-        // Retrieve id's type from all the defined table.
+        // Retrieve id's type from all the defined table, the one of the usage context first.
         // Case insensitive
-        TypeDescriptor type = selectedTable.get(id.toLowerCase());
-
+        TypeDescriptor type = tableManager.resolve(id.toLowerCase(), ctx.getClass());
         if (type == null) {
-            Map<Class<? extends ParserRuleContext>, Table<Object, TypeDescriptor>> tablesExcludedToClass = tableManager.selectAllTablesExcludedToClass(ctx.getClass());
-            for (Table<Object, TypeDescriptor> eachTable : tablesExcludedToClass.values()) {
-                type = eachTable.get(id.toLowerCase());
-                if (type != null) return type;
-            }
             return ErrorType.UNDEFINED_TYPE;
         }
         return type;
@@ -164,8 +207,38 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         return retrieve(id, true, occ);
     }
 
-    public static void run() throws NoSuchMethodException, IllegalAccessException, IOException {
-        byte[] bytes = generateByteCode();
+    /**
+     * Statements of a program/procedure/function body go through the IR: built from the checked tree,
+     * transformed by the passes (in order), then emitted into the current method
+     *
+     * @param ctx - compound statement of the body
+     */
+    private void encodeBody(PascalParser.CompoundStatementContext ctx) {
+        IrBlock body = new PascalIrBuilderVisitor(context, localVariableTable, resultVar).build(ctx);
+        for (IrPass each : irPasses) body = each.apply(body);
+        new IrBytecodeEmitter(methodVisitor, className, localVariableTable.length(), context.isBufferedOutput())
+                .emit(body);
+    }
+
+    public void run() throws NoSuchMethodException, IllegalAccessException, IOException {
+        emit(getByteCode(), className, context);
+    }
+
+    /**
+     * Write the class file (into the output path if any), then execute it if the command is "run"
+     * <p>
+     * Also used to replay cached compilations, which never went through the encoder.
+     * </p>
+     *
+     * @param bytes     - class file content
+     * @param className - name of the generated class
+     * @param context   - compilation context (output path, command & timings)
+     */
+    public static void emit(byte[] bytes, String className, CompilationContext context)
+            throws NoSuchMethodException, IllegalAccessException, IOException {
+        String outputPath = context.getOutputPath();
+        String command = context.getCommand().getCommandName();
+        CompilationTimings timings = context.getTimings();
         // generate bytecode file
         String outputfile = null;
         //if (filename != null) {
@@ -178,17 +251,22 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
             path = Paths.get(outputPath, outputfile);
         } else if (outputfile!=null) path = Paths.get(outputfile);
 
-        FileOutputStream fos = new FileOutputStream(path.toString());
-        fos.write(bytes);
-        fos.close();
+        try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.WRITE)) {
+            FileOutputStream fos = new FileOutputStream(path.toString());
+            fos.write(bytes);
+            fos.close();
+        }
 
         if (command.equals("run")) {
-            MyClassLoader cl = new MyClassLoader();
-            Class<?> clazz = cl.defineClass(className, bytes);
-            // get main mreethod
-            Method main = clazz.getMethod("main", String[].class);
+            Method main;
+            try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.DEFINE)) {
+                MyClassLoader cl = new MyClassLoader();
+                Class<?> clazz = cl.defineClass(className, bytes);
+                // get main mreethod
+                main = clazz.getMethod("main", String[].class);
+            }
             // call main method
-            try {
+            try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.RUN)) {
                 main.invoke(null, new Object[]{new String[]{}});
             } catch (InvocationTargetException e) {
                 e.printStackTrace();
@@ -209,6 +287,16 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
     @Override
     public TypeDescriptor visitProgram(PascalParser.ProgramContext ctx) {
+        beginProgram(ctx);
+        visit(ctx.block());
+        endProgram();
+        return null;
+    }
+
+    /**
+     * Start the class, before the first part of the program block (visitProgram or streaming compilation)
+     */
+    public void beginProgram(PascalParser.ProgramContext ctx) {
         addStandardConstructor();
         prototypeImplTrackingMap = new LinkedHashMap<>();
 
@@ -216,9 +304,10 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
 
         visit(ctx.programHeading());
-        visit(ctx.block());
+    }
+
+    public void endProgram() {
         classWriter.visitEnd();
-        return null;
     }
 
     @Override
@@ -249,10 +338,6 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         return null;
     }
 
-    private void updateDefaultMethodVisitor(MethodVisitor mv) {
-        AbstractHelper.setDefaultMethodVisitor(mv);
-    }
-
     @Override
     public TypeDescriptor visitCompoundStatement(PascalParser.CompoundStatementContext ctx) {
         if (ctx.parent.parent instanceof PascalParser.ProgramContext) {
@@ -260,182 +345,59 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
             methodVisitor = classWriter.visitMethod(Opcodes.ACC_PUBLIC + Opcodes.ACC_STATIC, "main",
                     "([Ljava/lang/String;)V", null, null);
 
-            updateDefaultMethodVisitor(methodVisitor);
-
             methodVisitor.visitCode();
 
-            visit(ctx.statements());
+            // read/readln share the input of the program
+            classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, IrBytecodeEmitter.INPUT_FIELD,
+                    IrBytecodeEmitter.INPUT_DESCRIPTOR, null, null).visitEnd();
+            IrBytecodeEmitter.openInput(methodVisitor, className);
+            globalArrays.forEach((id, layout) -> {
+                IrBytecodeEmitter.newArray(methodVisitor, layout);
+                methodVisitor.visitFieldInsn(Opcodes.PUTSTATIC, className, id, layout.getType().getDescriptor());
+            });
+            globalSubranges.forEach((id, subrange) -> {
+                IrBytecodeEmitter.pushInt(methodVisitor, (int) Interval.of(subrange).getLow());
+                methodVisitor.visitFieldInsn(Opcodes.PUTSTATIC, className, id, subrange.getDescriptor());
+            });
+
+            if (!context.isBufferedOutput()) {
+                encodeBody(ctx);
+            } else {
+                // the output is flushed at the end, even if the program fails
+                Label start = makeLabel();
+                Label end = makeLabel();
+                Label failure = makeLabel();
+                methodVisitor.visitTryCatchBlock(start, end, failure, null);
+                classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC, IrBytecodeEmitter.OUTPUT_FIELD,
+                        IrBytecodeEmitter.OUTPUT_DESCRIPTOR, null, null).visitEnd();
+                IrBytecodeEmitter.openOutput(methodVisitor, className);
+                setLabel(methodVisitor, start);
+                encodeBody(ctx);
+                Label body = makeLabel();
+                setLabel(methodVisitor, body);
+                // an empty range of the handler is illegal (empty body, or nothing left of it)
+                if (body.getOffset() == start.getOffset()) methodVisitor.visitInsn(Opcodes.NOP);
+                setLabel(methodVisitor, end);
+                IrBytecodeEmitter.flushOutput(methodVisitor, className);
+                Label exit = makeLabel();
+                methodVisitor.visitJumpInsn(Opcodes.GOTO, exit);
+                setLabel(methodVisitor, failure);
+                IrBytecodeEmitter.flushOutput(methodVisitor, className);
+                methodVisitor.visitInsn(Opcodes.ATHROW);
+                setLabel(methodVisitor, exit);
+            }
 
             // return
-            InstructionHelper.returnFromMethod(null);
+            InstructionHelper.returnFromMethod(methodVisitor, null);
             //methodVisitor.visitInsn(Opcodes.RETURN);
             // set stack size & locals
             methodVisitor.visitMaxs(2, 2);
             // method end
             methodVisitor.visitEnd();
 
-            //updateDefaultMethodVisitor(null);
-
             return null;
         }
-        return visit(ctx.statements());
-    }
-
-    @Override
-    public TypeDescriptor visitConditionalStatement(PascalParser.ConditionalStatementContext ctx) {
-        visit(ctx.ifStatement());
-        // end if
-        setLabel(entireEndIf);
-        return null;
-    }
-
-    //Label elseBlock;
-    //Label endIf;
-    Label entireEndIf = makeLabel();
-
-    /**
-     * ifStatement
-     * : IF expression THEN statement (: ELSE statement)?
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitIfStatement(PascalParser.IfStatementContext ctx) {
-        visit(ctx.expression());
-        //// 1. generate code to evaluate if expression
-        //TypeDescriptor ifExpressionType = visit(ctx.expression());
-        //// 2. store into temp local var
-        //String tempBoolVar = "__bool" + new Random().nextInt(999);
-        //putLocals(tempBoolVar, 1);
-        //LoadStoreHelper.storePrimitive(ifExpressionType, getVariableSlotNum(tempBoolVar));
-        //
-        //// 3. generate bytecode of if true - else structure
-        //// prepare labels
-        //Label elseBlock = makeLabel();
-        //Label endIf = makeLabel();
-        //// 3.1 load temp local var onto stack
-        //LoadStoreHelper.loadIntOrFloatLocal(ifExpressionType, getVariableSlotNum(tempBoolVar));
-        //// jump if temp bool var == 0 (means if expression is false)
-        //JumpInstructionHelper.jumpInstruction(Opcodes.IFEQ,
-        //        elseBlock);
-        //// if T
-        //visit(ctx.statement(0));
-        //// jump to endif
-        //JumpInstructionHelper.gotoLabel(entireEndIf);
-        //
-        //// else block
-        //setLabel(elseBlock);
-        //if (ctx.statement().size() > 1) {
-        //    // check whether is "else if" block
-        //    //Collection<ParseTree> compoundStatementMatch = XPath.findAll(ctx.statement(1), "//compoundStatement", PascalCompilerDriverBuilder.parser);
-        //    Collection<ParseTree> ifStatementMatch = XPath.findAll(ctx.statement(1), "//ifStatement", PascalCompilerDriverBuilder.parser);
-        //    ifStatementMatch.forEach(each->{
-        //        if (each instanceof PascalParser.IfStatementContext) {
-        //            System.out.println("((PascalParser.IfStatementContext) each).parent.parent.parent.parent.getClass() = " + ((PascalParser.IfStatementContext) each).parent.parent.parent.parent.parent.getClass());
-        //        }
-        //        System.out.println("if each.getText() = " + each.getText());
-        //    });
-        //
-        //    visit(ctx.statement(1));
-        //}
-
-
-        return null;
-    }
-
-
-    Label repeatBlockStart = null;
-
-    /**
-     * repeatStatement
-     * : REPEAT statements UNTIL expression
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitRepeatStatement(PascalParser.RepeatStatementContext ctx) {
-        repeatBlockStart = makeLabel();
-        setLabel(repeatBlockStart);
-
-        visit(ctx.statements());
-        visit(ctx.expression());
-        return null;
-    }
-
-    Label whileExprStart = null;
-
-    @Override
-    public TypeDescriptor visitWhileStatement(PascalParser.WhileStatementContext ctx) {
-        whileExprStart = makeLabel();
-        setLabel(whileExprStart);
-        visit(ctx.expression());
-        return null;
-    }
-
-
-    /**
-     * forStatement
-     * : FOR identifier ASSIGN forList DO statement
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitForStatement(PascalParser.ForStatementContext ctx) {
-        Label forExprStart = makeLabel();
-        Label endFor = makeLabel();
-        //
-        //// initialised for counter
-        String counterId = ctx.identifier().getText().toLowerCase();
-        TypeDescriptor hostType = visit(ctx.identifier());
-        TypeDescriptor initValueType = visit(ctx.forList().initialValue());
-        if (isStaticField(counterId)) {
-            InstructionHelper.putStatic(className, counterId, hostType);
-        } else {
-            int variableSlotNum = getVariableSlotNum(counterId);
-            LoadStoreHelper.storePrimitive(hostType,variableSlotNum);
-        }
-
-        setLabel(forExprStart);
-        // push final value operand
-        if (isStaticField(counterId)) {
-            InstructionHelper.getStatic(className, counterId, hostType);
-        } else {
-            int variableSlotNum = getVariableSlotNum(counterId);
-            LoadStoreHelper.loadIntOrFloatLocal(hostType,variableSlotNum);
-        }
-        TypeDescriptor finalValueType = visit(ctx.forList().finalValue());
-        JumpInstructionHelper.jumpInstruction(relationalOpMappingWithInt.get("<="), endFor);
-
-        visit(ctx.statement());
-
-        // for counter increment
-        // 1. load var/field
-        if (isStaticField(counterId)) {
-            InstructionHelper.getStatic(className, counterId, hostType);
-        } else {
-            int variableSlotNum = getVariableSlotNum(counterId);
-            LoadStoreHelper.loadIntOrFloatLocal(hostType,variableSlotNum);
-        }
-        // 2. load const 1
-        InstructionHelper.loadTrueOrFalse(true);
-        // 3. increment (counter+1)
-        InstructionHelper.add(hostType);
-        // 4. update counter
-        if (isStaticField(counterId)) {
-            InstructionHelper.putStatic(className, counterId, hostType);
-        } else {
-            int variableSlotNum = getVariableSlotNum(counterId);
-            LoadStoreHelper.storePrimitive(hostType,variableSlotNum);
-        }
-        gotoLabel(forExprStart);
-
-        setLabel(endFor);
+        encodeBody(ctx);
         return null;
     }
 
@@ -515,6 +477,7 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         tableManager.allTablesEnterNewScope();
 
         ArrayList<Class<?>> arguments = new ArrayList<>();
+        List<TypeDescriptor> params = new ArrayList<>();
         List<PascalParser.FormalParameterSectionContext> formalParameterSectionContexts = new ArrayList<>();
         if (ctx.formalParameterList() != null) {
             formalParameterSectionContexts = ctx.formalParameterList().formalParameterSection();
@@ -533,12 +496,15 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 Class<?> argumentTypeDescriptorClass = argumentType.getDescriptorClass();
                 for (PascalParser.IdentifierContext eachId : identifierList) {
                     arguments.add(argumentTypeDescriptorClass);
+                    params.add(argumentType);
                     String eachIdText = eachId.getText();
                     define(eachIdText.toLowerCase(), argumentType, ctx);
 
                     if (!(argumentType instanceof FloatBaseType)) putLocals(eachIdText, 1);
                     else putLocals(eachIdText, 2);
                 }
+            } else {
+                throw unsupportedParameter(each);
             }
         }
 
@@ -556,24 +522,28 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         }
         String methodDescriptor = getMethodDescriptor(
                 resultType.getDescriptorClass(), arguments.toArray(new Class[]{}));
+        // a nested function is not defined yet where its body assigns its result (or calls itself)
+        Function function = new Function(params, resultType);
+        defineNested(id, function, ctx);
 
+        // nested subprograms are encoded in the middle of the enclosing one
+        MethodVisitor enclosingMethodVisitor = methodVisitor;
+        String enclosingResultVar = resultVar;
         methodVisitor = classWriter.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
                 id, methodDescriptor, null, null);
 
-        updateDefaultMethodVisitor(methodVisitor);
-
         methodVisitor.visitCode();
 
-        // define random local var to be returned as final result
-        resultVar = "__result" + new Random().nextInt(999);
+        // define generated local var to be returned as final result
+        resultVar = nextGeneratedLocal("__result");
         define(resultVar, resultType, ctx);
         if (resultType instanceof Primitive) {
             if (!(resultType instanceof FloatBaseType)) putLocals(resultVar, 1);
             else putLocals(resultVar, 2);
         }
         //initialise result value
-        InstructionHelper.loadIntOrReal(resultType);
-        LoadStoreHelper.storePrimitive(resultType, getVariableSlotNum(resultVar));
+        InstructionHelper.loadIntOrReal(methodVisitor, resultType);
+        LoadStoreHelper.storePrimitive(methodVisitor, resultType, getVariableSlotNum(resultVar));
 
         Label enterScope = makeLabel();
         Label exitScope = makeLabel();
@@ -583,14 +553,9 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         visit(ctx.block());
 
 
+        // the result is returned by the body
         setLabel(methodVisitor, exitScope);
 
-        TypeDescriptor resultVarType = retrieve(resultVar, ctx);
-        int resultVarSlotNum = getVariableSlotNum(resultVar);
-        LoadStoreHelper.loadIntOrFloatLocal(resultVarType, resultVarSlotNum);
-        InstructionHelper.returnFromMethod(resultType);
-        //methodVisitor.visitInsn(Opcodes.RETURN);
-
         tableManager.displayAllTablesCurrentScope();
         tableManager.showAllTables();
 
@@ -612,9 +577,11 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         methodVisitor.visitEnd();
 
         tableManager.allTablesExitNewScope();
+        defineNested(id, function, ctx);
 
         // reset result var variable identifier
-        resultVar = null;
+        resultVar = enclosingResultVar;
+        methodVisitor = enclosingMethodVisitor;
         return null;
     }
 
@@ -687,6 +654,7 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         tableManager.allTablesEnterNewScope();
 
         ArrayList<Type> arguments = new ArrayList<>();
+        List<TypeDescriptor> params = new ArrayList<>();
         List<PascalParser.FormalParameterSectionContext> formalParameterSectionContexts = new ArrayList<>();
         if (ctx.formalParameterList() != null) {
             formalParameterSectionContexts = ctx.formalParameterList().formalParameterSection();
@@ -706,12 +674,15 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 for (PascalParser.IdentifierContext eachId : identifierList) {
                     //arguments[i++] = Type.getType(argumentTypeDescriptorClass);
                     arguments.add(Type.getType(argumentTypeDescriptorClass));
+                    params.add(argumentType);
                     String eachIdText = eachId.getText();
                     define(eachIdText.toLowerCase(), argumentType, ctx);
 
                     if (!(argumentType instanceof FloatBaseType)) putLocals(eachIdText, 1);
                     else putLocals(eachIdText, 2);
                 }
+            } else {
+                throw unsupportedParameter(each);
             }
         }
 
@@ -720,12 +691,17 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         String methodDescriptor = Type.getMethodDescriptor(
                 Type.VOID_TYPE, arguments.toArray(new Type[]{})
         );
+        // a nested procedure is not defined yet where its body calls itself
+        Procedure procedure = new Procedure(params);
+        defineNested(id, procedure, ctx);
 
+        // nested subprograms are encoded in the middle of the enclosing one
+        MethodVisitor enclosingMethodVisitor = methodVisitor;
+        String enclosingResultVar = resultVar;
+        resultVar = null;
         methodVisitor = classWriter.visitMethod(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
                 id, methodDescriptor, null, null);
 
-        updateDefaultMethodVisitor(methodVisitor);
-
         methodVisitor.visitCode();
 
         Label enterScope = makeLabel();
@@ -737,7 +713,7 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
 
         setLabel(methodVisitor, exitScope);
 
-        InstructionHelper.returnFromMethod(null);
+        InstructionHelper.returnFromMethod(methodVisitor, null);
         //methodVisitor.visitInsn(Opcodes.RETURN);
 
         tableManager.displayAllTablesCurrentScope();
@@ -748,17 +724,37 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         symbolTable.displayCurrentScope();
         Map<Object, TypeDescriptor> symbolTableAllVarInCurrentScope = symbolTable.getAllVarInCurrentScope();
         symbolTableAllVarInCurrentScope.forEach((k, v) -> {
-            LocalVariableInformation localVariableInformation = localVariableTable.get(k);
-            int slotNum = localVariableInformation.getSlotNum();
-            methodVisitor.visitLocalVariable(k.toString(), v.getDescriptor(),
-                    null,
-                    enterScope, exitScope, slotNum);
+            // nested subprograms are in the scope too
+            if (localVariableTable.containsKey(k)) {
+                LocalVariableInformation localVariableInformation = localVariableTable.get(k);
+                int slotNum = localVariableInformation.getSlotNum();
+                methodVisitor.visitLocalVariable(k.toString(), v.getDescriptor(),
+                        null,
+                        enterScope, exitScope, slotNum);
+            }
         });
 
         methodVisitor.visitMaxs(2, 2); // this would be compute automatically
         methodVisitor.visitEnd();
 
         tableManager.allTablesExitNewScope();
+        defineNested(id, procedure, ctx);
+        resultVar = enclosingResultVar;
+        methodVisitor = enclosingMethodVisitor;
+        return null;
+    }
+
+    /**
+     * Constants get neither a field nor a local, the IR builder propagates their values into the use sites
+     * (defined again for the ones of a subprogram, the checker is done with its scope)
+     *
+     * @param ctx
+     * @return
+     */
+    @Override
+    public TypeDescriptor visitConstantDefinition(PascalParser.ConstantDefinitionContext ctx) {
+        TypeDescriptor type = context.getExpressionTypes().get(ctx);
+        if (type != null) define(ctx.identifier().getText(), type, ctx);
         return null;
     }
 
@@ -780,6 +776,7 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
      * <p>
      * ! if Gloabl var decl
      * - All variable declared in this part would be treated as static fields
+     * (arrays allocated & subranges set to their lower bound at the start of main, see globalArrays/globalSubranges)
      * ! if Proc/Func var decl
      * - all vars are treated as local variables (must initialised with default value)
      * <p>
@@ -794,6 +791,19 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
     public TypeDescriptor visitVariableDeclaration(PascalParser.VariableDeclarationContext ctx) {
         String typeDescriptor = null;
         TypeDescriptor type = visit(ctx.type_());
+        // arrays of primitive elements, resolved by the checker
+        ArrayLayout layout = null;
+        TypeDescriptor checked = context.getExpressionTypes().get(ctx);
+        if (checked instanceof ArrayType && checked.getDescriptorClass() != null) {
+            type = checked;
+            layout = ArrayLayout.of((ArrayType) checked);
+        }
+        // subranges of ordinal values, stored as their host type
+        Subrange subrange = null;
+        if (checked instanceof Subrange && checked.getDescriptorClass() != null) {
+            type = checked;
+            subrange = (Subrange) checked;
+        }
         typeDescriptor = type.getDescriptor();
 
         List<PascalParser.IdentifierContext> identifiers = ctx.identifierList().identifier();
@@ -804,6 +814,21 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 fieldVisitor = classWriter.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC,
                         id, typeDescriptor, null, null);
                 fieldVisitor.visitEnd();
+                if (layout != null) globalArrays.put(id, layout);
+                if (subrange != null) globalSubranges.put(id, subrange);
+            } else if (layout != null) {
+                putLocals(id, 1);
+                IrBytecodeEmitter.newArray(methodVisitor, layout);
+                LoadStoreHelper.storePrimitive(methodVisitor, type, getVariableSlotNum(id));
+            } else if (subrange != null) {
+                putLocals(id, 1);
+                IrBytecodeEmitter.pushInt(methodVisitor, (int) Interval.of(subrange).getLow());
+                methodVisitor.visitVarInsn(Opcodes.ISTORE, getVariableSlotNum(id));
+            } else if (type instanceof EnumeratedType) {
+                // ordinal number of the first value
+                putLocals(id, 1);
+                IrBytecodeEmitter.pushInt(methodVisitor, 0);
+                methodVisitor.visitVarInsn(Opcodes.ISTORE, getVariableSlotNum(id));
             } else {
                 if (!(type instanceof FloatBaseType)){
                     putLocals(id, 1, false);
@@ -811,14 +836,14 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
                 else{ putLocals(id, 2);}
 
                 if (type instanceof Primitive) {
-                    InstructionHelper.loadIntOrReal(type);
+                    InstructionHelper.loadIntOrReal(methodVisitor, type);
                 }
                 // store the local var based on the type descriptor
                 // use corresponding store instruction
                 int slotNum = getVariableSlotNum(id);
                 System.out.println("id = " + id);
                 System.out.println("slotNum = " + slotNum);
-                LoadStoreHelper.storePrimitive(type, slotNum);
+                LoadStoreHelper.storePrimitive(methodVisitor, type, slotNum);
             }
             // insert into symbol table
             define(id, type, ctx);
@@ -830,649 +855,14 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         return null;
     }
 
-    @Override
-    public TypeDescriptor visitAssignmentStatement(PascalParser.AssignmentStatementContext ctx) {
-        TypeDescriptor expressionType = visit(ctx.expression());
-        String id = ctx.variable().getText().toLowerCase();
-        TypeDescriptor lType = retrieve(id, ctx);
-
-        // function return statement(assignment)
-        if (lType instanceof Function) {
-            // store the content to local result variable
-            tableManager.displayAllTablesCurrentScope();
-            TypeDescriptor resultType = retrieve(resultVar, ctx);
-            int slotNum = getVariableSlotNum(resultVar);
-            if (resultType instanceof Primitive) LoadStoreHelper.storePrimitive(resultType, slotNum);
-            return null;
-        }
-
-        if (!expressionType.equiv(lType)) {
-            if (expressionType instanceof IntegerBaseType && lType instanceof FloatBaseType) {
-                // int convert to float before putStatic
-                TypeConverterHelper.I2D();
-            }
-        }
-
-        // store value to static field
-        if (isStaticField(id)) {
-            InstructionHelper.putStatic(className, id, lType);
-            //methodVisitor.visitFieldInsn(Opcodes.PUTSTATIC, className, id, lType.getDescriptor());
-        } else {
-            System.out.println("ctx.getText() = " + ctx.getText());
-            // store value to local varaible
-            int variableSlotNum = getVariableSlotNum(id);
-            System.out.println("variableSlotNum = " + variableSlotNum);
-            LoadStoreHelper.storePrimitive(lType, variableSlotNum);
-        }
-        return null;
-    }
-
     private Label makeLabel() {
         return new Label();
     }
 
-    private void gotoLabel(Label label) {
-        JumpInstructionHelper.gotoLabel(label);
-    }
-
     private void setLabel(MethodVisitor mv, Label label) {
         mv.visitLabel(label);
     }
 
-    private void setLabel(Label label) {
-        setLabel(methodVisitor, label);
-    }
-
-    /**
-     * ifeq	153	Jump if int comparison with zero succeeds
-     * ifge	156	Jump if int comparison with zero succeeds
-     * ifgt	157	Jump if int comparison with zero succeeds
-     * ifle	158	Jump if int comparison with zero succeeds
-     * iflt	155	Jump if int comparison with zero succeeds
-     * ifne	154	Jump if int comparison with zero succeeds
-     */
-    Map<String, Integer> relationalOpMapping = Map.of(
-            "<", Opcodes.IFGE,
-            ">", Opcodes.IFLE,
-            "=", Opcodes.IFNE,
-            "<>", Opcodes.IFEQ,
-            "<=", Opcodes.IFGT,
-            ">=", Opcodes.IFLT);
-
-    Map<String, Integer> relationalOpMappingWithDouble = Map.of(
-            "<", Opcodes.DCMPG,
-            ">", Opcodes.DCMPL,
-            "=", Opcodes.DCMPL,
-            "<>", Opcodes.DCMPL,
-            "<=", Opcodes.DCMPG,
-            ">=", Opcodes.DCMPL);
-
-    Map<String, Integer> relationalOpMappingWithInt = Map.of(
-            "<", Opcodes.IF_ICMPGE,
-            ">", Opcodes.IF_ICMPLE,
-            "=", Opcodes.IF_ICMPNE,
-            "<>", Opcodes.IF_ICMPEQ,
-            "<=", Opcodes.IF_ICMPGT,
-            ">=", Opcodes.IF_ICMPLT);
-
-    /**
-     * TODO OTHER OP OTHER TYPES
-     * TODO Refactor for For,while statement(too coupling)
-     *
-     * @param operator
-     */
-    private void invokeRelationalInstruction(String operator, TypeDescriptor lType, TypeDescriptor rType, PascalParser.IfStatementContext ifStatementContext, PascalParser.WhileStatementContext whileStatementContext, boolean involveConstantIf) {
-        boolean involveReal = lType instanceof FloatBaseType || rType instanceof FloatBaseType;
-        boolean involveStr = lType instanceof StringLiteral || rType instanceof StringLiteral;
-        // prepare labels
-        Label evaluateToFalse = makeLabel();
-        Label endLabel = makeLabel();
-
-        if (involveReal || involveStr) {
-            if (involveReal) methodVisitor.visitInsn(relationalOpMappingWithDouble.get(operator));
-            if (involveStr) {
-                InstructionHelper.invokeStatic(StringUtils.class, "compare", false,
-                        String.class, String.class);
-            }
-            JumpInstructionHelper.jumpInstruction(relationalOpMapping.get(operator), evaluateToFalse);
-        } else {
-            if (involveConstantIf) {
-                InstructionHelper.loadTrueOrFalse(true);
-            }
-            JumpInstructionHelper.jumpInstruction(
-                    relationalOpMappingWithInt.get(operator),
-                    evaluateToFalse);
-        }
-
-        if (ifStatementContext != null) {
-            visit(ifStatementContext.statement(0));
-        } else if (whileStatementContext != null) {
-            visit(whileStatementContext.statement());
-        } else {
-            InstructionHelper.loadTrueOrFalse(true);
-        }
-
-        if (whileStatementContext != null) {
-            gotoLabel(whileExprStart);
-        } else gotoLabel(endLabel);
-        //gotoLabel(endLabel);
-
-        setLabel(evaluateToFalse);
-
-        if (ifStatementContext != null && ifStatementContext.statement().size() > 1) {
-            visit(ifStatementContext.statement(1));
-        } else if (whileStatementContext == null && ifStatementContext == null) {
-            InstructionHelper.loadTrueOrFalse(false);
-        }
-        setLabel(endLabel);
-    }
-
-    private void invokeRelationalInstruction(String operator, TypeDescriptor lType, TypeDescriptor rType, PascalParser.IfStatementContext ifStatementContext, PascalParser.WhileStatementContext whileStatementContext) {
-        invokeRelationalInstruction(operator, lType, rType, ifStatementContext, whileStatementContext, false);
-    }
-
-    private void invokeRelationalInstructionFromRepeat(String operator, TypeDescriptor lType, TypeDescriptor rType) {
-        boolean involveReal = lType instanceof FloatBaseType || rType instanceof FloatBaseType;
-        boolean involveStr = lType instanceof StringLiteral || rType instanceof StringLiteral;
-
-        if (involveReal || involveStr) {
-            if (involveReal) methodVisitor.visitInsn(relationalOpMappingWithDouble.get(operator));
-            if (involveStr) {
-                InstructionHelper.invokeStatic(StringUtils.class, "compare", false,
-                        String.class, String.class);
-            }
-            JumpInstructionHelper.jumpInstruction(relationalOpMapping.get(operator), repeatBlockStart);
-        } else {
-            JumpInstructionHelper.jumpInstruction(
-                    relationalOpMappingWithInt.get(operator),
-                    repeatBlockStart);
-        }
-    }
-
-
-    /**
-     * expression
-     * : simpleExpression (relationalOperator=(EQUAL| NOT_EQUAL| LT| LE| GE| GT| IN)
-     * e2=expression)?
-     * ;
-     * <p>
-     * Relational op between int and real is allowed
-     * ! but need to convert int to double before compare
-     * ! and use DXXX instruction if real involved
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitExpression(PascalParser.ExpressionContext ctx) {
-
-        boolean fromIfStatement = ctx.parent.parent.parent.parent.parent.parent.getClass() == PascalParser.IfStatementContext.class ||
-                ctx.parent.getClass() == PascalParser.IfStatementContext.class;
-        PascalParser.IfStatementContext ifStatementContext = null;
-        if (fromIfStatement) {
-            if (ctx.parent.getClass() == PascalParser.IfStatementContext.class) {
-                ifStatementContext = (PascalParser.IfStatementContext) ctx.parent;
-            } else ifStatementContext = (PascalParser.IfStatementContext) ctx.parent.parent.parent.parent.parent.parent;
-        }
-
-        boolean fromWhileStatement = ctx.parent.getClass() == PascalParser.WhileStatementContext.class;
-        PascalParser.WhileStatementContext whileStatementContext = null;
-        if (fromWhileStatement) {
-            whileStatementContext = (PascalParser.WhileStatementContext) ctx.parent;
-        }
-
-        boolean fromRepeatStatement = ctx.parent.getClass() == PascalParser.RepeatStatementContext.class;
-
-        TypeDescriptor lType = visit(ctx.simpleExpression());
-
-        if (ctx.expression() != null) {
-            // if relational op exists,
-            // check first whether rType involve real, before push onto stack
-            Collection<ParseTree> matches;
-            matches = XPath.findAll(ctx, "//NUM_REAL", PascalCompilerDriverBuilder.parser);
-            boolean rTypeIsReal = !matches.isEmpty();
-
-            // check whether rType involve String/Char
-            matches = XPath.findAll(ctx, "//STRING_LITERAL", PascalCompilerDriverBuilder.parser);
-            boolean rTypeIsStr = !matches.isEmpty();
-            // check further whether rType is char
-            boolean rTypeIsChar = false;
-            if (rTypeIsStr) {
-                String rawText = ctx.expression().getText().replace("'", "");
-                rTypeIsChar = rawText.length() == 1;
-            }
-
-            // if rType involve real, lType is int
-            // convert left operand first
-            if (rTypeIsReal && lType instanceof IntegerBaseType) {
-                TypeConverterHelper.I2D();
-            }
-
-            //if rType is String, lType is Char
-            //convert left operand
-            if (rTypeIsStr && !rTypeIsChar && lType instanceof Character) {
-                InstructionHelper.invokeStatic(String.class, "valueOf", false, char.class);
-            }
-
-            // push right operand onto stack
-            TypeDescriptor rType = visit(ctx.expression());
-
-            // if left is real, right is int, convert right operand
-            if (rType instanceof IntegerBaseType && lType instanceof FloatBaseType) {
-                TypeConverterHelper.I2D();
-            }
-            // if left is String, right is char, convert right operand
-            if (lType instanceof StringLiteral && rType instanceof Character) {
-                InstructionHelper.invokeStatic(String.class, "valueOf", false, char.class);
-            }
-
-            String relationalOperator = ctx.relationalOperator.getText().toLowerCase();
-
-            if (lType instanceof Primitive && rType instanceof Primitive) {
-                //if (fromIfStatement) invokeRelationalInstruction(relationalOperator, lType, rType, ifStatementContext);
-                if (fromRepeatStatement) invokeRelationalInstructionFromRepeat(relationalOperator, lType, rType);
-                else
-                    invokeRelationalInstruction(relationalOperator, lType, rType, ifStatementContext, whileStatementContext);
-            }
-            if (lType instanceof StringLiteral || rType instanceof StringLiteral) {
-                if (fromRepeatStatement) invokeRelationalInstructionFromRepeat(relationalOperator, lType, rType);
-                else
-                    invokeRelationalInstruction(relationalOperator, lType, rType, ifStatementContext, whileStatementContext);
-            }
-
-            return new Boolean();
-        }
-        // if only involve 1 operand(left) and from if statement
-        if (fromIfStatement && (ctx.getText().equalsIgnoreCase("true") ||
-                ctx.getText().equalsIgnoreCase("false"))) {
-            invokeRelationalInstruction("=", null, null, ifStatementContext,
-                    null, true);
-        }
-
-        return lType;
-    }
-
-    private Stack<TypeDescriptor> operandStack = new Stack<>();
-
-    /**
-     * additiveOperator=(PLUS| MINUS| OR)
-     * TODO: OR
-     *
-     * @param operator
-     */
-    private void invokeAdditiveInstruction(String operator, TypeDescriptor lType, TypeDescriptor rType) {
-        TypeDescriptor resultType = DefaultIntegerType.instance;
-        if (lType instanceof FloatBaseType || rType instanceof FloatBaseType) {
-            resultType = DefaultFloatType.instance;
-        }
-        switch (operator) {
-            case "+":
-                InstructionHelper.add(resultType);
-                break;
-            case "-":
-                InstructionHelper.sub(resultType);
-                break;
-            case "or":
-                InstructionHelper.intLogicalOp(Opcodes.IOR);
-                break;
-        }
-    }
-
-
-    /**
-     * simpleExpression
-     * : term (additiveOperator=(PLUS| MINUS| OR) simpleExpression)?
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitSimpleExpression(PascalParser.SimpleExpressionContext ctx) {
-        TypeDescriptor lType = visit(ctx.term());
-
-        if (ctx.simpleExpression() != null) {
-            String operator = ctx.additiveOperator.getText().toLowerCase();
-            //if (!operator.equals("or")) {
-            // determine whether do left type conversion first
-            // before access right field
-
-            String rId = "";
-            if (ctx.simpleExpression().term() != null) rId = ctx.simpleExpression().getText().toLowerCase();
-            TypeDescriptor rType = retrieve(rId, ctx);
-            if (!rType.equiv(ErrorType.UNDEFINED_TYPE) || rId.contains(".")) {
-                // if one of the operands is real type
-                if (lType instanceof FloatBaseType || (rType instanceof FloatBaseType || rId.contains("."))) {
-                    // convert if left type is integer
-                    if (lType instanceof IntegerBaseType) {
-                        TypeConverterHelper.I2D();
-                    }
-                }
-            }
-
-            TypeDescriptor _rType = visit(ctx.simpleExpression().term());
-            // check whether right type need to do type conversion
-            if (lType instanceof FloatBaseType || _rType instanceof FloatBaseType) {
-                if (_rType instanceof IntegerBaseType) {
-                    TypeConverterHelper.I2D();
-                }
-            }
-
-            invokeAdditiveInstruction(operator, lType, _rType);
-            if (ctx.simpleExpression().simpleExpression() != null) {
-                TypeDescriptor type = visit(ctx.simpleExpression().simpleExpression());
-                String _operator = ctx.simpleExpression().additiveOperator.getText();
-
-                // type conversion before arithmetic operation
-                if (_rType instanceof FloatBaseType || type instanceof FloatBaseType) {
-                    if (type instanceof IntegerBaseType) {
-                        TypeConverterHelper.I2D();
-                    }
-                }
-                invokeAdditiveInstruction(_operator, _rType, type);
-            }
-            // or - logical operation
-            if (lType instanceof Boolean && _rType instanceof Boolean) {
-                return new Boolean();
-            }
-
-            if (lType instanceof FloatBaseType || _rType instanceof FloatBaseType) {
-                Real real = new Real();
-                real.setConstant(true);
-                return real;
-            }
-            Integer32 integer32 = new Integer32();
-            integer32.setConstant(true);
-            return integer32;
-
-        }
-        return lType;
-    }
-
-    /**
-     * multiplicativeOperator=(STAR| SLASH| DIV| MOD| AND)
-     * TODO: AND
-     *
-     * @param operator
-     */
-    private void invokeMultiplicativeInstruction(String operator, TypeDescriptor lType, TypeDescriptor rType) {
-        TypeDescriptor resultType = DefaultIntegerType.instance;
-        if (lType instanceof FloatBaseType || rType instanceof FloatBaseType) {
-            resultType = DefaultFloatType.instance;
-        }
-        switch (operator) {
-            case "*":
-                InstructionHelper.mul(resultType);
-                break;
-            case "/":
-                // real division
-                InstructionHelper.realDiv();
-                break;
-            case "div":
-                // integer division, operands must be integer
-                InstructionHelper.intDiv();
-                break;
-            case "mod":
-                InstructionHelper.intMod();
-                break;
-            case "and":
-                InstructionHelper.intLogicalOp(Opcodes.IAND);
-                break;
-        }
-    }
-
-    /**
-     * term
-     * : signedFactor (multiplicativeOperator=(STAR| SLASH| DIV| MOD| AND) term)?
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitTerm(PascalParser.TermContext ctx) {
-        TypeDescriptor lType = visit(ctx.signedFactor());
-        if (ctx.term() != null) {
-            String operator = ctx.multiplicativeOperator.getText().toLowerCase();
-
-            if (operator.contains("and")) {
-                visit(ctx.term());
-                invokeMultiplicativeInstruction(operator, lType, null);
-                return new Boolean();
-            }
-
-            if (operator.equals("*")) {
-                String rId = ctx.term().getText().toLowerCase();
-                TypeDescriptor rType = retrieve(rId, ctx);
-
-                // if rId is variable identifier not constant literal
-                // check whether need type conversion
-                boolean convertLType = false;
-                if (!rType.equiv(ErrorType.UNDEFINED_TYPE)) {
-                    if (lType instanceof FloatBaseType || rType instanceof FloatBaseType) {
-                        if (lType instanceof IntegerBaseType) {
-                            convertLType = true;
-                        }
-                    }
-                } else {
-                    // if right operand is literal,
-                    // if contains '.' then must involve real type
-                    if (lType instanceof FloatBaseType || rId.contains(".")) {
-                        if (lType instanceof IntegerBaseType) {
-                            convertLType = true;
-                        }
-                    }
-                }
-                // convert Ltype before visit right field
-                if (convertLType) {
-                    TypeConverterHelper.I2D();
-                }
-
-                // get right field first then check whether conversion needed
-                TypeDescriptor _rType = visit(ctx.term());
-
-                if (lType instanceof FloatBaseType && _rType instanceof IntegerBaseType) {
-                    TypeConverterHelper.I2D();
-                }
-                invokeMultiplicativeInstruction(operator, lType, _rType);
-
-                //if any real operands involved, then return real
-                if (lType instanceof FloatBaseType || _rType instanceof FloatBaseType) {
-                    //Real real = new Real();
-                    //real.setConstant(true);
-                    //return real;
-                    return DefaultFloatType.instance;
-                }
-                // otherwise return integer
-                return DefaultIntegerType.instance;
-                //Integer32 integer32 = new Integer32();
-                //integer32.setConstant(true);
-                //return integer32;
-            }
-
-            // real division, must return real type
-            if (operator.equals("/")) {
-
-                // if operands involved integer, convert to float first
-                if (lType instanceof IntegerBaseType) {
-                    TypeConverterHelper.I2D();
-                }
-                TypeDescriptor _rType = visit(ctx.term());
-                if (_rType instanceof IntegerBaseType) {
-                    TypeConverterHelper.I2D();
-                }
-
-                invokeMultiplicativeInstruction(operator, lType, _rType);
-                return DefaultFloatType.instance;
-            }
-
-            // integer division, must return integer
-            if (operator.equals("div")) {
-                invokeMultiplicativeInstruction(operator, lType, visit(ctx.term()));
-            }
-
-            // modulo operation, return integer
-            if (operator.equals("mod")) {
-                invokeMultiplicativeInstruction(operator, lType, visit(ctx.term()));
-            }
-
-            return DefaultIntegerType.instance;
-
-        }
-        return lType;
-    }
-
-    /**
-     * signedFactor
-     * : monadicOperator=(PLUS | MINUS)? factor
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitSignedFactor(PascalParser.SignedFactorContext ctx) {
-        // capture maxint
-        String factorId = ctx.factor().getText().toLowerCase();
-        int monadicOperatorType = -999;
-        if (ctx.monadicOperator != null) {
-            monadicOperatorType = ctx.monadicOperator.getType();
-        }
-        if (ctx.factor() instanceof PascalParser.FactorVarContext) {
-            if (factorId.equals("maxint")) {
-                Integer32 maxint = DefaultIntegerType.of(Long.valueOf(Integer.MAX_VALUE));
-                if (loadConst) InstructionHelper.loadIntOrReal(maxint);
-                loadConst = true;
-                maxint.setConstant(true);
-                if (monadicOperatorType == PascalParser.MINUS) {
-                    InstructionHelper.intOrFloatNeg(maxint);
-                }
-                return maxint;
-            }
-            //    other Variable, load Reference
-        }
-        TypeDescriptor type = visit(ctx.factor());
-        if (monadicOperatorType == PascalParser.MINUS) {
-            InstructionHelper.intOrFloatNeg(type);
-        }
-        return type;
-    }
-
-
-    /**
-     * NOT factor #notFactor
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitNotFactor(PascalParser.NotFactorContext ctx) {
-        // visit boolean first
-        // load boolean static field or constants onto stack
-        visit(ctx.factor());
-
-        Label changeToFalse = makeLabel();
-        Label endLabel = makeLabel();
-
-        // if boolean operand != 0 (false)
-        // then jump to changeToFalse
-        methodVisitor.visitJumpInsn(Opcodes.IFNE, changeToFalse);
-        // if boolean operand ==0 (false)
-        // load true (0)
-        if (loadConst) InstructionHelper.loadTrueOrFalse(true);
-        loadConst = true;
-        // directly jump to the end
-        methodVisitor.visitJumpInsn(Opcodes.GOTO, endLabel);
-
-        methodVisitor.visitLabel(changeToFalse);
-        if (loadConst) InstructionHelper.loadTrueOrFalse(false);
-        loadConst = true;
-
-        methodVisitor.visitLabel(endLabel);
-        return new Boolean();
-    }
-
-    /**
-     * Variable
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitFactorVar(PascalParser.FactorVarContext ctx) {
-        return super.visitFactorVar(ctx);
-    }
-
-    @Override
-    public TypeDescriptor visitFactorExpr(PascalParser.FactorExprContext ctx) {
-        TypeDescriptor type = visit(ctx.expression());
-        return type;
-    }
-
-    private boolean isStaticField(String id) {
-        return !localVariableTable.containsKey(id);
-    }
-
-    private TypeDescriptor functionDesignator(String functionId, Function function) {
-        TypeDescriptor resultType = function.getResultType();
-        Class<?>[] funcArgumentsClass = new Class<?>[0];
-
-        // function must not return void though
-        Class<?> resultTypeDescriptorClass = resultType != null ? resultType.getDescriptorClass() : void.class;
-        String funcDescriptor = getMethodDescriptor(resultTypeDescriptorClass, funcArgumentsClass);
-        InstructionHelper.invokeStatic(className, functionId, funcDescriptor, false);
-        return resultType;
-    }
-
-    /**
-     * Variable declared in variable declaration part
-     * Find in LocalVariableTable, if static then visit
-     * <p>
-     * variable
-     * : variableHead
-     * (
-     * arrayScripting
-     * | fieldDesignator
-     * | POINTER // only for pointer variable
-     * )*
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitVariable(PascalParser.VariableContext ctx) {
-        symbolTable.displayCurrentScope();
-
-        TypeDescriptor type = visit(ctx.variableHead());
-        //TypeDescriptor type = visit(ctx);
-
-        // if should actually match [non-args] function
-        // call function designator logics manually from this point
-        if (type instanceof Function) {
-            String functionId = ctx.variableHead().getText().toLowerCase();
-            return functionDesignator(functionId, (Function) type);
-        }
-
-        symbolTable.displayCurrentScope();
-        localVariableTable.displayCurrentScope();
-
-        String id = ctx.getText().toLowerCase();
-
-        // if variable from readStatement, skip static field access
-        if (ctx.parent instanceof PascalParser.InputValueContext) return type;
-
-        // static field access
-        if (isStaticField(id)) {
-            tableManager.displayAllTablesCurrentScope();
-            InstructionHelper.getStatic(className, id, type);
-        } else {
-            LocalVariableInformation localVariableInformation = localVariableTable.get(id);
-            LoadStoreHelper.loadIntOrFloatLocal(type, localVariableInformation.getSlotNum());
-            //methodVisitor.visitVarInsn(Opcodes.ILOAD,localVariableInformation.getSlotNum());
-        }
-        return type;
-    }
-
     @Override
     public TypeDescriptor visitIdentifier(PascalParser.IdentifierContext ctx) {
         TypeDescriptor type = retrieve(ctx.getText().toLowerCase(), ctx);
@@ -1491,48 +881,14 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
         putLocals(id, length, false);
     }
 
-    private void putReferenceTypeIntoLocals(String id, boolean isStatic) {
-        putLocals(id, 1, isStatic);
-    }
-
-    private void putReferenceTypeIntoLocals(String id) {
-        putReferenceTypeIntoLocals(id, false);
+    private String nextGeneratedLocal(String prefix) {
+        return prefix + generatedLocalCount++;
     }
 
     private int getVariableSlotNum(String id) {
         return localVariableTable.get(id).getSlotNum();
     }
 
-    // default invoke, pass default methodVisitor and localVariablesTable
-    // no id usage
-    private void invoke(Instruction instruction) {
-        instruction.invoke(methodVisitor, localVariableTable);
-    }
-
-    // invoke with id information
-    // related instructions:
-    // - LoadReference
-    //private void invoke(Instruction instruction, String id) {
-    //    invoke(instruction, methodVisitor, localVariableTable, id);
-    //}
-
-    //private void invokeVirtual(MethodVisitor mv, Class<?> owner, String methodName, Class<?>...arguments) {
-    //    InstructionHelper.invokeVirtual(mv,owner,methodName,arguments);
-    //}prede
-    //
-    //// invokeVirtual with default methodVisitor
-    //private void invokeVirtual(Class<?> owner, String methodName, Class<?>...arguments) {
-    //    invokeVirtual(methodVisitor,owner,methodName,arguments);
-    //}
-    //
-    //private void getStatic(MethodVisitor mv, Class<?> owner, String fieldName) {
-    //    InstructionHelper.getStatic(mv,owner , fieldName);
-    //}
-    //
-    //private void getStatic(Class<?> owner, String fieldName) {
-    //    getStatic(methodVisitor,owner,fieldName);
-    //}
-
     private MethodType getMethodType(Class<?> returnType, Class<?>... args) {
         return MethodType.methodType(returnType, args);
     }
@@ -1543,302 +899,6 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
     }
 
 
-    // FIXME: this can be removed, if current write is left
-    boolean loadConst = true;
-
-    @Override
-    public TypeDescriptor visitWriteProcedureStatement(PascalParser.WriteProcedureStatementContext ctx) {
-        //invoke(Instruction.CREATE_STRING_BUILDER);
-        //invoke(Instruction.STORE_REFERENCE);
-        //
-        //String stringBuilder = "stringBuilder" + UUID.randomUUID().toString();
-        //System.out.println("stringBuilder = " + stringBuilder);
-        //putReferenceTypeIntoLocals(stringBuilder);
-        //localVariableTable.displayCurrentScope();
-
-        //MethodType.
-
-        // get static std output
-        InstructionHelper.getStatic(System.class, "out");
-
-        // load string builder
-        //LoadStoreHelper.loadReference(getVariableSlot(stringBuilder));
-
-        boolean involvesConstant = false;
-        //prepare strings
-        if (ctx.writeParameters() != null) {
-            List<PascalParser.OutputValueContext> outputValueContexts = ctx.writeParameters().outputValue();
-            if (outputValueContexts.isEmpty()) {
-                String printMethodName = ctx.WRITELN() != null ? "println" : "print";
-                InstructionHelper.invokeVirtual(PrintStream.class, printMethodName);
-                return null;
-            }
-            //System.out.println("StringUtils.join(\"StringTest\", \"\\u0001\") = " +
-            //        StringUtils.join("StringTest", "\u0001", "hhhhh"));
-            // single param, do no concat
-            if (outputValueContexts.size() == 1) {
-                TypeDescriptor type = visit(outputValueContexts.get(0));
-                String methodName = "println";
-                if (ctx.WRITE() != null) {
-                    methodName = "print";
-                }
-                InstructionHelper.invokeVirtual(PrintStream.class, methodName, type.getDescriptorClass());
-                return null;
-            }
-
-            StringBuilder preprocessedStr = new StringBuilder();
-            // multiple params, perform concat and string processing
-            List<Class<?>> argumentClass = new ArrayList<>();
-            for (PascalParser.OutputValueContext each : outputValueContexts) {
-
-                //loadConst = false;
-
-                TypeDescriptor type = visit(each);
-
-                if (type instanceof Primitive || type instanceof StringLiteral) {
-                    boolean isConst = ((BaseType) type).isConstant();
-                    Object constantValue = null;
-
-                    if (type instanceof Primitive) {
-                        Primitive<?> _type = (Primitive<?>) type;
-                        constantValue = _type.getValue();
-                    }
-                    if (type instanceof StringLiteral) {
-                        constantValue = ((StringLiteral) type).getValue();
-                    }
-
-                    preprocessedStr.append("\u0001");
-                    argumentClass.add(type.getDescriptorClass());
-
-                }
-            }
-
-            String methodDescriptor = getMethodDescriptor(
-                    CallSite.class,
-                    MethodHandles.Lookup.class,
-                    String.class,
-                    MethodType.class,
-                    String.class,
-                    Object[].class
-            );
-            String methodName = "makeConcatWithConstants";
-            //bootstrap link to callSite factory
-            Handle bootstrap = new Handle(
-                    Opcodes.H_INVOKESTATIC,
-                    Type.getInternalName(StringConcatFactory.class),
-                    methodName,
-                    methodDescriptor,
-                    false
-            );
-
-            // takes preprocessed string and consume operands on the stack
-            // return the result string
-            String concatStrMethodDescriptor = getMethodDescriptor(
-                    String.class,
-                    argumentClass.toArray(new Class[]{}));
-
-            Object[] arguments = {preprocessedStr.toString()};
-            methodVisitor.visitInvokeDynamicInsn(
-                    methodName,
-                    concatStrMethodDescriptor, // take arguments, then return result
-                    bootstrap,
-                    arguments // arguments push into bootstrap
-            );
-            //if (type instanceof BaseType) {
-            //    System.out.println("ctx.getText() = " + ctx.getText());
-            //    System.out.println("each.getText() = " + each.getText());
-            //    System.out.println("((BaseType) type).isConstant() = " + ((BaseType) type).isConstant());
-            //    System.out.println("type = " + type);
-            //    if (((BaseType) type).isConstant()) involvesConstant = true;
-            //}
-            //
-            //System.out.println("ctx.getText() = " + ctx.getText());
-            //System.out.println("write type = " + type);
-            //
-            //System.out.println("write type.getDescriptorClass() = " + type.getDescriptorClass());
-            //InstructionHelper.invokeVirtual(StringBuilder.class,"append",type);
-        }
-
-        // finally call the print function
-        //Class<?> printArg = ctx.writeParameters() == null ? Void.class : String.class;
-        String printMethodName = ctx.WRITELN() != null ? "println" : "print";
-        if (ctx.writeParameters() != null) {
-            InstructionHelper.invokeVirtual(PrintStream.class, printMethodName, String.class);
-        } else {
-            InstructionHelper.invokeVirtual(PrintStream.class, printMethodName);
-        }
-        return null;
-    }
-
-    @Override
-    public TypeDescriptor visitReadProcedureStatement(PascalParser.ReadProcedureStatementContext ctx) {
-        List<PascalParser.InputValueContext> inputValueContexts = ctx.readParameters().inputValue();
-        invoke(Instruction.CREATE_SCANNER);
-        invoke(Instruction.STORE_REFERENCE);
-        String scanner = "__scanner" + new Random().nextInt(999);
-        putReferenceTypeIntoLocals(scanner);
-
-
-        // read scanner content into variable
-        inputValueContexts.forEach(each -> {
-            //load scanner (LoadReference - ALOAD)
-            int variableSlot = getVariableSlotNum(scanner);
-            LoadStoreHelper.loadReference(variableSlot);
-
-            String fieldName = each.getText();
-            TypeDescriptor inputType = visit(each);
-            //if (inputType instanceof IntegerBaseType) {
-            //    InstructionHelper.invokeVirtual(Scanner.class, "nextInt");
-            // else scanner.nextLine() or next()
-            String methodName = ctx.READ() != null ? "next" : "nextLine";
-            InstructionHelper.invokeVirtual(Scanner.class, methodName);
-            if (inputType instanceof FloatBaseType) {
-                // parse string to double
-                InstructionHelper.invokeStatic(Double.class,
-                        "parseDouble", false, String.class);
-            }
-            if (inputType instanceof IntegerBaseType) {
-                InstructionHelper.invokeStatic(Integer.class, "parseInt", false, String.class);
-            }
-            if (inputType instanceof Character) {
-                // get the char at pos 0, ignoring others
-                methodVisitor.visitInsn(Opcodes.ICONST_0);
-                InstructionHelper.invokeVirtual(String.class, "charAt", int.class);
-                //methodVisitor.visitMethodInsn(INVOKEVIRTUAL, "java/lang/String", "charAt", "(I)C", false);
-            }
-            InstructionHelper.putStatic(className, fieldName, inputType);
-        });
-        return null;
-    }
-
-    @Override
-    public TypeDescriptor visitInputValue(PascalParser.InputValueContext ctx) {
-        return super.visitInputValue(ctx);
-    }
-
-    /**
-     * functionDesignator
-     * : identifier LPAREN parameterList RPAREN
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitFunctionDesignator(PascalParser.FunctionDesignatorContext ctx) {
-        String functionId = ctx.identifier().getText().toLowerCase();
-        // call function
-        // push operands to be consumed onto stack
-        // then call defined static function
-        List<PascalParser.ActualParameterContext> actualParameterContexts = ctx.parameterList().actualParameter();
-        // generate corresponding bytecode
-        // literal - ldc
-        // static fields - getstatic
-        actualParameterContexts.forEach(this::visit);
-
-        TypeDescriptor func = retrieve(functionId, ctx);
-        List<TypeDescriptor> formalParams = null;
-        TypeDescriptor resultType = null;
-        if (func instanceof Function) {
-            formalParams = ((Function) func).getFormalParams();
-            resultType = ((Function) func).getResultType();
-        }
-        Class<?>[] funcArgumentsClass = new Class<?>[formalParams.size()];
-        int i = 0;
-        for (TypeDescriptor each : formalParams) {
-            if (each instanceof FormalParam) {
-                TypeDescriptor hostType = ((FormalParam) each).getHostType();
-                Class<?> descriptorClass = hostType.getDescriptorClass();
-                funcArgumentsClass[i++] = descriptorClass;
-            }
-        }
-        // function must not return void though
-        Class<?> resultTypeDescriptorClass = resultType != null ? resultType.getDescriptorClass() : void.class;
-        String funcDescriptor = getMethodDescriptor(resultTypeDescriptorClass, funcArgumentsClass);
-
-        InstructionHelper.invokeStatic(className, functionId, funcDescriptor, false);
-
-        tableManager.displayAllTablesCurrentScope();
-        return resultType;
-    }
-
-    @Override
-    public TypeDescriptor visitProcedureStatement(PascalParser.ProcedureStatementContext ctx) {
-        // if trivial procedure statement
-        if (ctx.identifier() != null) {
-            String procedureId = ctx.identifier().getText().toLowerCase();
-
-            // call procedure
-            // push operands to be consumed onto stack
-            // then call defined static function
-            if (ctx.parameterList() != null) {
-                List<PascalParser.ActualParameterContext> actualParameterContexts = ctx.parameterList().actualParameter();
-                // generate corresponding bytecode
-                // literal - ldc
-                // static fields - getstatic
-                actualParameterContexts.forEach(this::visit);
-            }
-
-            TypeDescriptor proc = retrieve(procedureId, ctx);
-            List<TypeDescriptor> formalParams = null;
-            if (proc instanceof Procedure) {
-                formalParams = ((Procedure) proc).getFormalParams();
-            }
-            Class<?>[] procArgumentsClass = new Class<?>[formalParams.size()];
-            int i = 0;
-            for (TypeDescriptor each : formalParams) {
-                if (each instanceof FormalParam) {
-                    TypeDescriptor hostType = ((FormalParam) each).getHostType();
-                    Class<?> descriptorClass = hostType.getDescriptorClass();
-                    procArgumentsClass[i++] = descriptorClass;
-                }
-            }
-            String procDescriptor = getMethodDescriptor(void.class, procArgumentsClass);
-            InstructionHelper.invokeStatic(className, procedureId, procDescriptor, false);
-            //methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC,
-            //        className,
-            //        procedureId, procDescriptor,
-            //        false);
-            tableManager.displayAllTablesCurrentScope();
-        } else {
-            if (ctx.readProcedureStatement() != null) {
-                visit(ctx.readProcedureStatement());
-            } else {
-                visit(ctx.writeProcedureStatement());
-            }
-        }
-        return null;
-    }
-
-    /**
-     * ! Return constant real/int literal
-     * unsignedNumber
-     * :
-     * type=(NUM_INT | NUM_REAL)
-     * ;
-     *
-     * @param ctx
-     * @return
-     */
-    @Override
-    public TypeDescriptor visitUnsignedNumber(PascalParser.UnsignedNumberContext ctx) {
-        switch (ctx.type.getType()) {
-            case PascalParser.NUM_INT:
-                //return Integer32.of(String.valueOf(ctx.NUM_INT()));
-                // integer literal set to be constant
-                //methodVisitor.visitLdcInsn(Integer.valueOf(String.valueOf(ctx.NUM_INT())));
-                Integer32 integer32 = DefaultIntegerType.of(String.valueOf(ctx.NUM_INT()), true);
-                InstructionHelper.loadIntOrReal(integer32);
-                return integer32;
-            case PascalParser.NUM_REAL:
-                Real real = DefaultFloatType.of(String.valueOf(ctx.NUM_REAL()), true);
-                InstructionHelper.loadIntOrReal(real);
-                //methodVisitor.visitLdcInsn(Float.valueOf(String.valueOf(ctx.NUM_INT())));
-                return real;
-        }
-        return null;
-    }
-
     @Override
     public TypeDescriptor visitPrimitiveType(PascalParser.PrimitiveTypeContext ctx) {
         switch (ctx.primitiveType.getType()) {
@@ -1849,43 +909,12 @@ public class PascalEncoderVisitor extends PascalBaseVisitor<TypeDescriptor> {
             case PascalParser.STRING:
                 return new StringLiteral();
             case PascalParser.CHAR:
-                return new Character();
+                return TypeInterner.CHARACTER;
             case PascalParser.BOOLEAN:
-                return new Boolean();
+                return TypeInterner.BOOLEAN;
             case PascalParser.REAL:
                 return DefaultFloatType.instance;
         }
         return null;
     }
-
-    @Override
-    public TypeDescriptor visitString(PascalParser.StringContext ctx) {
-        String text = ctx.getText().replace("'", "");
-        // if char
-        if (text.length() == 1) {
-            char[] chars = text.toCharArray();
-            int charValue = (int) chars[0];
-            methodVisitor.visitLdcInsn(Integer.valueOf(charValue));
-            return new Character(chars[0], true);
-        }
-
-        if (loadConst) methodVisitor.visitLdcInsn(text);
-        loadConst = true; //reset
-        return new StringLiteral(text, true);
-    }
-
-    @Override
-    public TypeDescriptor visitFactorBool(PascalParser.FactorBoolContext ctx) {
-        String flag = ctx.bool_().getText();
-        if (StringUtils.containsIgnoreCase(flag, "f")) {
-            // false
-            if (loadConst) InstructionHelper.loadTrueOrFalse(false);
-            loadConst = true;
-            return new Boolean(false, true);
-        }
-
-        if (loadConst) InstructionHelper.loadTrueOrFalse(true);
-        loadConst = true;
-        return new Boolean(true, true);
-    }
 }
@@ -0,0 +1,666 @@
+package ast.visitor.impl;
+
+import ast.visitor.PascalBaseVisitor;
+import ast.visitor.PascalParser;
+import driver.CompilationContext;
+import ir.*;
+import org.antlr.v4.runtime.ParserRuleContext;
+import runtime.RuntimeFunction;
+import tableUtils.LocalVariableInformation;
+import tableUtils.Table;
+import tableUtils.TableManager;
+import type.BaseType;
+import type.StringLiteral;
+import type.Subrange;
+import type.TypeDescriptor;
+import type.TypeInterner;
+import type.enumerated.EnumeratedIdentifier;
+import type.enumerated.EnumeratedType;
+import type.error.ErrorType;
+import type.nestedType.param.FormalParam;
+import type.primitive.Boolean;
+import type.primitive.Character;
+import type.primitive.floating.DefaultFloatType;
+import type.primitive.floating.FloatBaseType;
+import type.primitive.integer.DefaultIntegerType;
+import type.primitive.integer.IntegerBaseType;
+import type.procOrFunc.Function;
+import type.procOrFunc.ProcFuncBaseType;
+import type.structured.ArrayType;
+
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds the typed IR of a statement part (body of the program, a procedure or a function) from the checked tree
+ * <p>
+ * - result types of expression, simple expression & term nodes are the ones the checker recorded
+ * (CompilationContext#getExpressionTypes), derived from the operands for the nodes in between
+ * - operator chains, right recursive in the grammar, are left associative in the IR
+ * - variables are resolved against the tables of the encoder (static field or local slot), elements of arrays
+ * against the flat layout of their array (see ArrayLayout)
+ * </p>
+ */
+public class PascalIrBuilderVisitor extends PascalBaseVisitor<IrNode> {
+
+    private static final StringLiteral STRING = new StringLiteral();
+    private static final IrConstant ONE = new IrConstant(1L, DefaultIntegerType.instance);
+
+    private final CompilationContext context;
+    private final TableManager<Object, TypeDescriptor> tableManager;
+    private final Table<Object, LocalVariableInformation> localVariableTable;
+    private final String resultVar; // null outside of a function
+    private final Map<ArrayType, ArrayLayout> layouts = new IdentityHashMap<>();
+
+    /**
+     * @param localVariableTable - locals of the method the statements belong to
+     * @param resultVar          - local holding the result of the function, null for the program & procedures
+     */
+    public PascalIrBuilderVisitor(CompilationContext context, Table<Object, LocalVariableInformation> localVariableTable,
+                                  String resultVar) {
+        this.context = context;
+        this.tableManager = context.getTableManager();
+        this.localVariableTable = localVariableTable;
+        this.resultVar = resultVar;
+    }
+
+    /**
+     * @return statements of the body, the body of a function ends with the return of its result
+     */
+    public IrBlock build(PascalParser.CompoundStatementContext ctx) {
+        IrBlock body = (IrBlock) visit(ctx);
+        if (resultVar == null) return body;
+        List<IrNode> statements = new ArrayList<>(body.getStatements());
+        statements.add(new IrReturn(variable(resultVar, retrieve(resultVar, ctx.getClass()))));
+        return new IrBlock(statements);
+    }
+
+    private TypeDescriptor retrieve(String id, Class<? extends ParserRuleContext> usage) {
+        TypeDescriptor type = tableManager.resolve(id.toLowerCase(), usage);
+        return type != null ? type : ErrorType.UNDEFINED_TYPE;
+    }
+
+    /**
+     * Subrange variables are typed with their host type (integer for enumerated values) & keep their bounds
+     */
+    private IrVariable variable(String id, TypeDescriptor type) {
+        LocalVariableInformation local = localVariableTable.get(id);
+        int slot = local != null ? local.getSlotNum() : IrVariable.STATIC;
+        if (!(type instanceof Subrange)) return new IrVariable(id, slot, type);
+        Class<?> host = type.getDescriptorClass();
+        TypeDescriptor hostType = host == char.class ? TypeInterner.CHARACTER
+                : host == boolean.class ? TypeInterner.BOOLEAN : DefaultIntegerType.instance;
+        return new IrVariable(id, slot, hostType, Interval.of((Subrange) type));
+    }
+
+    /**
+     * Value assigned to a variable, checked against the bounds of a subrange variable
+     */
+    private static IrNode assigned(IrVariable target, IrNode value) {
+        return checked(coerce(value, target.getType()), target.getRange(), target.getType());
+    }
+
+    /**
+     * @param type - type holding the value, no check if any of its values is in the range
+     */
+    private static IrNode checked(IrNode value, Interval range, TypeDescriptor type) {
+        if (range == null || range.equals(Interval.of(type))) return value;
+        return new IrIntrinsic(IrIntrinsic.Routine.CHECK_RANGE, List.of(value, integer(range.getLow()),
+                integer(range.getHigh())), DefaultIntegerType.instance);
+    }
+
+    private static UnsupportedOperationException unsupported(ParserRuleContext ctx, String what) {
+        return new UnsupportedOperationException(String.format("%d:%d %s [%s] not supported by the encoder",
+                ctx.start.getLine(), ctx.start.getCharPositionInLine(), what, ctx.getText()));
+    }
+
+    /**
+     * Implicit conversion of a value to the type it is assigned/passed/compared to
+     */
+    private static IrNode coerce(IrNode value, TypeDescriptor type) {
+        if (value.getType() instanceof IntegerBaseType && type instanceof FloatBaseType) {
+            return new IrConvert(IrConvert.Kind.INT_TO_REAL, value, DefaultFloatType.instance);
+        }
+        if (value.getType() instanceof Character && type instanceof StringLiteral) {
+            return new IrConvert(IrConvert.Kind.CHAR_TO_STRING, value, STRING);
+        }
+        return value;
+    }
+
+    /**
+     * @return numeric type the checker recorded for the node, null if none
+     */
+    private TypeDescriptor checkedType(ParserRuleContext ctx) {
+        TypeDescriptor checked = context.getExpressionTypes().get(ctx);
+        return checked instanceof IntegerBaseType || checked instanceof FloatBaseType ? checked : null;
+    }
+
+    /*
+     * Statements
+     */
+
+    @Override
+    public IrNode visitCompoundStatement(PascalParser.CompoundStatementContext ctx) {
+        return visit(ctx.statements());
+    }
+
+    @Override
+    public IrNode visitStatements(PascalParser.StatementsContext ctx) {
+        List<IrNode> statements = new ArrayList<>();
+        for (PascalParser.StatementContext each : ctx.statement()) {
+            IrNode statement = visit(each);
+            // empty statement
+            if (statement != null) statements.add(statement);
+        }
+        return new IrBlock(statements);
+    }
+
+    private IrNode statement(PascalParser.StatementContext ctx) {
+        IrNode statement = visit(ctx);
+        return statement != null ? statement : new IrBlock(List.of());
+    }
+
+    @Override
+    public IrNode visitAssignmentStatement(PascalParser.AssignmentStatementContext ctx) {
+        String id = ctx.variable().variableHead().getText().toLowerCase();
+        TypeDescriptor lType = retrieve(id, ctx.getClass());
+        if (lType instanceof ArrayType) return arrayAssignment(ctx, id, (ArrayType) lType);
+        IrNode value = visit(ctx.expression());
+        IrVariable target;
+        if (lType instanceof Function) {
+            // function return statement, into the local result variable
+            target = variable(resultVar, ((Function) lType).getResultType());
+        } else {
+            if (ctx.variable().getChildCount() > 1) throw unsupported(ctx.variable(), "Variable");
+            target = variable(id, lType);
+        }
+        return new IrAssign(target, assigned(target, value));
+    }
+
+    /**
+     * Assignment to an element, or copy of a whole array/sub-array from another array (or sub-array) of the same
+     * length & elements
+     */
+    private IrNode arrayAssignment(PascalParser.AssignmentStatementContext ctx, String id, ArrayType type) {
+        ArrayLayout layout = layout(type);
+        List<IrNode> indexes = indexes(ctx.variable());
+        IrNode offset = offset(layout, indexes);
+        if (indexes.size() == layout.getDimensions()) {
+            IrElement target = new IrElement(variable(id, type), layout, offset);
+            return new IrStoreElement(target, coerce(visit(ctx.expression()), target.getType()));
+        }
+        PascalParser.VariableContext source = variableOf(ctx.expression());
+        String sourceId = source != null ? source.variableHead().getText().toLowerCase() : null;
+        TypeDescriptor sourceType = source != null
+                ? retrieve(sourceId, PascalParser.IdentifierContext.class) : null;
+        if (!(sourceType instanceof ArrayType)) throw unsupported(ctx, "Array assignment");
+        ArrayLayout sourceLayout = layout((ArrayType) sourceType);
+        List<IrNode> sourceIndexes = indexes(source);
+        int length = layout.getLength(indexes.size());
+        if (sourceLayout.getElementType() != layout.getElementType()
+                || sourceLayout.getLength(sourceIndexes.size()) != length) {
+            throw unsupported(ctx, "Array assignment");
+        }
+        return new IrArrayCopy(variable(id, type), offset, variable(sourceId, sourceType),
+                offset(sourceLayout, sourceIndexes), length);
+    }
+
+    /**
+     * @return the variable an expression is made of, null if it is not a single variable
+     */
+    private static PascalParser.VariableContext variableOf(PascalParser.ExpressionContext ctx) {
+        if (ctx.expression() != null || ctx.simpleExpression().simpleExpression() != null) return null;
+        PascalParser.TermContext term = ctx.simpleExpression().term();
+        if (term.term() != null || term.signedFactor().monadicOperator != null) return null;
+        PascalParser.FactorContext factor = term.signedFactor().factor();
+        return factor instanceof PascalParser.FactorVarContext
+                ? ((PascalParser.FactorVarContext) factor).variable() : null;
+    }
+
+    @Override
+    public IrNode visitIfStatement(PascalParser.IfStatementContext ctx) {
+        IrNode condition = visit(ctx.expression());
+        IrNode thenStatement = statement(ctx.statement(0));
+        IrNode elseStatement = ctx.statement().size() > 1 ? statement(ctx.statement(1)) : null;
+        return new IrIf(condition, thenStatement, elseStatement);
+    }
+
+    @Override
+    public IrNode visitWhileStatement(PascalParser.WhileStatementContext ctx) {
+        return new IrWhile(visit(ctx.expression()), statement(ctx.statement()));
+    }
+
+    @Override
+    public IrNode visitRepeatStatement(PascalParser.RepeatStatementContext ctx) {
+        return new IrRepeat(visit(ctx.statements()), visit(ctx.expression()));
+    }
+
+    /**
+     * A subrange counter has both its initial & final values checked, before the first iteration
+     */
+    @Override
+    public IrNode visitForStatement(PascalParser.ForStatementContext ctx) {
+        String counterId = ctx.identifier().getText().toLowerCase();
+        IrVariable counter = variable(counterId, retrieve(counterId, ctx.identifier().getClass()));
+        PascalParser.ForListContext forList = ctx.forList();
+        IrNode initialValue = assigned(counter, visit(forList.initialValue().expression()));
+        IrNode finalValue = assigned(counter, visit(forList.finalValue().expression()));
+        return new IrFor(counter, initialValue, finalValue, forList.DOWNTO() != null, statement(ctx.statement()));
+    }
+
+    @Override
+    public IrNode visitCaseStatement(PascalParser.CaseStatementContext ctx) {
+        throw unsupported(ctx, "Case statement");
+    }
+
+    @Override
+    public IrNode visitWithStatement(PascalParser.WithStatementContext ctx) {
+        throw unsupported(ctx, "With statement");
+    }
+
+    @Override
+    public IrNode visitGotoStatement(PascalParser.GotoStatementContext ctx) {
+        throw unsupported(ctx, "Goto statement");
+    }
+
+    @Override
+    public IrNode visitProcedureStatement(PascalParser.ProcedureStatementContext ctx) {
+        if (ctx.readProcedureStatement() != null) return visit(ctx.readProcedureStatement());
+        if (ctx.writeProcedureStatement() != null) return visit(ctx.writeProcedureStatement());
+
+        String procedureId = ctx.identifier().getText().toLowerCase();
+        List<PascalParser.ActualParameterContext> actualParameters = ctx.parameterList() != null
+                ? ctx.parameterList().actualParameter() : List.of();
+        return call(procedureId, retrieve(procedureId, ctx.getClass()), actualParameters, ctx);
+    }
+
+    @Override
+    public IrNode visitWriteProcedureStatement(PascalParser.WriteProcedureStatementContext ctx) {
+        List<IrNode> values = new ArrayList<>();
+        if (ctx.writeParameters() != null) {
+            for (PascalParser.OutputValueContext each : ctx.writeParameters().outputValue()) {
+                // field widths (value:width:precision) are ignored
+                values.add(each.functionDesignator() != null
+                        ? visit(each.functionDesignator()) : visit(each.expression(0)));
+            }
+        }
+        return new IrWrite(values, ctx.WRITELN() != null);
+    }
+
+    @Override
+    public IrNode visitReadProcedureStatement(PascalParser.ReadProcedureStatementContext ctx) {
+        List<IrVariable> targets = new ArrayList<>();
+        if (ctx.readParameters() != null) {
+            for (PascalParser.InputValueContext each : ctx.readParameters().inputValue()) {
+                PascalParser.VariableContext variable = each.variable();
+                if (variable.getChildCount() > 1) throw unsupported(variable, "Variable");
+                String id = variable.getText().toLowerCase();
+                TypeDescriptor type = retrieve(id, PascalParser.IdentifierContext.class);
+                if (type instanceof Subrange) throw unsupported(variable, "Read of a subrange");
+                targets.add(variable(id, type));
+            }
+        }
+        return new IrRead(targets, ctx.READLN() != null);
+    }
+
+    /*
+     * Expressions
+     */
+
+    /**
+     * expression
+     * : simpleExpression (relationalOperator=(EQUAL| NOT_EQUAL| LT| LE| GE| GT| IN) e2=expression)?
+     * ;
+     * <p>
+     * int operand compared with a real converted to real, char compared with a string converted to string
+     * </p>
+     */
+    @Override
+    public IrNode visitExpression(PascalParser.ExpressionContext ctx) {
+        IrNode left = visit(ctx.simpleExpression());
+        if (ctx.expression() == null) return left;
+
+        IrNode right = visit(ctx.expression());
+        IrBinary.Operator operator = IrBinary.Operator.of(ctx.relationalOperator.getText().toLowerCase());
+        if (operator == null) throw unsupported(ctx, "Operator " + ctx.relationalOperator.getText());
+        left = coerce(left, right.getType());
+        right = coerce(right, left.getType());
+        return new IrBinary(operator, left, right, TypeInterner.BOOLEAN);
+    }
+
+    /**
+     * Operation between 2 operands: int operand converted if the other one (or the result) is real
+     *
+     * @param checked - type the checker recorded for the operation, null if none
+     */
+    private static IrNode operation(IrBinary.Operator operator, IrNode left, IrNode right, TypeDescriptor checked) {
+        TypeDescriptor type;
+        switch (operator) {
+            case AND:
+            case OR:
+                type = TypeInterner.BOOLEAN;
+                break;
+            case REAL_DIV:
+                type = DefaultFloatType.instance;
+                break;
+            case DIV:
+            case MOD:
+                type = DefaultIntegerType.instance;
+                break;
+            default:
+                // the checker may only widen (its type of a chain with a real operand is not always real)
+                boolean real = checked instanceof FloatBaseType
+                        || left.getType() instanceof FloatBaseType || right.getType() instanceof FloatBaseType;
+                type = real ? DefaultFloatType.instance : DefaultIntegerType.instance;
+        }
+        if (type instanceof FloatBaseType) {
+            left = coerce(left, type);
+            right = coerce(right, type);
+        }
+        return new IrBinary(operator, left, right, type);
+    }
+
+    /**
+     * simpleExpression
+     * : term (additiveOperator=(PLUS| MINUS| OR) simpleExpression)?
+     * ;
+     */
+    @Override
+    public IrNode visitSimpleExpression(PascalParser.SimpleExpressionContext ctx) {
+        IrNode left = visit(ctx.term());
+        for (PascalParser.SimpleExpressionContext rest = ctx; rest.simpleExpression() != null;
+             rest = rest.simpleExpression()) {
+            IrBinary.Operator operator = IrBinary.Operator.of(rest.additiveOperator.getText().toLowerCase());
+            IrNode right = visit(rest.simpleExpression().term());
+            // the whole chain is typed by the checker, the operations in between by their operands
+            TypeDescriptor type = rest.simpleExpression().simpleExpression() == null ? checkedType(ctx) : null;
+            left = operation(operator, left, right, type);
+        }
+        return left;
+    }
+
+    /**
+     * term
+     * : signedFactor (multiplicativeOperator=(STAR| SLASH| DIV| MOD| AND) term)?
+     * ;
+     */
+    @Override
+    public IrNode visitTerm(PascalParser.TermContext ctx) {
+        IrNode left = visit(ctx.signedFactor());
+        for (PascalParser.TermContext rest = ctx; rest.term() != null; rest = rest.term()) {
+            IrBinary.Operator operator = IrBinary.Operator.of(rest.multiplicativeOperator.getText().toLowerCase());
+            IrNode right = visit(rest.term().signedFactor());
+            TypeDescriptor type = rest.term().term() == null ? checkedType(ctx) : null;
+            left = operation(operator, left, right, type);
+        }
+        return left;
+    }
+
+    @Override
+    public IrNode visitSignedFactor(PascalParser.SignedFactorContext ctx) {
+        IrNode factor = visit(ctx.factor());
+        if (ctx.monadicOperator != null && ctx.monadicOperator.getType() == PascalParser.MINUS) {
+            return new IrUnary(IrUnary.Operator.NEG, factor, factor.getType());
+        }
+        return factor;
+    }
+
+    @Override
+    public IrNode visitNotFactor(PascalParser.NotFactorContext ctx) {
+        return new IrUnary(IrUnary.Operator.NOT, visit(ctx.factor()), TypeInterner.BOOLEAN);
+    }
+
+    @Override
+    public IrNode visitFactorExpr(PascalParser.FactorExprContext ctx) {
+        return visit(ctx.expression());
+    }
+
+    @Override
+    public IrNode visitFactorSet(PascalParser.FactorSetContext ctx) {
+        throw unsupported(ctx, "Set");
+    }
+
+    /**
+     * Variable, constant (maxint, const definition & enumerated value, replaced by its value)
+     * or call of a function without parameter
+     */
+    @Override
+    public IrNode visitVariable(PascalParser.VariableContext ctx) {
+        String id = ctx.variableHead().getText().toLowerCase();
+        TypeDescriptor type = retrieve(id, PascalParser.IdentifierContext.class);
+        if (type instanceof Function) {
+            return call(id, type, List.of(), ctx);
+        }
+        if (type instanceof ArrayType) {
+            ArrayLayout layout = layout((ArrayType) type);
+            List<IrNode> indexes = indexes(ctx);
+            // whole arrays & sub-arrays are only assigned
+            if (indexes.size() != layout.getDimensions()) throw unsupported(ctx, "Array value");
+            return new IrElement(variable(id, type), layout, offset(layout, indexes));
+        }
+        if (ctx.getChildCount() > 1) throw unsupported(ctx, "Variable");
+        if (type instanceof EnumeratedIdentifier) {
+            return ordinal((EnumeratedIdentifier) type);
+        }
+        if (type instanceof BaseType && ((BaseType) type).isConstant()) {
+            return constant((BaseType) type, ctx);
+        }
+        return variable(id, type);
+    }
+
+    private ArrayLayout layout(ArrayType type) {
+        return layouts.computeIfAbsent(type, ArrayLayout::of);
+    }
+
+    /**
+     * Indexes of all the array scriptings of a variable, a[i][j] & a[i, j] alike
+     */
+    private List<IrNode> indexes(PascalParser.VariableContext ctx) {
+        List<IrNode> indexes = new ArrayList<>();
+        for (int i = 1; i < ctx.getChildCount(); i++) {
+            if (!(ctx.getChild(i) instanceof PascalParser.ArrayScriptingContext)) throw unsupported(ctx, "Variable");
+            for (PascalParser.ExpressionContext each : ((PascalParser.ArrayScriptingContext) ctx.getChild(i))
+                    .expression()) {
+                indexes.add(visit(each));
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Position of an element (or of the first element of a sub-array) in the flat array:
+     * index1 * stride1 + .. + indexk * stridek - base, every index checked against the bounds of its dimension
+     */
+    private static IrNode offset(ArrayLayout layout, List<IrNode> indexes) {
+        IrNode offset = null;
+        for (int k = 0; k < indexes.size(); k++) {
+            IrNode index = new IrIntrinsic(IrIntrinsic.Routine.CHECK_RANGE, List.of(indexes.get(k),
+                    integer(layout.getLow(k)), integer(layout.getHigh(k))), DefaultIntegerType.instance);
+            if (layout.getStride(k) != 1) {
+                index = new IrBinary(IrBinary.Operator.MUL, index, integer(layout.getStride(k)),
+                        DefaultIntegerType.instance);
+            }
+            offset = offset == null ? index
+                    : new IrBinary(IrBinary.Operator.ADD, offset, index, DefaultIntegerType.instance);
+        }
+        // reduced mod 2^32 (large bounds): the offset itself is within the array, the int arithmetic wrapping
+        // around on the way gives it exactly
+        int base = (int) layout.getBase(indexes.size());
+        if (offset == null) return integer(0);
+        if (base == 0) return offset;
+        return new IrBinary(IrBinary.Operator.SUB, offset, integer(base), DefaultIntegerType.instance);
+    }
+
+    /**
+     * @param value - of a constant of an ordinal type (integer & enumerated values are Long)
+     */
+    private static long ordinal(Object value) {
+        if (value instanceof java.lang.Character) return (java.lang.Character) value;
+        if (value instanceof java.lang.Boolean) return (java.lang.Boolean) value ? 1L : 0L;
+        return (Long) value;
+    }
+
+    private static IrConstant integer(long value) {
+        return new IrConstant(value, DefaultIntegerType.instance);
+    }
+
+    private static IrConstant constant(BaseType type, ParserRuleContext ctx) {
+        if (type instanceof IntegerBaseType) {
+            return new IrConstant(((IntegerBaseType) type).getValue(), DefaultIntegerType.instance);
+        }
+        if (type instanceof FloatBaseType) {
+            return new IrConstant(((FloatBaseType) type).getValue(), DefaultFloatType.instance);
+        }
+        if (type instanceof Character) return new IrConstant(((Character) type).getValue(), TypeInterner.CHARACTER);
+        if (type instanceof Boolean) return new IrConstant(((Boolean) type).getValue(), TypeInterner.BOOLEAN);
+        if (type instanceof StringLiteral) return new IrConstant(((StringLiteral) type).getValue(), STRING);
+        if (type instanceof EnumeratedIdentifier) return ordinal((EnumeratedIdentifier) type);
+        throw unsupported(ctx, "Constant");
+    }
+
+    /**
+     * Enumerated values are their ordinal numbers (typed with their enumerated type, for succ/pred)
+     */
+    private static IrConstant ordinal(EnumeratedIdentifier value) {
+        long ordinal = value.getBelongsTo().getValueMap().get(value.getValue().toLowerCase());
+        return new IrConstant(ordinal, value.getBelongsTo());
+    }
+
+    /**
+     * Runtime functions go to the helpers of the runtime support library (IrIntrinsic), ord of a constant is the
+     * constant itself
+     */
+    @Override
+    public IrNode visitFunctionDesignator(PascalParser.FunctionDesignatorContext ctx) {
+        String functionId = ctx.identifier().getText().toLowerCase();
+        TypeDescriptor callee = retrieve(functionId, ctx.getClass());
+        List<PascalParser.ActualParameterContext> actualParameters = ctx.parameterList().actualParameter();
+        if (callee instanceof RuntimeFunction && actualParameters.size() == 1) {
+            IrNode argument = visit(actualParameters.get(0).expression());
+            boolean real = argument.getType() instanceof FloatBaseType;
+            switch (functionId) {
+                case "ord":
+                    if (argument instanceof IrConstant) {
+                        return integer(ordinal(((IrConstant) argument).getValue()));
+                    }
+                    // typed as an integer, e.g. succ of the last value left to fail at runtime
+                    return intrinsic(IrIntrinsic.Routine.ORD, argument, DefaultIntegerType.instance);
+                case "succ":
+                case "pred":
+                    return successor(functionId.equals("succ"), argument);
+                case "abs":
+                    return intrinsic(real ? IrIntrinsic.Routine.ABS_REAL : IrIntrinsic.Routine.ABS, argument,
+                            real ? DefaultFloatType.instance : DefaultIntegerType.instance);
+                case "sqr":
+                    return intrinsic(real ? IrIntrinsic.Routine.SQR_REAL : IrIntrinsic.Routine.SQR, argument,
+                            real ? DefaultFloatType.instance : DefaultIntegerType.instance);
+                case "odd":
+                    return intrinsic(IrIntrinsic.Routine.ODD, argument, TypeInterner.BOOLEAN);
+                case "trunc":
+                    return intrinsic(IrIntrinsic.Routine.TRUNC, argument, DefaultIntegerType.instance);
+                case "round":
+                    return intrinsic(IrIntrinsic.Routine.ROUND, argument, DefaultIntegerType.instance);
+                case "sqrt":
+                    return intrinsic(IrIntrinsic.Routine.SQRT, argument, DefaultFloatType.instance);
+            }
+        }
+        return call(functionId, callee, actualParameters, ctx);
+    }
+
+    /**
+     * @param argument - converted to the parameter of the helper (int to real)
+     */
+    private static IrIntrinsic intrinsic(IrIntrinsic.Routine routine, IrNode argument, TypeDescriptor type) {
+        if (routine.getMethod().getParameterTypes()[0] == double.class) {
+            argument = coerce(argument, DefaultFloatType.instance);
+        }
+        return new IrIntrinsic(routine, List.of(argument), type);
+    }
+
+    /**
+     * succ/pred of an enumerated value, char or boolean, checked against the last/first value of its type & typed
+     * with it, of an integer the next/previous one
+     */
+    private static IrNode successor(boolean next, IrNode argument) {
+        TypeDescriptor type = argument.getType();
+        long last;
+        if (type instanceof EnumeratedType) last = ((EnumeratedType) type).getValueMap().size() - 1L;
+        else if (type instanceof Character) last = java.lang.Character.MAX_VALUE;
+        else if (type instanceof Boolean) last = 1L;
+        else return operation(next ? IrBinary.Operator.ADD : IrBinary.Operator.SUB, argument, ONE, null);
+        IrConstant bound = new IrConstant(next ? last : 0L, DefaultIntegerType.instance);
+        return new IrIntrinsic(next ? IrIntrinsic.Routine.SUCC : IrIntrinsic.Routine.PRED, List.of(argument, bound),
+                type);
+    }
+
+    /**
+     * Call of a procedure/function of the program, actual parameters converted to the formal ones
+     */
+    private IrCall call(String id, TypeDescriptor callee, List<PascalParser.ActualParameterContext> actualParameters,
+                        ParserRuleContext ctx) {
+        if (!(callee instanceof ProcFuncBaseType)) throw unsupported(ctx, "Call");
+        List<TypeDescriptor> formalParams = ((ProcFuncBaseType) callee).getFormalParams();
+        TypeDescriptor resultType = callee instanceof Function ? ((Function) callee).getResultType() : null;
+
+        List<IrNode> arguments = new ArrayList<>();
+        Class<?>[] parameterClasses = new Class<?>[formalParams.size()];
+        for (int i = 0; i < formalParams.size(); i++) {
+            TypeDescriptor formalParam = formalParams.get(i);
+            TypeDescriptor parameterType = formalParam instanceof FormalParam
+                    ? ((FormalParam) formalParam).getHostType() : formalParam;
+            parameterClasses[i] = parameterType.getDescriptorClass();
+            if (i < actualParameters.size()) {
+                IrNode argument = coerce(visit(actualParameters.get(i).expression()), parameterType);
+                // checked against the bounds of a subrange parameter here, the callee trusts them
+                if (parameterType instanceof Subrange) {
+                    argument = checked(argument, Interval.of((Subrange) parameterType), argument.getType());
+                }
+                arguments.add(argument);
+            }
+        }
+        Class<?> resultClass = resultType != null ? resultType.getDescriptorClass() : void.class;
+        String descriptor = MethodType.methodType(resultClass, parameterClasses).toMethodDescriptorString();
+        return new IrCall(id, descriptor, arguments, resultType);
+    }
+
+    /*
+     * Constants
+     */
+
+    @Override
+    public IrNode visitUnsignedNumber(PascalParser.UnsignedNumberContext ctx) {
+        if (ctx.type.getType() == PascalParser.NUM_REAL) {
+            return new IrConstant(Double.valueOf(ctx.getText()), DefaultFloatType.instance);
+        }
+        return new IrConstant(Long.valueOf(ctx.getText()), DefaultIntegerType.instance);
+    }
+
+    @Override
+    public IrNode visitConstantChr(PascalParser.ConstantChrContext ctx) {
+        return new IrConstant((char) Integer.parseInt(ctx.NUM_INT().getText()), TypeInterner.CHARACTER);
+    }
+
+    /**
+     * Single character typed char, as the checker does
+     */
+    @Override
+    public IrNode visitString(PascalParser.StringContext ctx) {
+        String text = ctx.getText().replace("'", "");
+        if (text.length() == 1) return new IrConstant(text.charAt(0), TypeInterner.CHARACTER);
+        return new IrConstant(text, STRING);
+    }
+
+    @Override
+    public IrNode visitUnsignedConstant(PascalParser.UnsignedConstantContext ctx) {
+        if (ctx.NIL() != null) throw unsupported(ctx, "Nil");
+        return super.visitUnsignedConstant(ctx);
+    }
+
+    @Override
+    public IrNode visitFactorBool(PascalParser.FactorBoolContext ctx) {
+        return new IrConstant(ctx.bool_() instanceof PascalParser.TrueContext, TypeInterner.BOOLEAN);
+    }
+}
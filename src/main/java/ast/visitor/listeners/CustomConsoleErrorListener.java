@@ -11,6 +11,9 @@ import utils.log.RegressionTestErrorReporter;
  */
 public class CustomConsoleErrorListener extends ConsoleErrorListener {
     protected int _tokenErrors;
+    /**
+     * Template instance, holding the settings each compilation listener inherits
+     */
     public static CustomConsoleErrorListener INSTANCE = new CustomConsoleErrorListener();
     protected boolean redirectToRegressionLog;
 
@@ -22,6 +25,17 @@ public class CustomConsoleErrorListener extends ConsoleErrorListener {
         this.redirectToRegressionLog = false;
     }
 
+    /**
+     * Create a listener for one compilation, error counts must not be shared across compilations
+     *
+     * @return new listener with the settings of {@link #INSTANCE}
+     */
+    public static CustomConsoleErrorListener newInstance() {
+        CustomConsoleErrorListener listener = new CustomConsoleErrorListener();
+        listener.redirectToRegressionLog = INSTANCE.redirectToRegressionLog;
+        return listener;
+    }
+
     @Override
     public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine, String msg, RecognitionException e) {
         //super.syntaxError(recognizer, offendingSymbol, line, charPositionInLine, msg, e);
@@ -0,0 +1,41 @@
+package ast.visitor.listeners;
+
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+
+import java.util.ArrayList;
+
+/**
+ * Parse listener shrinking the child list of every rule context to its size once the rule is done
+ * <p>
+ * ANTLR's lists start with room for 10 children while most contexts have one or two (e.g. the single-child chains
+ * from expression down to factor), the spare slots are most of the tree's footprint. The lists stay mutable,
+ * the checker edits some of them.
+ * </p>
+ */
+public class ParseTreeTrimmer implements ParseTreeListener {
+
+    public static final ParseTreeTrimmer INSTANCE = new ParseTreeTrimmer();
+
+    private ParseTreeTrimmer() {
+    }
+
+    @Override
+    public void exitEveryRule(ParserRuleContext ctx) {
+        if (ctx.children instanceof ArrayList) ((ArrayList<?>) ctx.children).trimToSize();
+    }
+
+    @Override
+    public void enterEveryRule(ParserRuleContext ctx) {
+    }
+
+    @Override
+    public void visitTerminal(TerminalNode node) {
+    }
+
+    @Override
+    public void visitErrorNode(ErrorNode node) {
+    }
+}
@@ -0,0 +1,82 @@
+package driver;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of compiling a single source file within a batch
+ */
+public class BatchCompilationResult {
+
+    public enum Status {
+        COMPILED,
+        PARSE_FAILED,
+        CHECK_FAILED,
+        INTERNAL_ERROR
+    }
+
+    private final Path source;
+    private final Status status;
+    private final int tokenErrors;
+    private final int syntaxErrors;
+    private final int contextualErrors;
+    private final long elapsedMillis;
+    private final String message;
+    private final CompilationTimings timings;
+
+    public BatchCompilationResult(Path source, Status status, int tokenErrors, int syntaxErrors,
+                                  int contextualErrors, long elapsedMillis, String message) {
+        this(source, status, tokenErrors, syntaxErrors, contextualErrors, elapsedMillis, message, null);
+    }
+
+    public BatchCompilationResult(Path source, Status status, int tokenErrors, int syntaxErrors,
+                                  int contextualErrors, long elapsedMillis, String message,
+                                  CompilationTimings timings) {
+        this.source = source;
+        this.status = status;
+        this.tokenErrors = tokenErrors;
+        this.syntaxErrors = syntaxErrors;
+        this.contextualErrors = contextualErrors;
+        this.elapsedMillis = elapsedMillis;
+        this.message = message;
+        this.timings = timings;
+    }
+
+    public Path getSource() {
+        return source;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public int getTokenErrors() {
+        return tokenErrors;
+    }
+
+    public int getSyntaxErrors() {
+        return syntaxErrors;
+    }
+
+    public int getContextualErrors() {
+        return contextualErrors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return per-phase timings, null if the compilation did not even start
+     */
+    public CompilationTimings getTimings() {
+        return timings;
+    }
+
+    public boolean isCompiled() {
+        return status == Status.COMPILED;
+    }
+}
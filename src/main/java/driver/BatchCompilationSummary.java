@@ -0,0 +1,97 @@
+package driver;
+
+import com.alibaba.fastjson.JSONArray;
+import com.alibaba.fastjson.JSONObject;
+import utils.log.GlobalLogger;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregated errors & timing of a batch compilation, in the order the sources were submitted
+ */
+public class BatchCompilationSummary {
+
+    private final List<BatchCompilationResult> results;
+    private final long wallTimeMillis;
+    private final int workers;
+
+    public BatchCompilationSummary(List<BatchCompilationResult> results, long wallTimeMillis, int workers) {
+        this.results = Collections.unmodifiableList(results);
+        this.wallTimeMillis = wallTimeMillis;
+        this.workers = workers;
+    }
+
+    public List<BatchCompilationResult> getResults() {
+        return results;
+    }
+
+    public long getWallTimeMillis() {
+        return wallTimeMillis;
+    }
+
+    public long getCumulativeCompileMillis() {
+        return results.stream().mapToLong(BatchCompilationResult::getElapsedMillis).sum();
+    }
+
+    public Map<BatchCompilationResult.Status, Integer> countByStatus() {
+        Map<BatchCompilationResult.Status, Integer> counts = new EnumMap<>(BatchCompilationResult.Status.class);
+        for (BatchCompilationResult.Status status : BatchCompilationResult.Status.values()) counts.put(status, 0);
+        results.forEach(each -> counts.merge(each.getStatus(), 1, Integer::sum));
+        return counts;
+    }
+
+    public boolean allCompiled() {
+        return results.stream().allMatch(BatchCompilationResult::isCompiled);
+    }
+
+    /**
+     * Timings of every compilation (in submission order) with the batch totals
+     */
+    public JSONObject timingsToJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("wallTimeMillis", wallTimeMillis);
+        json.put("cumulativeCompileMillis", getCumulativeCompileMillis());
+        json.put("workers", workers);
+        JSONArray compilations = new JSONArray();
+        for (BatchCompilationResult each : results) {
+            JSONObject compilation = each.getTimings() != null ? each.getTimings().toJson() : new JSONObject(true);
+            compilation.put("source", each.getSource().toString());
+            compilation.put("status", each.getStatus().name());
+            compilations.add(compilation);
+        }
+        json.put("compilations", compilations);
+        return json;
+    }
+
+    /**
+     * Log one line per source file followed by the aggregated counts
+     */
+    public void report() {
+        GlobalLogger.info("Batch compilation results: ");
+        results.forEach(each -> GlobalLogger.info("{} {} - {} token, {} syntactic, {} contextual errors ({} ms){}",
+                each::getStatus,
+                each::getSource,
+                each::getTokenErrors,
+                each::getSyntaxErrors,
+                each::getContextualErrors,
+                each::getElapsedMillis,
+                () -> each.getMessage() != null ? " " + each.getMessage() : ""));
+
+        Map<BatchCompilationResult.Status, Integer> counts = countByStatus();
+        GlobalLogger.info("{} source files, {} compiled, {} syntactic failures, {} contextual failures, {} internal errors",
+                results::size,
+                () -> counts.get(BatchCompilationResult.Status.COMPILED),
+                () -> counts.get(BatchCompilationResult.Status.PARSE_FAILED),
+                () -> counts.get(BatchCompilationResult.Status.CHECK_FAILED),
+                () -> counts.get(BatchCompilationResult.Status.INTERNAL_ERROR));
+        GlobalLogger.info("Wall time: {} ms, cumulative compile time: {} ms, workers: {}",
+                () -> wallTimeMillis,
+                this::getCumulativeCompileMillis,
+                () -> workers);
+        CompilationCache cache = CompilationCache.getDefault();
+        if (cache != null) cache.report();
+    }
+}
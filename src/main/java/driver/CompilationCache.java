@@ -0,0 +1,366 @@
+package driver;
+
+import utils.log.GlobalLogger;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of generated class files, keyed by the content of the source
+ * <p>
+ * Key = SHA-256 of (compiler fingerprint, options affecting code generation, source bytes), the file name of the source
+ * plays no role, copies of a program share their entry. Only successful compilations are stored,
+ * failures must be reported with their diagnostics again.
+ * - entries are written to a temporary file then atomically moved, concurrent compilers (threads or processes)
+ * never see a partial entry, the last writer of the same key wins (identical content anyway)
+ * - a hit touches the entry, when the total size exceeds the bound the least recently used entries are evicted
+ * </p>
+ * Enabled by setting PTJ_CACHE_DIR, bounded by PTJ_CACHE_MAX_MB (default 256).
+ */
+public class CompilationCache {
+
+    public static final String DIR_ENV = "PTJ_CACHE_DIR";
+    public static final String MAX_SIZE_ENV = "PTJ_CACHE_MAX_MB";
+    public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+    private static final String ENTRY_SUFFIX = ".entry";
+    private static final int ENTRY_MAGIC = 0x50544A43; // PTJC
+
+    private static volatile String compilerFingerprint;
+    private static volatile CompilationCache defaultCache;
+    private static volatile boolean defaultResolved;
+
+    private final Path directory;
+    private final long maxSize;
+    private final AtomicLong size = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CompilationCache(Path directory, long maxSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        try (Stream<Path> entries = listEntries()) {
+            size.set(entries.mapToLong(CompilationCache::sizeOf).sum());
+        }
+    }
+
+    /**
+     * Process-wide cache configured by the environment, shared by all compilations of the JVM
+     *
+     * @return the cache, null if caching is disabled (or the directory unusable)
+     */
+    public static CompilationCache getDefault() {
+        if (!defaultResolved) {
+            synchronized (CompilationCache.class) {
+                if (!defaultResolved) {
+                    defaultCache = fromEnvironment();
+                    defaultResolved = true;
+                }
+            }
+        }
+        return defaultCache;
+    }
+
+    private static CompilationCache fromEnvironment() {
+        String dir = System.getenv(DIR_ENV);
+        if (dir == null || dir.isBlank()) return null;
+        String maxMegabytes = System.getenv(MAX_SIZE_ENV);
+        try {
+            long maxSize = maxMegabytes == null || maxMegabytes.isBlank()
+                    ? DEFAULT_MAX_SIZE : Long.parseLong(maxMegabytes.trim()) * 1024 * 1024;
+            return new CompilationCache(Path.of(dir.trim()), maxSize);
+        } catch (IOException | NumberFormatException e) {
+            GlobalLogger.error("Compilation cache disabled: {}", e::toString);
+            return null;
+        }
+    }
+
+    /**
+     * Content-addressed key of a compilation
+     *
+     * @param source  - source bytes
+     * @param options - options affecting the generated code
+     * @return hex SHA-256
+     */
+    public static String key(byte[] source, String options) {
+        MessageDigest digest = sha256();
+        digest.update(getCompilerFingerprint().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(options.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(source);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Key of a source file, streamed rather than read whole (sources may be huge)
+     */
+    public static String key(Path source, String options) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(getCompilerFingerprint().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(options.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        try (InputStream in = Files.newInputStream(source)) {
+            byte[] chunk = new byte[64 * 1024];
+            for (int read; (read = in.read(chunk)) > 0; ) digest.update(chunk, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hash of the compiler's own class files (classes directory or jar), computed once per JVM,
+     * any change of the compiler invalidates the whole cache while identical rebuilds keep it
+     */
+    static String getCompilerFingerprint() {
+        if (compilerFingerprint == null) {
+            synchronized (CompilationCache.class) {
+                if (compilerFingerprint == null) compilerFingerprint = computeCompilerFingerprint();
+            }
+        }
+        return compilerFingerprint;
+    }
+
+    private static String computeCompilerFingerprint() {
+        MessageDigest digest = sha256();
+        try {
+            CodeSource codeSource = CompilationCache.class.getProtectionDomain().getCodeSource();
+            Path location = Path.of(codeSource.getLocation().toURI());
+            if (Files.isDirectory(location)) {
+                try (Stream<Path> walk = Files.walk(location)) {
+                    List<Path> classes = walk.filter(each -> each.toString().endsWith(".class"))
+                            .sorted().collect(Collectors.toList());
+                    for (Path each : classes) {
+                        digest.update(location.relativize(each).toString().getBytes(StandardCharsets.UTF_8));
+                        digest.update(Files.readAllBytes(each));
+                    }
+                }
+            } else {
+                // entry contents only, jar timestamps differ between identical builds
+                try (JarFile jar = new JarFile(location.toFile())) {
+                    List<JarEntry> classes = jar.stream().filter(each -> each.getName().endsWith(".class"))
+                            .sorted(Comparator.comparing(JarEntry::getName)).collect(Collectors.toList());
+                    for (JarEntry each : classes) {
+                        digest.update(each.getName().getBytes(StandardCharsets.UTF_8));
+                        try (InputStream in = jar.getInputStream(each)) {
+                            digest.update(in.readAllBytes());
+                        }
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // unknown compiler build, never share entries with another JVM
+            GlobalLogger.error("Compiler fingerprint unavailable, cache entries limited to this process: {}", e::toString);
+            digest.update(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * @return the cached compilation, null on a miss (or an unreadable entry)
+     */
+    public Entry get(String key) {
+        Path file = entryPath(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != ENTRY_MAGIC) throw new IOException("Corrupted cache entry " + file);
+            String className = in.readUTF();
+            int tokenErrors = in.readInt();
+            int syntaxErrors = in.readInt();
+            int contextualErrors = in.readInt();
+            byte[] byteCode = new byte[in.readInt()];
+            in.readFully(byteCode);
+            touch(file);
+            hits.incrementAndGet();
+            return new Entry(className, byteCode, tokenErrors, syntaxErrors, contextualErrors);
+        } catch (NoSuchFileException e) {
+            misses.incrementAndGet();
+            return null;
+        } catch (IOException e) {
+            GlobalLogger.error("Compilation cache entry ignored: {}", e::toString);
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Store a compilation, failures to write are logged only, the compilation itself succeeded already
+     */
+    public void put(String key, Entry entry) {
+        Path file = entryPath(key);
+        Path temporary = null;
+        try {
+            temporary = Files.createTempFile(directory, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(ENTRY_MAGIC);
+                out.writeUTF(entry.getClassName());
+                out.writeInt(entry.getTokenErrors());
+                out.writeInt(entry.getSyntaxErrors());
+                out.writeInt(entry.getContextualErrors());
+                out.writeInt(entry.getByteCode().length);
+                out.write(entry.getByteCode());
+            }
+            long previous = sizeOf(file);
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            stores.incrementAndGet();
+            if (size.addAndGet(sizeOf(file) - previous) > maxSize) evict();
+        } catch (IOException e) {
+            GlobalLogger.error("Compilation cache entry not stored: {}", e::toString);
+            if (temporary != null) temporary.toFile().delete();
+        }
+    }
+
+    /**
+     * Remove least recently used entries until the cache is back to 90% of its bound,
+     * the directory is re-scanned since other processes may share it
+     */
+    private synchronized void evict() throws IOException {
+        if (size.get() <= maxSize) return;
+        List<Path> entries;
+        try (Stream<Path> stream = listEntries()) {
+            entries = stream.sorted(Comparator.comparing(CompilationCache::lastUsed)).collect(Collectors.toList());
+        }
+        long total = entries.stream().mapToLong(CompilationCache::sizeOf).sum();
+        long target = maxSize / 10 * 9;
+        for (Path each : entries) {
+            if (total <= target) break;
+            long entrySize = sizeOf(each);
+            if (Files.deleteIfExists(each)) evictions.incrementAndGet();
+            total -= entrySize;
+        }
+        size.set(total);
+    }
+
+    private Path entryPath(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    private Stream<Path> listEntries() throws IOException {
+        return Files.list(directory).filter(each -> each.toString().endsWith(ENTRY_SUFFIX));
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // evicted meanwhile, the entry read is still valid
+        }
+    }
+
+    private static FileTime lastUsed(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte each : bytes) hex.append(String.format("%02x", each));
+        return hex.toString();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStores() {
+        return stores.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public void report() {
+        GlobalLogger.info("Compilation cache {}: {} hits, {} misses, {} stored, {} evicted, {} KB in use",
+                () -> directory,
+                hits::get,
+                misses::get,
+                stores::get,
+                evictions::get,
+                () -> size.get() / 1024);
+    }
+
+    /**
+     * Cached outcome of a compilation: the class file & the diagnostic counts
+     */
+    public static class Entry {
+        private final String className;
+        private final byte[] byteCode;
+        private final int tokenErrors;
+        private final int syntaxErrors;
+        private final int contextualErrors;
+
+        public Entry(String className, byte[] byteCode, int tokenErrors, int syntaxErrors, int contextualErrors) {
+            this.className = className;
+            this.byteCode = byteCode;
+            this.tokenErrors = tokenErrors;
+            this.syntaxErrors = syntaxErrors;
+            this.contextualErrors = contextualErrors;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        public byte[] getByteCode() {
+            return byteCode;
+        }
+
+        public int getTokenErrors() {
+            return tokenErrors;
+        }
+
+        public int getSyntaxErrors() {
+            return syntaxErrors;
+        }
+
+        public int getContextualErrors() {
+            return contextualErrors;
+        }
+    }
+}
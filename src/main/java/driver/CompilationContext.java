@@ -0,0 +1,141 @@
+package driver;
+
+import ast.visitor.PascalParser;
+import ast.visitor.listeners.CustomConsoleErrorListener;
+import org.antlr.v4.runtime.TokenStream;
+import org.antlr.v4.runtime.tree.ParseTreeProperty;
+import tableUtils.TableManager;
+import type.TypeDescriptor;
+
+import java.nio.file.Path;
+
+/**
+ * State of a single compilation, shared by the driver, checker and encoder
+ * <p>
+ * Every compilation owns its context, nothing in here is process-wide,
+ * hence multiple compilations may run concurrently in different threads.
+ * </p>
+ */
+public class CompilationContext {
+
+    private final DriverArgument driverArgument;
+    private final TableManager<Object, TypeDescriptor> tableManager;
+    private final CustomConsoleErrorListener errorListener;
+    private final CompilationTimings timings;
+
+    private TokenStream tokens;
+    private PascalParser parser;
+
+    /**
+     * Types the checker resolved for the expression nodes (& the values of the constant definitions, the arrays &
+     * subranges of the variable declarations), read by the encoder instead of deriving them again
+     */
+    private ParseTreeProperty<TypeDescriptor> expressionTypes = new ParseTreeProperty<>();
+
+    public CompilationContext(DriverArgument driverArgument) {
+        this.driverArgument = driverArgument;
+        this.tableManager = new TableManager<>();
+        this.errorListener = CustomConsoleErrorListener.newInstance();
+        this.timings = driverArgument == null
+                ? new CompilationTimings(null, false)
+                : new CompilationTimings(driverArgument.getPath(), driverArgument.hasOption(DriverOption.TIMINGS));
+    }
+
+    /**
+     * Context without a source file, e.g. visitors driven manually upon an existing token stream
+     *
+     * @param tokens - token buffer
+     */
+    public CompilationContext(TokenStream tokens) {
+        this((DriverArgument) null);
+        this.tokens = tokens;
+    }
+
+    public DriverArgument getDriverArgument() {
+        return driverArgument;
+    }
+
+    public DriverCommand getCommand() {
+        return driverArgument == null ? null : driverArgument.getDriverCommand();
+    }
+
+    public TableManager<Object, TypeDescriptor> getTableManager() {
+        return tableManager;
+    }
+
+    public CustomConsoleErrorListener getErrorListener() {
+        return errorListener;
+    }
+
+    public CompilationTimings getTimings() {
+        return timings;
+    }
+
+    public TokenStream getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(TokenStream tokens) {
+        this.tokens = tokens;
+    }
+
+    public PascalParser getParser() {
+        return parser;
+    }
+
+    public void setParser(PascalParser parser) {
+        this.parser = parser;
+    }
+
+    public ParseTreeProperty<TypeDescriptor> getExpressionTypes() {
+        return expressionTypes;
+    }
+
+    /**
+     * Drop the expression types once the nodes they annotate are encoded or released
+     */
+    public void clearExpressionTypes() {
+        expressionTypes = new ParseTreeProperty<>();
+    }
+
+    /**
+     * @return true if the compilation keeps as little of the parse tree as possible (--memory-budget)
+     */
+    public boolean isMemoryBudget() {
+        return driverArgument != null && driverArgument.hasOption(DriverOption.MEMORY_BUDGET);
+    }
+
+    /**
+     * @return true if write/writeln go through the buffered runtime.support.PascalOutput
+     * (System.out for every call with --unbuffered-output)
+     */
+    public boolean isBufferedOutput() {
+        return driverArgument == null || !driverArgument.hasOption(DriverOption.UNBUFFERED_OUTPUT);
+    }
+
+    /**
+     * Options affecting the generated code, part of the compilation cache key
+     */
+    public String getCodeGenOptions() {
+        return isBufferedOutput() ? "" : DriverOption.UNBUFFERED_OUTPUT.getOptionName();
+    }
+
+    /**
+     * Directory where the generated class file is written to (same as the source file)
+     *
+     * @return parent directory of the source, null if the source has no parent
+     */
+    public String getOutputPath() {
+        if (driverArgument == null) return null;
+        Path parentDir = Path.of(driverArgument.getPath()).getParent();
+        return parentDir == null ? null : parentDir.toString();
+    }
+
+    /**
+     * @return source file name without extension
+     */
+    public String getSourceName() {
+        if (driverArgument == null) return null;
+        return Path.of(driverArgument.getPath()).getFileName().toString().split("\\.")[0];
+    }
+}
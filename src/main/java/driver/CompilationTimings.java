@@ -0,0 +1,199 @@
+package driver;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-phase durations & sizes of a single compilation
+ * <p>
+ * Every phase is measured as a {@link Span}, which also emits a {@link CompilerPhaseEvent} when Flight Recorder
+ * is recording. Sizes (tokens, parse tree nodes...) cost an extra pass, they are only computed when detailed,
+ * i.e. a timings report was requested or the event is enabled.
+ * </p>
+ */
+public class CompilationTimings {
+
+    public enum Phase {
+        CACHE,
+        LEX,
+        PARSE,
+        CHECK,
+        ENCODE,
+        ASSEMBLE,
+        WRITE,
+        DEFINE,
+        RUN;
+
+        public String getPhaseName() {
+            return name().toLowerCase();
+        }
+    }
+
+    public static final String REPORT_SUFFIX = ".timings.json";
+
+    private final String source;
+    private final boolean detailed;
+    private final Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+
+    private boolean cacheHit;
+    private long tokens = -1;
+    private long parseTreeNodes = -1;
+    private long symbols = -1;
+    private long byteCodeSize = -1;
+    private long peakHeapBytes = -1;
+
+    public CompilationTimings(String source, boolean report) {
+        this.source = source;
+        this.detailed = report || new CompilerPhaseEvent().isEnabled();
+    }
+
+    /**
+     * Start measuring a phase, to be closed once the phase is done (try-with-resources)
+     */
+    public Span begin(Phase phase) {
+        return new Span(phase);
+    }
+
+    public boolean isDetailed() {
+        return detailed;
+    }
+
+    public void setCacheHit(boolean cacheHit) {
+        this.cacheHit = cacheHit;
+    }
+
+    /**
+     * Sample the heap used at every phase boundary from now on, and wherever {@link #sampleHeap()} is called, the
+     * peak of this compilation only (concurrent compilations of the daemon or a batch each keep their own)
+     */
+    public void trackPeakHeap() {
+        peakHeapBytes = 0;
+        sampleHeap();
+    }
+
+    /**
+     * @return highest heap usage sampled, -1 if not tracked
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    /**
+     * Take the heap used now into the peak, if tracked
+     */
+    public void sampleHeap() {
+        if (peakHeapBytes < 0) return;
+        peakHeapBytes = Math.max(peakHeapBytes, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+    }
+
+    /**
+     * Take off the time of phases measured within another one (streaming compilation checks & encodes while parsing)
+     */
+    public void deduct(Phase phase, long elapsed) {
+        nanos.merge(phase, -elapsed, Long::sum);
+    }
+
+    public long getNanos(Phase phase) {
+        return nanos.getOrDefault(phase, 0L);
+    }
+
+    public long getTotalNanos() {
+        return nanos.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public JSONObject toJson() {
+        JSONObject json = new JSONObject(true);
+        json.put("source", source);
+        json.put("cacheHit", cacheHit);
+        JSONObject phases = new JSONObject(true);
+        nanos.forEach((phase, elapsed) -> phases.put(phase.getPhaseName(), toMillis(elapsed)));
+        json.put("phasesMillis", phases);
+        json.put("totalMillis", toMillis(getTotalNanos()));
+        if (tokens >= 0) json.put("tokens", tokens);
+        if (parseTreeNodes >= 0) json.put("parseTreeNodes", parseTreeNodes);
+        if (symbols >= 0) json.put("symbols", symbols);
+        if (byteCodeSize >= 0) json.put("byteCodeSize", byteCodeSize);
+        if (peakHeapBytes >= 0) json.put("peakHeapBytes", peakHeapBytes);
+        return json;
+    }
+
+    /**
+     * Write a report (a compilation or a whole batch) as JSON
+     *
+     * @param file - report file
+     * @param json - report content
+     */
+    public static void writeReport(Path file, JSONObject json) throws IOException {
+        Files.writeString(file, JSON.toJSONString(json, SerializerFeature.PrettyFormat));
+    }
+
+    /**
+     * @param argument - driver argument carrying the timings option
+     * @return report file given as option value, or the input path suffixed by {@link #REPORT_SUFFIX}
+     */
+    public static Path reportPath(DriverArgument argument) {
+        String value = argument.getOption(DriverOption.TIMINGS);
+        return value == null || value.isEmpty() ? Path.of(argument.getPath() + REPORT_SUFFIX) : Path.of(value);
+    }
+
+    private static double toMillis(long nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    /**
+     * Measurement of one phase, the count is the size the phase produced (see {@link CompilerPhaseEvent})
+     */
+    public class Span implements AutoCloseable {
+        private final Phase phase;
+        private final CompilerPhaseEvent event = new CompilerPhaseEvent();
+        private final long start = System.nanoTime();
+        private long count = -1;
+
+        private Span(Phase phase) {
+            this.phase = phase;
+            sampleHeap();
+            event.begin();
+        }
+
+        public void setCount(long count) {
+            this.count = count;
+            switch (phase) {
+                case LEX:
+                    tokens = count;
+                    break;
+                case PARSE:
+                    parseTreeNodes = count;
+                    break;
+                case CHECK:
+                    symbols = count;
+                    break;
+                case ASSEMBLE:
+                    byteCodeSize = count;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void close() {
+            nanos.merge(phase, System.nanoTime() - start, Long::sum);
+            sampleHeap();
+            event.end();
+            if (event.shouldCommit()) {
+                event.source = source;
+                event.phase = phase.getPhaseName();
+                event.count = count;
+                event.commit();
+            }
+        }
+    }
+}
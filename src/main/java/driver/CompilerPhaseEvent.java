@@ -0,0 +1,26 @@
+package driver;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted for every phase of a compilation
+ * <p>
+ * Record with e.g. -XX:StartFlightRecording=filename=ptj.jfr, the events show up under "Pascal Compiler".
+ * </p>
+ */
+@Name("ptj.CompilerPhase")
+@Label("Compiler Phase")
+@Category("Pascal Compiler")
+@Description("Duration of one phase of a compilation")
+public class CompilerPhaseEvent extends Event {
+
+    @Label("Source")
+    String source;
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Count")
+    @Description("tokens (lex), parse tree nodes (parse), symbols (check), bytecode bytes (assemble), -1 if not applicable")
+    long count = -1;
+}
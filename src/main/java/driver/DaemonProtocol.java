@@ -0,0 +1,181 @@
+package driver;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Wire format between the compiler daemon and its client
+ * <p>
+ * Every message is a frame: [channel (1 byte)][payload length (int)][payload].
+ * - client -> daemon: REQUEST (driver arguments separated by '\n'), then STDIN chunks, an empty STDIN frame means end of input
+ * - daemon -> client: STDOUT & STDERR chunks while the request is processed, finally EXIT (int status)
+ * </p>
+ */
+public class DaemonProtocol {
+
+    public static final int DEFAULT_PORT = 7878;
+    public static final String PORT_ENV = "PTJ_PORT";
+    public static final String STOP_COMMAND = "stop";
+
+    public static final byte REQUEST = 'R';
+    public static final byte STDIN = 'I';
+    public static final byte STDOUT = 'O';
+    public static final byte STDERR = 'E';
+    public static final byte EXIT = 'X';
+
+    private DaemonProtocol() {
+    }
+
+    public static int resolvePort() {
+        String port = System.getenv(PORT_ENV);
+        return port == null || port.isBlank() ? DEFAULT_PORT : Integer.parseInt(port.trim());
+    }
+
+    public static void writeFrame(DataOutputStream out, byte channel, byte[] payload, int off, int len) throws IOException {
+        synchronized (out) {
+            out.writeByte(channel);
+            out.writeInt(len);
+            out.write(payload, off, len);
+        }
+    }
+
+    public static void writeFrame(DataOutputStream out, byte channel, byte[] payload) throws IOException {
+        writeFrame(out, channel, payload, 0, payload.length);
+    }
+
+    public static void writeRequest(DataOutputStream out, String[] args) throws IOException {
+        writeFrame(out, REQUEST, String.join("\n", args).getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    public static String[] readRequest(Frame frame) {
+        return Arrays.stream(frame.getText().split("\n")).filter(each -> !each.isEmpty()).toArray(String[]::new);
+    }
+
+    public static void writeExit(DataOutputStream out, int status) throws IOException {
+        synchronized (out) {
+            writeFrame(out, EXIT, ByteBuffer.allocate(Integer.BYTES).putInt(status).array());
+            out.flush();
+        }
+    }
+
+    public static int readExitStatus(byte[] payload) {
+        return ByteBuffer.wrap(payload).getInt();
+    }
+
+    /**
+     * @return the frame read, null if the peer closed the connection
+     */
+    public static Frame readFrame(DataInputStream in) throws IOException {
+        int channel = in.read();
+        if (channel < 0) return null;
+        int length = in.readInt();
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) throw new EOFException("Truncated frame");
+        return new Frame((byte) channel, payload);
+    }
+
+    public static class Frame {
+        private final byte channel;
+        private final byte[] payload;
+
+        public Frame(byte channel, byte[] payload) {
+            this.channel = channel;
+            this.payload = payload;
+        }
+
+        public byte getChannel() {
+            return channel;
+        }
+
+        public byte[] getPayload() {
+            return payload;
+        }
+
+        public String getText() {
+            return new String(payload, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Output stream sending everything written as frames of one channel
+     */
+    static class FrameOutputStream extends OutputStream {
+        private final DataOutputStream out;
+        private final byte channel;
+
+        FrameOutputStream(DataOutputStream out, byte channel) {
+            this.out = out;
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > 0) writeFrame(out, channel, b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Input stream fed by STDIN frames of the client
+     */
+    static class FrameInputStream extends InputStream {
+        private static final byte[] EOF = new byte[0];
+
+        private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+        private byte[] current;
+        private int position;
+
+        void offer(byte[] chunk) {
+            chunks.add(chunk.length == 0 ? EOF : chunk);
+        }
+
+        void endOfInput() {
+            chunks.add(EOF);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (current == EOF) return -1;
+            if (current == null || position == current.length) {
+                try {
+                    current = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+                position = 0;
+                if (current == EOF) return -1;
+            }
+            int count = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return current == null || current == EOF ? 0 : current.length - position;
+        }
+    }
+}
@@ -1,12 +1,22 @@
 package driver;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
 public class DriverArgument {
     private DriverCommand driverCommand;
     private String path;
+    private Map<DriverOption, String> options;
 
     public DriverArgument(DriverCommand driverCommand, String path) {
+        this(driverCommand, path, Collections.emptyMap());
+    }
+
+    public DriverArgument(DriverCommand driverCommand, String path, Map<DriverOption, String> options) {
         this.driverCommand = driverCommand;
         this.path = path;
+        this.options = options.isEmpty() ? Collections.emptyMap() : Collections.unmodifiableMap(new EnumMap<>(options));
     }
 
     public String getCommandName() {
@@ -20,4 +30,19 @@ public class DriverArgument {
     public String getPath() {
         return path;
     }
+
+    public Map<DriverOption, String> getOptions() {
+        return options;
+    }
+
+    public boolean hasOption(DriverOption option) {
+        return options.containsKey(option);
+    }
+
+    /**
+     * @return value of the option, empty if given without value, null if absent
+     */
+    public String getOption(DriverOption option) {
+        return options.get(option);
+    }
 }
@@ -5,7 +5,10 @@ public enum DriverCommand {
    PARSE("parse"),
    CHECK("check"),
    COMPILE("compile"),
-   RUN("run")
+   RUN("run"),
+   BATCH("batch"),
+   DAEMON("daemon"),
+   WARMUP("warmup")
 
    ;
 
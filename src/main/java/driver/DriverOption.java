@@ -0,0 +1,33 @@
+package driver;
+
+/**
+ * Optional switches following the command, in the form of "--name" or "--name=value"
+ */
+public enum DriverOption {
+
+   TIMINGS("--timings"),
+   MEMORY_BUDGET("--memory-budget"),
+   UNBUFFERED_OUTPUT("--unbuffered-output"),
+
+   ;
+
+   private String optionName;
+   DriverOption(String optionName){
+      this.optionName = optionName;
+   }
+
+   public String getOptionName() {
+      return optionName;
+   }
+
+   /**
+    * @param name - option name without value
+    * @return matched option, null if unknown
+    */
+   public static DriverOption fromName(String name) {
+      for (DriverOption each : values()) {
+         if (each.optionName.equalsIgnoreCase(name)) return each;
+      }
+      return null;
+   }
+}
@@ -0,0 +1,148 @@
+package driver;
+
+import exception.PascalCompilerException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Compile many source files within one JVM
+ * <p>
+ * Sources are submitted to a bounded worker pool, each file gets its own driver builder
+ * (parse - check - compile) with its own compilation context, so that the result equals
+ * running the files one by one.
+ * </p>
+ */
+public class PascalBatchCompilerDriver {
+
+    private final List<Path> sources;
+    private final int workers;
+    private final Map<DriverOption, String> options;
+
+    public PascalBatchCompilerDriver(DriverArgument driverArgument) throws IOException {
+        this(collectSources(Path.of(driverArgument.getPath())), Runtime.getRuntime().availableProcessors(),
+                driverArgument.getOptions());
+    }
+
+    public PascalBatchCompilerDriver(List<Path> sources, int workers) {
+        this(sources, workers, Collections.emptyMap());
+    }
+
+    /**
+     * @param options - driver options applied to every source
+     */
+    public PascalBatchCompilerDriver(List<Path> sources, int workers, Map<DriverOption, String> options) {
+        this.sources = sources;
+        this.workers = Math.max(1, Math.min(workers, sources.size()));
+        this.options = options;
+    }
+
+    /**
+     * Resolve the batch input
+     * <p>
+     * - directory: every .pas file beneath it (sorted)
+     * - .pas file: the file itself
+     * - any other file: a file list, one path per line (relative paths resolved against the list's directory,
+     * blank lines and lines starting with '#' ignored)
+     * </p>
+     *
+     * @param path - directory, source file or file list
+     * @return ordered source files
+     */
+    public static List<Path> collectSources(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> walk = Files.walk(path)) {
+                return walk.filter(each -> Files.isRegularFile(each) && each.toString().endsWith(".pas"))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+        if (path.toString().endsWith(".pas")) return List.of(path);
+
+        Path base = path.toAbsolutePath().getParent();
+        return Files.readAllLines(path).stream()
+                .map(String::trim)
+                .filter(each -> !each.isEmpty() && !each.startsWith("#"))
+                .map(each -> base.resolve(each).normalize())
+                .collect(Collectors.toList());
+    }
+
+    public List<Path> getSources() {
+        return sources;
+    }
+
+    public BatchCompilationSummary compileAll() throws InterruptedException {
+        long start = System.currentTimeMillis();
+        List<BatchCompilationResult> results = new ArrayList<>(sources.size());
+        if (sources.isEmpty()) return new BatchCompilationSummary(results, 0, 0);
+
+        // workers start on filled prediction caches rather than all building them at once
+        PredictionWarmUp.warmUpFromEnvironment();
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<BatchCompilationResult>> futures = new ArrayList<>(sources.size());
+            sources.forEach(each -> futures.add(pool.submit(() -> compile(each, options))));
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    results.add(new BatchCompilationResult(sources.get(i), BatchCompilationResult.Status.INTERNAL_ERROR,
+                            0, 0, 0, 0, String.valueOf(e.getCause())));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return new BatchCompilationSummary(results, System.currentTimeMillis() - start, workers);
+    }
+
+    /**
+     * Run parse - check - compile on a single source, never throws
+     *
+     * @param source - source file
+     * @return compilation outcome
+     */
+    static BatchCompilationResult compile(Path source) {
+        return compile(source, Collections.emptyMap());
+    }
+
+    static BatchCompilationResult compile(Path source, Map<DriverOption, String> options) {
+        long start = System.currentTimeMillis();
+        PascalCompilerDriverBuilder builder = null;
+        BatchCompilationResult.Status status = BatchCompilationResult.Status.COMPILED;
+        String message = null;
+        try {
+            builder = new PascalCompilerDriverBuilder(new DriverArgument(DriverCommand.COMPILE, source.toString(), options));
+            builder.parse().check().run();
+        } catch (PascalCompilerException e) {
+            if (builder == null) {
+                // failed before any phase ran, nothing counted
+                status = BatchCompilationResult.Status.PARSE_FAILED;
+                message = e.getMessage();
+            } else {
+                status = builder.getSyntaxErrors() > 0 || builder.getTokenErrors() > 0
+                        ? BatchCompilationResult.Status.PARSE_FAILED
+                        : BatchCompilationResult.Status.CHECK_FAILED;
+            }
+        } catch (Exception | LinkageError e) {
+            // code generation of unsupported constructs must not abort the remaining sources
+            status = BatchCompilationResult.Status.INTERNAL_ERROR;
+            message = e.toString();
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        if (builder == null) return new BatchCompilationResult(source, status, 0, 0, 0, elapsed, message);
+        return new BatchCompilationResult(source, status, builder.getTokenErrors(), builder.getSyntaxErrors(),
+                builder.getContextualErrors(), elapsed, message, builder.getContext().getTimings());
+    }
+}
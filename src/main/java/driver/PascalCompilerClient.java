@@ -0,0 +1,94 @@
+package driver;
+
+import java.io.*;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+
+/**
+ * Thin client of {@link PascalCompilerDaemon}
+ * <p>
+ * Usage: same as the compiler driver (command & path), or "stop" to shut the daemon down.
+ * Standard input is forwarded to the program run by the daemon, its output & the diagnostics are written back
+ * to standard output/error, the exit status is the one of the request.
+ * Only JDK classes are loaded, so the client itself starts quickly.
+ * </p>
+ */
+public class PascalCompilerClient {
+
+    public static void main(String[] args) {
+        System.exit(execute(args, DaemonProtocol.resolvePort()));
+    }
+
+    public static int execute(String[] args, int port) {
+        if (args.length == 0) {
+            System.err.println("Usage: <command> <path>, or stop");
+            return PascalCompilerDriver.STATUS_FAILED;
+        }
+        // the daemon resolves paths from its own working directory, send absolute ones
+        String[] request = new String[args.length];
+        request[0] = args[0];
+        for (int i = 1; i < args.length; i++) request[i] = absolutize(args[i]);
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DaemonProtocol.writeRequest(out, request);
+
+            Thread inputPump = new Thread(() -> pumpInput(out), "ptj-client-stdin");
+            inputPump.setDaemon(true);
+            inputPump.start();
+
+            DaemonProtocol.Frame frame;
+            while ((frame = DaemonProtocol.readFrame(in)) != null) {
+                switch (frame.getChannel()) {
+                    case DaemonProtocol.STDOUT:
+                        System.out.write(frame.getPayload());
+                        System.out.flush();
+                        break;
+                    case DaemonProtocol.STDERR:
+                        System.err.write(frame.getPayload());
+                        System.err.flush();
+                        break;
+                    case DaemonProtocol.EXIT:
+                        return DaemonProtocol.readExitStatus(frame.getPayload());
+                    default:
+                        break;
+                }
+            }
+            System.err.println("Connection closed by the compiler daemon");
+        } catch (ConnectException e) {
+            System.err.printf("No compiler daemon listening on port %d, start one with: daemon [port]%n", port);
+        } catch (IOException e) {
+            System.err.println("Communication with the compiler daemon failed: " + e);
+        }
+        return PascalCompilerDriver.STATUS_INTERNAL_ERROR;
+    }
+
+    /**
+     * @return path argument made absolute, for options the value if any ("--name=path")
+     */
+    private static String absolutize(String arg) {
+        if (!arg.startsWith("--")) return Path.of(arg).toAbsolutePath().toString();
+        int separator = arg.indexOf('=');
+        if (separator < 0 || separator == arg.length() - 1) return arg;
+        return arg.substring(0, separator + 1) + Path.of(arg.substring(separator + 1)).toAbsolutePath();
+    }
+
+    private static void pumpInput(DataOutputStream out) {
+        byte[] buffer = new byte[8192];
+        try {
+            int count;
+            while ((count = System.in.read(buffer)) > 0) {
+                DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN, buffer, 0, count);
+                out.flush();
+            }
+            DaemonProtocol.writeFrame(out, DaemonProtocol.STDIN, new byte[0]);
+            out.flush();
+        } catch (IOException e) {
+            // request finished before the input was consumed
+        }
+    }
+}
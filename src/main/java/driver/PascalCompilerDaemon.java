@@ -0,0 +1,135 @@
+package driver;
+
+import runtime.RuntimeLibManager;
+import utils.io.StdStreamRouter;
+import utils.log.GlobalLogger;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Long-lived compiler process serving requests of {@link PascalCompilerClient} over a local socket
+ * <p>
+ * The JVM boots, loads ANTLR/ASM/logback and scans the runtime library once, repeated requests
+ * land on warmed-up (JIT compiled) code. Each request runs in its own thread with its own compilation context,
+ * diagnostics & program output are streamed back to the client while the request is processed.
+ * </p>
+ */
+public class PascalCompilerDaemon {
+
+    private final int port;
+    private final ExecutorService workers = Executors.newCachedThreadPool();
+    private volatile ServerSocket serverSocket;
+
+    public PascalCompilerDaemon(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Accept requests until a stop request arrives, blocks the calling thread
+     */
+    public void serve() throws IOException {
+        if (serverSocket == null) start();
+        GlobalLogger.info("Compiler daemon listening on port {}", this::getLocalPort);
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // server socket closed by a stop request
+                break;
+            }
+            workers.submit(() -> handle(socket));
+        }
+        workers.shutdown();
+        GlobalLogger.info("Compiler daemon stopped");
+    }
+
+    /**
+     * Bind the server socket (loopback only) and warm up, without accepting requests yet
+     */
+    void start() throws IOException {
+        StdStreamRouter.install();
+        RuntimeLibManager.preload();
+        PredictionWarmUp.warmUpFromEnvironment();
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+    }
+
+    public int getLocalPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    public void stop() throws IOException {
+        if (serverSocket != null) serverSocket.close();
+    }
+
+    private void handle(Socket socket) {
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            DaemonProtocol.Frame request = DaemonProtocol.readFrame(in);
+            if (request == null || request.getChannel() != DaemonProtocol.REQUEST) return;
+            String[] args = DaemonProtocol.readRequest(request);
+
+            if (args.length > 0 && DaemonProtocol.STOP_COMMAND.equals(args[0])) {
+                DaemonProtocol.writeExit(out, 0);
+                stop();
+                return;
+            }
+
+            DaemonProtocol.FrameInputStream stdin = new DaemonProtocol.FrameInputStream();
+            Thread inputPump = new Thread(() -> pumpInput(in, stdin), "ptj-daemon-stdin");
+            inputPump.setDaemon(true);
+            inputPump.start();
+
+            int status = execute(args, out, stdin);
+            DaemonProtocol.writeExit(out, status);
+        } catch (IOException e) {
+            GlobalLogger.error("Daemon request aborted: {}", e::toString);
+        }
+    }
+
+    /**
+     * Run the request in current thread with standard streams bound to the client
+     */
+    private int execute(String[] args, DataOutputStream out, InputStream stdin) {
+        StdStreamRouter.bind(new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDOUT),
+                new DaemonProtocol.FrameOutputStream(out, DaemonProtocol.STDERR), stdin);
+        try {
+            if (args.length > 0 && DriverCommand.DAEMON.getCommandName().equalsIgnoreCase(args[0])) {
+                System.err.println("Compiler daemon is already running");
+                return PascalCompilerDriver.STATUS_FAILED;
+            }
+            return PascalCompilerDriver.execute(args);
+        } catch (RuntimeException | LinkageError e) {
+            // the daemon must survive whatever a single request runs into
+            e.printStackTrace();
+            return PascalCompilerDriver.STATUS_INTERNAL_ERROR;
+        } finally {
+            System.out.flush();
+            System.err.flush();
+            StdStreamRouter.unbind();
+        }
+    }
+
+    private void pumpInput(DataInputStream in, DaemonProtocol.FrameInputStream stdin) {
+        try {
+            DaemonProtocol.Frame frame;
+            while ((frame = DaemonProtocol.readFrame(in)) != null) {
+                if (frame.getChannel() != DaemonProtocol.STDIN) continue;
+                stdin.offer(frame.getPayload());
+                if (frame.getPayload().length == 0) return;
+            }
+        } catch (IOException e) {
+            // connection closed once the request is done
+        }
+        stdin.endOfInput();
+    }
+}
@@ -1,6 +1,7 @@
 package driver;
 
 import ch.qos.logback.classic.Level;
+import com.alibaba.fastjson.JSONObject;
 import exception.BuiltinException;
 import exception.PascalCompilerException;
 import org.apache.commons.lang3.StringUtils;
@@ -9,8 +10,11 @@ import utils.log.GlobalLogger;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.lang.management.ManagementFactory;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -20,13 +24,33 @@ import java.util.concurrent.TimeUnit;
  */
 public class PascalCompilerDriver {
 
+    /**
+     * Exit status of a single invocation
+     */
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_FAILED = 1;
+    public static final int STATUS_INTERNAL_ERROR = 2;
+
     private static Set<String> commandMap = Set.of(
             "parse", "check", "run"
     );
 
     public static DriverArgument checkArguments(String[] args) throws PascalCompilerException {
-        String command = args.length > 0 ? args[0] : null;
-        String path = args.length > 1 ? args[1] : null;
+        // options ("--name[=value]") may appear anywhere, the remaining arguments are command & path
+        List<String> positional = new ArrayList<>();
+        Map<DriverOption, String> options = new EnumMap<>(DriverOption.class);
+        for (String each : args) {
+            if (each == null || !each.startsWith("--")) {
+                positional.add(each);
+                continue;
+            }
+            int separator = each.indexOf('=');
+            DriverOption option = DriverOption.fromName(separator < 0 ? each : each.substring(0, separator));
+            if (option == null) throw BuiltinException.INVALID_OPTION.getException();
+            options.put(option, separator < 0 ? "" : each.substring(separator + 1));
+        }
+        String command = positional.size() > 0 ? positional.get(0) : null;
+        String path = positional.size() > 1 ? positional.get(1) : null;
 
         //if (StringUtils.isBlank(command) || !commandMap.contains(command)) {
         //    //throw new PascalCompilerException("Invalid command. Available Usage: parse, check");
@@ -44,18 +68,27 @@ public class PascalCompilerDriver {
             throw BuiltinException.INVALID_COMMAND.getException();
         }
 
-        if (StringUtils.isBlank(path) || !path.endsWith(".pas")) {
+        // daemon takes an optional port rather than a source path
+        if (driverCommand == DriverCommand.DAEMON) {
+            if (StringUtils.isBlank(path)) path = String.valueOf(DaemonProtocol.resolvePort());
+            if (!StringUtils.isNumeric(path) || path.length() > 5 || Integer.parseInt(path) > 65535) {
+                throw BuiltinException.INVALID_PORT.getException();
+            }
+            return new DriverArgument(driverCommand, path);
+        }
+
+        // batch & warmup accept a directory or a file list as well as a single source file
+        boolean isBatch = driverCommand == DriverCommand.BATCH || driverCommand == DriverCommand.WARMUP;
+        if (StringUtils.isBlank(path) || (!isBatch && !path.endsWith(".pas"))) {
             //throw new PascalCompilerException("Invalid file path. Please specify valid path");
             throw BuiltinException.INVALID_PATH.getException();
         }
         final boolean exists = new File(path).exists();
         if (!exists) throw new PascalCompilerException(new FileNotFoundException("File not found: "+path).getMessage());
 
-        return new DriverArgument(driverCommand,path);
+        return new DriverArgument(driverCommand, path, options);
     }
 
-    static CompilerDriverBuilder builder = null;
-
     /**
      * public static void printInformation(String path) {
      * System.out.printf("Source file - %s\n", path);
@@ -71,33 +104,99 @@ public class PascalCompilerDriver {
         String commandName = driverArgument.getCommandName();
 
         // default output is standard output
-        if (commandName.equals("parse")) {
-            builder = new PascalCompilerDriverBuilder(driverArgument).parse();
-        }
-        if (commandName.equals("check")) {
-            // throw PascalCompilerException, if syntactic analysis not being executed yet
-            builder = new PascalCompilerDriverBuilder(driverArgument).parse().check();
+        // local to this invocation, nothing of it outlives the call (concurrent daemon requests)
+        PascalCompilerDriverBuilder driverBuilder = new PascalCompilerDriverBuilder(driverArgument);
+        try {
+            if (commandName.equals("parse")) {
+                driverBuilder.parse();
+            }
+            if (commandName.equals("check")) {
+                // throw PascalCompilerException, if syntactic analysis not being executed yet
+                driverBuilder.parse().check();
+            }
+            if (commandName.equals("run") || commandName.equals("compile")) {
+                driverBuilder.parse().check().run();
+            }
+        } finally {
+            if (driverArgument.hasOption(DriverOption.MEMORY_BUDGET)) {
+                long peakHeap = driverBuilder.getContext().getTimings().getPeakHeapBytes();
+                GlobalLogger.info("Peak heap {} MB", () -> peakHeap / (1024 * 1024));
+            }
+            // failed compilations are reported as well, up to the phase they reached
+            if (driverArgument.hasOption(DriverOption.TIMINGS)) {
+                writeTimings(CompilationTimings.reportPath(driverArgument),
+                        driverBuilder.getContext().getTimings().toJson());
+            }
         }
-        if (commandName.equals("run") || commandName.equals("compile")) {
-            builder = new PascalCompilerDriverBuilder(driverArgument).parse().check().run();
+        return driverBuilder;
+    }
+
+    static void writeTimings(Path report, JSONObject json) {
+        try {
+            CompilationTimings.writeReport(report, json);
+            GlobalLogger.info("Timings written to {}", () -> report);
+        } catch (IOException e) {
+            GlobalLogger.error("Timings not written: {}", e::toString);
         }
-        return builder;
+    }
+
+    /**
+     * Record the corpus given as path into a warm-up snapshot, written where PTJ_WARMUP points
+     * (ptj-warmup.snapshot in the working directory if unset)
+     */
+    static void writeWarmUpSnapshot(DriverArgument driverArgument) throws IOException {
+        List<Path> sources = PascalBatchCompilerDriver.collectSources(Path.of(driverArgument.getPath()));
+        String location = System.getenv(PredictionWarmUp.WARMUP_ENV);
+        Path snapshot = Path.of(location == null || location.isBlank() ? PredictionWarmUp.DEFAULT_SNAPSHOT : location.trim());
+        PredictionWarmUp.record(sources).write(snapshot);
+        GlobalLogger.info("Warm-up snapshot of {} sources written to {}", sources::size, () -> snapshot);
     }
 
     public static void main(String[] args) {
-        long jvmStartTime = ManagementFactory.getRuntimeMXBean().getUptime();
-        //long seconds = TimeUnit.MILLISECONDS.toSeconds(jvmStartTime);
-        //System.out.println("jvmStartTime = " + jvmStartTime);
+        // same exit status as through the daemon client, a daemon returning from serve() exits normally
+        int status = execute(args);
+        if (status != STATUS_OK) System.exit(status);
+    }
 
+    /**
+     * Perform one compiler invocation, shared by the command line and the daemon
+     *
+     * @param args - command & path
+     * @return exit status
+     */
+    public static int execute(String[] args) {
         try {
             DriverArgument driverArgument = checkArguments(args);
+            if (driverArgument.getDriverCommand() == DriverCommand.BATCH) {
+                BatchCompilationSummary summary = new PascalBatchCompilerDriver(driverArgument).compileAll();
+                summary.report();
+                if (driverArgument.hasOption(DriverOption.TIMINGS)) {
+                    writeTimings(CompilationTimings.reportPath(driverArgument), summary.timingsToJson());
+                }
+                return summary.allCompiled() ? STATUS_OK : STATUS_FAILED;
+            }
+            if (driverArgument.getDriverCommand() == DriverCommand.DAEMON) {
+                new PascalCompilerDaemon(Integer.parseInt(driverArgument.getPath())).serve();
+                return STATUS_OK;
+            }
+            if (driverArgument.getDriverCommand() == DriverCommand.WARMUP) {
+                writeWarmUpSnapshot(driverArgument);
+                return STATUS_OK;
+            }
             constructDriverAndBuild(driverArgument);
+            return STATUS_OK;
         } catch (PascalCompilerException e) {
             GlobalLogger.info("{}", e::getMessage);
+            return STATUS_FAILED;
+        } catch (UnsupportedOperationException e) {
+            // checked program the encoder has no code for
+            GlobalLogger.info("{}", e::getMessage);
+            return STATUS_FAILED;
         } catch (IOException | InvocationTargetException | NoSuchMethodException | IllegalAccessException
-                e) {
+                | InterruptedException e) {
             //GlobalLogger.error("{}", e::getStackTrace);
             e.printStackTrace();
+            return STATUS_INTERNAL_ERROR;
         }
     }
 }
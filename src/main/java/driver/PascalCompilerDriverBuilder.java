@@ -1,44 +1,57 @@
 package driver;
 
+import ast.visitor.CompactTokenStream;
 import ast.visitor.PascalBaseVisitor;
 import ast.visitor.PascalCustomLexer;
+import ast.visitor.PascalCustomParser;
 import ast.visitor.PascalLexer;
 import ast.visitor.PascalParser;
 import ast.visitor.impl.PascalCheckerVisitor;
 import ast.visitor.impl.PascalEncoderVisitor;
-import ast.visitor.listeners.CustomConsoleErrorListener;
+import ast.visitor.listeners.ParseTreeTrimmer;
 import ch.qos.logback.classic.Level;
 import exception.BuiltinException;
 import exception.PascalCompilerException;
-import org.antlr.v4.runtime.CharStreams;
-import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
 import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
 import type.TypeDescriptor;
+import utils.io.MappedCharStream;
 import utils.log.GlobalLogger;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.LinkedHashSet;
-import java.util.Set;
+import java.util.*;
 
 public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
 
     private PascalLexer lexer;
-    private CommonTokenStream tokens; // token buffer
-    public static PascalParser parser;
+    private CompactTokenStream tokens; // token buffer
+    private PascalParser parser;
     private PascalBaseVisitor<TypeDescriptor> checker;
     private PascalEncoderVisitor runner;
     private ParseTree tree;
+    private StreamingCompilation streaming; // --memory-budget, tree checked & encoded while parsed
     private int syntaxErrors;
     private int tokenErrors;
     private int contextualErrors;
 
     private String fileName;
     private DriverCommand command;
+    private CompilationContext context;
 
+    public static final String MAPPED_THRESHOLD_ENV = "PTJ_MMAP_THRESHOLD_MB";
+    public static final long DEFAULT_MAPPED_THRESHOLD = 16L * 1024 * 1024;
+
+    private CompilationCache cache = CompilationCache.getDefault();
+    private String cacheKey;
+    private CompilationCache.Entry cached; // set on a cache hit, the whole pipeline is skipped
 
     /**
      * Create a new Driver Builder, with default standard output
@@ -60,6 +73,8 @@ public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
         this.setOut(outputStream);
         this.fileName = driverArgument.getPath();
         this.command = driverArgument.getDriverCommand();
+        this.context = new CompilationContext(driverArgument);
+        if (context.isMemoryBudget()) context.getTimings().trackPeakHeap();
         // generate & stack prepared information(environment, etc.)
         generateEnvInformation(fileName);
     }
@@ -79,16 +94,50 @@ public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
 
     @Override
     public CompilerDriverBuilder parse() throws IOException, PascalCompilerException {
-        lexer = new PascalCustomLexer(
-                CharStreams.fromFileName(fileName));
-        lexer.removeErrorListeners();
-        lexer.addErrorListener(CustomConsoleErrorListener.INSTANCE);
+        CompilationTimings timings = context.getTimings();
+        if (cache != null && (command == DriverCommand.COMPILE || command == DriverCommand.RUN)) {
+            try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.CACHE)) {
+                cacheKey = CompilationCache.key(Path.of(fileName), context.getCodeGenOptions());
+                cached = cache.get(cacheKey);
+            }
+            if (cached != null) {
+                timings.setCacheHit(true);
+                GlobalLogger.info("Compilation cache hit - {}", () -> cacheKey);
+                tokenErrors = cached.getTokenErrors();
+                syntaxErrors = cached.getSyntaxErrors();
+                contextualErrors = cached.getContextualErrors();
+                return this;
+            }
+        }
 
-        tokens = new CommonTokenStream(lexer);
-        parser = new PascalParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(CustomConsoleErrorListener.INSTANCE);
-        tree = parser.program();
+        // tokenize the whole source up front, so that lexing & parsing are measured apart
+        try (CompilationTimings.Span span = timings.begin(CompilationTimings.Phase.LEX)) {
+            lexer = new PascalCustomLexer(openSource(Path.of(fileName)));
+            lexer.removeErrorListeners();
+            lexer.addErrorListener(context.getErrorListener());
+
+            tokens = new CompactTokenStream(lexer);
+            tokens.fill();
+            span.setCount(tokens.size());
+        }
+        long nested = timings.getNanos(CompilationTimings.Phase.CHECK) + timings.getNanos(CompilationTimings.Phase.ENCODE);
+        try (CompilationTimings.Span span = timings.begin(CompilationTimings.Phase.PARSE)) {
+            parser = new PascalCustomParser(tokens);
+            parser.removeErrorListeners();
+            parser.addErrorListener(context.getErrorListener());
+            context.setTokens(tokens);
+            context.setParser(parser);
+            if (context.isMemoryBudget()) {
+                parser.addParseListener(ParseTreeTrimmer.INSTANCE);
+                tree = parseStreaming();
+            } else {
+                tree = parseProgram(parser);
+            }
+            if (timings.isDetailed()) span.setCount(countNodes(tree));
+        }
+        // checked & encoded while parsing, not part of the parse time
+        timings.deduct(CompilationTimings.Phase.PARSE, timings.getNanos(CompilationTimings.Phase.CHECK)
+                + timings.getNanos(CompilationTimings.Phase.ENCODE) - nested);
         generateSyntacticInformation();
 
         if (syntaxErrors > 0 || tokenErrors > 0) {
@@ -102,14 +151,23 @@ public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
 
     @Override
     public CompilerDriverBuilder check() throws PascalCompilerException, IOException {
+        if (cached != null) return this;
         if (tokens == null || tree == null) {
             //throw new PascalCompilerException("Syntactic analysis not being executed yet...");
             GlobalLogger.setLevel(Level.INFO);
             throw BuiltinException.PARSE_NOT_START.getException();
         }
 
-        checker = new PascalCheckerVisitor(tokens);
-        checker.visit(tree);
+        try (CompilationTimings.Span span = context.getTimings().begin(CompilationTimings.Phase.CHECK)) {
+            if (streaming != null) {
+                streaming.finishCheck();
+                checker = streaming.getChecker();
+            } else {
+                checker = new PascalCheckerVisitor(context);
+                checker.visit(tree);
+            }
+            span.setCount(context.getTableManager().countDefinitions());
+        }
         generateContextualInformation();
 
         //PascalCheckerVisitor _checker = (PascalCheckerVisitor) checker;
@@ -124,26 +182,157 @@ public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
 
     @Override
     public CompilerDriverBuilder run() throws PascalCompilerException, IOException, InvocationTargetException, NoSuchMethodException, IllegalAccessException {
+        if (cached != null) {
+            PascalEncoderVisitor.emit(cached.getByteCode(), cached.getClassName(), context);
+            return this;
+        }
         if (tokens == null || tree == null) {
             //throw new PascalCompilerException("Syntactic analysis not being executed yet...");
             GlobalLogger.setLevel(Level.INFO);
             throw BuiltinException.PARSE_NOT_START.getException();
         }
+        try (CompilationTimings.Span ignored = context.getTimings().begin(CompilationTimings.Phase.ENCODE)) {
+            if (streaming != null && streaming.getEncoder() != null) {
+                runner = streaming.getEncoder();
+                streaming.finishEncode();
+            } else {
+                runner = new PascalEncoderVisitor(context);
+                runner.visit(tree);
+            }
+        }
+        // stored before running, whatever the program does
+        if (cacheKey != null) {
+            cache.put(cacheKey, new CompilationCache.Entry(runner.getClassName(), runner.getByteCode(),
+                    tokenErrors, syntaxErrors, contextualErrors));
+        }
+        // the program runs in this JVM, the tree is of no use to it
+        if (context.isMemoryBudget()) releaseTree();
+        runner.run();
+        return this;
+    }
 
 
-        Path parentDir = Path.of(fileName).getParent();
-        Path fileName = Path.of(this.fileName).getFileName();
-        if (parentDir != null) {
-            runner = new PascalEncoderVisitor(parentDir.toString(), fileName.toString().split("\\.")[0], tokens,
-                    command.getCommandName());
-        } else {
-            runner = new PascalEncoderVisitor(null, fileName.toString().split("\\.")[0], tokens, command.getCommandName());
+    private void releaseTree() {
+        tree = null;
+        streaming = null;
+        parser = null;
+        tokens = null;
+        lexer = null;
+        context.setParser(null);
+        context.setTokens(null);
+        context.clearExpressionTypes();
+    }
+
+    /**
+     * Input of the lexer, sources from PTJ_MMAP_THRESHOLD_MB (default 16) up are memory-mapped
+     * rather than decoded on the heap, hence read as ASCII / Latin-1 instead of UTF-8
+     */
+    public static CharStream openSource(Path source) throws IOException {
+        if (Files.size(source) >= getMappedThreshold()) {
+            GlobalLogger.info("Large source, mapped into memory - {}", () -> source);
+            return MappedCharStream.open(source);
+        }
+        return CharStreams.fromPath(source);
+    }
+
+    private static long getMappedThreshold() {
+        String megabytes = System.getenv(MAPPED_THRESHOLD_ENV);
+        try {
+            return megabytes == null || megabytes.isBlank()
+                    ? DEFAULT_MAPPED_THRESHOLD : Long.parseLong(megabytes.trim()) * 1024 * 1024;
+        } catch (NumberFormatException e) {
+            return DEFAULT_MAPPED_THRESHOLD;
+        }
+    }
+
+    /**
+     * Parsing in memory budget mode, the program block is checked (& encoded) part by part as soon as parsed,
+     * see {@link StreamingCompilation}
+     * <p>
+     * Only a program parsing without any error is streamed: the SLL stage is run first without building the tree,
+     * its success is the go-ahead. Otherwise (or when there is nothing to check) the usual two-stage parse.
+     * </p>
+     */
+    private ParseTree parseStreaming() {
+        if (command == DriverCommand.PARSE || ((PascalCustomLexer) lexer).getTokenErrors() > 0) {
+            return parseProgram(parser);
+        }
+        List<ParseTreeListener> listeners = new ArrayList<>(parser.getParseListeners());
+        parser.removeParseListeners();
+        parser.setBuildParseTree(false);
+        boolean parsable = tryParseSLL(parser) != null;
+        parser.setBuildParseTree(true);
+        listeners.forEach(parser::addParseListener);
+        parser.reset();
+        if (!parsable) return parseProgram(parser);
+
+        streaming = new StreamingCompilation(context, command != DriverCommand.CHECK);
+        parser.addParseListener(streaming);
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return parser.program();
+        } finally {
+            parser.removeParseListener(streaming);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
         }
-        runner.visit(tree);
-        PascalEncoderVisitor.run();
-        return this;
     }
 
+    /**
+     * Two-stage parsing of a whole program
+     * <p>
+     * The fast SLL prediction is tried first with a bail-out error strategy and no error listener,
+     * it either yields the same tree as full LL or gives up at the first problem. Only then the program is
+     * reparsed with full LL prediction, the listeners & error strategy of the parser, so that diagnostics
+     * (and error recovery) are exactly the ones of a single full LL parse.
+     * </p>
+     *
+     * @param parser - parser upon a token stream positioned at the start
+     * @return parse tree
+     */
+    public static PascalParser.ProgramContext parseProgram(PascalParser parser) {
+        PascalParser.ProgramContext tree = tryParseSLL(parser);
+        if (tree != null) return tree;
+        parser.reset();
+        return parser.program();
+    }
+
+    /**
+     * First stage of {@link #parseProgram}, the parser is left in LL mode with its listeners & error strategy
+     *
+     * @return parse tree, null if SLL gave up
+     */
+    private static PascalParser.ProgramContext tryParseSLL(PascalParser parser) {
+        List<? extends ANTLRErrorListener> listeners = new ArrayList<>(parser.getErrorListeners());
+        ANTLRErrorStrategy errorHandler = parser.getErrorHandler();
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return parser.program();
+        } catch (ParseCancellationException e) {
+            // syntax error or an input needing full context, decided by the second stage
+            return null;
+        } finally {
+            listeners.forEach(parser::addErrorListener);
+            parser.setErrorHandler(errorHandler);
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+        }
+    }
+
+    /**
+     * @return number of nodes (rules & tokens) of the parse tree
+     */
+    private static long countNodes(ParseTree root) {
+        long count = 0;
+        Deque<ParseTree> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            ParseTree node = pending.pop();
+            count++;
+            for (int i = 0; i < node.getChildCount(); i++) pending.push(node.getChild(i));
+        }
+        return count;
+    }
 
     private void println(String str) throws IOException {
         OutputStream out = getOut();
@@ -204,5 +393,29 @@ public class PascalCompilerDriverBuilder extends CompilerDriverBuilder {
         return contextualErrors;
     }
 
+    public CompilationContext getContext() {
+        return context;
+    }
+
+    /**
+     * @return bytecode of the compiled program, null if code generation not being executed yet
+     */
+    public byte[] getByteCode() {
+        if (cached != null) return cached.getByteCode();
+        return runner == null ? null : runner.getByteCode();
+    }
+
+    /**
+     * Use another compilation cache than the one configured by the environment, null to disable caching
+     */
+    public PascalCompilerDriverBuilder setCache(CompilationCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    public boolean isCacheHit() {
+        return cached != null;
+    }
+
 }
 
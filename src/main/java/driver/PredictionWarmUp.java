@@ -0,0 +1,213 @@
+package driver;
+
+import ast.visitor.PascalCustomLexer;
+import ast.visitor.PascalLexer;
+import ast.visitor.PascalParser;
+import org.antlr.v4.runtime.*;
+import utils.log.GlobalLogger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Warm-up of the ANTLR prediction caches (lexer & parser decision DFA, prediction context cache)
+ * <p>
+ * The caches are static in the generated PascalLexer/PascalParser, hence already shared by every compilation
+ * of the JVM (batch workers, daemon requests) and updated under ANTLR's own locks. They start empty though, the first
+ * compilations pay for the ATN simulation building them. Parsing a representative corpus once fills them up front.
+ * - the DFA itself holds ATN configurations & prediction contexts and cannot be written out, a snapshot records
+ * what rebuilds it instead: the token type sequence of each corpus program (the grammar has no predicate, types are
+ * all the parser looks at) and a sample of every distinct token text for the lexer
+ * - a snapshot is bound to the grammar it was recorded with, a stale one is ignored
+ * </p>
+ * Enabled by setting PTJ_WARMUP to a snapshot (see the warmup command) or to a corpus directory,
+ * done once per JVM by the daemon and batch compilations.
+ */
+public class PredictionWarmUp {
+
+    public static final String WARMUP_ENV = "PTJ_WARMUP";
+    public static final String DEFAULT_SNAPSHOT = "ptj-warmup.snapshot";
+
+    private static final int SNAPSHOT_MAGIC = 0x50544A57; // PTJW
+    private static final int SNAPSHOT_VERSION = 1;
+    /**
+     * Distinct texts kept per token type, identifiers & literals have an unbounded number of them
+     */
+    private static final int TEXTS_PER_TYPE = 8;
+
+    private static volatile boolean warmedUp;
+
+    private PredictionWarmUp() {
+    }
+
+    /**
+     * Warm up from the snapshot or corpus named by the environment, first call only
+     */
+    public static void warmUpFromEnvironment() {
+        if (warmedUp) return;
+        synchronized (PredictionWarmUp.class) {
+            if (warmedUp) return;
+            warmedUp = true;
+        }
+        String location = System.getenv(WARMUP_ENV);
+        if (location == null || location.isBlank()) return;
+        long start = System.currentTimeMillis();
+        try {
+            Path path = Path.of(location.trim());
+            Snapshot snapshot = Files.isDirectory(path)
+                    ? record(PascalBatchCompilerDriver.collectSources(path))
+                    : Snapshot.read(path);
+            if (snapshot == null) {
+                GlobalLogger.error("Warm-up snapshot {} recorded with another grammar, ignored", () -> path);
+                return;
+            }
+            if (!Files.isDirectory(path)) replay(snapshot);
+            GlobalLogger.info("Prediction caches warmed up from {} in {} ms", () -> path,
+                    () -> System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            GlobalLogger.error("Warm-up skipped: {}", e::toString);
+        }
+    }
+
+    /**
+     * Lex & parse every source (warming the caches of this JVM) and record the snapshot rebuilding them
+     *
+     * @param sources - representative programs, unreadable ones are skipped
+     */
+    public static Snapshot record(List<Path> sources) {
+        Map<Integer, Set<String>> texts = new TreeMap<>();
+        List<int[]> programs = new ArrayList<>(sources.size());
+        for (Path source : sources) {
+            CommonTokenStream tokens;
+            try {
+                tokens = new CommonTokenStream(newLexer(CharStreams.fromPath(source)));
+            } catch (IOException e) {
+                GlobalLogger.info("Warm-up source {} skipped: {}", () -> source, e::toString);
+                continue;
+            }
+            tokens.fill();
+            PascalParser parser = newParser(tokens);
+            PascalCompilerDriverBuilder.parseProgram(parser);
+
+            List<Token> all = tokens.getTokens();
+            int[] types = new int[all.size()];
+            int count = 0;
+            for (Token each : all) {
+                if (each.getType() == Token.EOF) continue;
+                Set<String> seen = texts.computeIfAbsent(each.getType(), type -> new LinkedHashSet<>());
+                if (seen.size() < TEXTS_PER_TYPE) seen.add(each.getText());
+                if (each.getChannel() == Token.DEFAULT_CHANNEL) types[count++] = each.getType();
+            }
+            programs.add(Arrays.copyOf(types, count));
+        }
+        StringBuilder lexerSample = new StringBuilder();
+        texts.values().forEach(each -> each.forEach(text -> lexerSample.append(text).append('\n')));
+        return new Snapshot(grammarFingerprint(), lexerSample.toString(), programs);
+    }
+
+    /**
+     * Rebuild the caches of this JVM from a snapshot
+     */
+    public static void replay(Snapshot snapshot) {
+        CommonTokenStream sample = new CommonTokenStream(newLexer(CharStreams.fromString(snapshot.lexerSample)));
+        sample.fill();
+        for (int[] program : snapshot.programs) {
+            List<Token> tokens = new ArrayList<>(program.length);
+            for (int type : program) tokens.add(new CommonToken(type));
+            PascalCompilerDriverBuilder.parseProgram(newParser(new CommonTokenStream(new ListTokenSource(tokens))));
+        }
+    }
+
+    private static Lexer newLexer(CharStream input) {
+        Lexer lexer = new PascalCustomLexer(input);
+        lexer.removeErrorListeners();
+        return lexer;
+    }
+
+    private static PascalParser newParser(TokenStream tokens) {
+        PascalParser parser = new PascalParser(tokens);
+        parser.removeErrorListeners();
+        return parser;
+    }
+
+    /**
+     * @return hash of the serialized lexer & parser ATN, changes with the grammar
+     */
+    static int grammarFingerprint() {
+        return Objects.hash(PascalLexer._serializedATN, PascalParser._serializedATN);
+    }
+
+    public static class Snapshot {
+        private final int fingerprint;
+        private final String lexerSample;
+        private final List<int[]> programs;
+
+        Snapshot(int fingerprint, String lexerSample, List<int[]> programs) {
+            this.fingerprint = fingerprint;
+            this.lexerSample = lexerSample;
+            this.programs = programs;
+        }
+
+        public List<int[]> getPrograms() {
+            return programs;
+        }
+
+        public String getLexerSample() {
+            return lexerSample;
+        }
+
+        /**
+         * Written to a temporary file then moved, readers never see a partial snapshot
+         */
+        public void write(Path file) throws IOException {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeInt(fingerprint);
+                byte[] sample = lexerSample.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(sample.length);
+                out.write(sample);
+                out.writeInt(programs.size());
+                for (int[] program : programs) {
+                    out.writeInt(program.length);
+                    for (int type : program) out.writeShort(type);
+                }
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        /**
+         * @return the snapshot, null if recorded with another grammar
+         * @throws IOException not a snapshot, or unreadable
+         */
+        public static Snapshot read(Path file) throws IOException {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                    throw new IOException("Not a warm-up snapshot: " + file);
+                }
+                int fingerprint = in.readInt();
+                if (fingerprint != grammarFingerprint()) return null;
+                byte[] sample = new byte[in.readInt()];
+                in.readFully(sample);
+                int count = in.readInt();
+                List<int[]> programs = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    int[] program = new int[in.readInt()];
+                    for (int k = 0; k < program.length; k++) program[k] = in.readShort();
+                    programs.add(program);
+                }
+                return new Snapshot(fingerprint, new String(sample, StandardCharsets.UTF_8), programs);
+            }
+        }
+    }
+}
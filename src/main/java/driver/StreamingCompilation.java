@@ -0,0 +1,128 @@
+package driver;
+
+import ast.visitor.PascalParser;
+import ast.visitor.impl.PascalCheckerVisitor;
+import ast.visitor.impl.PascalEncoderVisitor;
+import org.antlr.v4.runtime.ParserRuleContext;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.tree.ErrorNode;
+import org.antlr.v4.runtime.tree.ParseTreeListener;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.antlr.v4.runtime.tree.TerminalNodeImpl;
+
+/**
+ * Check & encode every part of the program block as soon as the parser is done with it (--memory-budget)
+ * <p>
+ * Parts (declaration parts, subprograms, main statement) come in source order, the order both visitors
+ * walk the block in anyway, hence the same tables & bytecode as whole-tree passes. The body of a subprogram
+ * is dropped once processed, the tree never holds more than one of them.
+ * - only for programs known to parse without error (the first stage of the two-stage parse succeeded),
+ * a syntax error must stop the compilation before any contextual diagnostic
+ * - after the first contextual error the remaining parts are only checked
+ * - a failure of the encoder is raised when encoding is asked for (after the check), as with a whole-tree pass
+ * </p>
+ */
+class StreamingCompilation implements ParseTreeListener {
+
+    private final CompilationContext context;
+    private final CompilationTimings timings;
+    private final PascalCheckerVisitor checker;
+    private final PascalEncoderVisitor encoder; // null if only checking
+    private boolean started;
+    private RuntimeException encoderFailure;
+
+    /**
+     * @param encode - encode as well as check
+     */
+    StreamingCompilation(CompilationContext context, boolean encode) {
+        this.context = context;
+        this.timings = context.getTimings();
+        this.checker = new PascalCheckerVisitor(context);
+        this.encoder = encode ? new PascalEncoderVisitor(context) : null;
+    }
+
+    PascalCheckerVisitor getChecker() {
+        return checker;
+    }
+
+    PascalEncoderVisitor getEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public void exitEveryRule(ParserRuleContext ctx) {
+        if (!(ctx.parent instanceof PascalParser.BlockContext)
+                || !(ctx.parent.parent instanceof PascalParser.ProgramContext)) {
+            return;
+        }
+        // the part is whole, the heaviest the tree gets before its body is released
+        timings.sampleHeap();
+        if (!started) {
+            started = true;
+            checker.beginProgram();
+            if (encoder != null) encoder.beginProgram((PascalParser.ProgramContext) ctx.parent.parent);
+        }
+        try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.CHECK)) {
+            checker.visit(ctx);
+        }
+        if (encoder != null && encoderFailure == null && checker.getNumberOfContextualErrors() == 0) {
+            try (CompilationTimings.Span ignored = timings.begin(CompilationTimings.Phase.ENCODE)) {
+                encoder.visit(ctx);
+            } catch (RuntimeException e) {
+                encoderFailure = e;
+            }
+        }
+        // annotations of this part only, as its body
+        context.clearExpressionTypes();
+        releaseBody(ctx);
+    }
+
+    /**
+     * Program block completely parsed, the checks left
+     */
+    void finishCheck() {
+        // as visitBlock of the program block
+        context.getTableManager().displayAllTablesCurrentScope();
+        checker.endProgram();
+    }
+
+    void finishEncode() {
+        if (encoderFailure != null) throw encoderFailure;
+        encoder.endProgram();
+    }
+
+    private static void releaseBody(ParserRuleContext part) {
+        if (!(part instanceof PascalParser.ProcedureAndFunctionDeclarationPartContext)) return;
+        ParserRuleContext declaration = ((PascalParser.ProcedureAndFunctionDeclarationPartContext) part)
+                .procedureOrFunctionDeclaration();
+        ParserRuleContext subprogram = declaration.getChild(ParserRuleContext.class, 0);
+        // prototypes are looked up again by their implementation, they are kept
+        ParserRuleContext body = null;
+        if (subprogram instanceof PascalParser.ProcedureDeclContext) {
+            body = ((PascalParser.ProcedureDeclContext) subprogram).block();
+        } else if (subprogram instanceof PascalParser.FunctionDeclContext) {
+            body = ((PascalParser.FunctionDeclContext) subprogram).block();
+        }
+        if (body == null) return;
+        body.children = null;
+        // compact tokens are tree nodes, the first & last one would still hold the body through their parent
+        detach(body.start);
+        detach(body.stop);
+    }
+
+    private static void detach(Token token) {
+        if (token instanceof TerminalNodeImpl) ((TerminalNodeImpl) token).setParent(null);
+    }
+
+    @Override
+    public void enterEveryRule(ParserRuleContext ctx) {
+    }
+
+    @Override
+    public void visitTerminal(TerminalNode node) {
+    }
+
+    @Override
+    public void visitErrorNode(ErrorNode node) {
+    }
+}
@@ -4,8 +4,10 @@ package exception;
  * Existing built-in exception for reuse
  */
 public enum BuiltinException {
-    INVALID_COMMAND(new PascalCompilerException("Invalid command. Available Usage: parse, check, compile, run")),
+    INVALID_COMMAND(new PascalCompilerException("Invalid command. Available Usage: parse, check, compile, run, batch, daemon, warmup")),
     INVALID_PATH(new PascalCompilerException("Invalid file path. Please specify valid path")),
+    INVALID_PORT(new PascalCompilerException("Invalid port. Please specify valid port number")),
+    INVALID_OPTION(new PascalCompilerException("Invalid option. Available options: --timings[=<report file>]")),
 
     PARSE_NOT_START(new PascalCompilerException("Syntactic analysis not being executed yet...")),
     PARSE_FAILED(new PascalCompilerException("Syntactic analysis failed...")),
@@ -12,8 +12,7 @@ import type.primitive.integer.IntegerBaseType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
-public class InstructionHelper extends AbstractHelper {
-    //static MethodVisitor defaultMethodVisitor = PascalEncoderVisitor.methodVisitor;
+public class InstructionHelper {
 
     public static void returnFromMethod(MethodVisitor mv, TypeDescriptor type) {
         int opcode = Opcodes.RETURN;
@@ -31,16 +30,6 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void returnFromMethod(TypeDescriptor type) {
-        returnFromMethod(defaultMethodVisitor, type);
-    }
-
-
-    public static void invokeVirtual(Class<?> owner, String methodName,
-                                     Class<?>... arguments) {
-        invokeVirtual(defaultMethodVisitor, owner, methodName, false, arguments);
-    }
-
     public static void invokeVirtual(MethodVisitor mv, Class<?> owner, String methodName,
                                      Class<?>... arguments) {
         invokeVirtual(mv, owner, methodName, false, arguments);
@@ -75,16 +64,6 @@ public class InstructionHelper extends AbstractHelper {
         invokeVirtual(mv, owner, methodName, isInterface, type.getDescriptorClass());
     }
 
-    public static void invokeVirtual(Class<?> owner, String methodName,
-                                     boolean isInterface, TypeDescriptor type) {
-        invokeVirtual(defaultMethodVisitor, owner, methodName, isInterface, type);
-    }
-
-    public static void invokeVirtual(Class<?> owner, String methodName,
-                                     TypeDescriptor type) {
-        invokeVirtual(owner, methodName, false, type);
-    }
-
     public static void invokeStatic(MethodVisitor methodVisitor,
                                     Class<?> owner,
                                     String methodName,
@@ -101,13 +80,6 @@ public class InstructionHelper extends AbstractHelper {
         }
     }
 
-    public static void invokeStatic(
-            Class<?> owner,
-            String methodName,
-            boolean isInterface, Class<?>... arguments) {
-        invokeStatic(defaultMethodVisitor, owner, methodName, isInterface, arguments);
-    }
-
     public static void invokeStatic(MethodVisitor methodVisitor,
                                     String owner,
                                     String methodName,
@@ -120,15 +92,6 @@ public class InstructionHelper extends AbstractHelper {
                 isInterface);
     }
 
-    public static void invokeStatic(
-            String owner,
-            String methodName,
-            String methodDescriptor,
-            boolean isInterface) {
-        invokeStatic(defaultMethodVisitor, owner, methodName, methodDescriptor, isInterface);
-    }
-
-
     /**
      * Get static field
      *
@@ -149,10 +112,6 @@ public class InstructionHelper extends AbstractHelper {
         }
     }
 
-    public static void getStatic(Class<?> owner, String fieldName) {
-        getStatic(defaultMethodVisitor, owner, fieldName);
-    }
-
     public static void getStatic(MethodVisitor mv, String owner, String fieldName, TypeDescriptor type
     ) {
 
@@ -162,18 +121,10 @@ public class InstructionHelper extends AbstractHelper {
                 type.getDescriptor());
     }
 
-    public static void getStatic(String owner, String fieldName, TypeDescriptor type) {
-        getStatic(defaultMethodVisitor, owner, fieldName, type);
-    }
-
     public static void putStatic(MethodVisitor mv, String owner, String fieldName, TypeDescriptor type) {
         mv.visitFieldInsn(Opcodes.PUTSTATIC, owner, fieldName, type.getDescriptor());
     }
 
-    public static void putStatic(String owner, String fieldName, TypeDescriptor type) {
-        putStatic(defaultMethodVisitor, owner, fieldName, type);
-    }
-
     public static void add(MethodVisitor mv, TypeDescriptor type) {
         /**
          *     int IADD = 96;
@@ -189,10 +140,6 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void add(TypeDescriptor type) {
-        add(defaultMethodVisitor, type);
-    }
-
     /**
      * int ISUB = 100;
      * int LSUB = 101;
@@ -209,10 +156,6 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void sub(TypeDescriptor typeDescriptor) {
-        sub(defaultMethodVisitor, typeDescriptor);
-    }
-
     public static void mul(MethodVisitor mv, TypeDescriptor type) {
         int opcode = Opcodes.IMUL;
         if (type instanceof FloatBaseType) {
@@ -221,36 +164,20 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void mul(TypeDescriptor typeDescriptor) {
-        mul(defaultMethodVisitor, typeDescriptor);
-    }
-
     public static void realDiv(MethodVisitor mv) {
         int opcode = Opcodes.DDIV;
         mv.visitInsn(opcode);
     }
 
-    public static void realDiv() {
-        realDiv(defaultMethodVisitor);
-    }
-
     public static void intDiv(MethodVisitor mv) {
         int opcode = Opcodes.IDIV;
         mv.visitInsn(opcode);
     }
 
-    public static void intDiv() {
-        intDiv(defaultMethodVisitor);
-    }
-
     public static void intMod(MethodVisitor mv) {
         mv.visitInsn(Opcodes.IREM);
     }
 
-    public static void intMod() {
-        intMod(defaultMethodVisitor);
-    }
-
     public static void intOrFloatNeg(MethodVisitor mv, TypeDescriptor type) {
         int opcode = Opcodes.INEG;
         if (type instanceof FloatBaseType) {
@@ -259,10 +186,6 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void intOrFloatNeg(TypeDescriptor type) {
-        intOrFloatNeg(defaultMethodVisitor, type);
-    }
-
     /**
      * Load constant int, real literal
      *
@@ -305,11 +228,6 @@ public class InstructionHelper extends AbstractHelper {
         } else mv.visitLdcInsn(Math.toIntExact(intValue));
     }
 
-
-    public static void loadIntOrReal(TypeDescriptor type) {
-        loadIntOrReal(defaultMethodVisitor, type);
-    }
-
     public static void loadTrueOrFalse(MethodVisitor mv, boolean flag) {
         int opcode = Opcodes.ICONST_0;
         if (flag) {
@@ -318,17 +236,8 @@ public class InstructionHelper extends AbstractHelper {
         mv.visitInsn(opcode);
     }
 
-    public static void loadTrueOrFalse(boolean flag) {
-        loadTrueOrFalse(defaultMethodVisitor, flag);
-    }
-
     public static void intLogicalOp(MethodVisitor mv, int opcode) {
         mv.visitInsn(opcode);
     }
 
-    public static void intLogicalOp(int opcode) {
-        intLogicalOp(defaultMethodVisitor, opcode);
-    }
-
-
 }
@@ -4,38 +4,32 @@ import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import type.StringLiteral;
 import type.TypeDescriptor;
+import type.enumerated.EnumeratedType;
 import type.primitive.Boolean;
 import type.primitive.Character;
 import type.primitive.floating.FloatBaseType;
 import type.primitive.integer.IntegerBaseType;
+import type.structured.ArrayType;
 
-public class LoadStoreHelper extends AbstractHelper {
+public class LoadStoreHelper {
 
     public static void loadReference(MethodVisitor mv, int slotNum) {
         mv.visitVarInsn(Opcodes.ALOAD, slotNum);
     }
 
-    public static void loadReference(int slotNum) {
-        loadReference(defaultMethodVisitor,slotNum);
-    }
-
-
     public static void loadIntOrFloatLocal(MethodVisitor mv, TypeDescriptor type, int slotNumber) {
         if (type instanceof IntegerBaseType || type instanceof Boolean
-                || type instanceof Character) {
+                || type instanceof Character || type instanceof EnumeratedType) {
             mv.visitVarInsn(Opcodes.ILOAD, slotNumber);
         }
         if (type instanceof FloatBaseType) {
             mv.visitVarInsn(Opcodes.DLOAD, slotNumber);
         }
-        if (type instanceof StringLiteral) {
-            loadReference(slotNumber);
+        if (type instanceof StringLiteral || type instanceof ArrayType) {
+            loadReference(mv, slotNumber);
         }
     }
 
-    public static void loadIntOrFloatLocal(TypeDescriptor type, int slotNumber) {
-        loadIntOrFloatLocal(updateDefaultMethodVisitor(),type,slotNumber);
-    }
 
     //TODO: store Address, takes 1B
     public static void storeReference() {
@@ -55,13 +49,10 @@ public class LoadStoreHelper extends AbstractHelper {
         if (type instanceof FloatBaseType) {
             opcode = Opcodes.DSTORE;
         }
+        if (type instanceof StringLiteral || type instanceof ArrayType) {
+            opcode = Opcodes.ASTORE;
+        }
         mv.visitVarInsn(opcode, slotNum);
     }
 
-    public static void storePrimitive(TypeDescriptor type, int slotNum) {
-        storePrimitive(defaultMethodVisitor,type,slotNum);
-    }
-
-
-
 }
@@ -0,0 +1,85 @@
+package instruction;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Drops the private methods of a class file (procedures/functions of the program) never called, directly or not,
+ * from the other ones (main & the constructor)
+ * <p>
+ * Works on the assembled class, as the subprograms are encoded before the body calling them is known
+ * (streaming compilation). Calls in the branches removed from the IR are gone by then.
+ * </p>
+ */
+public class UnusedMethodRemover {
+
+    private int removedCount = 0;
+
+    /**
+     * @return number of methods removed so far
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    /**
+     * @param classFile - assembled class
+     * @return the same class file if every method is used
+     */
+    public byte[] apply(byte[] classFile) {
+        ClassReader reader = new ClassReader(classFile);
+        String owner = reader.getClassName();
+        Map<String, Set<String>> calls = new HashMap<>();
+        Set<String> privateMethods = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        reader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                String method = name + descriptor;
+                if ((access & Opcodes.ACC_PRIVATE) != 0) privateMethods.add(method);
+                else pending.add(method);
+                Set<String> callees = calls.computeIfAbsent(method, k -> new HashSet<>());
+                return new MethodVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visitMethodInsn(int opcode, String calleeOwner, String calleeName,
+                                                String calleeDescriptor, boolean isInterface) {
+                        if (calleeOwner.equals(owner)) callees.add(calleeName + calleeDescriptor);
+                    }
+                };
+            }
+        }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+
+        Set<String> used = new HashSet<>(pending);
+        while (!pending.isEmpty()) {
+            for (String each : calls.getOrDefault(pending.poll(), Set.of())) {
+                if (used.add(each)) pending.add(each);
+            }
+        }
+        privateMethods.removeAll(used);
+        if (privateMethods.isEmpty()) return classFile;
+
+        removedCount += privateMethods.size();
+        // methods kept are copied as they are
+        ClassWriter writer = new ClassWriter(reader, 0);
+        reader.accept(new ClassVisitor(Opcodes.ASM9, writer) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                if (privateMethods.contains(name + descriptor)) return null;
+                return super.visitMethod(access, name, descriptor, signature, exceptions);
+            }
+        }, 0);
+        return writer.toByteArray();
+    }
+}
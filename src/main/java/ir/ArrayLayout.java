@@ -0,0 +1,131 @@
+package ir;
+
+import type.TypeDescriptor;
+import type.TypeInterner;
+import type.enumerated.EnumeratedType;
+import type.primitive.Boolean;
+import type.primitive.Character;
+import type.primitive.floating.DefaultFloatType;
+import type.primitive.floating.FloatBaseType;
+import type.primitive.integer.DefaultIntegerType;
+import type.primitive.integer.IntegerBaseType;
+import type.structured.ArrayType;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Flat layout of a Pascal array: the elements of all its dimensions in a single primitive JVM array
+ * (ArrayType#getDescriptorClass), row-major
+ * <p>
+ * Element [i1, .., in] is at i1 * stride1 + .. + in * striden - base, the stride of the last dimension being 1.
+ * Indexed on its first k dimensions only, the sub-array is the block of the remaining ones starting at
+ * i1 * stride1 + .. + ik * stridek - base(k). Strides & bases are computed once, here.
+ * </p>
+ */
+public final class ArrayLayout {
+
+    private final ArrayType type;
+    private final TypeDescriptor elementType;
+    private final long[] lows;
+    private final long[] highs;
+    private final long[] strides;
+    private final long[] bases;
+    private final int size;
+
+    private ArrayLayout(ArrayType type, TypeDescriptor elementType, long[] lows, long[] highs) {
+        this.type = type;
+        this.elementType = elementType;
+        this.lows = lows;
+        this.highs = highs;
+        this.strides = new long[lows.length];
+        long stride = 1;
+        for (int k = lows.length - 1; k >= 0; k--) {
+            strides[k] = stride;
+            stride *= highs[k] - lows[k] + 1;
+            if (stride > Integer.MAX_VALUE) throw new UnsupportedOperationException("Array too large " + type);
+        }
+        this.size = (int) stride;
+        this.bases = new long[lows.length + 1];
+        for (int k = 0; k < lows.length; k++) bases[k + 1] = bases[k] + lows[k] * strides[k];
+    }
+
+    /**
+     * @throws UnsupportedOperationException - elements other than integers, reals, chars, booleans & enumerated
+     *                                       values, or an index type without bounds (integer)
+     */
+    public static ArrayLayout of(ArrayType type) {
+        // the checker flattens the component arrays into the index list
+        List<TypeDescriptor> indexList = type.getIndexList();
+        long[] lows = new long[indexList.size()];
+        long[] highs = new long[indexList.size()];
+        for (int k = 0; k < lows.length; k++) {
+            TypeDescriptor indexType = indexList.get(k);
+            Interval bounds = indexType instanceof IntegerBaseType ? null : Interval.of(indexType);
+            if (bounds == null) throw new UnsupportedOperationException("Array index of type " + indexType);
+            lows[k] = bounds.getLow();
+            highs[k] = bounds.getHigh();
+        }
+        TypeDescriptor component = type.getComponentType();
+        TypeDescriptor elementType;
+        if (component instanceof FloatBaseType) elementType = DefaultFloatType.instance;
+        else if (component instanceof IntegerBaseType || component instanceof EnumeratedType) {
+            elementType = DefaultIntegerType.instance;
+        } else if (component instanceof Character) elementType = TypeInterner.CHARACTER;
+        else if (component instanceof Boolean) elementType = TypeInterner.BOOLEAN;
+        else throw new UnsupportedOperationException("Array of " + component);
+        return new ArrayLayout(type, elementType, lows, highs);
+    }
+
+    public int getDimensions() {
+        return lows.length;
+    }
+
+    public long getLow(int dimension) {
+        return lows[dimension];
+    }
+
+    public long getHigh(int dimension) {
+        return highs[dimension];
+    }
+
+    public long getStride(int dimension) {
+        return strides[dimension];
+    }
+
+    /**
+     * @param indexed - number of dimensions indexed, from the first one
+     * @return sum of low * stride of those dimensions
+     */
+    public long getBase(int indexed) {
+        return bases[indexed];
+    }
+
+    /**
+     * @param indexed - number of dimensions indexed, from the first one
+     * @return number of elements of the sub-array left, 1 if all the dimensions are indexed
+     */
+    public int getLength(int indexed) {
+        return indexed == 0 ? size : (int) strides[indexed - 1];
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return type of the elements in the IR, integer for enumerated values
+     */
+    public TypeDescriptor getElementType() {
+        return elementType;
+    }
+
+    public ArrayType getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return type.getDescriptor() + Arrays.toString(lows) + ".." + Arrays.toString(highs);
+    }
+}
@@ -0,0 +1,139 @@
+package ir;
+
+import type.StringLiteral;
+import type.Subrange;
+import type.TypeDescriptor;
+import type.enumerated.EnumeratedIdentifier;
+import type.enumerated.EnumeratedType;
+import type.primitive.Boolean;
+import type.primitive.Character;
+import type.primitive.integer.IntegerBaseType;
+
+import java.util.Objects;
+
+/**
+ * Closed interval of the values of an ordinal (integer, char, boolean & enumerated values as their ordinal numbers),
+ * the declared range of a subrange variable or what the range analysis knows of a value (IrRangeCheckEliminator)
+ * <p>
+ * Arithmetic gives the whole integer range as soon as a result may overflow, int operations wrap around.
+ * </p>
+ */
+public final class Interval {
+
+    public static final Interval INTEGER = new Interval(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    public static final Interval CHARACTER = new Interval(0, java.lang.Character.MAX_VALUE);
+    public static final Interval BOOLEAN = new Interval(0, 1);
+
+    private final long low;
+    private final long high;
+
+    private Interval(long low, long high) {
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * @return null if empty (low > high)
+     */
+    public static Interval of(long low, long high) {
+        if (low > high) return null;
+        if (low < Integer.MIN_VALUE || high > Integer.MAX_VALUE) return INTEGER;
+        return new Interval(low, high);
+    }
+
+    public static Interval of(Subrange subrange) {
+        return of(ordinal(subrange.getLowerBound()), ordinal(subrange.getUpperBound()));
+    }
+
+    /**
+     * @return all the values of an ordinal type, null if not an ordinal type
+     */
+    public static Interval of(TypeDescriptor type) {
+        if (type instanceof IntegerBaseType) return INTEGER;
+        if (type instanceof Character) return CHARACTER;
+        if (type instanceof Boolean) return BOOLEAN;
+        if (type instanceof EnumeratedType) return of(0, ((EnumeratedType) type).getValueMap().size() - 1);
+        if (type instanceof Subrange) return of((Subrange) type);
+        return null;
+    }
+
+    /**
+     * @param bound - constant bound of a subrange (chars are string literals there)
+     * @return its ordinal number
+     */
+    static long ordinal(TypeDescriptor bound) {
+        if (bound instanceof IntegerBaseType) return ((IntegerBaseType) bound).getValue();
+        if (bound instanceof StringLiteral) return ((StringLiteral) bound).getValue().replace("'", "").charAt(0);
+        if (bound instanceof Character) return ((Character) bound).getValue();
+        if (bound instanceof Boolean) return ((Boolean) bound).getValue() ? 1 : 0;
+        if (bound instanceof EnumeratedIdentifier) {
+            EnumeratedIdentifier value = (EnumeratedIdentifier) bound;
+            return value.getBelongsTo().getValueMap().get(value.getValue().toLowerCase());
+        }
+        throw new UnsupportedOperationException("Bound " + bound);
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public boolean contains(Interval that) {
+        return low <= that.low && that.high <= high;
+    }
+
+    /**
+     * @return null if empty
+     */
+    public Interval intersect(Interval that) {
+        return of(Math.max(low, that.low), Math.min(high, that.high));
+    }
+
+    /**
+     * @return smallest interval holding both
+     */
+    public Interval join(Interval that) {
+        return of(Math.min(low, that.low), Math.max(high, that.high));
+    }
+
+    public Interval add(Interval that) {
+        return of(low + that.low, high + that.high);
+    }
+
+    public Interval subtract(Interval that) {
+        return of(low - that.high, high - that.low);
+    }
+
+    public Interval multiply(Interval that) {
+        long a = low * that.low;
+        long b = low * that.high;
+        long c = high * that.low;
+        long d = high * that.high;
+        return of(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)));
+    }
+
+    public Interval negate() {
+        return of(-high, -low);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Interval)) return false;
+        Interval that = (Interval) o;
+        return low == that.low && high == that.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(low, high);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + low + ".." + high + "]";
+    }
+}
@@ -0,0 +1,56 @@
+package ir;
+
+/**
+ * Assignment of a whole array, or of the sub-array of an array indexed on its first dimensions only
+ * (e.g. row := matrix[i]): a block of elements copied from one flat array into the other (System.arraycopy)
+ */
+public class IrArrayCopy extends IrNode {
+
+    private final IrVariable target;
+    private final IrNode targetOffset;
+    private final IrVariable source;
+    private final IrNode sourceOffset;
+    private final int length;
+
+    public IrArrayCopy(IrVariable target, IrNode targetOffset, IrVariable source, IrNode sourceOffset, int length) {
+        super(null);
+        this.target = target;
+        this.targetOffset = targetOffset;
+        this.source = source;
+        this.sourceOffset = sourceOffset;
+        this.length = length;
+    }
+
+    public IrVariable getTarget() {
+        return target;
+    }
+
+    public IrNode getTargetOffset() {
+        return targetOffset;
+    }
+
+    public IrVariable getSource() {
+        return source;
+    }
+
+    public IrNode getSourceOffset() {
+        return sourceOffset;
+    }
+
+    /**
+     * @return number of elements copied
+     */
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitArrayCopy(this);
+    }
+
+    @Override
+    public String toString() {
+        return target + "[" + targetOffset + "..] := " + source + "[" + sourceOffset + ".." + length + "]";
+    }
+}
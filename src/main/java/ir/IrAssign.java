@@ -0,0 +1,31 @@
+package ir;
+
+public class IrAssign extends IrNode {
+
+    private final IrVariable target;
+    private final IrNode value;
+
+    public IrAssign(IrVariable target, IrNode value) {
+        super(null);
+        this.target = target;
+        this.value = value;
+    }
+
+    public IrVariable getTarget() {
+        return target;
+    }
+
+    public IrNode getValue() {
+        return value;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitAssign(this);
+    }
+
+    @Override
+    public String toString() {
+        return target + " := " + value;
+    }
+}
@@ -0,0 +1,72 @@
+package ir;
+
+import type.TypeDescriptor;
+
+/**
+ * Arithmetic, logical or relational operation, both operands of the same kind (converted beforehand)
+ */
+public class IrBinary extends IrNode {
+
+    public enum Operator {
+        ADD("+"), SUB("-"), MUL("*"), REAL_DIV("/"), DIV("div"), MOD("mod"), AND("and"), OR("or"),
+        EQ("="), NE("<>"), LT("<"), LE("<="), GT(">"), GE(">=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        public boolean isRelational() {
+            return ordinal() >= EQ.ordinal();
+        }
+
+        /**
+         * @param symbol - operator text, lower case
+         * @return null if not a binary operator of the IR (e.g. "in")
+         */
+        public static Operator of(String symbol) {
+            for (Operator each : values()) {
+                if (each.symbol.equals(symbol)) return each;
+            }
+            return null;
+        }
+    }
+
+    private final Operator operator;
+    private final IrNode left;
+    private final IrNode right;
+
+    public IrBinary(Operator operator, IrNode left, IrNode right, TypeDescriptor type) {
+        super(type);
+        this.operator = operator;
+        this.left = left;
+        this.right = right;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public IrNode getLeft() {
+        return left;
+    }
+
+    public IrNode getRight() {
+        return right;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitBinary(this);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + left + " " + operator.getSymbol() + " " + right + ")";
+    }
+}
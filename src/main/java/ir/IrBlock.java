@@ -0,0 +1,31 @@
+package ir;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Statements executed in order (compound statement, body of a program/procedure/function)
+ */
+public class IrBlock extends IrNode {
+
+    private final List<IrNode> statements;
+
+    public IrBlock(List<IrNode> statements) {
+        super(null);
+        this.statements = List.copyOf(statements);
+    }
+
+    public List<IrNode> getStatements() {
+        return statements;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitBlock(this);
+    }
+
+    @Override
+    public String toString() {
+        return statements.stream().map(String::valueOf).collect(Collectors.joining("; ", "begin ", " end"));
+    }
+}
@@ -0,0 +1,579 @@
+package ir;
+
+import instruction.InstructionHelper;
+import instruction.LoadStoreHelper;
+import instruction.TypeConverterHelper;
+import org.objectweb.asm.Handle;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import runtime.support.PascalInput;
+import runtime.support.PascalOutput;
+import runtime.support.PascalStrings;
+import type.StringLiteral;
+import type.TypeDescriptor;
+import type.primitive.Character;
+import type.primitive.floating.FloatBaseType;
+import type.primitive.integer.IntegerBaseType;
+
+import java.io.PrintStream;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.StringConcatFactory;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend of the IR: emits the body of a method into its method visitor
+ * <p>
+ * Conditions of if/while/repeat jump straight on the comparison, no boolean is materialized for them.
+ * Temporaries (final value of a for loop) get slots after the locals of the method.
+ * write/writeln go through the runtime.support.PascalOutput of the program (static field OUTPUT_FIELD),
+ * or straight to System.out if the output is not buffered. read/readln go through its runtime.support.PascalInput
+ * (static field INPUT_FIELD).
+ * Arrays are flat primitive arrays (see ArrayLayout), elements accessed at the offsets computed by the IR builder.
+ * </p>
+ */
+public class IrBytecodeEmitter implements IrVisitor<Void> {
+
+    private static final Handle CONCAT_BOOTSTRAP = new Handle(
+            Opcodes.H_INVOKESTATIC,
+            Type.getInternalName(StringConcatFactory.class),
+            "makeConcatWithConstants",
+            MethodType.methodType(CallSite.class, MethodHandles.Lookup.class, String.class,
+                    MethodType.class, String.class, Object[].class).toMethodDescriptorString(),
+            false);
+
+    private static final Map<Class<?>, String> OUTPUT_METHODS = Map.of(int.class, "writeInt", double.class,
+            "writeReal", char.class, "writeChar", boolean.class, "writeBoolean", String.class, "writeString");
+
+    private static final Map<Class<?>, Integer> ARRAY_TYPES = Map.of(int.class, Opcodes.T_INT, double.class,
+            Opcodes.T_DOUBLE, char.class, Opcodes.T_CHAR, boolean.class, Opcodes.T_BOOLEAN);
+
+    /**
+     * Static field of the generated class holding its output, not a legal Pascal identifier
+     */
+    public static final String OUTPUT_FIELD = "$output";
+    public static final String OUTPUT_DESCRIPTOR = Type.getDescriptor(PascalOutput.class);
+    public static final String INPUT_FIELD = "$input";
+    public static final String INPUT_DESCRIPTOR = Type.getDescriptor(PascalInput.class);
+
+    private final MethodVisitor methodVisitor;
+    private final String className;
+    private final boolean bufferedOutput;
+    private int nextSlot;
+
+    /**
+     * @param firstFreeSlot  - first slot after the parameters & locals of the method
+     * @param bufferedOutput - write/writeln through the output of the program (see openOutput)
+     */
+    public IrBytecodeEmitter(MethodVisitor methodVisitor, String className, int firstFreeSlot,
+                             boolean bufferedOutput) {
+        this.methodVisitor = methodVisitor;
+        this.className = className;
+        this.nextSlot = firstFreeSlot;
+        this.bufferedOutput = bufferedOutput;
+    }
+
+    /**
+     * Create the output of the program, at the start of main (the field is declared by the encoder)
+     */
+    public static void openOutput(MethodVisitor methodVisitor, String className) {
+        InstructionHelper.invokeStatic(methodVisitor, PascalOutput.class, "standard", false);
+        methodVisitor.visitFieldInsn(Opcodes.PUTSTATIC, className, OUTPUT_FIELD, OUTPUT_DESCRIPTOR);
+    }
+
+    public static void flushOutput(MethodVisitor methodVisitor, String className) {
+        methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, className, OUTPUT_FIELD, OUTPUT_DESCRIPTOR);
+        InstructionHelper.invokeVirtual(methodVisitor, PascalOutput.class, "flush");
+    }
+
+    /**
+     * Create the input of the program, at the start of main (the field is declared by the encoder)
+     */
+    public static void openInput(MethodVisitor methodVisitor, String className) {
+        InstructionHelper.invokeStatic(methodVisitor, PascalInput.class, "standard", false);
+        methodVisitor.visitFieldInsn(Opcodes.PUTSTATIC, className, INPUT_FIELD, INPUT_DESCRIPTOR);
+    }
+
+    public void emit(IrNode node) {
+        node.accept(this);
+    }
+
+    private int allocate(int length) {
+        int slot = nextSlot;
+        nextSlot += length;
+        return slot;
+    }
+
+    private static boolean isReal(IrNode node) {
+        return node.getType() instanceof FloatBaseType;
+    }
+
+    private static boolean isString(IrNode node) {
+        return node.getType() instanceof StringLiteral;
+    }
+
+    private void pushInt(int value) {
+        pushInt(methodVisitor, value);
+    }
+
+    public static void pushInt(MethodVisitor methodVisitor, int value) {
+        if (value >= -1 && value <= 5) {
+            methodVisitor.visitInsn(Opcodes.ICONST_0 + value);
+        } else if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.BIPUSH, value);
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            methodVisitor.visitIntInsn(Opcodes.SIPUSH, value);
+        } else methodVisitor.visitLdcInsn(value);
+    }
+
+    /**
+     * Create the flat array of all the elements of an array (one allocation, whatever the number of dimensions),
+     * left on the stack
+     */
+    public static void newArray(MethodVisitor methodVisitor, ArrayLayout layout) {
+        pushInt(methodVisitor, layout.getSize());
+        methodVisitor.visitIntInsn(Opcodes.NEWARRAY, ARRAY_TYPES.get(layout.getElementType().getDescriptorClass()));
+    }
+
+    @Override
+    public Void visitConstant(IrConstant node) {
+        Object value = node.getValue();
+        if (value instanceof Long) {
+            pushInt(Math.toIntExact((Long) value));
+        } else if (value instanceof Double) {
+            double real = (Double) value;
+            if (Double.doubleToLongBits(real) == 0L) {
+                methodVisitor.visitInsn(Opcodes.DCONST_0);
+            } else if (real == 1.0D) {
+                methodVisitor.visitInsn(Opcodes.DCONST_1);
+            } else methodVisitor.visitLdcInsn(real);
+        } else if (value instanceof java.lang.Boolean) {
+            InstructionHelper.loadTrueOrFalse(methodVisitor, (java.lang.Boolean) value);
+        } else if (value instanceof java.lang.Character) {
+            pushInt((java.lang.Character) value);
+        } else {
+            methodVisitor.visitLdcInsn(String.valueOf(value));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitVariable(IrVariable node) {
+        if (node.isStatic()) {
+            InstructionHelper.getStatic(methodVisitor, className, node.getName(), node.getType());
+        } else {
+            LoadStoreHelper.loadIntOrFloatLocal(methodVisitor, node.getType(), node.getSlot());
+        }
+        return null;
+    }
+
+    private void store(IrVariable variable) {
+        if (variable.isStatic()) {
+            InstructionHelper.putStatic(methodVisitor, className, variable.getName(), variable.getType());
+        } else {
+            LoadStoreHelper.storePrimitive(methodVisitor, variable.getType(), variable.getSlot());
+        }
+    }
+
+    @Override
+    public Void visitUnary(IrUnary node) {
+        emit(node.getOperand());
+        if (node.getOperator() == IrUnary.Operator.NEG) {
+            InstructionHelper.intOrFloatNeg(methodVisitor, node.getType());
+        } else {
+            // booleans are 0/1
+            methodVisitor.visitInsn(Opcodes.ICONST_1);
+            methodVisitor.visitInsn(Opcodes.IXOR);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(IrBinary node) {
+        if (node.getOperator().isRelational()) {
+            Label evaluateToFalse = new Label();
+            Label endLabel = new Label();
+            jumpIfFalse(node, evaluateToFalse);
+            methodVisitor.visitInsn(Opcodes.ICONST_1);
+            methodVisitor.visitJumpInsn(Opcodes.GOTO, endLabel);
+            methodVisitor.visitLabel(evaluateToFalse);
+            methodVisitor.visitInsn(Opcodes.ICONST_0);
+            methodVisitor.visitLabel(endLabel);
+            return null;
+        }
+        emit(node.getLeft());
+        emit(node.getRight());
+        TypeDescriptor type = node.getType();
+        switch (node.getOperator()) {
+            case ADD:
+                InstructionHelper.add(methodVisitor, type);
+                break;
+            case SUB:
+                InstructionHelper.sub(methodVisitor, type);
+                break;
+            case MUL:
+                InstructionHelper.mul(methodVisitor, type);
+                break;
+            case REAL_DIV:
+                InstructionHelper.realDiv(methodVisitor);
+                break;
+            case DIV:
+                InstructionHelper.intDiv(methodVisitor);
+                break;
+            case MOD:
+                InstructionHelper.intMod(methodVisitor);
+                break;
+            case AND:
+                InstructionHelper.intLogicalOp(methodVisitor, Opcodes.IAND);
+                break;
+            case OR:
+                InstructionHelper.intLogicalOp(methodVisitor, Opcodes.IOR);
+                break;
+            default:
+                throw new IllegalStateException("Unexpected operator " + node.getOperator());
+        }
+        return null;
+    }
+
+    /**
+     * Compare both operands of a relational node then jump if the comparison (or its negation) holds
+     */
+    private void compareAndJump(IrBinary node, boolean negate, Label target) {
+        IrBinary.Operator operator = node.getOperator();
+        emit(node.getLeft());
+        emit(node.getRight());
+        if (isReal(node.getLeft()) || isString(node.getLeft())) {
+            if (isReal(node.getLeft())) {
+                // NaN compares false whatever the operator
+                boolean less = operator == IrBinary.Operator.LT || operator == IrBinary.Operator.LE;
+                methodVisitor.visitInsn(less ? Opcodes.DCMPG : Opcodes.DCMPL);
+            } else {
+                if (operator == IrBinary.Operator.EQ || operator == IrBinary.Operator.NE) {
+                    // true (1) if equal: = jumps if not zero, <> if zero
+                    InstructionHelper.invokeStatic(methodVisitor, PascalStrings.class, "equal", false, String.class,
+                            String.class);
+                    operator = operator == IrBinary.Operator.EQ ? IrBinary.Operator.NE : IrBinary.Operator.EQ;
+                } else {
+                    InstructionHelper.invokeStatic(methodVisitor, PascalStrings.class, "compare", false, String.class,
+                            String.class);
+                }
+            }
+            methodVisitor.visitJumpInsn(jumpOpcode(operator, negate, Opcodes.IFEQ), target);
+        } else {
+            methodVisitor.visitJumpInsn(jumpOpcode(operator, negate, Opcodes.IF_ICMPEQ), target);
+        }
+    }
+
+    /**
+     * @param base - IFEQ (against zero) or IF_ICMPEQ, the 6 jumps of either family are in the same order
+     */
+    private static int jumpOpcode(IrBinary.Operator operator, boolean negate, int base) {
+        IrBinary.Operator effective = negate ? negation(operator) : operator;
+        switch (effective) {
+            case EQ:
+                return base;
+            case NE:
+                return base + 1;
+            case LT:
+                return base + 2;
+            case GE:
+                return base + 3;
+            case GT:
+                return base + 4;
+            case LE:
+                return base + 5;
+            default:
+                throw new IllegalStateException("Not a relational operator " + operator);
+        }
+    }
+
+    private static IrBinary.Operator negation(IrBinary.Operator operator) {
+        switch (operator) {
+            case EQ:
+                return IrBinary.Operator.NE;
+            case NE:
+                return IrBinary.Operator.EQ;
+            case LT:
+                return IrBinary.Operator.GE;
+            case GE:
+                return IrBinary.Operator.LT;
+            case GT:
+                return IrBinary.Operator.LE;
+            case LE:
+                return IrBinary.Operator.GT;
+            default:
+                throw new IllegalStateException("Not a relational operator " + operator);
+        }
+    }
+
+    private void jumpIfFalse(IrNode condition, Label target) {
+        if (condition instanceof IrBinary && ((IrBinary) condition).getOperator().isRelational()) {
+            compareAndJump((IrBinary) condition, true, target);
+        } else if (condition instanceof IrUnary && ((IrUnary) condition).getOperator() == IrUnary.Operator.NOT) {
+            jumpIfTrue(((IrUnary) condition).getOperand(), target);
+        } else {
+            emit(condition);
+            methodVisitor.visitJumpInsn(Opcodes.IFEQ, target);
+        }
+    }
+
+    private void jumpIfTrue(IrNode condition, Label target) {
+        if (condition instanceof IrBinary && ((IrBinary) condition).getOperator().isRelational()) {
+            compareAndJump((IrBinary) condition, false, target);
+        } else if (condition instanceof IrUnary && ((IrUnary) condition).getOperator() == IrUnary.Operator.NOT) {
+            jumpIfFalse(((IrUnary) condition).getOperand(), target);
+        } else {
+            emit(condition);
+            methodVisitor.visitJumpInsn(Opcodes.IFNE, target);
+        }
+    }
+
+    @Override
+    public Void visitConvert(IrConvert node) {
+        emit(node.getOperand());
+        if (node.getKind() == IrConvert.Kind.INT_TO_REAL) {
+            TypeConverterHelper.I2D(methodVisitor);
+        } else {
+            InstructionHelper.invokeStatic(methodVisitor, PascalStrings.class, "valueOf", false, char.class);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitCall(IrCall node) {
+        node.getArguments().forEach(this::emit);
+        InstructionHelper.invokeStatic(methodVisitor, className, node.getName(), node.getDescriptor(), false);
+        return null;
+    }
+
+    @Override
+    public Void visitIntrinsic(IrIntrinsic node) {
+        node.getArguments().forEach(this::emit);
+        Method method = node.getRoutine().getMethod();
+        methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC, Type.getInternalName(method.getDeclaringClass()),
+                method.getName(), Type.getMethodDescriptor(method), false);
+        return null;
+    }
+
+    @Override
+    public Void visitElement(IrElement node) {
+        emit(node.getArray());
+        emit(node.getOffset());
+        methodVisitor.visitInsn(Type.getType(node.getType().getDescriptorClass()).getOpcode(Opcodes.IALOAD));
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(IrBlock node) {
+        for (IrNode each : node.getStatements()) {
+            emit(each);
+            // function called as a statement, result discarded
+            if (each instanceof IrCall && each.getType() != null) {
+                methodVisitor.visitInsn(isReal(each) ? Opcodes.POP2 : Opcodes.POP);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(IrAssign node) {
+        emit(node.getValue());
+        store(node.getTarget());
+        return null;
+    }
+
+    @Override
+    public Void visitStoreElement(IrStoreElement node) {
+        IrElement target = node.getTarget();
+        emit(target.getArray());
+        emit(target.getOffset());
+        emit(node.getValue());
+        methodVisitor.visitInsn(Type.getType(target.getType().getDescriptorClass()).getOpcode(Opcodes.IASTORE));
+        return null;
+    }
+
+    @Override
+    public Void visitArrayCopy(IrArrayCopy node) {
+        emit(node.getSource());
+        emit(node.getSourceOffset());
+        emit(node.getTarget());
+        emit(node.getTargetOffset());
+        pushInt(node.getLength());
+        InstructionHelper.invokeStatic(methodVisitor, System.class, "arraycopy", false, Object.class, int.class,
+                Object.class, int.class, int.class);
+        return null;
+    }
+
+    @Override
+    public Void visitIf(IrIf node) {
+        Label elseBlock = new Label();
+        Label endIf = new Label();
+        jumpIfFalse(node.getCondition(), elseBlock);
+        emit(node.getThenStatement());
+        if (node.getElseStatement() != null) {
+            methodVisitor.visitJumpInsn(Opcodes.GOTO, endIf);
+            methodVisitor.visitLabel(elseBlock);
+            emit(node.getElseStatement());
+            methodVisitor.visitLabel(endIf);
+        } else {
+            methodVisitor.visitLabel(elseBlock);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(IrWhile node) {
+        Label whileExprStart = new Label();
+        Label endWhile = new Label();
+        methodVisitor.visitLabel(whileExprStart);
+        jumpIfFalse(node.getCondition(), endWhile);
+        emit(node.getBody());
+        methodVisitor.visitJumpInsn(Opcodes.GOTO, whileExprStart);
+        methodVisitor.visitLabel(endWhile);
+        return null;
+    }
+
+    @Override
+    public Void visitRepeat(IrRepeat node) {
+        Label repeatBlockStart = new Label();
+        methodVisitor.visitLabel(repeatBlockStart);
+        emit(node.getBody());
+        jumpIfFalse(node.getCondition(), repeatBlockStart);
+        return null;
+    }
+
+    /**
+     * counter := initial; if counter > final then skip;
+     * loop: body; if counter = final then exit; counter := counter + 1; goto loop
+     * <p>
+     * Compared before the increment, the counter never goes past the final value (no overflow at maxint).
+     * </p>
+     */
+    @Override
+    public Void visitFor(IrFor node) {
+        IrVariable counter = node.getCounter();
+        IrNode finalValue = node.getFinalValue();
+        emit(node.getInitialValue());
+        store(counter);
+        if (!(finalValue instanceof IrConstant)) {
+            // evaluated once
+            int slot = allocate(1);
+            emit(finalValue);
+            methodVisitor.visitVarInsn(Opcodes.ISTORE, slot);
+            finalValue = new IrVariable("__final", slot, finalValue.getType());
+        }
+        Label forExprStart = new Label();
+        Label endFor = new Label();
+        emit(counter);
+        emit(finalValue);
+        methodVisitor.visitJumpInsn(node.isDownTo() ? Opcodes.IF_ICMPLT : Opcodes.IF_ICMPGT, endFor);
+
+        methodVisitor.visitLabel(forExprStart);
+        emit(node.getBody());
+        emit(counter);
+        emit(finalValue);
+        methodVisitor.visitJumpInsn(Opcodes.IF_ICMPEQ, endFor);
+        int step = node.isDownTo() ? -1 : 1;
+        if (counter.isStatic()) {
+            emit(counter);
+            pushInt(step);
+            methodVisitor.visitInsn(Opcodes.IADD);
+            store(counter);
+        } else {
+            methodVisitor.visitIincInsn(counter.getSlot(), step);
+        }
+        methodVisitor.visitJumpInsn(Opcodes.GOTO, forExprStart);
+        methodVisitor.visitLabel(endFor);
+        return null;
+    }
+
+    @Override
+    public Void visitWrite(IrWrite node) {
+        List<IrNode> values = node.getValues();
+        if (bufferedOutput) {
+            // one call per value, nothing concatenated
+            for (IrNode each : values) {
+                methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, className, OUTPUT_FIELD, OUTPUT_DESCRIPTOR);
+                emit(each);
+                Class<?> valueClass = each.getType().getDescriptorClass();
+                InstructionHelper.invokeVirtual(methodVisitor, PascalOutput.class, OUTPUT_METHODS.get(valueClass),
+                        valueClass);
+            }
+            if (node.isNewLine()) {
+                methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, className, OUTPUT_FIELD, OUTPUT_DESCRIPTOR);
+                InstructionHelper.invokeVirtual(methodVisitor, PascalOutput.class, "writeln");
+            }
+            return null;
+        }
+        String printMethodName = node.isNewLine() ? "println" : "print";
+        if (values.isEmpty()) {
+            if (node.isNewLine()) {
+                InstructionHelper.getStatic(methodVisitor, System.class, "out");
+                InstructionHelper.invokeVirtual(methodVisitor, PrintStream.class, printMethodName);
+            }
+            return null;
+        }
+        InstructionHelper.getStatic(methodVisitor, System.class, "out");
+        if (values.size() == 1) {
+            IrNode value = values.get(0);
+            emit(value);
+            InstructionHelper.invokeVirtual(methodVisitor, PrintStream.class, printMethodName,
+                    value.getType().getDescriptorClass());
+            return null;
+        }
+        // multiple values, concatenated first
+        StringBuilder recipe = new StringBuilder();
+        Class<?>[] argumentClasses = new Class<?>[values.size()];
+        for (int i = 0; i < values.size(); i++) {
+            emit(values.get(i));
+            recipe.append("\u0001");
+            argumentClasses[i] = values.get(i).getType().getDescriptorClass();
+        }
+        methodVisitor.visitInvokeDynamicInsn("makeConcatWithConstants",
+                MethodType.methodType(String.class, argumentClasses).toMethodDescriptorString(),
+                CONCAT_BOOTSTRAP, recipe.toString());
+        InstructionHelper.invokeVirtual(methodVisitor, PrintStream.class, printMethodName, String.class);
+        return null;
+    }
+
+    @Override
+    public Void visitRead(IrRead node) {
+        // what was written so far shows up before waiting for the input
+        if (bufferedOutput) flushOutput(methodVisitor, className);
+        for (IrVariable each : node.getTargets()) {
+            methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, className, INPUT_FIELD, INPUT_DESCRIPTOR);
+            TypeDescriptor inputType = each.getType();
+            if (inputType instanceof FloatBaseType) {
+                InstructionHelper.invokeVirtual(methodVisitor, PascalInput.class, "readReal");
+            } else if (inputType instanceof IntegerBaseType) {
+                InstructionHelper.invokeVirtual(methodVisitor, PascalInput.class, "readInt");
+            } else if (inputType instanceof Character) {
+                // the first char of the token, ignoring others
+                InstructionHelper.invokeVirtual(methodVisitor, PascalInput.class, "readChar");
+            } else {
+                // readln reads a string up to the end of the line
+                InstructionHelper.invokeVirtual(methodVisitor, PascalInput.class,
+                        node.isLine() ? "readLine" : "readString");
+            }
+            store(each);
+        }
+        if (node.isLine()) {
+            // readln, the rest of the line is skipped
+            methodVisitor.visitFieldInsn(Opcodes.GETSTATIC, className, INPUT_FIELD, INPUT_DESCRIPTOR);
+            InstructionHelper.invokeVirtual(methodVisitor, PascalInput.class, "skipLine");
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitReturn(IrReturn node) {
+        emit(node.getValue());
+        InstructionHelper.returnFromMethod(methodVisitor, node.getValue().getType());
+        return null;
+    }
+}
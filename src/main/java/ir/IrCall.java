@@ -0,0 +1,45 @@
+package ir;
+
+import type.TypeDescriptor;
+
+import java.util.List;
+
+/**
+ * Call of a procedure/function of the program (static method of the program class),
+ * a statement if it returns nothing (null type)
+ */
+public class IrCall extends IrNode {
+
+    private final String name;
+    private final String descriptor;
+    private final List<IrNode> arguments;
+
+    public IrCall(String name, String descriptor, List<IrNode> arguments, TypeDescriptor type) {
+        super(type);
+        this.name = name;
+        this.descriptor = descriptor;
+        this.arguments = List.copyOf(arguments);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDescriptor() {
+        return descriptor;
+    }
+
+    public List<IrNode> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitCall(this);
+    }
+
+    @Override
+    public String toString() {
+        return name + arguments;
+    }
+}
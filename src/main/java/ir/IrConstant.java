@@ -0,0 +1,30 @@
+package ir;
+
+import type.TypeDescriptor;
+
+/**
+ * Literal value: Long (integer), Double (real), java.lang.Boolean, java.lang.Character or String
+ */
+public class IrConstant extends IrNode {
+
+    private final Object value;
+
+    public IrConstant(Object value, TypeDescriptor type) {
+        super(type);
+        this.value = value;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitConstant(this);
+    }
+
+    @Override
+    public String toString() {
+        return value instanceof String ? "'" + value + "'" : String.valueOf(value);
+    }
+}
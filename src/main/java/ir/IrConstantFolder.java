@@ -0,0 +1,217 @@
+package ir;
+
+import type.TypeDescriptor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Evaluates the operations on constants at compile time, bottom up (so a whole constant expression ends up a single
+ * constant, e.g. maxint - 1 or ord(succ(red)) + 1)
+ * <p>
+ * - integer arithmetic wraps around as the emitted int instructions do, a division by a constant 0 is left to fail
+ * at runtime
+ * - and/or with a constant operand is reduced to the other operand (both are always evaluated, nothing is dropped)
+ * - helpers of the runtime support library are called on constant arguments, left to fail at runtime if they do
+ * </p>
+ */
+public class IrConstantFolder extends IrRewriter {
+
+    @Override
+    public IrNode visitUnary(IrUnary node) {
+        IrNode operand = rewrite(node.getOperand());
+        if (operand instanceof IrConstant) {
+            Object value = ((IrConstant) operand).getValue();
+            switch (node.getOperator()) {
+                case NEG:
+                    if (value instanceof Long) return constant((long) -toInt(value), node);
+                    if (value instanceof Double) return constant(-(Double) value, node);
+                    break;
+                case NOT:
+                    if (value instanceof Boolean) return constant(!(Boolean) value, node);
+                    break;
+            }
+        }
+        if (operand == node.getOperand()) return node;
+        return new IrUnary(node.getOperator(), operand, node.getType());
+    }
+
+    @Override
+    public IrNode visitConvert(IrConvert node) {
+        IrNode operand = rewrite(node.getOperand());
+        if (operand instanceof IrConstant) {
+            Object value = ((IrConstant) operand).getValue();
+            if (node.getKind() == IrConvert.Kind.INT_TO_REAL && value instanceof Long) {
+                return constant(((Long) value).doubleValue(), node);
+            }
+            if (node.getKind() == IrConvert.Kind.CHAR_TO_STRING && value instanceof Character) {
+                return constant(String.valueOf(value), node);
+            }
+        }
+        if (operand == node.getOperand()) return node;
+        return new IrConvert(node.getKind(), operand, node.getType());
+    }
+
+    @Override
+    public IrNode visitBinary(IrBinary node) {
+        IrNode left = rewrite(node.getLeft());
+        IrNode right = rewrite(node.getRight());
+        IrNode folded = fold(node, left, right);
+        if (folded != null) return folded;
+        if (left == node.getLeft() && right == node.getRight()) return node;
+        return new IrBinary(node.getOperator(), left, right, node.getType());
+    }
+
+    /**
+     * @return null if the operation cannot be evaluated
+     */
+    private static IrNode fold(IrBinary node, IrNode left, IrNode right) {
+        IrBinary.Operator operator = node.getOperator();
+        if (operator == IrBinary.Operator.AND || operator == IrBinary.Operator.OR) {
+            // true and x = x, false or x = x
+            boolean neutral = operator == IrBinary.Operator.AND;
+            if (isBoolean(left, neutral)) return right;
+            if (isBoolean(right, neutral)) return left;
+        }
+        if (!(left instanceof IrConstant) || !(right instanceof IrConstant)) return null;
+        Object l = ((IrConstant) left).getValue();
+        Object r = ((IrConstant) right).getValue();
+
+        if (operator.isRelational()) {
+            Boolean result = l instanceof Double && r instanceof Double
+                    ? compare(operator, (Double) l, (Double) r) : compare(operator, l, r);
+            return result != null ? constant(result, node) : null;
+        }
+        if (l instanceof Long && r instanceof Long) {
+            int a = toInt(l);
+            int b = toInt(r);
+            switch (operator) {
+                case ADD:
+                    return constant((long) (a + b), node);
+                case SUB:
+                    return constant((long) (a - b), node);
+                case MUL:
+                    return constant((long) (a * b), node);
+                case DIV:
+                    return b != 0 ? constant((long) (a / b), node) : null;
+                case MOD:
+                    return b != 0 ? constant((long) (a % b), node) : null;
+            }
+        }
+        if (l instanceof Double && r instanceof Double) {
+            double a = (Double) l;
+            double b = (Double) r;
+            switch (operator) {
+                case ADD:
+                    return constant(a + b, node);
+                case SUB:
+                    return constant(a - b, node);
+                case MUL:
+                    return constant(a * b, node);
+                case REAL_DIV:
+                    return constant(a / b, node);
+            }
+        }
+        if (l instanceof Boolean && r instanceof Boolean) {
+            boolean a = (Boolean) l;
+            boolean b = (Boolean) r;
+            if (operator == IrBinary.Operator.AND) return constant(a && b, node);
+            if (operator == IrBinary.Operator.OR) return constant(a || b, node);
+        }
+        return null;
+    }
+
+    /**
+     * Same results as dcmpl/dcmpg, false when comparing with NaN (except for <>)
+     */
+    private static Boolean compare(IrBinary.Operator operator, double a, double b) {
+        switch (operator) {
+            case EQ:
+                return a == b;
+            case NE:
+                return a != b;
+            case LT:
+                return a < b;
+            case LE:
+                return a <= b;
+            case GT:
+                return a > b;
+            case GE:
+                return a >= b;
+        }
+        return null;
+    }
+
+    /**
+     * Integers, chars & booleans compared as int, strings with compareTo
+     */
+    @SuppressWarnings("unchecked")
+    private static Boolean compare(IrBinary.Operator operator, Object a, Object b) {
+        if (a.getClass() != b.getClass() || !(a instanceof Comparable)) return null;
+        int comparison = ((Comparable<Object>) a).compareTo(b);
+        switch (operator) {
+            case EQ:
+                return comparison == 0;
+            case NE:
+                return comparison != 0;
+            case LT:
+                return comparison < 0;
+            case LE:
+                return comparison <= 0;
+            case GT:
+                return comparison > 0;
+            case GE:
+                return comparison >= 0;
+        }
+        return null;
+    }
+
+    @Override
+    public IrNode visitIntrinsic(IrIntrinsic node) {
+        IrNode rewritten = super.visitIntrinsic(node);
+        List<IrNode> arguments = ((IrIntrinsic) rewritten).getArguments();
+        Method method = node.getRoutine().getMethod();
+        Class<?>[] parameters = method.getParameterTypes();
+        Object[] values = new Object[arguments.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!(arguments.get(i) instanceof IrConstant)) return rewritten;
+            Object value = ((IrConstant) arguments.get(i)).getValue();
+            if (parameters[i] == int.class && value instanceof Long) values[i] = toInt(value);
+            else if (parameters[i] == int.class && value instanceof Character) values[i] = (int) (Character) value;
+            else if (parameters[i] == int.class && value instanceof Boolean) values[i] = (Boolean) value ? 1 : 0;
+            else if (parameters[i] == double.class && value instanceof Long) values[i] = ((Long) value).doubleValue();
+            else values[i] = value;
+        }
+        try {
+            Object result = method.invoke(null, values);
+            return constant(result instanceof Integer ? ordinal((Integer) result, node.getType()) : result, node);
+        } catch (InvocationTargetException e) {
+            // e.g. succ of the last value
+            return rewritten;
+        } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new IllegalStateException("Cannot evaluate " + node, e);
+        }
+    }
+
+    private static boolean isBoolean(IrNode node, boolean value) {
+        return node instanceof IrConstant && Boolean.valueOf(value).equals(((IrConstant) node).getValue());
+    }
+
+    /**
+     * Integer returned by a helper, a char/boolean value if the result is of such a type
+     */
+    private static Object ordinal(int value, TypeDescriptor type) {
+        if (type instanceof type.primitive.Character) return (char) value;
+        if (type instanceof type.primitive.Boolean) return value != 0;
+        return (long) value;
+    }
+
+    private static int toInt(Object value) {
+        return ((Long) value).intValue();
+    }
+
+    private static IrConstant constant(Object value, IrNode folded) {
+        return new IrConstant(value, folded.getType());
+    }
+}
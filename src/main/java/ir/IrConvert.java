@@ -0,0 +1,37 @@
+package ir;
+
+import type.TypeDescriptor;
+
+public class IrConvert extends IrNode {
+
+    public enum Kind {
+        INT_TO_REAL, CHAR_TO_STRING
+    }
+
+    private final Kind kind;
+    private final IrNode operand;
+
+    public IrConvert(Kind kind, IrNode operand, TypeDescriptor type) {
+        super(type);
+        this.kind = kind;
+        this.operand = operand;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public IrNode getOperand() {
+        return operand;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitConvert(this);
+    }
+
+    @Override
+    public String toString() {
+        return kind.name().toLowerCase() + "(" + operand + ")";
+    }
+}
@@ -0,0 +1,104 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Removes the statements that can never run, run after the constant folding:
+ * <p>
+ * - if with a constant condition, replaced by the branch taken
+ * - while false, repeat ... until true (the body runs once) & for loops over constant bounds running no iteration
+ * (only the assignment of the counter is left)
+ * - empty blocks left over
+ * </p>
+ */
+public class IrDeadCodeEliminator extends IrRewriter {
+
+    private int removedCount = 0;
+
+    /**
+     * @return number of statements removed so far, by all the bodies the pass is applied on
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    @Override
+    public IrNode visitBlock(IrBlock node) {
+        IrBlock block = (IrBlock) super.visitBlock(node);
+        List<IrNode> statements = new ArrayList<>(block.getStatements());
+        if (!statements.removeIf(IrDeadCodeEliminator::isEmpty)) return block;
+        return new IrBlock(statements);
+    }
+
+    @Override
+    public IrNode visitIf(IrIf node) {
+        Boolean condition = constant(node.getCondition());
+        if (condition == null) return super.visitIf(node);
+        IrNode taken = condition ? node.getThenStatement() : node.getElseStatement();
+        IrNode skipped = condition ? node.getElseStatement() : node.getThenStatement();
+        removedCount += count(skipped) + 1;
+        return rewrite(taken);
+    }
+
+    @Override
+    public IrNode visitWhile(IrWhile node) {
+        if (!Boolean.FALSE.equals(constant(node.getCondition()))) return super.visitWhile(node);
+        removedCount += count(node.getBody()) + 1;
+        return null;
+    }
+
+    @Override
+    public IrNode visitRepeat(IrRepeat node) {
+        if (!Boolean.TRUE.equals(constant(node.getCondition()))) return super.visitRepeat(node);
+        removedCount++;
+        return rewrite(node.getBody());
+    }
+
+    @Override
+    public IrNode visitFor(IrFor node) {
+        if (node.getInitialValue() instanceof IrConstant && node.getFinalValue() instanceof IrConstant) {
+            Object initialValue = ((IrConstant) node.getInitialValue()).getValue();
+            Object finalValue = ((IrConstant) node.getFinalValue()).getValue();
+            if (initialValue instanceof Long && finalValue instanceof Long) {
+                long first = (Long) initialValue;
+                long last = (Long) finalValue;
+                if (node.isDownTo() ? first < last : first > last) {
+                    removedCount += count(node.getBody()) + 1;
+                    return new IrAssign(node.getCounter(), node.getInitialValue());
+                }
+            }
+        }
+        return super.visitFor(node);
+    }
+
+    private static Boolean constant(IrNode condition) {
+        if (!(condition instanceof IrConstant)) return null;
+        Object value = ((IrConstant) condition).getValue();
+        return value instanceof Boolean ? (Boolean) value : null;
+    }
+
+    private static boolean isEmpty(IrNode statement) {
+        return statement instanceof IrBlock && ((IrBlock) statement).getStatements().isEmpty();
+    }
+
+    /**
+     * @return number of statements (blocks excluded) in the statement, nested ones included
+     */
+    static int count(IrNode statement) {
+        if (statement == null) return 0;
+        if (statement instanceof IrBlock) {
+            int count = 0;
+            for (IrNode each : ((IrBlock) statement).getStatements()) count += count(each);
+            return count;
+        }
+        if (statement instanceof IrIf) {
+            IrIf ifStatement = (IrIf) statement;
+            return 1 + count(ifStatement.getThenStatement()) + count(ifStatement.getElseStatement());
+        }
+        if (statement instanceof IrWhile) return 1 + count(((IrWhile) statement).getBody());
+        if (statement instanceof IrRepeat) return 1 + count(((IrRepeat) statement).getBody());
+        if (statement instanceof IrFor) return 1 + count(((IrFor) statement).getBody());
+        return 1;
+    }
+}
@@ -0,0 +1,250 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Removes the assignments to locals never read afterwards (liveness computed backwards through the statements,
+ * loops iterated until nothing changes)
+ * <p>
+ * - static fields are shared by all the methods, their assignments are always kept
+ * - an assignment whose value calls a procedure/function is kept for its side effects, one whose value may fail
+ * (division by a value that may be 0, range check, checking helper) for its failure
+ * </p>
+ */
+public class IrDeadStoreEliminator extends IrRewriter {
+
+    // slots of the locals read after the current statement
+    private Set<Integer> live = new HashSet<>();
+    // false while iterating a loop, the statements are only removed by the last iteration
+    private boolean removing = true;
+    private int removedCount = 0;
+
+    /**
+     * @return number of assignments removed so far, by all the bodies the pass is applied on
+     */
+    public int getRemovedCount() {
+        return removedCount;
+    }
+
+    @Override
+    public IrBlock apply(IrBlock body) {
+        // nothing is read once the method returned, the result of a function is read by its return
+        live = new HashSet<>();
+        return super.apply(body);
+    }
+
+    @Override
+    public IrNode visitBlock(IrBlock node) {
+        List<IrNode> statements = node.getStatements();
+        IrNode[] rewritten = new IrNode[statements.size()];
+        boolean changed = false;
+        for (int i = statements.size() - 1; i >= 0; i--) {
+            rewritten[i] = rewrite(statements.get(i));
+            changed |= rewritten[i] != statements.get(i);
+        }
+        if (!changed) return node;
+        List<IrNode> kept = new ArrayList<>(Arrays.asList(rewritten));
+        kept.removeIf(Objects::isNull);
+        return new IrBlock(kept);
+    }
+
+    @Override
+    public IrNode visitAssign(IrAssign node) {
+        IrVariable target = node.getTarget();
+        if (!target.isStatic()) {
+            Reads reads = reads(node.getValue());
+            if (!live.contains(target.getSlot()) && !reads.call && !reads.trap) {
+                if (removing) removedCount++;
+                return null;
+            }
+            live.remove(target.getSlot());
+            live.addAll(reads.slots);
+            return node;
+        }
+        live.addAll(reads(node.getValue()).slots);
+        return node;
+    }
+
+    /**
+     * Arrays are never removed, the elements of a local array may be read through another reference
+     */
+    @Override
+    public IrNode visitStoreElement(IrStoreElement node) {
+        live.addAll(reads(node.getTarget()).slots);
+        live.addAll(reads(node.getValue()).slots);
+        return node;
+    }
+
+    @Override
+    public IrNode visitArrayCopy(IrArrayCopy node) {
+        for (IrNode each : List.of(node.getTarget(), node.getTargetOffset(), node.getSource(), node.getSourceOffset())) {
+            live.addAll(reads(each).slots);
+        }
+        return node;
+    }
+
+    @Override
+    public IrNode visitIf(IrIf node) {
+        Set<Integer> liveOut = live;
+        live = new HashSet<>(liveOut);
+        IrNode thenStatement = rewriteStatement(node.getThenStatement());
+        Set<Integer> liveThen = live;
+        live = new HashSet<>(liveOut);
+        IrNode elseStatement = node.getElseStatement() == null ? null : rewriteStatement(node.getElseStatement());
+        live.addAll(liveThen);
+        live.addAll(reads(node.getCondition()).slots);
+        if (thenStatement == node.getThenStatement() && elseStatement == node.getElseStatement()) return node;
+        return new IrIf(node.getCondition(), thenStatement, elseStatement);
+    }
+
+    /**
+     * Condition evaluated before every iteration & once more to exit
+     */
+    @Override
+    public IrNode visitWhile(IrWhile node) {
+        Set<Integer> header = new HashSet<>(live);
+        header.addAll(reads(node.getCondition()).slots);
+        header = loop(node.getBody(), header);
+        live = new HashSet<>(header);
+        IrNode body = rewriteStatement(node.getBody());
+        live = header;
+        if (body == node.getBody()) return node;
+        return new IrWhile(node.getCondition(), body);
+    }
+
+    /**
+     * Condition evaluated after every iteration
+     */
+    @Override
+    public IrNode visitRepeat(IrRepeat node) {
+        Set<Integer> test = new HashSet<>(live);
+        test.addAll(reads(node.getCondition()).slots);
+        test = loop(node.getBody(), test);
+        live = new HashSet<>(test);
+        IrNode body = rewriteStatement(node.getBody());
+        if (body == node.getBody()) return node;
+        return new IrRepeat(body, node.getCondition());
+    }
+
+    /**
+     * Counter compared with the final value (evaluated once, beforehand) after every iteration
+     */
+    @Override
+    public IrNode visitFor(IrFor node) {
+        int counter = node.getCounter().getSlot();
+        Set<Integer> test = new HashSet<>(live);
+        if (!node.getCounter().isStatic()) test.add(counter);
+        test = loop(node.getBody(), test);
+        live = new HashSet<>(test);
+        IrNode body = rewriteStatement(node.getBody());
+        live.addAll(test);
+        if (!node.getCounter().isStatic()) live.remove(counter);
+        live.addAll(reads(node.getInitialValue()).slots);
+        live.addAll(reads(node.getFinalValue()).slots);
+        if (body == node.getBody()) return node;
+        return new IrFor(node.getCounter(), node.getInitialValue(), node.getFinalValue(), node.isDownTo(), body);
+    }
+
+    /**
+     * Locals live at the point a loop body is entered from & returns to, until no more locals are added
+     *
+     * @param base - locals live there whatever the body reads
+     */
+    private Set<Integer> loop(IrNode body, Set<Integer> base) {
+        boolean wasRemoving = removing;
+        removing = false;
+        Set<Integer> point = base;
+        while (true) {
+            live = new HashSet<>(point);
+            rewrite(body);
+            live.addAll(point);
+            if (live.equals(point)) break;
+            point = live;
+        }
+        removing = wasRemoving;
+        return point;
+    }
+
+    @Override
+    public IrNode visitCall(IrCall node) {
+        for (IrNode each : node.getArguments()) live.addAll(reads(each).slots);
+        return node;
+    }
+
+    @Override
+    public IrNode visitWrite(IrWrite node) {
+        for (IrNode each : node.getValues()) live.addAll(reads(each).slots);
+        return node;
+    }
+
+    @Override
+    public IrNode visitRead(IrRead node) {
+        for (IrVariable each : node.getTargets()) {
+            if (!each.isStatic()) live.remove(each.getSlot());
+        }
+        return node;
+    }
+
+    @Override
+    public IrNode visitReturn(IrReturn node) {
+        if (!node.getValue().isStatic()) live.add(node.getValue().getSlot());
+        return node;
+    }
+
+    private static Reads reads(IrNode expression) {
+        Reads reads = new Reads();
+        expression.accept(reads);
+        return reads;
+    }
+
+    /**
+     * Locals read by an expression, whether it calls a procedure/function & whether it may fail
+     */
+    private static class Reads extends IrRewriter {
+
+        private final Set<Integer> slots = new HashSet<>();
+        private boolean call = false;
+        private boolean trap = false;
+
+        @Override
+        public IrNode visitVariable(IrVariable node) {
+            if (!node.isStatic()) slots.add(node.getSlot());
+            return node;
+        }
+
+        @Override
+        public IrNode visitElement(IrElement node) {
+            visitVariable(node.getArray());
+            return super.visitElement(node);
+        }
+
+        @Override
+        public IrNode visitCall(IrCall node) {
+            call = true;
+            return super.visitCall(node);
+        }
+
+        /**
+         * Integer division by zero, unless the divisor is a constant other than 0
+         */
+        @Override
+        public IrNode visitBinary(IrBinary node) {
+            if (node.getOperator() == IrBinary.Operator.DIV || node.getOperator() == IrBinary.Operator.MOD) {
+                IrNode divisor = node.getRight();
+                trap |= !(divisor instanceof IrConstant) || Long.valueOf(0).equals(((IrConstant) divisor).getValue());
+            }
+            return super.visitBinary(node);
+        }
+
+        @Override
+        public IrNode visitIntrinsic(IrIntrinsic node) {
+            trap |= node.getRoutine().isChecking();
+            return super.visitIntrinsic(node);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ir;
+
+/**
+ * Element of an array, loaded from its flat JVM array (see ArrayLayout)
+ */
+public class IrElement extends IrNode {
+
+    private final IrVariable array;
+    private final ArrayLayout layout;
+    private final IrNode offset;
+
+    /**
+     * @param offset - position of the element in the flat array, indexes already checked
+     */
+    public IrElement(IrVariable array, ArrayLayout layout, IrNode offset) {
+        super(layout.getElementType());
+        this.array = array;
+        this.layout = layout;
+        this.offset = offset;
+    }
+
+    public IrVariable getArray() {
+        return array;
+    }
+
+    public ArrayLayout getLayout() {
+        return layout;
+    }
+
+    public IrNode getOffset() {
+        return offset;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitElement(this);
+    }
+
+    @Override
+    public String toString() {
+        return array + "[" + offset + "]";
+    }
+}
@@ -0,0 +1,52 @@
+package ir;
+
+/**
+ * Counting loop, the final value is evaluated once before the first iteration
+ */
+public class IrFor extends IrNode {
+
+    private final IrVariable counter;
+    private final IrNode initialValue;
+    private final IrNode finalValue;
+    private final boolean downTo;
+    private final IrNode body;
+
+    public IrFor(IrVariable counter, IrNode initialValue, IrNode finalValue, boolean downTo, IrNode body) {
+        super(null);
+        this.counter = counter;
+        this.initialValue = initialValue;
+        this.finalValue = finalValue;
+        this.downTo = downTo;
+        this.body = body;
+    }
+
+    public IrVariable getCounter() {
+        return counter;
+    }
+
+    public IrNode getInitialValue() {
+        return initialValue;
+    }
+
+    public IrNode getFinalValue() {
+        return finalValue;
+    }
+
+    public boolean isDownTo() {
+        return downTo;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitFor(this);
+    }
+
+    @Override
+    public String toString() {
+        return "for " + counter + " := " + initialValue + (downTo ? " downto " : " to ") + finalValue + " do " + body;
+    }
+}
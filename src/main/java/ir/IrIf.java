@@ -0,0 +1,40 @@
+package ir;
+
+public class IrIf extends IrNode {
+
+    private final IrNode condition;
+    private final IrNode thenStatement;
+    private final IrNode elseStatement;
+
+    /**
+     * @param elseStatement - null if no else part
+     */
+    public IrIf(IrNode condition, IrNode thenStatement, IrNode elseStatement) {
+        super(null);
+        this.condition = condition;
+        this.thenStatement = thenStatement;
+        this.elseStatement = elseStatement;
+    }
+
+    public IrNode getCondition() {
+        return condition;
+    }
+
+    public IrNode getThenStatement() {
+        return thenStatement;
+    }
+
+    public IrNode getElseStatement() {
+        return elseStatement;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitIf(this);
+    }
+
+    @Override
+    public String toString() {
+        return "if " + condition + " then " + thenStatement + (elseStatement != null ? " else " + elseStatement : "");
+    }
+}
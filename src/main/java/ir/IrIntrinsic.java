@@ -0,0 +1,94 @@
+package ir;
+
+import runtime.support.PascalMath;
+import runtime.support.PascalOrdinals;
+import runtime.support.PascalRange;
+import type.TypeDescriptor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * Call of a helper of the runtime support library (static method of a runtime.support class)
+ * <p>
+ * Helpers only return a value, the checking ones (Routine#isChecking) fail on some arguments (value out of
+ * range...), a failure the passes keep even when the value is not used. The constant folder evaluates them on
+ * constant arguments by calling the same method.
+ * </p>
+ */
+public class IrIntrinsic extends IrNode {
+
+    public enum Routine {
+        ORD(PascalOrdinals.class, "ord", int.class),
+        SUCC(PascalOrdinals.class, "succ", int.class, int.class),
+        PRED(PascalOrdinals.class, "pred", int.class, int.class),
+        ABS(PascalMath.class, "abs", int.class),
+        ABS_REAL(PascalMath.class, "abs", double.class),
+        SQR(PascalMath.class, "sqr", int.class),
+        SQR_REAL(PascalMath.class, "sqr", double.class),
+        ODD(PascalMath.class, "odd", int.class),
+        TRUNC(PascalMath.class, "trunc", double.class),
+        ROUND(PascalMath.class, "round", double.class),
+        SQRT(PascalMath.class, "sqrt", double.class),
+        // index of an array checked against the bounds of its dimension
+        CHECK_RANGE(PascalRange.class, "check", int.class, int.class, int.class);
+
+        private final Method method;
+
+        Routine(Class<?> owner, String name, Class<?>... parameters) {
+            try {
+                this.method = owner.getMethod(name, parameters);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Missing runtime support method " + owner.getName() + "." + name, e);
+            }
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        /**
+         * @return true if the helper fails on some arguments
+         */
+        public boolean isChecking() {
+            switch (this) {
+                case SUCC:
+                case PRED:
+                case TRUNC:
+                case ROUND:
+                case SQRT:
+                case CHECK_RANGE:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private final Routine routine;
+    private final List<IrNode> arguments;
+
+    public IrIntrinsic(Routine routine, List<IrNode> arguments, TypeDescriptor type) {
+        super(type);
+        this.routine = routine;
+        this.arguments = List.copyOf(arguments);
+    }
+
+    public Routine getRoutine() {
+        return routine;
+    }
+
+    public List<IrNode> getArguments() {
+        return arguments;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitIntrinsic(this);
+    }
+
+    @Override
+    public String toString() {
+        return routine.name().toLowerCase() + arguments;
+    }
+}
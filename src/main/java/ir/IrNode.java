@@ -0,0 +1,29 @@
+package ir;
+
+import type.TypeDescriptor;
+
+/**
+ * Node of the typed intermediate representation, built from the checked parse tree
+ * <p>
+ * - expressions carry the type of their value (conversions are explicit IrConvert nodes)
+ * - statements have no type, control flow is explicit (IrIf, IrWhile, IrRepeat, IrFor)
+ * Nodes are immutable, passes rebuild what they change (see IrRewriter).
+ * </p>
+ */
+public abstract class IrNode {
+
+    private final TypeDescriptor type;
+
+    protected IrNode(TypeDescriptor type) {
+        this.type = type;
+    }
+
+    /**
+     * @return type of the value, null for statements
+     */
+    public TypeDescriptor getType() {
+        return type;
+    }
+
+    public abstract <R> R accept(IrVisitor<R> visitor);
+}
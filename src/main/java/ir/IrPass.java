@@ -0,0 +1,9 @@
+package ir;
+
+/**
+ * Transformation of the IR of a method body, run by the encoder before the body is emitted
+ */
+public interface IrPass {
+
+    IrBlock apply(IrBlock body);
+}
@@ -0,0 +1,644 @@
+package ir;
+
+import type.TypeInterner;
+import type.primitive.integer.DefaultIntegerType;
+import type.primitive.integer.IntegerBaseType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Removes the range checks (CHECK_RANGE of array indexes & of values assigned to subrange variables) of the values
+ * proven within their bounds, run first so the checks of constants are counted too
+ * <p>
+ * - interval analysis forwards through the statements of what the ordinal locals/fields hold: constants, for loop
+ * counters between their initial & final values, subrange variables within their bounds, narrowed by the conditions
+ * of if/while/repeat
+ * - loops iterated until nothing changes, a range still changing after a few iterations is dropped (widened to the
+ * declared range of its variable)
+ * - a call may change any field, a read any of its targets
+ * - checks left in an innermost for loop on the counter or on a variable the loop does not change (+/- a constant)
+ * are hoisted: the loop is versioned, a copy without them runs if a guard before the loop shows all the values in
+ * bounds, the original one otherwise
+ * </p>
+ */
+public class IrRangeCheckEliminator extends IrRewriter {
+
+    private static final int ITERATIONS_BEFORE_WIDENING = 2;
+
+    // known ranges of the variables at the current point, the declared one if missing
+    private Map<String, Interval> facts = new HashMap<>();
+    // false while iterating a loop, the checks are only counted by the last iteration
+    private boolean removing = true;
+    private int eliminatedCount = 0;
+    private int hoistedCount = 0;
+
+    /**
+     * @return number of checks removed so far, by all the bodies the pass is applied on
+     */
+    public int getEliminatedCount() {
+        return eliminatedCount;
+    }
+
+    /**
+     * @return number of checks taken out of the fast copy of a loop so far
+     */
+    public int getHoistedCount() {
+        return hoistedCount;
+    }
+
+    @Override
+    public IrBlock apply(IrBlock body) {
+        // nothing known of the fields & parameters on entry
+        facts = new HashMap<>();
+        return super.apply(body);
+    }
+
+    private static String key(IrVariable variable) {
+        return variable.isStatic() ? variable.getName() : "#" + variable.getSlot();
+    }
+
+    /*
+     * Ranges
+     */
+
+    /**
+     * @return range of the values of an expression, null if not an ordinal
+     */
+    private Interval range(IrNode node) {
+        if (node instanceof IrConstant) {
+            Object value = ((IrConstant) node).getValue();
+            if (value instanceof Long) return Interval.of((Long) value, (Long) value);
+            if (value instanceof Character) return Interval.of((Character) value, (Character) value);
+            if (value instanceof Boolean) return (Boolean) value ? Interval.of(1, 1) : Interval.of(0, 0);
+            return null;
+        }
+        if (node instanceof IrVariable) {
+            Interval known = facts.get(key((IrVariable) node));
+            return known != null ? known : ((IrVariable) node).getRange();
+        }
+        Interval range = null;
+        if (node instanceof IrUnary && ((IrUnary) node).getOperator() == IrUnary.Operator.NEG) {
+            Interval operand = range(((IrUnary) node).getOperand());
+            range = operand != null ? operand.negate() : null;
+        } else if (node instanceof IrBinary) {
+            range = arithmetic((IrBinary) node);
+        } else if (node instanceof IrIntrinsic) {
+            IrIntrinsic intrinsic = (IrIntrinsic) node;
+            Interval argument = range(intrinsic.getArguments().get(0));
+            if (intrinsic.getRoutine() == IrIntrinsic.Routine.ORD) range = argument;
+            if (intrinsic.getRoutine() == IrIntrinsic.Routine.CHECK_RANGE) {
+                // fails otherwise
+                Interval bounds = bounds(intrinsic);
+                range = argument != null && bounds != null ? argument.intersect(bounds) : null;
+                if (range == null) range = bounds;
+            }
+        }
+        if (range != null || node.getType() == null) return range;
+        return Interval.of(node.getType());
+    }
+
+    /**
+     * @return null if not an integer operation or nothing better than its type is known
+     */
+    private Interval arithmetic(IrBinary node) {
+        Interval left = range(node.getLeft());
+        Interval right = range(node.getRight());
+        if (left == null || right == null) return null;
+        switch (node.getOperator()) {
+            case ADD:
+                return left.add(right);
+            case SUB:
+                return left.subtract(right);
+            case MUL:
+                return left.multiply(right);
+            case DIV:
+                // truncated, non decreasing for a positive divisor
+                if (right.getLow() != right.getHigh() || right.getLow() <= 0) return null;
+                return Interval.of(left.getLow() / right.getLow(), left.getHigh() / right.getLow());
+            case MOD:
+                // of the sign of the dividend
+                if (right.getLow() != right.getHigh() || right.getLow() <= 0) return null;
+                long divisor = right.getLow();
+                if (left.getLow() >= 0) return Interval.of(0, Math.min(left.getHigh(), divisor - 1));
+                return Interval.of(1 - divisor, divisor - 1);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * @return bounds of a check, null if not constants
+     */
+    private static Interval bounds(IrIntrinsic check) {
+        List<IrNode> arguments = check.getArguments();
+        if (!(arguments.get(1) instanceof IrConstant) || !(arguments.get(2) instanceof IrConstant)) return null;
+        Object low = ((IrConstant) arguments.get(1)).getValue();
+        Object high = ((IrConstant) arguments.get(2)).getValue();
+        if (!(low instanceof Long) || !(high instanceof Long)) return null;
+        return Interval.of((Long) low, (Long) high);
+    }
+
+    private void assign(IrVariable target, Interval range) {
+        Interval declared = target.getRange();
+        if (range != null && declared != null) range = range.intersect(declared);
+        if (range != null) facts.put(key(target), range);
+        else facts.remove(key(target));
+    }
+
+    /**
+     * @return ranges known on both paths
+     */
+    private static Map<String, Interval> join(Map<String, Interval> left, Map<String, Interval> right) {
+        Map<String, Interval> joined = new HashMap<>();
+        left.forEach((key, range) -> {
+            Interval other = right.get(key);
+            if (other != null) joined.put(key, range.join(other));
+        });
+        return joined;
+    }
+
+    /*
+     * Conditions
+     */
+
+    /**
+     * @param holds - value of the condition on the path
+     * @return facts narrowed by the condition, left as they are if it calls a procedure/function
+     */
+    private Map<String, Interval> refine(Map<String, Interval> base, IrNode condition, boolean holds) {
+        Map<String, Interval> saved = facts;
+        facts = new HashMap<>(base);
+        if (!Effects.of(condition).call) narrow(condition, holds);
+        Map<String, Interval> refined = facts;
+        facts = saved;
+        return refined;
+    }
+
+    private void narrow(IrNode condition, boolean holds) {
+        if (condition instanceof IrUnary && ((IrUnary) condition).getOperator() == IrUnary.Operator.NOT) {
+            narrow(((IrUnary) condition).getOperand(), !holds);
+            return;
+        }
+        if (!(condition instanceof IrBinary)) return;
+        IrBinary binary = (IrBinary) condition;
+        IrBinary.Operator operator = binary.getOperator();
+        if (operator == (holds ? IrBinary.Operator.AND : IrBinary.Operator.OR)) {
+            narrow(binary.getLeft(), holds);
+            narrow(binary.getRight(), holds);
+        } else if (operator.isRelational()) {
+            if (!holds) operator = negate(operator);
+            narrow(binary.getLeft(), operator, binary.getRight());
+            narrow(binary.getRight(), mirror(operator), binary.getLeft());
+        }
+    }
+
+    /**
+     * Narrows a variable compared with another operand, never to an empty range (the path is then never taken)
+     */
+    private void narrow(IrNode operand, IrBinary.Operator operator, IrNode other) {
+        if (!(operand instanceof IrVariable)) return;
+        Interval current = range(operand);
+        Interval bound = range(other);
+        if (current == null || bound == null) return;
+        Interval allowed;
+        switch (operator) {
+            case EQ:
+                allowed = bound;
+                break;
+            case LT:
+                allowed = Interval.of(Integer.MIN_VALUE, bound.getHigh() - 1);
+                break;
+            case LE:
+                allowed = Interval.of(Integer.MIN_VALUE, bound.getHigh());
+                break;
+            case GT:
+                allowed = Interval.of(bound.getLow() + 1, Integer.MAX_VALUE);
+                break;
+            case GE:
+                allowed = Interval.of(bound.getLow(), Integer.MAX_VALUE);
+                break;
+            default:
+                return;
+        }
+        Interval narrowed = allowed != null ? current.intersect(allowed) : null;
+        if (narrowed != null) facts.put(key((IrVariable) operand), narrowed);
+    }
+
+    /**
+     * a op b is b mirror(op) a
+     */
+    private static IrBinary.Operator mirror(IrBinary.Operator operator) {
+        switch (operator) {
+            case LT:
+                return IrBinary.Operator.GT;
+            case LE:
+                return IrBinary.Operator.GE;
+            case GT:
+                return IrBinary.Operator.LT;
+            case GE:
+                return IrBinary.Operator.LE;
+            default:
+                return operator;
+        }
+    }
+
+    private static IrBinary.Operator negate(IrBinary.Operator operator) {
+        switch (operator) {
+            case EQ:
+                return IrBinary.Operator.NE;
+            case NE:
+                return IrBinary.Operator.EQ;
+            case LT:
+                return IrBinary.Operator.GE;
+            case LE:
+                return IrBinary.Operator.GT;
+            case GT:
+                return IrBinary.Operator.LE;
+            default:
+                return IrBinary.Operator.LT;
+        }
+    }
+
+    /*
+     * Expressions
+     */
+
+    @Override
+    public IrNode visitIntrinsic(IrIntrinsic node) {
+        IrIntrinsic rewritten = (IrIntrinsic) super.visitIntrinsic(node);
+        if (node.getRoutine() != IrIntrinsic.Routine.CHECK_RANGE) return rewritten;
+        Interval bounds = bounds(rewritten);
+        Interval argument = range(rewritten.getArguments().get(0));
+        if (bounds == null || argument == null || !bounds.contains(argument)) return rewritten;
+        if (removing) eliminatedCount++;
+        return unchecked(rewritten);
+    }
+
+    /**
+     * @return argument of a check, a char/boolean constant as an integer one (as the check returns it)
+     */
+    private static IrNode unchecked(IrIntrinsic check) {
+        IrNode argument = check.getArguments().get(0);
+        if (!(argument instanceof IrConstant)) return argument;
+        Object value = ((IrConstant) argument).getValue();
+        if (value instanceof Character) return new IrConstant((long) (Character) value, DefaultIntegerType.instance);
+        if (value instanceof Boolean) return new IrConstant((Boolean) value ? 1L : 0L, DefaultIntegerType.instance);
+        return argument;
+    }
+
+    @Override
+    public IrNode visitCall(IrCall node) {
+        IrNode rewritten = super.visitCall(node);
+        facts.keySet().removeIf(key -> !key.startsWith("#"));
+        return rewritten;
+    }
+
+    /*
+     * Statements
+     */
+
+    @Override
+    public IrNode visitAssign(IrAssign node) {
+        IrAssign rewritten = (IrAssign) super.visitAssign(node);
+        assign(node.getTarget(), range(rewritten.getValue()));
+        return rewritten;
+    }
+
+    /**
+     * Source evaluated first
+     */
+    @Override
+    public IrNode visitArrayCopy(IrArrayCopy node) {
+        IrNode sourceOffset = rewrite(node.getSourceOffset());
+        IrNode targetOffset = rewrite(node.getTargetOffset());
+        if (targetOffset == node.getTargetOffset() && sourceOffset == node.getSourceOffset()) return node;
+        return new IrArrayCopy(node.getTarget(), targetOffset, node.getSource(), sourceOffset, node.getLength());
+    }
+
+    @Override
+    public IrNode visitRead(IrRead node) {
+        for (IrVariable each : node.getTargets()) facts.remove(key(each));
+        return node;
+    }
+
+    @Override
+    public IrNode visitIf(IrIf node) {
+        IrNode condition = rewrite(node.getCondition());
+        Map<String, Interval> tested = facts;
+        facts = refine(tested, condition, true);
+        IrNode thenStatement = rewriteStatement(node.getThenStatement());
+        Map<String, Interval> afterThen = facts;
+        facts = refine(tested, condition, false);
+        IrNode elseStatement = node.getElseStatement() == null ? null : rewriteStatement(node.getElseStatement());
+        facts = join(afterThen, facts);
+        if (condition == node.getCondition() && thenStatement == node.getThenStatement()
+                && elseStatement == node.getElseStatement()) {
+            return node;
+        }
+        return new IrIf(condition, thenStatement, elseStatement);
+    }
+
+    /**
+     * Condition evaluated before every iteration & once more to exit
+     */
+    @Override
+    public IrNode visitWhile(IrWhile node) {
+        Map<String, Interval> head = loop(facts, point -> {
+            facts = new HashMap<>(point);
+            IrNode condition = rewrite(node.getCondition());
+            facts = refine(facts, condition, true);
+            rewriteStatement(node.getBody());
+            return facts;
+        });
+        facts = new HashMap<>(head);
+        IrNode condition = rewrite(node.getCondition());
+        Map<String, Interval> tested = facts;
+        facts = refine(tested, condition, true);
+        IrNode body = rewriteStatement(node.getBody());
+        facts = refine(tested, condition, false);
+        if (condition == node.getCondition() && body == node.getBody()) return node;
+        return new IrWhile(condition, body);
+    }
+
+    /**
+     * Condition evaluated after every iteration
+     */
+    @Override
+    public IrNode visitRepeat(IrRepeat node) {
+        Map<String, Interval> head = loop(facts, point -> {
+            facts = new HashMap<>(point);
+            rewriteStatement(node.getBody());
+            IrNode condition = rewrite(node.getCondition());
+            return refine(facts, condition, false);
+        });
+        facts = new HashMap<>(head);
+        IrNode body = rewriteStatement(node.getBody());
+        IrNode condition = rewrite(node.getCondition());
+        facts = refine(facts, condition, true);
+        if (condition == node.getCondition() && body == node.getBody()) return node;
+        return new IrRepeat(body, condition);
+    }
+
+    /**
+     * Counter between its initial & final values in the body (the final one evaluated once, after the counter is
+     * set), unless the body changes it; the last value it took afterwards
+     */
+    @Override
+    public IrNode visitFor(IrFor node) {
+        IrVariable counter = node.getCounter();
+        IrNode initialValue = rewrite(node.getInitialValue());
+        Interval first = range(initialValue);
+        assign(counter, first);
+        IrNode finalValue = rewrite(node.getFinalValue());
+        Interval last = range(finalValue);
+        Interval values = null;
+        if (first != null && last != null && !Effects.of(node.getBody()).changes(counter)) {
+            values = node.isDownTo() ? Interval.of(last.getLow(), first.getHigh())
+                    : Interval.of(first.getLow(), last.getHigh());
+        }
+        Interval counterValues = values;
+        Map<String, Interval> head = loop(facts, point -> {
+            facts = new HashMap<>(point);
+            assign(counter, counterValues);
+            rewriteStatement(node.getBody());
+            return facts;
+        });
+        facts = new HashMap<>(head);
+        assign(counter, values);
+        IrNode body = rewriteStatement(node.getBody());
+        facts = head;
+        assign(counter, values != null ? first.join(last) : null);
+        IrFor rewritten = initialValue == node.getInitialValue() && finalValue == node.getFinalValue()
+                && body == node.getBody()
+                ? node : new IrFor(counter, initialValue, finalValue, node.isDownTo(), body);
+        return hoist(rewritten, node.isDownTo() ? last : first, node.isDownTo() ? first : last);
+    }
+
+    /**
+     * Facts at the point a loop body is entered from & returns to, until nothing changes
+     *
+     * @param entry     - facts before the first iteration
+     * @param iteration - facts at the end of an iteration from the ones at its start
+     */
+    private Map<String, Interval> loop(Map<String, Interval> entry, UnaryOperator<Map<String, Interval>> iteration) {
+        boolean wasRemoving = removing;
+        removing = false;
+        Map<String, Interval> point = entry;
+        for (int iterations = 1; ; iterations++) {
+            Map<String, Interval> previous = point;
+            Map<String, Interval> next = join(previous, iteration.apply(previous));
+            if (iterations > ITERATIONS_BEFORE_WIDENING) {
+                next.keySet().removeIf(key -> !next.get(key).equals(previous.get(key)));
+            }
+            if (next.equals(previous)) break;
+            point = next;
+        }
+        removing = wasRemoving;
+        return point;
+    }
+
+    /*
+     * Hoisting
+     */
+
+    /**
+     * Innermost loop over an integer counter, bounds without call & final value not reading the counter: versioned
+     * on the checks left on the counter or on an unchanged variable (+/- a constant)
+     *
+     * @param lowest  - range of the lowest value of the counter (initial one of a to loop)
+     * @param highest - range of the highest one
+     */
+    private IrNode hoist(IrFor loop, Interval lowest, Interval highest) {
+        IrVariable counter = loop.getCounter();
+        Effects body = Effects.of(loop.getBody());
+        if (!(counter.getType() instanceof IntegerBaseType) || body.loop || body.changes(counter)
+                || Effects.of(loop.getInitialValue()).call || Effects.of(loop.getFinalValue()).call
+                || Effects.of(loop.getFinalValue()).reads.contains(key(counter))) {
+            return loop;
+        }
+        IrNode low = loop.isDownTo() ? loop.getFinalValue() : loop.getInitialValue();
+        IrNode high = loop.isDownTo() ? loop.getInitialValue() : loop.getFinalValue();
+
+        // bounds every variable must be within, by key
+        Map<String, IrVariable> variables = new LinkedHashMap<>();
+        Map<String, long[]> limits = new HashMap<>();
+        Set<IrIntrinsic> hoisted = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (IrIntrinsic check : Checks.of(loop.getBody())) {
+            IrNode argument = check.getArguments().get(0);
+            Interval bounds = bounds(check);
+            IrVariable variable = variableOf(argument);
+            if (bounds == null || variable == null || !(variable.getType() instanceof IntegerBaseType)) continue;
+            boolean isCounter = key(variable).equals(key(counter));
+            if (!isCounter && body.changes(variable)) continue;
+            long offset = offsetOf(argument);
+            long[] limit = limits.getOrDefault(key(variable), new long[]{Integer.MIN_VALUE, Integer.MAX_VALUE});
+            long[] narrowed = {Math.max(limit[0], bounds.getLow() - offset),
+                    Math.min(limit[1], bounds.getHigh() - offset)};
+            // the guard would never hold
+            if (narrowed[0] > narrowed[1] || narrowed[0] < Integer.MIN_VALUE || narrowed[1] > Integer.MAX_VALUE
+                    || isCounter && (lowest == null || highest == null
+                    || lowest.getHigh() < narrowed[0] || highest.getLow() > narrowed[1])) {
+                continue;
+            }
+            variables.put(key(variable), variable);
+            limits.put(key(variable), narrowed);
+            hoisted.add(check);
+        }
+        if (hoisted.isEmpty()) return loop;
+        if (removing) hoistedCount += hoisted.size();
+
+        IrNode guard = null;
+        for (Map.Entry<String, IrVariable> each : variables.entrySet()) {
+            long[] limit = limits.get(each.getKey());
+            boolean isCounter = each.getKey().equals(key(counter));
+            guard = and(guard, compare(IrBinary.Operator.GE, isCounter ? low : each.getValue(), limit[0]));
+            guard = and(guard, compare(IrBinary.Operator.LE, isCounter ? high : each.getValue(), limit[1]));
+        }
+        IrNode fast = new IrRewriter() {
+            @Override
+            public IrNode visitIntrinsic(IrIntrinsic node) {
+                IrIntrinsic rewritten = (IrIntrinsic) super.visitIntrinsic(node);
+                return hoisted.contains(node) ? unchecked(rewritten) : rewritten;
+            }
+        }.rewrite(loop);
+        return new IrIf(guard, fast, loop);
+    }
+
+    /**
+     * @return variable of an argument variable, variable + constant, constant + variable or variable - constant,
+     * null otherwise
+     */
+    private static IrVariable variableOf(IrNode argument) {
+        if (argument instanceof IrVariable) return (IrVariable) argument;
+        if (!(argument instanceof IrBinary)) return null;
+        IrBinary binary = (IrBinary) argument;
+        if (binary.getOperator() == IrBinary.Operator.ADD && isInteger(binary.getLeft())
+                && binary.getRight() instanceof IrVariable) {
+            return (IrVariable) binary.getRight();
+        }
+        if ((binary.getOperator() == IrBinary.Operator.ADD || binary.getOperator() == IrBinary.Operator.SUB)
+                && binary.getLeft() instanceof IrVariable && isInteger(binary.getRight())) {
+            return (IrVariable) binary.getLeft();
+        }
+        return null;
+    }
+
+    /**
+     * @return constant added to the variable of the argument (see variableOf)
+     */
+    private static long offsetOf(IrNode argument) {
+        if (argument instanceof IrVariable) return 0;
+        IrBinary binary = (IrBinary) argument;
+        if (isInteger(binary.getLeft())) return (Long) ((IrConstant) binary.getLeft()).getValue();
+        long constant = (Long) ((IrConstant) binary.getRight()).getValue();
+        return binary.getOperator() == IrBinary.Operator.SUB ? -constant : constant;
+    }
+
+    private static boolean isInteger(IrNode node) {
+        return node instanceof IrConstant && ((IrConstant) node).getValue() instanceof Long;
+    }
+
+    private static IrNode compare(IrBinary.Operator operator, IrNode value, long limit) {
+        return new IrBinary(operator, value, new IrConstant(limit, DefaultIntegerType.instance), TypeInterner.BOOLEAN);
+    }
+
+    private static IrNode and(IrNode left, IrNode right) {
+        return left == null ? right : new IrBinary(IrBinary.Operator.AND, left, right, TypeInterner.BOOLEAN);
+    }
+
+    /**
+     * Checks of a statement, nested ones included
+     */
+    private static class Checks extends IrRewriter {
+
+        private final List<IrIntrinsic> checks = new ArrayList<>();
+
+        static List<IrIntrinsic> of(IrNode statement) {
+            Checks collector = new Checks();
+            collector.rewrite(statement);
+            return collector.checks;
+        }
+
+        @Override
+        public IrNode visitIntrinsic(IrIntrinsic node) {
+            if (node.getRoutine() == IrIntrinsic.Routine.CHECK_RANGE) checks.add(node);
+            return super.visitIntrinsic(node);
+        }
+    }
+
+    /**
+     * Variables a statement/expression reads & changes, whether it calls a procedure/function or holds a loop
+     */
+    private static class Effects extends IrRewriter {
+
+        private final Set<String> reads = new HashSet<>();
+        private final Set<String> writes = new HashSet<>();
+        private boolean call = false;
+        private boolean loop = false;
+
+        static Effects of(IrNode node) {
+            Effects effects = new Effects();
+            effects.rewrite(node);
+            return effects;
+        }
+
+        /**
+         * @return true if assigned, or a field & a procedure/function is called
+         */
+        boolean changes(IrVariable variable) {
+            return writes.contains(key(variable)) || variable.isStatic() && call;
+        }
+
+        @Override
+        public IrNode visitVariable(IrVariable node) {
+            reads.add(key(node));
+            return node;
+        }
+
+        @Override
+        public IrNode visitCall(IrCall node) {
+            call = true;
+            return super.visitCall(node);
+        }
+
+        @Override
+        public IrNode visitAssign(IrAssign node) {
+            writes.add(key(node.getTarget()));
+            return super.visitAssign(node);
+        }
+
+        @Override
+        public IrNode visitRead(IrRead node) {
+            for (IrVariable each : node.getTargets()) writes.add(key(each));
+            return node;
+        }
+
+        @Override
+        public IrNode visitWhile(IrWhile node) {
+            loop = true;
+            return super.visitWhile(node);
+        }
+
+        @Override
+        public IrNode visitRepeat(IrRepeat node) {
+            loop = true;
+            return super.visitRepeat(node);
+        }
+
+        @Override
+        public IrNode visitFor(IrFor node) {
+            loop = true;
+            writes.add(key(node.getCounter()));
+            return super.visitFor(node);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package ir;
+
+import java.util.List;
+
+/**
+ * read/readln
+ */
+public class IrRead extends IrNode {
+
+    private final List<IrVariable> targets;
+    private final boolean line;
+
+    public IrRead(List<IrVariable> targets, boolean line) {
+        super(null);
+        this.targets = List.copyOf(targets);
+        this.line = line;
+    }
+
+    public List<IrVariable> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return true if readln (a whole line per value)
+     */
+    public boolean isLine() {
+        return line;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitRead(this);
+    }
+
+    @Override
+    public String toString() {
+        return (line ? "readln" : "read") + targets;
+    }
+}
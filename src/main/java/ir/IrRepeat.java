@@ -0,0 +1,34 @@
+package ir;
+
+public class IrRepeat extends IrNode {
+
+    private final IrNode body;
+    private final IrNode condition;
+
+    public IrRepeat(IrNode body, IrNode condition) {
+        super(null);
+        this.body = body;
+        this.condition = condition;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    /**
+     * @return exit condition (until)
+     */
+    public IrNode getCondition() {
+        return condition;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitRepeat(this);
+    }
+
+    @Override
+    public String toString() {
+        return "repeat " + body + " until " + condition;
+    }
+}
@@ -0,0 +1,28 @@
+package ir;
+
+/**
+ * Return of the result of a function, last statement of its body
+ */
+public class IrReturn extends IrNode {
+
+    private final IrVariable value;
+
+    public IrReturn(IrVariable value) {
+        super(null);
+        this.value = value;
+    }
+
+    public IrVariable getValue() {
+        return value;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitReturn(this);
+    }
+
+    @Override
+    public String toString() {
+        return "return " + value;
+    }
+}
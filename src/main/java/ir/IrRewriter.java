@@ -0,0 +1,181 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Base of the passes transforming the IR: every node is rebuilt only if one of its children changed
+ * <p>
+ * A statement rewritten to null is removed (an empty block where a statement is required).
+ * </p>
+ */
+public class IrRewriter implements IrVisitor<IrNode>, IrPass {
+
+    @Override
+    public IrBlock apply(IrBlock body) {
+        IrNode rewritten = rewrite(body);
+        return rewritten instanceof IrBlock ? (IrBlock) rewritten : new IrBlock(rewritten == null ? List.of() : List.of(rewritten));
+    }
+
+    protected IrNode rewrite(IrNode node) {
+        return node == null ? null : node.accept(this);
+    }
+
+    protected IrNode rewriteStatement(IrNode statement) {
+        IrNode rewritten = rewrite(statement);
+        return rewritten != null ? rewritten : new IrBlock(List.of());
+    }
+
+    @Override
+    public IrNode visitConstant(IrConstant node) {
+        return node;
+    }
+
+    @Override
+    public IrNode visitVariable(IrVariable node) {
+        return node;
+    }
+
+    @Override
+    public IrNode visitUnary(IrUnary node) {
+        IrNode operand = rewrite(node.getOperand());
+        if (operand == node.getOperand()) return node;
+        return new IrUnary(node.getOperator(), operand, node.getType());
+    }
+
+    @Override
+    public IrNode visitBinary(IrBinary node) {
+        IrNode left = rewrite(node.getLeft());
+        IrNode right = rewrite(node.getRight());
+        if (left == node.getLeft() && right == node.getRight()) return node;
+        return new IrBinary(node.getOperator(), left, right, node.getType());
+    }
+
+    @Override
+    public IrNode visitConvert(IrConvert node) {
+        IrNode operand = rewrite(node.getOperand());
+        if (operand == node.getOperand()) return node;
+        return new IrConvert(node.getKind(), operand, node.getType());
+    }
+
+    @Override
+    public IrNode visitCall(IrCall node) {
+        List<IrNode> arguments = rewriteAll(node.getArguments());
+        if (arguments == node.getArguments()) return node;
+        return new IrCall(node.getName(), node.getDescriptor(), arguments, node.getType());
+    }
+
+    @Override
+    public IrNode visitIntrinsic(IrIntrinsic node) {
+        List<IrNode> arguments = rewriteAll(node.getArguments());
+        if (arguments == node.getArguments()) return node;
+        return new IrIntrinsic(node.getRoutine(), arguments, node.getType());
+    }
+
+    @Override
+    public IrNode visitElement(IrElement node) {
+        IrNode offset = rewrite(node.getOffset());
+        if (offset == node.getOffset()) return node;
+        return new IrElement(node.getArray(), node.getLayout(), offset);
+    }
+
+    @Override
+    public IrNode visitBlock(IrBlock node) {
+        List<IrNode> statements = rewriteAll(node.getStatements());
+        if (statements == node.getStatements()) return node;
+        return new IrBlock(statements);
+    }
+
+    @Override
+    public IrNode visitAssign(IrAssign node) {
+        IrNode value = rewrite(node.getValue());
+        if (value == node.getValue()) return node;
+        return new IrAssign(node.getTarget(), value);
+    }
+
+    @Override
+    public IrNode visitStoreElement(IrStoreElement node) {
+        IrNode target = rewrite(node.getTarget());
+        IrNode value = rewrite(node.getValue());
+        if (target == node.getTarget() && value == node.getValue()) return node;
+        return new IrStoreElement((IrElement) target, value);
+    }
+
+    @Override
+    public IrNode visitArrayCopy(IrArrayCopy node) {
+        IrNode targetOffset = rewrite(node.getTargetOffset());
+        IrNode sourceOffset = rewrite(node.getSourceOffset());
+        if (targetOffset == node.getTargetOffset() && sourceOffset == node.getSourceOffset()) return node;
+        return new IrArrayCopy(node.getTarget(), targetOffset, node.getSource(), sourceOffset, node.getLength());
+    }
+
+    @Override
+    public IrNode visitIf(IrIf node) {
+        IrNode condition = rewrite(node.getCondition());
+        IrNode thenStatement = rewriteStatement(node.getThenStatement());
+        IrNode elseStatement = node.getElseStatement() == null ? null : rewriteStatement(node.getElseStatement());
+        if (condition == node.getCondition() && thenStatement == node.getThenStatement()
+                && elseStatement == node.getElseStatement()) {
+            return node;
+        }
+        return new IrIf(condition, thenStatement, elseStatement);
+    }
+
+    @Override
+    public IrNode visitWhile(IrWhile node) {
+        IrNode condition = rewrite(node.getCondition());
+        IrNode body = rewriteStatement(node.getBody());
+        if (condition == node.getCondition() && body == node.getBody()) return node;
+        return new IrWhile(condition, body);
+    }
+
+    @Override
+    public IrNode visitRepeat(IrRepeat node) {
+        IrNode body = rewriteStatement(node.getBody());
+        IrNode condition = rewrite(node.getCondition());
+        if (condition == node.getCondition() && body == node.getBody()) return node;
+        return new IrRepeat(body, condition);
+    }
+
+    @Override
+    public IrNode visitFor(IrFor node) {
+        IrNode initialValue = rewrite(node.getInitialValue());
+        IrNode finalValue = rewrite(node.getFinalValue());
+        IrNode body = rewriteStatement(node.getBody());
+        if (initialValue == node.getInitialValue() && finalValue == node.getFinalValue() && body == node.getBody()) {
+            return node;
+        }
+        return new IrFor(node.getCounter(), initialValue, finalValue, node.isDownTo(), body);
+    }
+
+    @Override
+    public IrNode visitWrite(IrWrite node) {
+        List<IrNode> values = rewriteAll(node.getValues());
+        if (values == node.getValues()) return node;
+        return new IrWrite(values, node.isNewLine());
+    }
+
+    @Override
+    public IrNode visitRead(IrRead node) {
+        return node;
+    }
+
+    @Override
+    public IrNode visitReturn(IrReturn node) {
+        return node;
+    }
+
+    /**
+     * @return the same list if nothing changed, removed (null) nodes dropped otherwise
+     */
+    private List<IrNode> rewriteAll(List<IrNode> nodes) {
+        List<IrNode> rewritten = null;
+        for (int i = 0; i < nodes.size(); i++) {
+            IrNode each = nodes.get(i);
+            IrNode result = rewrite(each);
+            if (result != each && rewritten == null) rewritten = new ArrayList<>(nodes.subList(0, i));
+            if (rewritten != null && result != null) rewritten.add(result);
+        }
+        return rewritten != null ? rewritten : nodes;
+    }
+}
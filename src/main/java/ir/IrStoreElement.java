@@ -0,0 +1,34 @@
+package ir;
+
+/**
+ * Assignment to an element of an array
+ */
+public class IrStoreElement extends IrNode {
+
+    private final IrElement target;
+    private final IrNode value;
+
+    public IrStoreElement(IrElement target, IrNode value) {
+        super(null);
+        this.target = target;
+        this.value = value;
+    }
+
+    public IrElement getTarget() {
+        return target;
+    }
+
+    public IrNode getValue() {
+        return value;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitStoreElement(this);
+    }
+
+    @Override
+    public String toString() {
+        return target + " := " + value;
+    }
+}
@@ -0,0 +1,37 @@
+package ir;
+
+import type.TypeDescriptor;
+
+public class IrUnary extends IrNode {
+
+    public enum Operator {
+        NEG, NOT
+    }
+
+    private final Operator operator;
+    private final IrNode operand;
+
+    public IrUnary(Operator operator, IrNode operand, TypeDescriptor type) {
+        super(type);
+        this.operator = operator;
+        this.operand = operand;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public IrNode getOperand() {
+        return operand;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitUnary(this);
+    }
+
+    @Override
+    public String toString() {
+        return (operator == Operator.NEG ? "-" : "not ") + operand;
+    }
+}
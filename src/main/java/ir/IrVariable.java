@@ -0,0 +1,64 @@
+package ir;
+
+import type.TypeDescriptor;
+
+/**
+ * Variable with its storage resolved: a static field of the program class or a local slot of the method
+ * <p>
+ * Loaded when used as an expression, stored into as the target of IrAssign, IrFor & IrRead.
+ * </p>
+ */
+public class IrVariable extends IrNode {
+
+    public static final int STATIC = -1;
+
+    private final String name;
+    private final int slot;
+    private final Interval range;
+
+    public IrVariable(String name, int slot, TypeDescriptor type) {
+        this(name, slot, type, null);
+    }
+
+    /**
+     * @param range - values a subrange variable is declared to hold, null if the ones of its type
+     */
+    public IrVariable(String name, int slot, TypeDescriptor type, Interval range) {
+        super(type);
+        this.name = name;
+        this.slot = slot;
+        this.range = range;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return local slot, STATIC for a field
+     */
+    public int getSlot() {
+        return slot;
+    }
+
+    /**
+     * @return declared range of the values, null if not an ordinal
+     */
+    public Interval getRange() {
+        return range != null ? range : Interval.of(getType());
+    }
+
+    public boolean isStatic() {
+        return slot == STATIC;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitVariable(this);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,42 @@
+package ir;
+
+public interface IrVisitor<R> {
+
+    R visitConstant(IrConstant node);
+
+    R visitVariable(IrVariable node);
+
+    R visitUnary(IrUnary node);
+
+    R visitBinary(IrBinary node);
+
+    R visitConvert(IrConvert node);
+
+    R visitCall(IrCall node);
+
+    R visitIntrinsic(IrIntrinsic node);
+
+    R visitElement(IrElement node);
+
+    R visitBlock(IrBlock node);
+
+    R visitAssign(IrAssign node);
+
+    R visitStoreElement(IrStoreElement node);
+
+    R visitArrayCopy(IrArrayCopy node);
+
+    R visitIf(IrIf node);
+
+    R visitWhile(IrWhile node);
+
+    R visitRepeat(IrRepeat node);
+
+    R visitFor(IrFor node);
+
+    R visitWrite(IrWrite node);
+
+    R visitRead(IrRead node);
+
+    R visitReturn(IrReturn node);
+}
@@ -0,0 +1,31 @@
+package ir;
+
+public class IrWhile extends IrNode {
+
+    private final IrNode condition;
+    private final IrNode body;
+
+    public IrWhile(IrNode condition, IrNode body) {
+        super(null);
+        this.condition = condition;
+        this.body = body;
+    }
+
+    public IrNode getCondition() {
+        return condition;
+    }
+
+    public IrNode getBody() {
+        return body;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitWhile(this);
+    }
+
+    @Override
+    public String toString() {
+        return "while " + condition + " do " + body;
+    }
+}
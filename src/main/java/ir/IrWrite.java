@@ -0,0 +1,36 @@
+package ir;
+
+import java.util.List;
+
+/**
+ * write/writeln
+ */
+public class IrWrite extends IrNode {
+
+    private final List<IrNode> values;
+    private final boolean newLine;
+
+    public IrWrite(List<IrNode> values, boolean newLine) {
+        super(null);
+        this.values = List.copyOf(values);
+        this.newLine = newLine;
+    }
+
+    public List<IrNode> getValues() {
+        return values;
+    }
+
+    public boolean isNewLine() {
+        return newLine;
+    }
+
+    @Override
+    public <R> R accept(IrVisitor<R> visitor) {
+        return visitor.visitWrite(this);
+    }
+
+    @Override
+    public String toString() {
+        return (newLine ? "writeln" : "write") + values;
+    }
+}
@@ -2,9 +2,32 @@ package runtime;
 
 import annotation.RuntimeAlias;
 import type.TypeDescriptor;
+import type.primitive.floating.DefaultFloatType;
+import type.primitive.floating.Real;
+import type.primitive.integer.DefaultIntegerType;
+import type.primitive.integer.Integer32;
+
+import java.util.List;
+import java.util.Set;
 
 public class RuntimeFunction extends RuntimeProcFuncBaseType{
 
+    // signatures of the arithmetic functions, declared & default (literals, expressions) types
+    protected static final Set<List<Class<? extends TypeDescriptor>>> INTEGER_PARAM = Set.of(
+            List.of(Integer32.class),
+            List.of(DefaultIntegerType.class)
+    );
+    protected static final Set<List<Class<? extends TypeDescriptor>>> REAL_PARAM = Set.of(
+            List.of(Real.class),
+            List.of(DefaultFloatType.class)
+    );
+    protected static final Set<List<Class<? extends TypeDescriptor>>> NUMERIC_PARAM = Set.of(
+            List.of(Integer32.class),
+            List.of(DefaultIntegerType.class),
+            List.of(Real.class),
+            List.of(DefaultFloatType.class)
+    );
+
     protected TypeDescriptor resultType;
 
     protected RuntimeFunction() {
@@ -16,4 +39,12 @@ public class RuntimeFunction extends RuntimeProcFuncBaseType{
     public TypeDescriptor getResultType() {
         return resultType;
     }
+
+    /**
+     * @param actualParams - classes of the actual parameters, one of the signatures
+     * @return type of the result for these parameters (the same whatever the parameters by default)
+     */
+    public TypeDescriptor getResultType(List<Class<? extends TypeDescriptor>> actualParams) {
+        return resultType;
+    }
 }
@@ -1,13 +1,16 @@
 package runtime;
 
-import org.reflections.Reflections;
-import org.reflections.scanners.SubTypesScanner;
+import type.BaseType;
 import type.TypeDescriptor;
+import type.TypeInterner;
+import type.primitive.integer.DefaultIntegerType;
 import tableUtils.Table;
 import utils.log.GlobalLogger;
 
-import java.lang.reflect.InvocationTargetException;
-import java.util.Set;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class RuntimeLibManager {
 
@@ -18,31 +21,51 @@ public class RuntimeLibManager {
     }
 
     /**
-     * Exploit reflection mechanism to set up the runtime procedures/functions
-     * @param table
+     * Predefined scope (maxint & the runtime procedures/functions), built once per JVM & shared by all the
+     * compilations: every type in it is frozen
      */
-    public static void fillTable(Table<Object, TypeDescriptor> table) {
-        Reflections reflections = new Reflections("runtime", new SubTypesScanner(false));
-        Set<Class<? extends RuntimeProcFuncBaseType>> allClasses =
-                reflections.getSubTypesOf(RuntimeProcFuncBaseType.class);
-
-        GlobalLogger.debug("All the builtin classes to be scanned:\n{}",
-                ()->allClasses);
-
-        allClasses.forEach(each->{
-            try {
-                Class<?> superclass = each.getSuperclass();
-                // only put runtime procedures/functions class which extends RuntimeProcedure/RuntimeFunction class
-                if (superclass == RuntimeProcedure.class || superclass == RuntimeFunction.class) {
-                    RuntimeProcFuncBaseType runtimeProcFuncBaseType = each.getDeclaredConstructor().newInstance();
-                    table.put(runtimeProcFuncBaseType.getName(), runtimeProcFuncBaseType);
-                }
-
+    private static volatile Map<Object, TypeDescriptor> prelude;
 
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                e.printStackTrace();
+    /**
+     * Runtime procedures/functions come from RuntimeLibRegistry, generated at build time by
+     * annotation.processor.RuntimeLibProcessor (no class path scanning)
+     *
+     * @return predefined identifiers in definition order, read-only
+     */
+    public static Map<Object, TypeDescriptor> getPrelude() {
+        Map<Object, TypeDescriptor> predefined = prelude;
+        if (predefined != null) return predefined;
+        synchronized (RuntimeLibManager.class) {
+            if (prelude == null) {
+                Map<Object, TypeDescriptor> map = new LinkedHashMap<>();
+                map.put("maxint", TypeInterner.freeze(DefaultIntegerType.of((long) Integer.MAX_VALUE, true)));
+                for (Supplier<RuntimeProcFuncBaseType> each : RuntimeLibRegistry.FACTORIES) {
+                    RuntimeProcFuncBaseType runtimeProcFuncBaseType = TypeInterner.freeze(each.get());
+                    if (runtimeProcFuncBaseType instanceof RuntimeFunction) {
+                        TypeDescriptor resultType = ((RuntimeFunction) runtimeProcFuncBaseType).getResultType();
+                        if (resultType instanceof BaseType) TypeInterner.freeze((BaseType) resultType);
+                    }
+                    map.putIfAbsent(runtimeProcFuncBaseType.getName(), runtimeProcFuncBaseType);
+                }
+                GlobalLogger.debug("All the builtin procedures/functions:\n{}", () -> map.keySet());
+                prelude = Collections.unmodifiableMap(map);
             }
-        });
+            return prelude;
+        }
+    }
 
+    /**
+     * Build the prelude ahead of the first compilation (e.g. when the daemon starts)
+     */
+    public static void preload() {
+        getPrelude();
+    }
+
+    /**
+     * Set up the predefined scope of the table, shared rather than copied
+     * @param table
+     */
+    public static void fillTable(Table<Object, TypeDescriptor> table) {
+        table.setPrelude(getPrelude());
     }
 }
@@ -27,10 +27,12 @@ public class RuntimeProcFuncBaseType extends BaseType {
     }
 
     public void setName(String name) {
+        checkMutable();
         this.name = name;
     }
 
     public void setFormalParamsMap(Set<List<Class<? extends TypeDescriptor>>> formalParamsMap) {
+        checkMutable();
         this.formalParamsMap = formalParamsMap;
     }
 
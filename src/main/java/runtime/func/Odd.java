@@ -0,0 +1,13 @@
+package runtime.func;
+
+import annotation.RuntimeAlias;
+import runtime.RuntimeFunction;
+import type.primitive.Boolean;
+
+@RuntimeAlias("odd")
+public class Odd extends RuntimeFunction {
+    public Odd() {
+        this.formalParamsMap = INTEGER_PARAM;
+        this.resultType = new Boolean();
+    }
+}
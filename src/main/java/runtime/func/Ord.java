@@ -1,5 +1,6 @@
 package runtime.func;
 
+import annotation.RuntimeAlias;
 import runtime.RuntimeFunction;
 import type.enumerated.EnumeratedIdentifier;
 import type.enumerated.EnumeratedType;
@@ -8,6 +9,7 @@ import type.primitive.integer.Integer32;
 import java.util.List;
 import java.util.Set;
 
+@RuntimeAlias("ord")
 public class Ord extends RuntimeFunction {
     public Ord() {
         this.formalParamsMap = Set.of(
@@ -1,5 +1,6 @@
 package runtime.func;
 
+import annotation.RuntimeAlias;
 import runtime.RuntimeFunction;
 import type.enumerated.EnumeratedIdentifier;
 import type.enumerated.EnumeratedType;
@@ -7,6 +8,7 @@ import type.enumerated.EnumeratedType;
 import java.util.List;
 import java.util.Set;
 
+@RuntimeAlias("pred")
 public class Pred extends RuntimeFunction {
     public Pred() {
         this.formalParamsMap = Set.of(
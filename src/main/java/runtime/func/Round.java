@@ -0,0 +1,16 @@
+package runtime.func;
+
+import annotation.RuntimeAlias;
+import runtime.RuntimeFunction;
+import type.primitive.integer.Integer32;
+
+/**
+ * round(x), x rounded to the nearest integer (halves away from zero)
+ */
+@RuntimeAlias("round")
+public class Round extends RuntimeFunction {
+    public Round() {
+        this.formalParamsMap = REAL_PARAM;
+        this.resultType = new Integer32();
+    }
+}
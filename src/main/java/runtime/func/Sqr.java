@@ -0,0 +1,26 @@
+package runtime.func;
+
+import annotation.RuntimeAlias;
+import runtime.RuntimeFunction;
+import type.TypeDescriptor;
+import type.primitive.floating.FloatBaseType;
+import type.primitive.floating.Real;
+import type.primitive.integer.Integer32;
+
+import java.util.List;
+
+/**
+ * sqr(x) = x * x, integer or real as x
+ */
+@RuntimeAlias("sqr")
+public class Sqr extends RuntimeFunction {
+    public Sqr() {
+        this.formalParamsMap = NUMERIC_PARAM;
+        this.resultType = new Integer32();
+    }
+
+    @Override
+    public TypeDescriptor getResultType(List<Class<? extends TypeDescriptor>> actualParams) {
+        return FloatBaseType.class.isAssignableFrom(actualParams.get(0)) ? new Real() : resultType;
+    }
+}
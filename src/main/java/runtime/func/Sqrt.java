@@ -0,0 +1,13 @@
+package runtime.func;
+
+import annotation.RuntimeAlias;
+import runtime.RuntimeFunction;
+import type.primitive.floating.Real;
+
+@RuntimeAlias("sqrt")
+public class Sqrt extends RuntimeFunction {
+    public Sqrt() {
+        this.formalParamsMap = NUMERIC_PARAM;
+        this.resultType = new Real();
+    }
+}
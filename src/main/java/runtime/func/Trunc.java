@@ -0,0 +1,16 @@
+package runtime.func;
+
+import annotation.RuntimeAlias;
+import runtime.RuntimeFunction;
+import type.primitive.integer.Integer32;
+
+/**
+ * trunc(x), x rounded towards zero
+ */
+@RuntimeAlias("trunc")
+public class Trunc extends RuntimeFunction {
+    public Trunc() {
+        this.formalParamsMap = REAL_PARAM;
+        this.resultType = new Integer32();
+    }
+}
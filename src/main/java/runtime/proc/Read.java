@@ -1,6 +1,8 @@
 package runtime.proc;
 
+import annotation.RuntimeAlias;
 import runtime.RuntimeProcedure;
 
+@RuntimeAlias("read")
 public class Read extends RuntimeProcedure {
 }
@@ -1,9 +1,11 @@
 package runtime.proc;
 
+import annotation.RuntimeAlias;
 import runtime.RuntimeProcedure;
 
 /**
  * Placeholder for write procedure
  */
+@RuntimeAlias("write")
 public class Write extends RuntimeProcedure {
 }
@@ -1,6 +1,8 @@
 package runtime.proc;
 
+import annotation.RuntimeAlias;
 import runtime.RuntimeProcedure;
 
+@RuntimeAlias("writeln")
 public class Writeln extends RuntimeProcedure {
 }
@@ -0,0 +1,253 @@
+package runtime.support;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Input of read/readln in the generated programs: values are parsed straight from a byte buffer refilled from the
+ * standard input, no regular expression nor boxing (unlike java.util.Scanner)
+ * <p>
+ * One instance per program (static field of the generated class), created when main starts, so the input buffered
+ * by a read statement is there for the next one.
+ * - integers, reals & chars are read as tokens (whitespace skipped before, the rest of a char token ignored)
+ * - a string is the token for read, the rest of the line for readln
+ * - readln reads its values, then skips the rest of the line
+ * - a missing value (end of input) throws NoSuchElementException, a malformed number NumberFormatException
+ * </p>
+ */
+public final class PascalInput {
+
+    private static final int CAPACITY = 8192;
+    // 10^0 .. 10^22 are exact doubles
+    private static final double[] POWERS_OF_TEN = new double[23];
+    // integers up to 2^53 are exact doubles
+    private static final long MAX_EXACT = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1.0D;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0D;
+    }
+
+    private final InputStream source;
+    private final byte[] buffer = new byte[CAPACITY];
+    // chars of the real being read
+    private byte[] token = new byte[32];
+    private int position = 0;
+    private int limit = 0;
+
+    public PascalInput(InputStream source) {
+        this.source = source;
+    }
+
+    /**
+     * Input of a program, System.in at the time it starts
+     */
+    public static PascalInput standard() {
+        return new PascalInput(System.in);
+    }
+
+    /**
+     * @return next byte without consuming it, -1 at the end of the input
+     */
+    private int peek() {
+        if (position == limit && !fill()) return -1;
+        return buffer[position] & 0xff;
+    }
+
+    private boolean fill() {
+        try {
+            int read = source.read(buffer, 0, CAPACITY);
+            if (read <= 0) return false;
+            position = 0;
+            limit = read;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isWhitespace(int b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f' || b == 0x0b;
+    }
+
+    /**
+     * Skip the whitespace before a token
+     *
+     * @return first byte of the token (not consumed)
+     */
+    private int skipWhitespace() {
+        int b = peek();
+        while (b >= 0 && isWhitespace(b)) {
+            position++;
+            b = peek();
+        }
+        if (b < 0) throw new NoSuchElementException("No more input");
+        return b;
+    }
+
+    private void skipToken() {
+        for (int b = peek(); b >= 0 && !isWhitespace(b); b = peek()) position++;
+    }
+
+    public int readInt() {
+        int b = skipWhitespace();
+        boolean negative = b == '-';
+        if (b == '-' || b == '+') {
+            position++;
+            b = peek();
+        }
+        long value = 0;
+        int digits = 0;
+        while (b >= '0' && b <= '9') {
+            value = value * 10 + (b - '0');
+            // out of the int range (Integer.MIN_VALUE included)
+            if (value > (long) Integer.MAX_VALUE + 1) throw new NumberFormatException("Integer out of range");
+            digits++;
+            position++;
+            b = peek();
+        }
+        if (digits == 0 || (b >= 0 && !isWhitespace(b))) throw malformed("integer");
+        if (negative) value = -value;
+        if (value > Integer.MAX_VALUE) throw new NumberFormatException("Integer out of range");
+        return (int) value;
+    }
+
+    /**
+     * Exact for up to 15 significant digits & an exponent making a power of ten within 10^22
+     * (the decimal value is then a single correctly rounded operation away), Double#parseDouble otherwise
+     */
+    public double readReal() {
+        skipWhitespace();
+        int length = 0;
+        for (int b = peek(); b >= 0 && !isWhitespace(b); b = peek()) {
+            if (length == token.length) token = Arrays.copyOf(token, length * 2);
+            token[length++] = (byte) b;
+            position++;
+        }
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (token[0] == '-' || token[0] == '+') i++;
+        long mantissa = 0;
+        int significant = 0;
+        int scale = 0;
+        int digits = 0;
+        for (boolean fraction = false; i < length; i++) {
+            int b = token[i];
+            if (b >= '0' && b <= '9') {
+                if (mantissa >= MAX_EXACT / 10) return slowReal(length);
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa != 0) significant++;
+                if (fraction) scale--;
+                digits++;
+            } else if (b == '.' && !fraction) {
+                fraction = true;
+            } else break;
+        }
+        if (digits == 0) return slowReal(length);
+        if (i < length && (token[i] == 'e' || token[i] == 'E')) {
+            i++;
+            boolean negativeExponent = i < length && token[i] == '-';
+            if (i < length && (token[i] == '-' || token[i] == '+')) i++;
+            int exponent = 0;
+            int exponentDigits = 0;
+            for (; i < length && token[i] >= '0' && token[i] <= '9'; i++) {
+                if (exponent < 10000) exponent = exponent * 10 + (token[i] - '0');
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) return slowReal(length);
+            scale += negativeExponent ? -exponent : exponent;
+        }
+        if (i < length || significant > 15 || scale < -22 || scale > 22) return slowReal(length);
+        double value = scale < 0 ? mantissa / POWERS_OF_TEN[-scale] : mantissa * POWERS_OF_TEN[scale];
+        return negative ? -value : value;
+    }
+
+    private double slowReal(int length) {
+        return Double.parseDouble(new String(token, 0, length, StandardCharsets.ISO_8859_1));
+    }
+
+    /**
+     * @return first char of the next token, the rest of the token is skipped
+     */
+    public char readChar() {
+        int b = skipWhitespace();
+        char value;
+        if (b < 0x80) {
+            value = (char) b;
+            position++;
+        } else {
+            value = decode();
+        }
+        skipToken();
+        return value;
+    }
+
+    /**
+     * Decode a UTF-8 multi-byte char, only the first one of a supplementary code point
+     */
+    private char decode() {
+        byte[] bytes = new byte[4];
+        int length = 0;
+        bytes[length++] = (byte) peek();
+        position++;
+        for (int b = peek(); b >= 0 && (b & 0xc0) == 0x80 && length < bytes.length; b = peek()) {
+            bytes[length++] = (byte) b;
+            position++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8).charAt(0);
+    }
+
+    public String readString() {
+        skipWhitespace();
+        return readUntil(false);
+    }
+
+    /**
+     * @return the rest of the current line, the line terminator is left for skipLine (as Pascal's read of a string)
+     */
+    public String readLine() {
+        if (peek() < 0) throw new NoSuchElementException("No line found");
+        return readUntil(true);
+    }
+
+    /**
+     * Skip the rest of the current line, line terminator included (readln)
+     */
+    public void skipLine() {
+        for (int b = peek(); b >= 0 && b != '\n' && b != '\r'; b = peek()) position++;
+        skipLineTerminator();
+    }
+
+    private void skipLineTerminator() {
+        int b = peek();
+        if (b == '\r') {
+            position++;
+            b = peek();
+        }
+        if (b == '\n') position++;
+    }
+
+    private String readUntil(boolean line) {
+        byte[] bytes = new byte[64];
+        int length = 0;
+        for (int b = peek(); b >= 0 && (line ? b != '\n' && b != '\r' : !isWhitespace(b)); b = peek()) {
+            if (length == bytes.length) bytes = Arrays.copyOf(bytes, length * 2);
+            bytes[length++] = (byte) b;
+            position++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private NumberFormatException malformed(String what) {
+        StringBuilder token = new StringBuilder();
+        for (int b = peek(); b >= 0 && !isWhitespace(b); b = peek()) {
+            token.append((char) b);
+            position++;
+        }
+        return new NumberFormatException("Malformed " + what + " near [" + token + "]");
+    }
+}
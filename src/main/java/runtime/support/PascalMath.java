@@ -0,0 +1,61 @@
+package runtime.support;
+
+/**
+ * Arithmetic functions of Pascal: abs, sqr, odd, trunc, round, sqrt
+ * <p>
+ * Integer results wrap around as the integer operators do, the conversions of reals to integers fail if the
+ * result is out of the integer range (Pascal error, rather than the saturation of a JVM cast).
+ * </p>
+ */
+public final class PascalMath {
+
+    private PascalMath() {
+    }
+
+    public static int abs(int value) {
+        return value < 0 ? -value : value;
+    }
+
+    public static double abs(double value) {
+        return Math.abs(value);
+    }
+
+    public static int sqr(int value) {
+        return value * value;
+    }
+
+    public static double sqr(double value) {
+        return value * value;
+    }
+
+    public static boolean odd(int value) {
+        return (value & 1) != 0;
+    }
+
+    /**
+     * @return value rounded towards zero
+     */
+    public static int trunc(double value) {
+        if (!(value > Integer.MIN_VALUE - 1.0D && value < Integer.MAX_VALUE + 1.0D)) throw notAnInteger(value);
+        return (int) value;
+    }
+
+    /**
+     * @return value rounded to the nearest integer, halves away from zero (not towards positive infinity as
+     * Math#round)
+     */
+    public static int round(double value) {
+        if (!(value > Integer.MIN_VALUE - 0.5D && value < Integer.MAX_VALUE + 0.5D)) throw notAnInteger(value);
+        // Math#round rounds halves up, mirrored for the negative values
+        return (int) (value < 0 ? -Math.round(-value) : Math.round(value));
+    }
+
+    public static double sqrt(double value) {
+        if (value < 0) throw new PascalRuntimeException(String.format("Square root of a negative value %s", value));
+        return Math.sqrt(value);
+    }
+
+    private static PascalRuntimeException notAnInteger(double value) {
+        return new PascalRuntimeException(String.format("Value %s out of the integer range", value));
+    }
+}
@@ -0,0 +1,30 @@
+package runtime.support;
+
+/**
+ * ord/succ/pred on the ordinal numbers of the values (enumerated values, chars, booleans)
+ */
+public final class PascalOrdinals {
+
+    private PascalOrdinals() {
+    }
+
+    public static int ord(int value) {
+        return value;
+    }
+
+    /**
+     * @param last - ordinal number of the last value of the type
+     */
+    public static int succ(int value, int last) {
+        if (value >= last) throw new PascalRuntimeException(String.format("No successor of %d, the last value", value));
+        return value + 1;
+    }
+
+    /**
+     * @param first - ordinal number of the first value of the type
+     */
+    public static int pred(int value, int first) {
+        if (value <= first) throw new PascalRuntimeException(String.format("No predecessor of %d, the first value", value));
+        return value - 1;
+    }
+}
@@ -0,0 +1,131 @@
+package runtime.support;
+
+import java.io.PrintStream;
+
+/**
+ * Output of write/writeln in the generated programs: the values are written as text straight into a reusable byte
+ * buffer, handed to the standard output when full, before reading input & when the program ends
+ * <p>
+ * One instance per program (static field of the generated class), created when main starts. Same text as
+ * PrintStream#print, the non ASCII chars & the reals which are not integral go through it (or through
+ * Double#toString).
+ * </p>
+ */
+public final class PascalOutput {
+
+    private static final int CAPACITY = 8192;
+    private static final long NEGATIVE_ZERO = Double.doubleToRawLongBits(-0.0D);
+    // Double#toString switches to the computerized scientific notation from 10^7 on
+    private static final double PLAIN_LIMIT = 1.0E7D;
+    private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+
+    private final PrintStream target;
+    private final byte[] buffer = new byte[CAPACITY];
+    private final byte[] lineSeparator;
+    private int position = 0;
+
+    public PascalOutput(PrintStream target) {
+        this.target = target;
+        String separator = System.lineSeparator();
+        this.lineSeparator = new byte[separator.length()];
+        for (int i = 0; i < separator.length(); i++) lineSeparator[i] = (byte) separator.charAt(i);
+    }
+
+    /**
+     * Output of a program, System.out at the time it starts
+     */
+    public static PascalOutput standard() {
+        return new PascalOutput(System.out);
+    }
+
+    private void ensure(int length) {
+        if (position + length > CAPACITY) drain();
+    }
+
+    /**
+     * Hand the buffered bytes to the target, without flushing it
+     */
+    private void drain() {
+        if (position == 0) return;
+        target.write(buffer, 0, position);
+        position = 0;
+    }
+
+    public void flush() {
+        drain();
+        target.flush();
+    }
+
+    public void writeInt(int value) {
+        writeLong(value);
+    }
+
+    public void writeLong(long value) {
+        // 20 chars at most (sign included)
+        ensure(20);
+        if (value == Long.MIN_VALUE) {
+            writeAscii("-9223372036854775808");
+            return;
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) digits++;
+        int end = position + digits;
+        for (int i = end - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position = end;
+    }
+
+    public void writeReal(double value) {
+        if (value == (long) value && Math.abs(value) < PLAIN_LIMIT
+                && Double.doubleToRawLongBits(value) != NEGATIVE_ZERO) {
+            // integral, as Double#toString: digits followed by ".0"
+            writeLong((long) value);
+            ensure(2);
+            buffer[position++] = '.';
+            buffer[position++] = '0';
+            return;
+        }
+        writeAscii(Double.toString(value));
+    }
+
+    public void writeChar(char value) {
+        if (value >= 0x80) {
+            // encoded by the target's charset
+            drain();
+            target.print(value);
+            return;
+        }
+        ensure(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        write(value ? TRUE : FALSE);
+    }
+
+    public void writeString(String value) {
+        for (int i = 0; i < value.length(); i++) writeChar(value.charAt(i));
+    }
+
+    public void writeln() {
+        write(lineSeparator);
+    }
+
+    private void writeAscii(String value) {
+        ensure(value.length());
+        for (int i = 0; i < value.length(); i++) buffer[position++] = (byte) value.charAt(i);
+    }
+
+    private void write(byte[] bytes) {
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+}
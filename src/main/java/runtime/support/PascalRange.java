@@ -0,0 +1,26 @@
+package runtime.support;
+
+/**
+ * Range checks of the generated programs: subrange values, array indexes, successors/predecessors
+ * <p>
+ * The check itself is a comparison small enough for the JIT to inline at the call site, the error is built out of
+ * line.
+ * </p>
+ */
+public final class PascalRange {
+
+    private PascalRange() {
+    }
+
+    /**
+     * @return value, if within low..high
+     */
+    public static int check(int value, int low, int high) {
+        if (value < low || value > high) throw outOfRange(value, low, high);
+        return value;
+    }
+
+    private static PascalRuntimeException outOfRange(int value, int low, int high) {
+        return new PascalRuntimeException(String.format("Value %d out of range [%d..%d]", value, low, high));
+    }
+}
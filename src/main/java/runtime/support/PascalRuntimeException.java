@@ -0,0 +1,12 @@
+package runtime.support;
+
+/**
+ * Run time error of a program detected by the runtime support library (value out of range, argument out of the
+ * domain of a function...)
+ */
+public class PascalRuntimeException extends RuntimeException {
+
+    public PascalRuntimeException(String message) {
+        super(message);
+    }
+}
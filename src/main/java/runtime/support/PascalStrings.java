@@ -0,0 +1,37 @@
+package runtime.support;
+
+/**
+ * Strings of the generated programs: chars converted to strings & comparisons
+ */
+public final class PascalStrings {
+
+    // strings of the Latin-1 chars, shared instead of one allocated per conversion
+    private static final String[] CHARS = new String[256];
+
+    static {
+        for (int i = 0; i < CHARS.length; i++) CHARS[i] = String.valueOf((char) i).intern();
+    }
+
+    private PascalStrings() {
+    }
+
+    public static String valueOf(char value) {
+        return value < CHARS.length ? CHARS[value] : String.valueOf(value);
+    }
+
+    /**
+     * Lexicographic order of the chars (as String#compareTo)
+     *
+     * @return negative, zero or positive
+     */
+    public static int compare(String left, String right) {
+        return left.compareTo(right);
+    }
+
+    /**
+     * = and <> only need the equality, not the order
+     */
+    public static boolean equal(String left, String right) {
+        return left.equals(right);
+    }
+}
@@ -15,8 +15,8 @@ public class LocalsTable<K, T extends LocalVariableInformation> extends Table<K,
     private Deque<Integer> lengthStack;
     public static Class<? extends ParserRuleContext> context = PascalParser.VariableContext.class;
 
-    public LocalsTable() {
-        super("local variable table", context);
+    public LocalsTable(TableManager<?, ?> tableManager) {
+        super("local variable table", context, tableManager);
         this.lengthStack = new LinkedList<>();
         this.lengthStack.push(0);//global scope, initialise 0
         //this.table = new LinkedHashMap<>();
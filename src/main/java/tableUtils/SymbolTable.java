@@ -9,8 +9,8 @@ public class SymbolTable<K, T extends TypeDescriptor> extends Table<K, T> {
     //private Deque<HashMap<String, A>> getScope_stack();
     public static Class<? extends ParserRuleContext> context = PascalParser.ProgramContext.class;
 
-    public SymbolTable() {
-        super("symbol table", context);
+    public SymbolTable(TableManager<?, ?> tableManager) {
+        super("symbol table", context, tableManager);
         //this.context = PascalParser.ProgramContext.class;
         //getScope_stack() = new LinkedList<>();
         //getScope_stack().addLast(new HashMap<>());
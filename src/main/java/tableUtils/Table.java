@@ -11,6 +11,10 @@ import java.util.*;
  * Generic Table class used for symbol, type tables  .etc
  * Contains operations to process symbols through different scopes
  * Mapping key value <K> to a type <T>
+ * <p>
+ * One flat table for all the scopes: a lookup is a single probe whatever the nesting depth,
+ * leaving a scope undoes its bindings.
+ * </p>
  *
  * @param <K> - represents the key
  * @param <T> - represents class implements TypeDescriptor class
@@ -18,15 +22,38 @@ import java.util.*;
 public abstract class Table<K, T> {
 
     /**
-     * Access table manager singleton instance
+     * Table manager of the compilation this table belongs to
      */
-    protected TableManager<K, T> tableManager = TableManager.getInstance(); // quick reference
+    protected TableManager<K, T> tableManager;
 
     /**
-     * Scope stack, support nested scopes
-     * Each scope holds entry of current scope
+     * Interned symbols, open addressing (linear probing): the slot of a key is its symbol id for the life of the table.
+     * heads[slot] is the most recent binding of the symbol still in scope, -1 if none
      */
-    private Deque<Map<K, T>> scope_stack;
+    private Object[] symbols;
+    private int[] heads;
+    private int symbolCount;
+
+    /**
+     * Bindings in definition order, also the undo log of the scopes: a binding shadows the previous binding of its
+     * symbol (outer scope), restored when the scope is left
+     */
+    private int[] bindingSlots;
+    private Object[] bindingValues;
+    private int[] shadowed;
+    private int bindings;
+
+    /**
+     * Scope markers, start of each open scope in the bindings (the last one is the current scope)
+     */
+    private int[] scopeStarts;
+    private int depth;
+
+    /**
+     * Predefined identifiers under the global scope, shared read-only by all the compilations (copy-on-write:
+     * definitions of the program go to the table itself, the prelude is never written)
+     */
+    private Map<K, T> prelude = Collections.emptyMap();
 
     /**
      * Table name
@@ -40,13 +67,27 @@ public abstract class Table<K, T> {
     //private Class<? extends ParserRuleContext> context = ParserRuleContext.class;
     protected Class<? extends ParserRuleContext> context = null;
 
+    /**
+     * Number of identifiers ever defined, whatever the scope
+     */
+    private int definitions = 0;
+
+    private static final int INITIAL_SYMBOLS = 64; // power of 2
+    private static final int INITIAL_BINDINGS = 32;
+    private static final int INITIAL_SCOPES = 8;
+
     /**
      * Initialise the table
      * ~~Note: Global scope would be initialised in predefine() once perform the contextual analysis~~
      */
     protected Table() {
-        scope_stack = new LinkedList<>();
-        //scope_stack.addLast(new LinkedHashMap<>());
+        symbols = new Object[INITIAL_SYMBOLS];
+        heads = new int[INITIAL_SYMBOLS];
+        Arrays.fill(heads, -1);
+        bindingSlots = new int[INITIAL_BINDINGS];
+        bindingValues = new Object[INITIAL_BINDINGS];
+        shadowed = new int[INITIAL_BINDINGS];
+        scopeStarts = new int[INITIAL_SCOPES];
         initScope();
     }
 
@@ -61,21 +102,25 @@ public abstract class Table<K, T> {
     }
 
     /**
-     * Initialise the table & tableName & usage context
+     * Initialise the table & tableName & usage context, then register it into the table manager
      *
-     * @param tableName - table name
-     * @param ctx       - usage context
+     * @param tableName    - table name
+     * @param ctx          - usage context
+     * @param tableManager - table manager of current compilation
      */
-    protected Table(String tableName, Class<? extends ParserRuleContext> ctx) {
+    @SuppressWarnings("unchecked")
+    protected Table(String tableName, Class<? extends ParserRuleContext> ctx, TableManager<?, ?> tableManager) {
         this(tableName);
         this.context = ctx;
+        this.tableManager = (TableManager<K, T>) tableManager;
         // add a new table instance into the TableContainer
-        tableManager.addTable(context, this);
-        tableManager.showAllTables();
+        this.tableManager.addTable(context, this);
+        this.tableManager.showAllTables();
     }
 
     public void initScope() {
-        this.scope_stack.addLast(new LinkedHashMap<>());
+        if (depth == scopeStarts.length) scopeStarts = Arrays.copyOf(scopeStarts, depth * 2);
+        scopeStarts[depth++] = bindings;
     }
 
     /**
@@ -88,44 +133,34 @@ public abstract class Table<K, T> {
      * @return
      */
     public boolean put(K id, T attr) {
-        Map<K, T> scope = getScope_stack().getLast();
-        // if the identifier is not defined yet
-        if (scope.get(id) == null) {
-            scope.put(id, attr);
-            return true;
-        } else
-            return false;
+        // predefined identifiers belong to the global scope
+        if (depth <= 1 && prelude.containsKey(id)) return false;
+        int slot = intern(id);
+        int head = heads[slot];
+        // if the identifier is not defined yet (in the current scope)
+        if (head >= currentScopeStart()) {
+            if (bindingValues[head] != null) return false;
+            bindingValues[head] = attr;
+        } else {
+            bind(slot, attr);
+        }
+        definitions++;
+        return true;
     }
 
     /**
      * Get stored content in terms of identifier
-     * Exhausted searching till identifier matched, returning corresponding content
+     * The most recent binding in scope, whatever the depth it was defined at
      * Otherwise return null
      *
      * @param id
      * @return
      */
+    @SuppressWarnings("unchecked")
     public T get(K id) {
-        // try to retrieve the identifier in current (local, most recent) scope
-        if (!getScope_stack().isEmpty()) {
-            Map<K, T> scope = getScope_stack().getLast();
-            if (scope.containsKey(id)) {
-                // retrieve the identifier in the most recent scope
-                return scope.get(id);
-            } else {
-                // try to retrieve the id in previous declared scopes from a reverse order
-                // (most recent first)
-                Iterator<Map<K, T>> scopeStackDescendingIterator = getScope_stack().descendingIterator();
-                scopeStackDescendingIterator.next(); // skip current scope
-                while (scopeStackDescendingIterator.hasNext()) {
-                    //System.out.printf("No declaration in current scope - [depth %d], try to retrieve from former scope\n", getScope_stack().size() - 1);
-                    scope = scopeStackDescendingIterator.next();
-                    if (scope.containsKey(id)) return scope.get(id);
-                }
-            }
-        }
-        //GlobalLogger.debug("Searching exhausted, no declaration found!");
-        return null;
+        int slot = find(id);
+        if (slot < 0 || heads[slot] < 0) return prelude.get(id);
+        return (T) bindingValues[heads[slot]];
     }
 
     /**
@@ -139,32 +174,35 @@ public abstract class Table<K, T> {
     }
 
     /**
-     * Get all the mappings in the current scope
+     * Get all the mappings in the current scope, in definition order
      *
-     * @return
+     * @return read-only copy
      */
     public Map<K, T> getAllVarInCurrentScope() {
-        return scope_stack.getLast();
+        return Collections.unmodifiableMap(scopeToMap(depth - 1));
     }
 
     /**
      * Enter a new cope
      */
     public void enterLocalScope() {
-        // One new table entry (a map) corresponds to one new scope
-        GlobalLogger.debug("Enter new local scope, last depth = {}"
-                , () -> getScope_stack().size() - 1);
-        getScope_stack().addLast(new LinkedHashMap<>());
+        GlobalLogger.debug("Enter new local scope, last depth = {}", () -> depth - 1);
+        initScope();
     }
 
     /**
      * Exit current scope, all the mappings of current scope would be clear up
      */
     public void exitLocalScope() {
-        // Discard all entries in current scope of this symbol table.
-        // i.e. pop out the topmost stack frame
+        // Discard all entries in current scope of this symbol table, the shadowed ones are back in scope
         // or no effect if no more local scopes defined.
-        if (getScope_stack().size() > 1) getScope_stack().removeLast();
+        if (depth <= 1) return;
+        int start = scopeStarts[--depth];
+        for (int i = bindings - 1; i >= start; i--) {
+            heads[bindingSlots[i]] = shadowed[i];
+            bindingValues[i] = null;
+        }
+        bindings = start;
     }
 
     /**
@@ -172,7 +210,7 @@ public abstract class Table<K, T> {
      */
     public void displayCurrentScope() {
         // Display all the symbols of current scope (most recent)
-        int size = getScope_stack().size();
+        int size = depth;
         // if size=1, then is at the global scope
         String isGlobal = size == 1 ? "global" : "local";
 
@@ -180,24 +218,46 @@ public abstract class Table<K, T> {
         GlobalLogger.debug("===========");
         GlobalLogger.debug("Table name: [{}] - Symbols of current scope - {} - [depth {}]",
                 ()->tableName, ()->isGlobal, ()->size - 1);
-        //System.out.printf("Table name: [%s] - Symbols of current scope - %s - [depth %d] \n",
-        //        tableName, isGlobal, size - 1);
-        if (!getScope_stack().isEmpty()) {
-            Map<K, T> currentScope = getScope_stack().getLast();
-            currentScope.forEach((id, type) -> {
+        if (depth == 1) {
+            prelude.forEach((id, type) -> GlobalLogger.debug("id = {}, type = {}", () -> id, () -> type));
+        }
+        if (depth > 0) {
+            for (int i = currentScopeStart(); i < bindings; i++) {
+                Object id = symbols[bindingSlots[i]];
+                Object type = bindingValues[i];
                 GlobalLogger.debug("id = {}, type = {}", ()->id, ()->type);
-                //System.out.println("id = " + id + " ,type = " + type);
-            });
+            }
         }
         GlobalLogger.debug("===========\n");
     }
 
     public int sizeOfCurrentScope() {
-        return scope_stack.getLast().size();
+        if (depth == 0) return 0;
+        return bindings - currentScopeStart() + (depth == 1 ? prelude.size() : 0);
+    }
+
+    public int getDefinitions() {
+        return definitions + prelude.size();
     }
 
+    /**
+     * Share the predefined identifiers (read-only, never copied into the table)
+     *
+     * @param prelude - immutable mappings, in definition order
+     */
+    public void setPrelude(Map<K, T> prelude) {
+        this.prelude = prelude;
+    }
+
+    /**
+     * @return copy of every open scope, outermost first
+     * @deprecated scopes are no longer held as maps, only for inspection
+     */
+    @Deprecated
     public Deque<Map<K, T>> getScope_stack() {
-        return scope_stack;
+        Deque<Map<K, T>> copy = new LinkedList<>();
+        for (int each = 0; each < depth; each++) copy.addLast(scopeToMap(each));
+        return copy;
     }
 
     public void setContext(Class<? extends ParserRuleContext> context) {
@@ -205,11 +265,101 @@ public abstract class Table<K, T> {
     }
 
     public void resetTable() {
-        this.scope_stack.clear();
+        Arrays.fill(symbols, 0, symbols.length, null);
+        Arrays.fill(heads, -1);
+        Arrays.fill(bindingValues, 0, bindings, null);
+        symbolCount = 0;
+        bindings = 0;
+        depth = 0;
+        prelude = Collections.emptyMap();
+    }
+
+    private int currentScopeStart() {
+        return depth == 0 ? 0 : scopeStarts[depth - 1];
+    }
+
+    private Map<K, T> scopeToMap(int scope) {
+        Map<K, T> map = new LinkedHashMap<>();
+        if (scope < 0) return map;
+        if (scope == 0) map.putAll(prelude);
+        int end = scope + 1 < depth ? scopeStarts[scope + 1] : bindings;
+        for (int i = scopeStarts[scope]; i < end; i++) {
+            @SuppressWarnings("unchecked") K id = (K) symbols[bindingSlots[i]];
+            @SuppressWarnings("unchecked") T value = (T) bindingValues[i];
+            map.put(id, value);
+        }
+        return map;
+    }
+
+    /**
+     * @return slot of the key, -1 if it was never put
+     */
+    private int find(Object id) {
+        int mask = symbols.length - 1;
+        for (int slot = hash(id) & mask; ; slot = (slot + 1) & mask) {
+            Object symbol = symbols[slot];
+            if (symbol == null) return -1;
+            if (symbol.equals(id)) return slot;
+        }
+    }
+
+    /**
+     * @return slot of the key, added if new
+     */
+    private int intern(Object id) {
+        int slot = find(id);
+        if (slot >= 0) return slot;
+        if ((symbolCount + 1) * 2 > symbols.length) rehash();
+        int mask = symbols.length - 1;
+        for (slot = hash(id) & mask; symbols[slot] != null; slot = (slot + 1) & mask) ;
+        symbols[slot] = id;
+        symbolCount++;
+        return slot;
+    }
+
+    private void bind(int slot, Object value) {
+        if (bindings == bindingSlots.length) {
+            int capacity = bindings * 2;
+            bindingSlots = Arrays.copyOf(bindingSlots, capacity);
+            bindingValues = Arrays.copyOf(bindingValues, capacity);
+            shadowed = Arrays.copyOf(shadowed, capacity);
+        }
+        bindingSlots[bindings] = slot;
+        bindingValues[bindings] = value;
+        shadowed[bindings] = heads[slot];
+        heads[slot] = bindings++;
+    }
+
+    /**
+     * Double the symbol slots, the symbol ids (slots) recorded by the bindings follow
+     */
+    private void rehash() {
+        Object[] oldSymbols = symbols;
+        int[] oldHeads = heads;
+        int[] moved = new int[oldSymbols.length];
+        symbols = new Object[oldSymbols.length * 2];
+        heads = new int[symbols.length];
+        Arrays.fill(heads, -1);
+        int mask = symbols.length - 1;
+        for (int old = 0; old < oldSymbols.length; old++) {
+            if (oldSymbols[old] == null) continue;
+            int slot = hash(oldSymbols[old]) & mask;
+            while (symbols[slot] != null) slot = (slot + 1) & mask;
+            symbols[slot] = oldSymbols[old];
+            heads[slot] = oldHeads[old];
+            moved[old] = slot;
+        }
+        for (int i = 0; i < bindings; i++) bindingSlots[i] = moved[bindingSlots[i]];
+    }
+
+    private static int hash(Object id) {
+        int h = id.hashCode();
+        return h ^ (h >>> 16);
     }
 
     @Override
     public String toString() {
-        return ReflectionToStringBuilder.toStringExclude(this, "scope_stack");
+        return ReflectionToStringBuilder.toStringExclude(this, "symbols", "heads", "bindingSlots", "bindingValues",
+                "shadowed", "scopeStarts", "prelude");
     }
 }
@@ -2,45 +2,44 @@ package tableUtils;
 
 import ast.visitor.PascalParser;
 import org.antlr.v4.runtime.ParserRuleContext;
-import type.TypeDescriptor;
 import utils.log.GlobalLogger;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
- * Utils class to manage all the initialised tables of the project
+ * Utils class to manage all the initialised tables of a compilation
  */
 public class TableManager<K, T> {
 
     /**
-     * Singleton instance for external access
+     * Container contains all the initialised tables with corresponding usage context
      */
-    private static final TableManager<Object, TypeDescriptor> instance = new TableManager<>();
+    private Map<Class<? extends ParserRuleContext>, Table<K, T>> container = new LinkedHashMap<>();
 
     /**
-     * Container contains all the initialised tables with corresponding usage context
+     * Tables other than the selected one, per selected table, dropped whenever the container changes
      */
-    private Map<Class<? extends ParserRuleContext>, Table<K, T>> container = new LinkedHashMap<>();
+    private final Map<Class<? extends ParserRuleContext>, Map<Class<? extends ParserRuleContext>, Table<K, T>>>
+            excludedTables = new HashMap<>();
 
-    private TableManager() { }
+    /**
+     * Fixed lookup orders after the selected table, one per selection (type definitions, anything else),
+     * the other tables in registration order. Computed whenever the container changes.
+     * The local variable table is left out, it maps identifiers to slots and not to types
+     */
+    private final List<Table<K, T>> typeDefinitionOthers = new ArrayList<>();
+    private final List<Table<K, T>> defaultOthers = new ArrayList<>();
 
     /**
-     * Getter for external access
-     *
-     * @param <K>
-     * @param <T>
-     * @return
+     * Each compilation owns its table manager, tables of concurrent compilations must never be shared
      */
-    public static <K, T> TableManager<K, T> getInstance() {
-        return (TableManager<K, T>) instance;
-    }
+    public TableManager() { }
 
     public boolean addTable(Class<? extends ParserRuleContext> ctx, Table<K, T> table) {
         // exists duplicate key
         if (container.containsKey(ctx)) return false;
         container.put(ctx, table);
+        containerChanged();
         return true;
     }
 
@@ -65,16 +64,71 @@ public class TableManager<K, T> {
 
     public Map<Class<? extends ParserRuleContext>, Table<K, T>> selectAllTablesExcludedToClass(Class<? extends ParserRuleContext> ctx) {
         if ((ctx != TypeTable.context)) ctx = PascalParser.ProgramContext.class;
-        Class<? extends ParserRuleContext> finalCtx = ctx;
-        return container.entrySet().stream().filter((e) -> {
-            return e.getKey() != finalCtx;
-        }).collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        return excludedTables.computeIfAbsent(ctx, selected -> {
+            Map<Class<? extends ParserRuleContext>, Table<K, T>> others = new LinkedHashMap<>(container);
+            others.remove(selected);
+            return Collections.unmodifiableMap(others);
+        });
+    }
+
+    /**
+     * Type of an identifier, looked up in the table selected by the usage context first, then in the others
+     * (no allocation, called for every identifier)
+     *
+     * @param id  - case-folded identifier
+     * @param ctx - usage context
+     * @return type, null if undeclared
+     */
+    public T resolve(K id, Class<? extends ParserRuleContext> ctx) {
+        Table<K, T> selected = selectTable(ctx);
+        T type = selected == null ? null : selected.get(id);
+        if (type != null) return type;
+        List<Table<K, T>> others = ctx == TypeTable.context ? typeDefinitionOthers : defaultOthers;
+        for (int i = 0; i < others.size(); i++) {
+            type = others.get(i).get(id);
+            if (type != null) return type;
+        }
+        return null;
+    }
+
+    /**
+     * @param id  - case-folded identifier
+     * @param ctx - usage context
+     * @return true if the identifier is defined in a table other than the one selected by the usage context
+     */
+    public boolean isDefinedInOtherTables(K id, Class<? extends ParserRuleContext> ctx) {
+        List<Table<K, T>> others = ctx == TypeTable.context ? typeDefinitionOthers : defaultOthers;
+        for (int i = 0; i < others.size(); i++) {
+            if (others.get(i).containsKey(id)) return true;
+        }
+        return false;
+    }
+
+    private void containerChanged() {
+        excludedTables.clear();
+        fillOthers(typeDefinitionOthers, TypeTable.context);
+        fillOthers(defaultOthers, PascalParser.ProgramContext.class);
+    }
+
+    private void fillOthers(List<Table<K, T>> others, Class<? extends ParserRuleContext> selected) {
+        others.clear();
+        container.forEach((ctx, table) -> {
+            if (ctx != selected && !(table instanceof LocalsTable)) others.add(table);
+        });
+    }
+
+    /**
+     * @return number of identifiers defined in all the tables, whatever the scope
+     */
+    public int countDefinitions() {
+        return container.values().stream().mapToInt(Table::getDefinitions).sum();
     }
 
     public boolean removeTable(Class<? extends ParserRuleContext> ctx) {
         if (!container.containsKey(ctx)) return false;
 
         container.remove(ctx);
+        containerChanged();
         return true;
     }
 
@@ -103,6 +157,7 @@ public class TableManager<K, T> {
 
     public void resetContainer() {
         container.clear();
+        containerChanged();
     }
 
     public void resetAllTables() {
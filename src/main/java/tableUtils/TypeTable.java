@@ -13,8 +13,8 @@ public class TypeTable<K, T extends TypeDescriptor> extends Table<K, T>{
 
     public static Class<? extends ParserRuleContext> context = PascalParser.TypeDefinitionContext.class;
 
-    public TypeTable() {
-        super("type table", context);
+    public TypeTable(TableManager<?, ?> tableManager) {
+        super("type table", context, tableManager);
         //setContext(PascalParser.TypeDefinitionContext.class);
     }
 
@@ -25,7 +25,7 @@ public class TypeTable<K, T extends TypeDescriptor> extends Table<K, T>{
     //    this.table = table;
     //}
     //
-    //public TypeTable() {
+    //public TypeTable(TableManager<?, ?> tableManager) {
     //    this.table = new HashMap<>();
     //}
     //
@@ -4,20 +4,44 @@ import org.apache.commons.lang3.builder.ReflectionToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 
 public abstract class BaseType implements TypeDescriptor {
 
     protected boolean isConstant = false;
     //private boolean isPackedElement = false;
 
+    /**
+     * Shared instance handed out by the TypeInterner, must never change
+     */
+    private transient boolean canonical = false;
+
     public boolean isConstant() {
         return isConstant;
     }
 
     public void setConstant(boolean constant) {
+        if (constant != isConstant) checkMutable();
         isConstant = constant;
     }
 
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    void freeze() {
+        canonical = true;
+    }
+
+    /**
+     * Guard of the setters, a canonical type is shared by every declaration of the same structure
+     */
+    protected void checkMutable() {
+        if (canonical) {
+            throw new IllegalStateException("Canonical type cannot be modified: " + this);
+        }
+    }
+
     //public boolean isPackedElement() {
     //    return isPackedElement;
     //}
@@ -41,7 +65,8 @@ public abstract class BaseType implements TypeDescriptor {
                         ToStringStyle.SHORT_PREFIX_STYLE) {
             @Override
             protected boolean accept(Field field) {
-                return !field.getName().equals("isConstant") && !field.getName().equals("isPackedElement");
+                return !field.getName().equals("isConstant") && !field.getName().equals("isPackedElement")
+                        && !Modifier.isTransient(field.getModifiers());
             }
         };
         return reflectionToStringBuilder.toString();
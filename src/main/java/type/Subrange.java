@@ -42,6 +42,17 @@ public class Subrange extends BaseType {
         return upperBound;
     }
 
+    /**
+     * Stored as its host type: int for integer & enumerated values, char, boolean
+     */
+    @Override
+    public Class<?> getDescriptorClass() {
+        if (IntegerBaseType.class.isAssignableFrom(hostType) || hostType == EnumeratedType.class) return int.class;
+        if (hostType == StringLiteral.class || hostType == Character.class) return char.class;
+        if (hostType == Boolean.class) return boolean.class;
+        return null;
+    }
+
     /**
      * !Remark: checking the validity of the subrange is not defined here
      * @param type
@@ -49,6 +60,7 @@ public class Subrange extends BaseType {
      */
     @Override
     public boolean equiv(TypeDescriptor type) {
+        if (this == type) return true;
         if (!(type instanceof Subrange)) return false;
 
         Subrange that = (Subrange) type;
@@ -0,0 +1,96 @@
+package type;
+
+import type.primitive.Boolean;
+import type.primitive.Character;
+import type.primitive.Primitive;
+import type.primitive.floating.Real;
+import type.primitive.integer.Integer32;
+import type.structured.ArrayType;
+import type.structured.RecordType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash-consing of types: each structurally distinct type exists exactly once (per compilation)
+ * <p>
+ * - value-less primitives are shared by every declaration & expression result
+ * - subranges with literal bounds, arrays & records are keyed by the identities of their parts,
+ * so interning bottom-up makes structurally equal types the same instance & equiv an identity check
+ * - canonical instances are frozen, their setters throw
+ * </p>
+ * Remark: literals & constants keep their value in their own (non-canonical) type instance
+ */
+public class TypeInterner {
+
+    public static final Integer32 INTEGER = freeze(new Integer32());
+    public static final Real REAL = freeze(new Real());
+    public static final Boolean BOOLEAN = freeze(new Boolean());
+    public static final Character CHARACTER = freeze(new Character());
+
+    private final Map<List<Object>, BaseType> types = new HashMap<>();
+
+    /**
+     * Mark a type as shared (e.g. by all the compilations), its setters throw from now on
+     */
+    public static <T extends BaseType> T freeze(T type) {
+        type.freeze();
+        return type;
+    }
+
+    /**
+     * @param type - freshly built type, must not be modified afterwards
+     * @return the canonical instance of the same structure, or the type itself if it cannot be shared
+     */
+    public TypeDescriptor intern(TypeDescriptor type) {
+        if (!(type instanceof BaseType) || ((BaseType) type).isCanonical()) return type;
+        if (type instanceof ArrayType) {
+            ArrayType arrayType = (ArrayType) type;
+            List<Object> key = new ArrayList<>(arrayType.getIndexList().size() + 3);
+            key.add(ArrayType.class);
+            key.add(arrayType.isPacked());
+            key.add(arrayType.getComponentType());
+            key.addAll(arrayType.getIndexList());
+            return types.computeIfAbsent(key, k -> {
+                arrayType.setIndexList(Collections.unmodifiableList(new ArrayList<>(arrayType.getIndexList())));
+                return freeze(arrayType);
+            });
+        }
+        if (type instanceof RecordType) {
+            RecordType recordType = (RecordType) type;
+            Map<String, TypeDescriptor> fieldsMap = Collections.unmodifiableMap(
+                    new LinkedHashMap<>(recordType.getFieldsMap()));
+            List<Object> key = Arrays.asList(RecordType.class, recordType.isPacked(), fieldsMap);
+            return types.computeIfAbsent(key, k -> {
+                RecordType canonical = new RecordType(fieldsMap);
+                canonical.setPacked(recordType.isPacked());
+                return freeze(canonical);
+            });
+        }
+        if (type instanceof Subrange) {
+            Subrange subrange = (Subrange) type;
+            Object lowerValue = literalValue(subrange.getLowerBound());
+            Object upperValue = literalValue(subrange.getUpperBound());
+            // enumerated bounds depend on the enumeration in scope, not shared
+            if (lowerValue == null || upperValue == null) return type;
+            List<Object> key = Arrays.asList(Subrange.class, subrange.getHostType(), lowerValue, upperValue);
+            return types.computeIfAbsent(key, k -> freeze(subrange));
+        }
+        return type;
+    }
+
+    private static Object literalValue(TypeDescriptor bound) {
+        if (bound instanceof Primitive) return ((Primitive<?>) bound).getValue();
+        if (bound instanceof StringLiteral) return ((StringLiteral) bound).getValue();
+        return null;
+    }
+
+    public int size() {
+        return types.size();
+    }
+}
@@ -61,6 +61,14 @@ public class EnumeratedType extends BaseType {
         return true;
     }
 
+    /**
+     * Stored as the ordinal number of the value
+     */
+    @Override
+    public Class<?> getDescriptorClass() {
+        return int.class;
+    }
+
     //@Override
     //public String toString() {
     //    //include isConstant field which is excluded in BaseType class
@@ -29,11 +29,13 @@ public class Primitive<T> extends BaseType {
     }
 
     public void setValue(T value) {
+        checkMutable();
         this.value = value;
     }
 
     @Override
     public boolean equiv(TypeDescriptor type) {
+        if (this == type) return true;
         if (!(type instanceof Primitive)) return false;
         Primitive<T> otherType = (Primitive<T>) type;
 
@@ -1,8 +1,10 @@
 package type.primitive.floating;
 
+import type.TypeInterner;
+
 public class DefaultFloatType extends FloatBaseType {
 
-    public static final FloatBaseType instance = new Real();
+    public static final FloatBaseType instance = TypeInterner.REAL;
 
     private DefaultFloatType() {
 
@@ -1,12 +1,14 @@
 package type.primitive.integer;
 
+import type.TypeInterner;
+
 /**
  * Singleton Integer type
  * Might be used with extended compiler behavior (like switch default integer type)
  */
 public class DefaultIntegerType extends IntegerBaseType {
 
-    public static final IntegerBaseType instance = new Integer32();
+    public static final IntegerBaseType instance = TypeInterner.INTEGER;
 
     private DefaultIntegerType(){}
 
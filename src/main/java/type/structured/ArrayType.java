@@ -11,6 +11,7 @@ import type.primitive.integer.DefaultIntegerType;
 import type.primitive.integer.IntegerBaseType;
 import utils.ErrorMessage;
 
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +27,11 @@ public class ArrayType extends StructuredBaseType {
      */
     private List<TypeDescriptor> indexList;
 
+    /**
+     * equiv results against other canonical arrays (both sides immutable, so never invalidated)
+     */
+    private transient Map<ArrayType, java.lang.Boolean> equivMemo;
+
     public ArrayType(TypeDescriptor componentType, List<TypeDescriptor> indexList) {
         this.componentType = componentType;
         this.indexList = indexList;
@@ -39,17 +45,39 @@ public class ArrayType extends StructuredBaseType {
         return indexList;
     }
 
+    /**
+     * Flat primitive array of the elements whatever the number of dimensions (see ir.ArrayLayout),
+     * int[] for enumerated values, null if the elements are not primitive
+     */
+    @Override
+    public Class<?> getDescriptorClass() {
+        Class<?> elementClass = componentType instanceof EnumeratedType
+                ? int.class : componentType.getDescriptorClass();
+        if (elementClass == null || !elementClass.isPrimitive()) return null;
+        return java.lang.reflect.Array.newInstance(elementClass, 0).getClass();
+    }
+
     public void setComponentType(TypeDescriptor componentType) {
+        checkMutable();
         this.componentType = componentType;
     }
 
     public void setIndexList(List<TypeDescriptor> indexList) {
+        checkMutable();
         this.indexList = indexList;
     }
 
     @Override
     public boolean equiv(TypeDescriptor type) {
+        if (this == type) return true;
+        if (isCanonical() && type instanceof ArrayType && ((ArrayType) type).isCanonical()) {
+            if (equivMemo == null) equivMemo = new IdentityHashMap<>();
+            return equivMemo.computeIfAbsent((ArrayType) type, this::structurallyEquiv);
+        }
+        return structurallyEquiv(type);
+    }
 
+    private boolean structurallyEquiv(TypeDescriptor type) {
         if (type instanceof StringLiteral) {
             return isValidStringAssignment(this, (StringLiteral) type);
         }
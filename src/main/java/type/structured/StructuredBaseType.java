@@ -17,6 +17,7 @@ public class StructuredBaseType extends BaseType {
      * @param packed: true - is packed, false - is unpacked
      */
     public void setPacked(boolean packed) {
+        if (packed != isPacked) checkMutable();
         isPacked = packed;
     }
 
@@ -0,0 +1,113 @@
+package utils.io;
+
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.misc.Interval;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Character stream over a memory-mapped source file, one byte per character (ASCII / Latin-1)
+ * <p>
+ * CharStreams.fromFileName decodes the whole file into a code point array (4 bytes per character) read through
+ * the heap, this stream reads the lexer's input straight from the page cache instead. The heap only holds
+ * the texts of tokens asked for. Bytes above 0x7F are taken as Latin-1 characters, UTF-8 multi-byte sequences are
+ * not decoded. At most 2 GB, the limit of ANTLR's int indexes anyway.
+ * </p>
+ */
+public class MappedCharStream implements CharStream {
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final String sourceName;
+    private int position;
+
+    private MappedCharStream(ByteBuffer buffer, String sourceName) {
+        this.buffer = buffer;
+        this.size = buffer.limit();
+        this.sourceName = sourceName;
+    }
+
+    /**
+     * Map the whole file, the channel is closed right away (the mapping stays valid)
+     */
+    public static MappedCharStream open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Source file too large (over 2 GB): " + path);
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedCharStream(mapping, path.toString());
+        }
+    }
+
+    @Override
+    public void consume() {
+        if (position >= size) throw new IllegalStateException("cannot consume EOF");
+        position++;
+    }
+
+    @Override
+    public int LA(int i) {
+        if (i == 0) return 0; // undefined
+        int index = i > 0 ? position + i - 1 : position + i;
+        if (index < 0 || index >= size) return IntStream.EOF;
+        return buffer.get(index) & 0xFF;
+    }
+
+    /**
+     * The whole input stays mapped, marks cost nothing
+     */
+    @Override
+    public int mark() {
+        return -1;
+    }
+
+    @Override
+    public void release(int marker) {
+    }
+
+    @Override
+    public int index() {
+        return position;
+    }
+
+    @Override
+    public void seek(int index) {
+        position = Math.min(index, size);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getSourceName() {
+        return sourceName == null || sourceName.isEmpty() ? UNKNOWN_SOURCE_NAME : sourceName;
+    }
+
+    @Override
+    public String getText(Interval interval) {
+        int start = Math.max(interval.a, 0);
+        int stop = Math.min(interval.b, size - 1);
+        if (start > stop) return "";
+        byte[] text = new byte[stop - start + 1];
+        // absolute bulk get is Java 13+
+        ByteBuffer view = buffer.duplicate();
+        view.position(start);
+        view.get(text);
+        return new String(text, StandardCharsets.ISO_8859_1);
+    }
+
+    @Override
+    public String toString() {
+        return getText(Interval.of(0, size - 1));
+    }
+}
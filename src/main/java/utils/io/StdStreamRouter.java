@@ -0,0 +1,115 @@
+package utils.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Route standard output, error & input per thread
+ * <p>
+ * Once installed, System.out/err/in are replaced by streams delegating to the target bound to the current thread
+ * (inherited by threads it creates), or to the original standard streams if nothing is bound.
+ * Both the logback console appenders and generated programs resolve System.out on every write,
+ * so everything a compilation prints ends up at the stream its thread is bound to.
+ * </p>
+ */
+public class StdStreamRouter {
+
+    private static final InheritableThreadLocal<Targets> targets = new InheritableThreadLocal<>();
+
+    private static PrintStream originalOut;
+    private static PrintStream originalErr;
+    private static InputStream originalIn;
+
+    private StdStreamRouter() {
+    }
+
+    /**
+     * Replace the standard streams by routing ones, no effect if already installed
+     */
+    public static synchronized void install() {
+        if (originalOut != null) return;
+        originalOut = System.out;
+        originalErr = System.err;
+        originalIn = System.in;
+        System.setOut(new PrintStream(new RoutedOutputStream(false), true));
+        System.setErr(new PrintStream(new RoutedOutputStream(true), true));
+        System.setIn(new RoutedInputStream());
+    }
+
+    /**
+     * Bind the streams of current thread (and threads created from now on by it)
+     */
+    public static void bind(OutputStream out, OutputStream err, InputStream in) {
+        targets.set(new Targets(out, err, in));
+    }
+
+    public static void unbind() {
+        targets.remove();
+    }
+
+    private static class Targets {
+        private final OutputStream out;
+        private final OutputStream err;
+        private final InputStream in;
+
+        private Targets(OutputStream out, OutputStream err, InputStream in) {
+            this.out = out;
+            this.err = err;
+            this.in = in;
+        }
+    }
+
+    private static class RoutedOutputStream extends OutputStream {
+        private final boolean isErr;
+
+        private RoutedOutputStream(boolean isErr) {
+            this.isErr = isErr;
+        }
+
+        private OutputStream target() {
+            Targets bound = targets.get();
+            if (bound == null) return isErr ? originalErr : originalOut;
+            return isErr ? bound.err : bound.out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+    }
+
+    private static class RoutedInputStream extends InputStream {
+
+        private InputStream target() {
+            Targets bound = targets.get();
+            return bound == null ? originalIn : bound.in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return target().read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            return target().read(b, off, len);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return target().available();
+        }
+    }
+}
@@ -1,10 +1,25 @@
 package utils.test;
 
 import annotation.TestResourcePath;
+import driver.DriverCommand;
+import driver.PascalCompilerDriver;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import utils.io.StdStreamRouter;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 public class TestUtils {
     public static final String testResourcesBase = Paths.get("src", "test", "resources").toString();
@@ -37,4 +52,99 @@ public class TestUtils {
         sb.append(subdirectory);
         return sb;
     }
+
+    /**
+     * Compile & run a program (driver command run) with no input, its class file written next to the copy
+     *
+     * @param source  - program, copied into dir (once, for several runs)
+     * @param dir     - working directory of the run
+     * @param options - driver options
+     */
+    public static ProgramRun runProgram(Path source, Path dir, String... options) throws IOException {
+        return runProgram(source, dir, InputStream.nullInputStream(), options);
+    }
+
+    /**
+     * @param input - standard input of the program
+     */
+    public static ProgramRun runProgram(Path source, Path dir, InputStream input, String... options)
+            throws IOException {
+        Path copy = dir.resolve(source.getFileName());
+        if (!Files.exists(copy)) Files.copy(source, copy);
+        String[] args = new String[options.length + 2];
+        args[0] = DriverCommand.RUN.getCommandName();
+        args[1] = copy.toString();
+        System.arraycopy(options, 0, args, 2, options.length);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        StdStreamRouter.install();
+        StdStreamRouter.bind(out, err, input);
+        int status;
+        try {
+            status = PascalCompilerDriver.execute(args);
+        } finally {
+            StdStreamRouter.unbind();
+        }
+        return new ProgramRun(status, out.toString(StandardCharsets.UTF_8), err.toString(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Visit the code of every method of a class file
+     *
+     * @param methodVisitor - visitor of the method of that name, null to skip it
+     */
+    public static void bytecodeOf(Path classFile, Function<String, MethodVisitor> methodVisitor) throws IOException {
+        new ClassReader(Files.readAllBytes(classFile)).accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                             String[] exceptions) {
+                return methodVisitor.apply(name);
+            }
+        }, ClassReader.SKIP_DEBUG);
+    }
+
+    /**
+     * Outcome of a program run by the driver
+     */
+    public static final class ProgramRun {
+
+        private final int status;
+        private final String output;
+        private final String errors;
+
+        private ProgramRun(int status, String output, String errors) {
+            this.status = status;
+            this.output = output;
+            this.errors = errors;
+        }
+
+        /**
+         * @return exit status of the driver (PascalCompilerDriver#STATUS_OK...)
+         */
+        public int getStatus() {
+            return status;
+        }
+
+        /**
+         * @return standard output, the compiler's log lines included
+         */
+        public String getOutput() {
+            return output;
+        }
+
+        /**
+         * @return standard output of the program only, without the compiler's log lines ("[INFO] ...")
+         */
+        public String getProgramOutput() {
+            return output.lines().filter(each -> !each.startsWith("[")).collect(Collectors.joining("\n"));
+        }
+
+        /**
+         * @return standard output & error, e.g. to look for the failure of the program
+         */
+        public String getFailure() {
+            return output + errors;
+        }
+    }
 }
@@ -5,8 +5,6 @@ import ch.qos.logback.classic.Level;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.*;
-import tableUtils.TableManager;
-import type.TypeDescriptor;
 import utils.log.ErrorReporter;
 import utils.log.GlobalLogger;
 import utils.log.RegressionTestErrorReporter;
@@ -23,7 +21,6 @@ public class UnitTestLoggerExtension implements BeforeEachCallback, AfterEachCal
     private String command;
     private StringBuilder base;
     private List<String> argumentsList;
-    private TableManager<Object, TypeDescriptor> tableManager;
 
     private long testCountPassed;
     private long testCountFailed;
@@ -38,7 +35,6 @@ public class UnitTestLoggerExtension implements BeforeEachCallback, AfterEachCal
         this.command = command;
         this.argumentsList = new ArrayList<>();
         this.argumentsList.add(command);
-        this.tableManager = TableManager.getInstance();
         this.base = new StringBuilder(TestUtils.testResourcesBase);
         this.testCountPassed = 0;
         this.testCountFailed = 0;
@@ -0,0 +1,117 @@
+package driver;
+
+import ir.ArrayLayout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import type.StringLiteral;
+import type.Subrange;
+import type.TypeDescriptor;
+import type.TypeInterner;
+import type.primitive.integer.DefaultIntegerType;
+import type.primitive.integer.Integer32;
+import type.structured.ArrayType;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Array Unit Test Cases
+ * arrays are single flat primitive arrays, whatever the number of dimensions
+ */
+@Tag("regression")
+@DisplayName("Array Unit Test - [ArrayUnitTest.java]")
+public class ArrayUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "arrayTest.pas");
+
+    private static final Path largeBounds = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "largeBoundsTest.pas");
+
+    private static Subrange range(long low, long high) {
+        return new Subrange(new Integer32(low), new Integer32(high));
+    }
+
+    @Test
+    public void testLargeBounds(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(largeBounds, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String output = run.getProgramOutput();
+        assertEquals("15\n9", output);
+    }
+
+    @Test
+    public void testArrays(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String output = run.getProgramOutput();
+        assertTrue(output.startsWith("-20 0 20\n23 34 22 68\n21 24\n22\n1.5\n12\nfalse true\nrb\n90\n270"), output);
+        String failure = run.getFailure();
+        assertTrue(failure.contains("Value 3 out of range [-2..2]"), failure);
+
+        // one allocation per array, no array of arrays
+        List<String> allocations = new ArrayList<>();
+        TestUtils.bytecodeOf(dir.resolve("ArrayTest.class"), name -> new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitIntInsn(int opcode, int operand) {
+                if (opcode == Opcodes.NEWARRAY) allocations.add(name + ":" + operand);
+            }
+
+            @Override
+            public void visitTypeInsn(int opcode, String type) {
+                if (opcode == Opcodes.ANEWARRAY) allocations.add(name + ":" + type);
+            }
+
+            @Override
+            public void visitMultiANewArrayInsn(String descriptor, int numDimensions) {
+                allocations.add(name + ":" + descriptor);
+            }
+
+            @Override
+            public void visitInsn(int opcode) {
+                assertNotEquals(Opcodes.AALOAD, opcode);
+            }
+        });
+        assertEquals(List.of("squares:" + Opcodes.T_INT, "main:" + Opcodes.T_INT, "main:" + Opcodes.T_INT,
+                "main:" + Opcodes.T_INT, "main:" + Opcodes.T_INT, "main:" + Opcodes.T_DOUBLE, "main:" + Opcodes.T_INT,
+                "main:" + Opcodes.T_BOOLEAN, "main:" + Opcodes.T_CHAR), allocations);
+    }
+
+    @Test
+    public void testLayout() {
+        // array [0..2, 'a'..'d'] of array [-1..1] of integer, flattened by the checker
+        List<TypeDescriptor> indexes = List.of(range(0, 2),
+                new Subrange(new StringLiteral("'a'"), new StringLiteral("'d'")), range(-1, 1));
+        ArrayType type = new ArrayType(DefaultIntegerType.instance, indexes);
+        ArrayLayout layout = ArrayLayout.of(type);
+        assertEquals("[I", type.getDescriptor());
+        assertEquals(36, layout.getSize());
+        assertEquals(12, layout.getStride(0));
+        assertEquals(3, layout.getStride(1));
+        assertEquals(1, layout.getStride(2));
+        assertEquals('a', layout.getLow(1));
+        // [0, 'a', -1] is the first element, [2, 'd', 1] the last one
+        assertEquals(0, 0 * 12 + 'a' * 3 - 1 - layout.getBase(3));
+        assertEquals(35, 2 * 12 + 'd' * 3 + 1 - layout.getBase(3));
+        // [1] is the block of 12 elements from 12
+        assertEquals(12, 12 - layout.getBase(1));
+        assertEquals(12, layout.getLength(1));
+        assertEquals(36, layout.getLength(0));
+        assertEquals(1, layout.getLength(3));
+
+        ArrayType chars = new ArrayType(TypeInterner.CHARACTER, List.of(TypeInterner.BOOLEAN));
+        assertEquals("[C", chars.getDescriptor());
+        assertEquals(2, ArrayLayout.of(chars).getSize());
+        assertThrows(UnsupportedOperationException.class,
+                () -> ArrayLayout.of(new ArrayType(TypeInterner.CHARACTER, List.of(DefaultIntegerType.instance))));
+    }
+}
@@ -0,0 +1,91 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import runtime.support.PascalOutput;
+import utils.test.TestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Buffered Output Unit Test Cases
+ * write/writeln through runtime.support.PascalOutput print the same text as System.out
+ */
+@Tag("regression")
+@DisplayName("Buffered Output Unit Test - [BufferedOutputUnitTest.java]")
+public class BufferedOutputUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "outputTest.pas");
+
+    private static final Path empty = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "emptyTest.pas");
+
+    /**
+     * @return output of the program, without the compiler's log lines
+     */
+    private static String run(Path source, Path dir, String... options) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir, options);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        return run.getProgramOutput();
+    }
+
+    @Test
+    public void testSameAsUnbuffered(@TempDir Path dir) throws Exception {
+        String buffered = run(source, dir);
+        // the program fails at the end, what it wrote before is flushed anyway
+        assertTrue(buffered.startsWith("-2147483648 2147483647 0\n"), buffered);
+        assertTrue(buffered.contains("zfalsetrue\n"), buffered);
+        assertEquals(run(source, dir, DriverOption.UNBUFFERED_OUTPUT.getOptionName()), buffered);
+    }
+
+    @Test
+    public void testEmptyBody(@TempDir Path dir) throws Exception {
+        // nothing between the bounds of the handler flushing the output
+        assertEquals("", run(empty, dir));
+    }
+
+    @Test
+    public void testFormatting() {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        PrintStream printStream = new PrintStream(expected, false, StandardCharsets.UTF_8);
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        PascalOutput output = new PascalOutput(new PrintStream(actual, false, StandardCharsets.UTF_8));
+
+        for (int each : new int[]{0, 7, -42, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            printStream.print(each);
+            output.writeInt(each);
+        }
+        for (double each : new double[]{0.0, -0.0, 2.5, -3.0, 9999999.0, 1.0E7, 1.0 / 3, 1.0E-5,
+                Double.NaN, Double.NEGATIVE_INFINITY}) {
+            printStream.println(each);
+            output.writeReal(each);
+            output.writeln();
+        }
+        printStream.print('x');
+        output.writeChar('x');
+        printStream.print('é');
+        output.writeChar('é');
+        printStream.print(true);
+        output.writeBoolean(true);
+        // more than the buffer holds
+        char[] line = new char[10000];
+        Arrays.fill(line, 'a');
+        printStream.println(new String(line));
+        output.writeString(new String(line));
+        output.writeln();
+
+        printStream.flush();
+        output.flush();
+        assertEquals(expected.toString(StandardCharsets.UTF_8), actual.toString(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,104 @@
+package driver;
+
+import ast.visitor.CompactTokenStream;
+import ast.visitor.PascalCustomLexer;
+import ast.visitor.PascalCustomParser;
+import ast.visitor.PascalParser;
+import org.antlr.v4.runtime.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compact Token Storage Unit Test Cases
+ * Tokens, parse trees & diagnostics must be the ones of CommonTokenStream
+ */
+@Tag("regression")
+@DisplayName("Compact Token Stream Unit Test - [CompactTokenStreamUnitTest.java]")
+public class CompactTokenStreamUnitTest {
+
+    private static final List<Path> corpora = List.of(
+            Paths.get("src", "test", "resources"),
+            Paths.get("src", "main", "resources", "pascal_test"));
+
+    private static List<Path> sources() throws IOException {
+        List<Path> sources = new ArrayList<>();
+        for (Path corpus : corpora) {
+            try (Stream<Path> walk = Files.walk(corpus)) {
+                sources.addAll(walk.filter(each -> each.toString().endsWith(".pas")).sorted().collect(Collectors.toList()));
+            }
+        }
+        return sources;
+    }
+
+    private static Lexer newLexer(Path source) throws IOException {
+        Lexer lexer = new PascalCustomLexer(CharStreams.fromPath(source));
+        lexer.removeErrorListeners();
+        return lexer;
+    }
+
+    private static String describe(Token token) {
+        return token.getTokenIndex() + ":" + token.getType() + "@" + token.getLine() + ":" + token.getCharPositionInLine()
+                + "[" + token.getStartIndex() + "," + token.getStopIndex() + "]" + token.getChannel() + " " + token.getText();
+    }
+
+    /**
+     * Diagnostics collected in reporting order
+     */
+    private static class CollectingListener extends BaseErrorListener {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine,
+                                String msg, RecognitionException e) {
+            messages.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+
+    @Test
+    public void testSameTokens() throws IOException {
+        for (Path source : sources()) {
+            CommonTokenStream expected = new CommonTokenStream(newLexer(source));
+            expected.fill();
+            CompactTokenStream actual = new CompactTokenStream(newLexer(source));
+            actual.fill();
+
+            assertEquals(expected.size(), actual.size(), source.toString());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(describe(expected.get(i)), describe(actual.get(i)), source.toString());
+            }
+            assertEquals(expected.getText(), actual.getText(), source.toString());
+        }
+    }
+
+    @Test
+    public void testSameParse() throws IOException {
+        for (Path source : sources()) {
+            CollectingListener expectedMessages = new CollectingListener();
+            PascalParser common = new PascalParser(new CommonTokenStream(newLexer(source)));
+            common.removeErrorListeners();
+            common.addErrorListener(expectedMessages);
+            String expected = PascalCompilerDriverBuilder.parseProgram(common).toStringTree(common);
+
+            CollectingListener actualMessages = new CollectingListener();
+            PascalParser compact = new PascalCustomParser(new CompactTokenStream(newLexer(source)));
+            compact.removeErrorListeners();
+            compact.addErrorListener(actualMessages);
+            String actual = PascalCompilerDriverBuilder.parseProgram(compact).toStringTree(compact);
+
+            assertEquals(expected, actual, source.toString());
+            assertEquals(expectedMessages.messages, actualMessages.messages, source.toString());
+        }
+    }
+}
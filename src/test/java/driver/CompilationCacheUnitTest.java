@@ -0,0 +1,107 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compilation Cache Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Compilation Cache Unit Test - [CompilationCacheUnitTest.java]")
+public class CompilationCacheUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testPascalCompilerDriver", "testCheck", "testCheckWithSuccess", "helloworld.pas");
+
+    private static PascalCompilerDriverBuilder compile(Path source, CompilationCache cache) throws Exception {
+        PascalCompilerDriverBuilder builder = new PascalCompilerDriverBuilder(
+                new DriverArgument(DriverCommand.COMPILE, source.toString())).setCache(cache);
+        builder.parse().check().run();
+        return builder;
+    }
+
+    @Test
+    public void testHitReusesClassFile(@TempDir Path dir) throws Exception {
+        CompilationCache cache = new CompilationCache(dir.resolve("cache"), CompilationCache.DEFAULT_MAX_SIZE);
+        Path first = Files.copy(source, Files.createDirectory(dir.resolve("first")).resolve("helloworld.pas"));
+        Path second = Files.copy(source, Files.createDirectory(dir.resolve("second")).resolve("renamed.pas"));
+
+        PascalCompilerDriverBuilder miss = compile(first, cache);
+        assertFalse(miss.isCacheHit());
+        assertEquals(1, cache.getStores());
+
+        // same content under another name & directory
+        PascalCompilerDriverBuilder hit = compile(second, cache);
+        assertTrue(hit.isCacheHit());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertArrayEquals(miss.getByteCode(), hit.getByteCode());
+        assertArrayEquals(miss.getByteCode(), Files.readAllBytes(second.resolveSibling("Helloworld.class")));
+
+        // any change of the source is another entry
+        Files.writeString(second, Files.readString(second) + "\n");
+        assertFalse(compile(second, cache).isCacheHit());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted(@TempDir Path dir) throws Exception {
+        byte[] byteCode = new byte[1000];
+        CompilationCache cache = new CompilationCache(dir, 3500);
+        for (int i = 0; i < 3; i++) {
+            cache.put("entry" + i, new CompilationCache.Entry("Entry" + i, byteCode, 0, 0, 0));
+            Files.setLastModifiedTime(dir.resolve("entry" + i + ".entry"), FileTime.fromMillis(1000L * (i + 1)));
+        }
+        // entry0 becomes the most recently used one
+        assertNotNull(cache.get("entry0"));
+
+        cache.put("entry3", new CompilationCache.Entry("Entry3", byteCode, 0, 0, 0));
+        assertTrue(cache.getEvictions() > 0);
+        assertTrue(cache.getSize() <= 3500);
+        assertNull(cache.get("entry1"));
+        assertNotNull(cache.get("entry0"));
+        assertNotNull(cache.get("entry3"));
+    }
+
+    @Test
+    public void testConcurrentAccessNeverSeesPartialEntries(@TempDir Path dir) throws Exception {
+        CompilationCache cache = new CompilationCache(dir, CompilationCache.DEFAULT_MAX_SIZE);
+        byte[] byteCode = new byte[64 * 1024];
+        for (int i = 0; i < byteCode.length; i++) byteCode[i] = (byte) i;
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(pool.submit(() -> {
+                    for (int round = 0; round < 20; round++) {
+                        cache.put("shared", new CompilationCache.Entry("Shared", byteCode, 0, 0, 0));
+                        CompilationCache.Entry entry = cache.get("shared");
+                        assertNotNull(entry);
+                        assertArrayEquals(byteCode, entry.getByteCode());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) future.get(1, TimeUnit.MINUTES);
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(0, cache.getMisses());
+    }
+}
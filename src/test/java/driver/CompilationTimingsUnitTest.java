@@ -0,0 +1,61 @@
+package driver;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONObject;
+import exception.BuiltinException;
+import exception.PascalCompilerException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compilation Timings Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Compilation Timings Unit Test - [CompilationTimingsUnitTest.java]")
+public class CompilationTimingsUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testPascalCompilerDriver", "testCheck", "testCheckWithSuccess", "helloworld.pas");
+
+    @Test
+    public void testTimingsReportOfEveryPhase(@TempDir Path dir) throws Exception {
+        Path copy = Files.copy(source, dir.resolve(source.getFileName()));
+        String[] args = {DriverCommand.RUN.getCommandName(), copy.toString(), DriverOption.TIMINGS.getOptionName()};
+        assertEquals(PascalCompilerDriver.STATUS_OK, PascalCompilerDriver.execute(args));
+
+        JSONObject report = JSON.parseObject(Files.readString(dir.resolve("helloworld.pas" + CompilationTimings.REPORT_SUFFIX)));
+        JSONObject phases = report.getJSONObject("phasesMillis");
+        for (CompilationTimings.Phase phase : CompilationTimings.Phase.values()) {
+            if (phase == CompilationTimings.Phase.CACHE) continue;
+            assertTrue(phases.containsKey(phase.getPhaseName()), phase.getPhaseName());
+        }
+        assertTrue(report.getLongValue("tokens") > 0);
+        assertTrue(report.getLongValue("parseTreeNodes") > report.getLongValue("tokens"));
+        assertTrue(report.getLongValue("symbols") > 0);
+        assertEquals(Files.size(dir.resolve("Helloworld.class")), report.getLongValue("byteCodeSize"));
+    }
+
+    @Test
+    public void testTimingsReportPathAndUnknownOption(@TempDir Path dir) throws Exception {
+        Path copy = Files.copy(source, dir.resolve(source.getFileName()));
+        Path report = dir.resolve("report.json");
+        DriverArgument argument = PascalCompilerDriver.checkArguments(new String[]{
+                DriverOption.TIMINGS.getOptionName() + "=" + report, DriverCommand.CHECK.getCommandName(), copy.toString()});
+        assertEquals(DriverCommand.CHECK, argument.getDriverCommand());
+        assertEquals(copy.toString(), argument.getPath());
+        assertEquals(report, CompilationTimings.reportPath(argument));
+
+        Throwable exception = assertThrows(PascalCompilerException.class, () -> PascalCompilerDriver.checkArguments(
+                new String[]{DriverCommand.CHECK.getCommandName(), copy.toString(), "--unknown"}));
+        assertEquals(BuiltinException.INVALID_OPTION.getException().getMessage(), exception.getMessage());
+    }
+}
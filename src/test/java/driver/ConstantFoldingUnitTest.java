@@ -0,0 +1,87 @@
+package driver;
+
+import ir.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import type.TypeInterner;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Constant Folding Unit Test Cases
+ * const values are propagated into the use sites & operations on constants evaluated at compile time
+ */
+@Tag("regression")
+@DisplayName("Constant Folding Unit Test - [ConstantFoldingUnitTest.java]")
+public class ConstantFoldingUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "constantTest.pas");
+
+    private static final Set<Integer> ARITHMETIC = Set.of(Opcodes.IADD, Opcodes.ISUB, Opcodes.IMUL, Opcodes.IDIV,
+            Opcodes.IREM, Opcodes.INEG, Opcodes.DADD, Opcodes.DMUL, Opcodes.DDIV, Opcodes.DNEG, Opcodes.I2D);
+
+    @Test
+    public void testPropagatedConstants(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String[] lines = run.getOutput().trim().split("\\R");
+        String[] expected = {"21", "-10", "5.0", "-2.5", "hello", "x", "true", "2147483646", "2", "1", "2",
+                "big", "not small", "3 1 2.5", "70"};
+        // the program output follows the compiler's log lines
+        assertTrue(lines.length >= expected.length);
+        assertArrayEquals(expected, Arrays.copyOfRange(lines, lines.length - expected.length, lines.length));
+
+        // every operation of the program is on constants, only the values are left
+        List<String> fields = new ArrayList<>();
+        List<Integer> arithmetic = new ArrayList<>();
+        TestUtils.bytecodeOf(dir.resolve("ConstantTest.class"), name -> new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitInsn(int opcode) {
+                if (ARITHMETIC.contains(opcode)) arithmetic.add(opcode);
+            }
+
+            @Override
+            public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+                if (owner.equals("ConstantTest") && !name.equals(IrBytecodeEmitter.OUTPUT_FIELD)
+                        && !name.equals(IrBytecodeEmitter.INPUT_FIELD)) {
+                    fields.add(name);
+                }
+            }
+        });
+        assertEquals(List.of(), arithmetic);
+        assertTrue(Set.of("i", "r").containsAll(fields), fields.toString());
+    }
+
+    @Test
+    public void testFolding() {
+        IrConstant maxint = new IrConstant((long) Integer.MAX_VALUE, TypeInterner.INTEGER);
+        IrConstant one = new IrConstant(1L, TypeInterner.INTEGER);
+        IrConstant zero = new IrConstant(0L, TypeInterner.INTEGER);
+        IrVariable x = new IrVariable("x", IrVariable.STATIC, TypeInterner.BOOLEAN);
+        IrBinary overflow = new IrBinary(IrBinary.Operator.ADD, maxint, one, TypeInterner.INTEGER);
+        IrBinary byZero = new IrBinary(IrBinary.Operator.DIV, one, zero, TypeInterner.INTEGER);
+        IrBinary and = new IrBinary(IrBinary.Operator.AND, new IrConstant(true, TypeInterner.BOOLEAN), x,
+                TypeInterner.BOOLEAN);
+        IrBlock body = new IrBlock(List.of(new IrWrite(List.of(overflow, byZero, and), true)));
+
+        List<IrNode> values = ((IrWrite) new IrConstantFolder().apply(body).getStatements().get(0)).getValues();
+        // wraps around as iadd does
+        assertEquals((long) Integer.MIN_VALUE, ((IrConstant) values.get(0)).getValue());
+        // left to fail at runtime
+        assertSame(byZero, values.get(1));
+        assertSame(x, values.get(2));
+    }
+}
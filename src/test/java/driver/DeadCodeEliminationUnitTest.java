@@ -0,0 +1,85 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dead Code Elimination Unit Test Cases
+ * Unreachable statements, dead stores to locals & unused procedures/functions are not emitted
+ */
+@Tag("regression")
+@DisplayName("Dead Code Elimination Unit Test - [DeadCodeEliminationUnitTest.java]")
+public class DeadCodeEliminationUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "deadCodeTest.pas");
+
+    private static TestUtils.ProgramRun run(Path dir, String... options) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir, options);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        return run;
+    }
+
+    private static void assertOutput(TestUtils.ProgramRun run) {
+        String[] lines = run.getProgramOutput().trim().split("\\R");
+        // divide(0) fails before writing
+        String[] expected = {"release", "49", "10", "5", "5"};
+        assertTrue(lines.length >= expected.length);
+        assertArrayEquals(expected, Arrays.copyOfRange(lines, lines.length - expected.length, lines.length));
+        String output = run.getOutput();
+        assertTrue(output.contains("9 unreachable statement(s), 4 dead store(s), 4 unused procedure(s)/function(s)"),
+                output);
+    }
+
+    @Test
+    public void testRemoved(@TempDir Path dir) throws Exception {
+        assertOutput(run(dir));
+
+        Set<String> methods = new TreeSet<>();
+        List<Integer> squareConstants = new ArrayList<>();
+        List<Integer> divisions = new ArrayList<>();
+        TestUtils.bytecodeOf(dir.resolve("DeadCodeTest.class"), name -> {
+            methods.add(name);
+            if (name.equals("divide")) {
+                return new MethodVisitor(Opcodes.ASM9) {
+                    @Override
+                    public void visitInsn(int opcode) {
+                        if (opcode == Opcodes.IDIV) divisions.add(opcode);
+                    }
+                };
+            }
+            if (!name.equals("square")) return null;
+            return new MethodVisitor(Opcodes.ASM9) {
+                @Override
+                public void visitIntInsn(int opcode, int operand) {
+                    squareConstants.add(operand);
+                }
+            };
+        });
+        assertEquals(Set.of("<init>", "main", "square", "sum", "loopy", "divide"), methods);
+        // t := x * 100 is overwritten before being read
+        assertFalse(squareConstants.contains(100), squareConstants.toString());
+        // q := 100 div d may fail, r := d div 4 cannot
+        assertEquals(1, divisions.size());
+    }
+
+    @Test
+    public void testRemovedStreamed(@TempDir Path dir) throws Exception {
+        assertOutput(run(dir, DriverOption.MEMORY_BUDGET.getOptionName()));
+    }
+}
@@ -0,0 +1,46 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Expression Types Unit Test Cases
+ * The encoder converts mixed integer/real operands from the types recorded by the checker
+ */
+@Tag("regression")
+@DisplayName("Expression Types Unit Test - [ExpressionTypesUnitTest.java]")
+public class ExpressionTypesUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testPascalRun", "mixedIntRealTest.pas");
+
+    private static String run(Path dir, String... options) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir, options);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        return run.getOutput();
+    }
+
+    @Test
+    public void testMixedOperands(@TempDir Path dir) throws Exception {
+        String output = run(dir);
+        // integer left operand converted for a real variable (not only a real literal) on the right
+        assertTrue(output.contains("lt"), output);
+        assertTrue(output.contains("7.0"), output);
+        assertTrue(output.contains("14.0"), output);
+    }
+
+    @Test
+    public void testMixedOperandsStreamed(@TempDir Path dir) throws Exception {
+        String output = run(dir, DriverOption.MEMORY_BUDGET.getOptionName());
+        assertTrue(output.contains("lt"), output);
+        assertTrue(output.contains("14.0"), output);
+    }
+}
@@ -0,0 +1,102 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import runtime.support.PascalInput;
+import utils.test.TestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Input Reader Unit Test Cases
+ * read/readln of a program share one runtime.support.PascalInput
+ */
+@Tag("regression")
+@DisplayName("Input Reader Unit Test - [InputReaderUnitTest.java]")
+public class InputReaderUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "inputTest.pas");
+
+    private static PascalInput input(String text) {
+        return new PascalInput(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    public void testReadStatements(@TempDir Path dir) throws Exception {
+        String text = " 7\n-12 2.5 ignored\nxyz more\nskipped line\ny 1 2 3\n4 0\n";
+        for (String[] options : new String[][]{{}, {DriverOption.UNBUFFERED_OUTPUT.getOptionName()}}) {
+            TestUtils.ProgramRun run = TestUtils.runProgram(source, dir,
+                    new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), options);
+            assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+            String output = run.getProgramOutput();
+            // the values are read one after the other from the same input, whatever the statement
+            assertEquals("0 -12 2.5 xy\n10", output);
+        }
+    }
+
+    @Test
+    public void testTokens() {
+        PascalInput input = input("  42\t-7 +3\r\n2147483647 -2147483648 x\n1.5 -2 3e2 0.1 1e-300 12345678901234567890\n"
+                + "ab cété éz tail\n");
+        assertEquals(42, input.readInt());
+        assertEquals(-7, input.readInt());
+        assertEquals(3, input.readInt());
+        assertEquals(Integer.MAX_VALUE, input.readInt());
+        assertEquals(Integer.MIN_VALUE, input.readInt());
+        assertThrows(NumberFormatException.class, input::readInt);
+        for (String each : new String[]{"1.5", "-2", "3e2", "0.1", "1e-300", "12345678901234567890"}) {
+            assertEquals(Double.parseDouble(each), input.readReal(), each);
+        }
+        // the rest of the token is skipped
+        assertEquals('a', input.readChar());
+        assertEquals('c', input.readChar());
+        assertEquals('é', input.readChar());
+        assertEquals(" tail", input.readLine());
+        input.skipLine();
+        assertThrows(NoSuchElementException.class, input::readInt);
+    }
+
+    @Test
+    public void testLines() {
+        PascalInput input = input("1 2 3\nsecond line\r\nthird\n");
+        assertEquals(1, input.readInt());
+        input.skipLine();
+        assertEquals("second line", input.readLine());
+        input.skipLine();
+        assertEquals("third", input.readString());
+        input.skipLine();
+        assertThrows(NoSuchElementException.class, input::readLine);
+    }
+
+    @Test
+    public void testSameAsParse() {
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        int[] ints = new int[20000];
+        double[] reals = new double[20000];
+        String[] realTokens = new String[reals.length];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = random.nextInt();
+            realTokens[i] = i % 2 == 0 ? Double.toString(random.nextDouble() * random.nextInt(1000000))
+                    : (random.nextInt(2000000) - 1000000) + "." + random.nextInt(1000);
+            reals[i] = Double.parseDouble(realTokens[i]);
+            text.append(ints[i]).append(' ').append(realTokens[i]).append(i % 7 == 0 ? '\n' : ' ');
+        }
+        // much more than the buffer holds, tokens are split between two reads of the input
+        PascalInput input = input(text.toString());
+        for (int i = 0; i < ints.length; i++) {
+            assertEquals(ints[i], input.readInt());
+            assertEquals(reals[i], input.readReal(), realTokens[i]);
+        }
+    }
+}
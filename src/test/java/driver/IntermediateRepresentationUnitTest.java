@@ -0,0 +1,56 @@
+package driver;
+
+import ir.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import type.TypeInterner;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Intermediate Representation Unit Test Cases
+ * Statements & expressions are lowered to the IR, then emitted
+ */
+@Tag("regression")
+@DisplayName("Intermediate Representation Unit Test - [IntermediateRepresentationUnitTest.java]")
+public class IntermediateRepresentationUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "statementsTest.pas");
+
+    @Test
+    public void testStatements(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String[] lines = run.getOutput().trim().split("\\R");
+        String[] expected = {"1", "10", "54321", "6", "3", "3", "done", "real", "inner", "outer 42 2"};
+        // the program output follows the compiler's log lines
+        assertTrue(lines.length >= expected.length);
+        assertArrayEquals(expected, Arrays.copyOfRange(lines, lines.length - expected.length, lines.length));
+    }
+
+    @Test
+    public void testRewriter() {
+        IrNode hello = new IrWrite(List.of(new IrConstant("hello", null)), true);
+        IrNode answer = new IrWrite(List.of(new IrConstant(42L, TypeInterner.INTEGER)), true);
+        IrBlock body = new IrBlock(List.of(hello, answer));
+        // nothing changed, nothing rebuilt
+        assertSame(body, new IrRewriter().apply(body));
+
+        IrBlock rewritten = new IrRewriter() {
+            @Override
+            public IrNode visitWrite(IrWrite node) {
+                return node == hello ? null : node;
+            }
+        }.apply(body);
+        assertEquals(List.of(answer), rewritten.getStatements());
+    }
+}
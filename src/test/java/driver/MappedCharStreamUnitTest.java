@@ -0,0 +1,80 @@
+package driver;
+
+import ast.visitor.PascalCustomLexer;
+import org.antlr.v4.runtime.CharStream;
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.IntStream;
+import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.misc.Interval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.io.MappedCharStream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory-Mapped Source Input Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Mapped Char Stream Unit Test - [MappedCharStreamUnitTest.java]")
+public class MappedCharStreamUnitTest {
+
+    private static final Path corpus = Paths.get("src", "main", "resources", "pascal_test");
+
+    private static List<String> lex(CharStream input) {
+        PascalCustomLexer lexer = new PascalCustomLexer(input);
+        lexer.removeErrorListeners();
+        List<String> tokens = new ArrayList<>();
+        for (Token token = lexer.nextToken(); token.getType() != Token.EOF; token = lexer.nextToken()) {
+            tokens.add(token.getType() + "@" + token.getLine() + ":" + token.getCharPositionInLine()
+                    + "[" + token.getStartIndex() + "," + token.getStopIndex() + "] " + token.getText());
+        }
+        return tokens;
+    }
+
+    private static boolean isAscii(Path source) throws IOException {
+        for (byte each : Files.readAllBytes(source)) {
+            if (each < 0) return false;
+        }
+        return true;
+    }
+
+    @Test
+    public void testSameTokensAsDecodedInput() throws IOException {
+        for (Path source : PascalBatchCompilerDriver.collectSources(corpus)) {
+            // UTF-8 sources are read byte for char, positions shift after the first multi-byte character
+            if (!isAscii(source)) continue;
+            assertEquals(lex(CharStreams.fromPath(source)), lex(MappedCharStream.open(source)), source.toString());
+        }
+    }
+
+    @Test
+    public void testStreamContract(@TempDir Path dir) throws IOException {
+        Path source = Files.write(dir.resolve("latin1.pas"), "abé".getBytes(StandardCharsets.ISO_8859_1));
+        MappedCharStream input = MappedCharStream.open(source);
+        assertEquals(3, input.size());
+        assertEquals(source.toString(), input.getSourceName());
+
+        assertEquals('a', input.LA(1));
+        assertEquals(IntStream.EOF, input.LA(-1));
+        input.consume();
+        assertEquals('a', input.LA(-1));
+        assertEquals(0xE9, input.LA(2));
+        assertEquals(IntStream.EOF, input.LA(3));
+        assertEquals("bé", input.getText(Interval.of(1, 5)));
+
+        input.seek(10);
+        assertEquals(3, input.index());
+        assertThrows(IllegalStateException.class, input::consume);
+    }
+}
@@ -0,0 +1,86 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory Budget Mode Unit Test Cases
+ * Streaming compilation must give the diagnostics & bytecode of the whole-tree passes
+ */
+@Tag("regression")
+@DisplayName("Memory Budget Unit Test - [MemoryBudgetUnitTest.java]")
+public class MemoryBudgetUnitTest {
+
+    private static final Path checkSources = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testPascalCompilerDriver", "testCheck");
+
+    private static List<Path> sources(Path dir) throws IOException {
+        try (Stream<Path> walk = Files.walk(dir)) {
+            return walk.filter(each -> each.toString().endsWith(".pas")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return error counts of each phase, followed by the failure if any
+     */
+    private static String compile(PascalCompilerDriverBuilder builder, boolean encode) {
+        String failure = "";
+        try {
+            builder.parse().check();
+            if (encode) builder.run();
+        } catch (Exception e) {
+            failure = e.getMessage();
+        }
+        return builder.getTokenErrors() + "/" + builder.getSyntaxErrors() + "/" + builder.getContextualErrors()
+                + " " + failure;
+    }
+
+    private static PascalCompilerDriverBuilder newBuilder(DriverCommand command, Path source, boolean budget) {
+        Map<DriverOption, String> options = budget ? Map.of(DriverOption.MEMORY_BUDGET, "") : Map.of();
+        return new PascalCompilerDriverBuilder(new DriverArgument(command, source.toString(), options)).setCache(null);
+    }
+
+    @Test
+    public void testSameDiagnostics() throws IOException {
+        List<Path> sources = sources(checkSources);
+        assertFalse(sources.isEmpty(), "No test resources found!");
+        for (Path source : sources) {
+            String expected = compile(newBuilder(DriverCommand.CHECK, source, false), false);
+            String actual = compile(newBuilder(DriverCommand.CHECK, source, true), false);
+            assertEquals(expected, actual, source.toString());
+        }
+    }
+
+    @Test
+    public void testSameByteCode(@TempDir Path dir) throws IOException {
+        for (Path each : sources(checkSources.resolve("testCheckWithSuccess"))) {
+            Path source = Files.copy(each, dir.resolve(each.getFileName()));
+            PascalCompilerDriverBuilder whole = newBuilder(DriverCommand.COMPILE, source, false);
+            String expected = compile(whole, true);
+            PascalCompilerDriverBuilder streamed = newBuilder(DriverCommand.COMPILE, source, true);
+            String actual = compile(streamed, true);
+
+            assertEquals(expected, actual, source.toString());
+            // both failing would compare nothing
+            assertNotNull(whole.getByteCode(), source + " " + expected);
+            assertArrayEquals(whole.getByteCode(), streamed.getByteCode(), source.toString());
+            // peak of this compilation only, untracked without the budget
+            assertTrue(streamed.getContext().getTimings().getPeakHeapBytes() > 0);
+            assertEquals(-1, whole.getContext().getTimings().getPeakHeapBytes());
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package driver;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import utils.io.StdStreamRouter;
+import utils.test.TestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compiler Daemon Unit Test Cases
+ * Requests are sent with the thin client to a daemon running in this JVM (on a free port)
+ */
+@Tag("regression")
+@DisplayName("Compiler Daemon Unit Test - [PascalCompilerDaemonUnitTest.java]")
+public class PascalCompilerDaemonUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testPascalCompilerDriver", "testCheck", "testCheckWithSuccess", "helloworld.pas");
+
+    private static PascalCompilerDaemon daemon;
+    private static Thread server;
+
+    @BeforeAll
+    public static void startDaemon() throws Exception {
+        daemon = new PascalCompilerDaemon(0);
+        daemon.start();
+        server = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }, "ptj-daemon-test");
+        server.start();
+    }
+
+    @AfterAll
+    public static void stopDaemon() throws Exception {
+        assertEquals(0, PascalCompilerClient.execute(new String[]{DaemonProtocol.STOP_COMMAND}, daemon.getLocalPort()));
+        server.join(10_000);
+        assertFalse(server.isAlive());
+    }
+
+    /**
+     * Send the request with the standard streams of the test thread captured
+     */
+    private static int request(ByteArrayOutputStream out, String... args) {
+        StdStreamRouter.bind(out, new ByteArrayOutputStream(), InputStream.nullInputStream());
+        try {
+            return PascalCompilerClient.execute(args, daemon.getLocalPort());
+        } finally {
+            StdStreamRouter.unbind();
+        }
+    }
+
+    @Test
+    public void testRunStreamsProgramOutput(@TempDir Path dir) throws Exception {
+        Path copy = Files.copy(source, dir.resolve(source.getFileName()));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(PascalCompilerDriver.STATUS_OK, request(out, DriverCommand.RUN.getCommandName(), copy.toString()));
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("Hello World.print somethinghellloh"));
+        assertTrue(Files.exists(dir.resolve("Helloworld.class")));
+    }
+
+    @Test
+    public void testFailedRequestKeepsDaemonAlive(@TempDir Path dir) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String missing = dir.resolve("missing.pas").toString();
+        assertEquals(PascalCompilerDriver.STATUS_FAILED, request(out, DriverCommand.COMPILE.getCommandName(), missing));
+
+        Path copy = Files.copy(source, dir.resolve(source.getFileName()));
+        assertEquals(PascalCompilerDriver.STATUS_OK, request(out, DriverCommand.COMPILE.getCommandName(), copy.toString()));
+    }
+}
@@ -0,0 +1,83 @@
+package driver;
+
+import annotation.TestResourcePath;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+import utils.test.extension.UnitTestLoggerExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batch Compilation Unit Test Cases
+ */
+@TestResourcePath("driver/testPascalCompilerDriver/testCheck/")
+@Tag("regression")
+@DisplayName("Batch Compilation Unit Test - [PascalCompilerDriverBatchUnitTest.java]")
+public class PascalCompilerDriverBatchUnitTest {
+
+    private static String successDir = "testCheckWithSuccess";
+
+    @RegisterExtension
+    static UnitTestLoggerExtension extension = new UnitTestLoggerExtension("batch",
+            "Batch Compilation Unit Test - [PascalCompilerDriverBatchUnitTest.java]");
+
+    /**
+     * Copy the sources into a temporary directory, generated class files must not pollute test resources
+     */
+    private static List<Path> copySources(Path target) throws IOException {
+        String fullPath = TestUtils.appendNewSubdirectory(extension.getBase(), successDir).toString();
+        File[] files = TestUtils.getAllFilesInDir(fullPath);
+        assertNotNull(files, "No test resources found!");
+        for (File each : files) {
+            Files.copy(each.toPath(), target.resolve(each.getName()));
+        }
+        return PascalBatchCompilerDriver.collectSources(target);
+    }
+
+    /**
+     * Every source compiled in a batch must end up with the same outcome as compiling it on its own
+     */
+    @Test
+    public void testBatchMatchesOneByOne(@TempDir Path batchDir, @TempDir Path singleDir) throws Exception {
+        List<Path> batchSources = copySources(batchDir);
+        List<Path> singleSources = copySources(singleDir);
+
+        BatchCompilationSummary summary = new PascalBatchCompilerDriver(batchSources, 4).compileAll();
+        summary.report();
+        assertEquals(batchSources.size(), summary.getResults().size());
+
+        for (int i = 0; i < singleSources.size(); i++) {
+            BatchCompilationResult single = PascalBatchCompilerDriver.compile(singleSources.get(i));
+            BatchCompilationResult batched = summary.getResults().get(i);
+            assertEquals(batchSources.get(i), batched.getSource());
+            assertEquals(single.getStatus(), batched.getStatus(), batched.getSource().toString());
+            assertEquals(single.getContextualErrors(), batched.getContextualErrors());
+        }
+    }
+
+    @Test
+    public void testCollectSourcesFromFileList(@TempDir Path dir) throws IOException {
+        List<Path> sources = copySources(dir);
+        Path fileList = dir.resolve("sources.txt");
+        Files.write(fileList, List.of(
+                "# sources to compile",
+                sources.get(1).getFileName().toString(),
+                "",
+                sources.get(0).getFileName().toString()));
+
+        List<Path> collected = PascalBatchCompilerDriver.collectSources(fileList);
+        assertEquals(List.of(sources.get(1), sources.get(0)),
+                collected.stream().map(Path::toAbsolutePath).collect(Collectors.toList()));
+    }
+}
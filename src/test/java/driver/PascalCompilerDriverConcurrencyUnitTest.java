@@ -0,0 +1,94 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import utils.test.TestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent Compilation Stress Test Cases
+ * Compile the test corpora from several threads at once,
+ * every compilation must produce exactly the same bytecode as the sequential one
+ */
+@Tag("regression")
+@DisplayName("Concurrent Compilation Stress Test - [PascalCompilerDriverConcurrencyUnitTest.java]")
+public class PascalCompilerDriverConcurrencyUnitTest {
+
+    /**
+     * pascal_test corpus, plus the regression sources passing contextual analysis (most of them reach code generation)
+     */
+    private static final List<Path> corpora = List.of(
+            Paths.get("src", "main", "resources", "pascal_test"),
+            Paths.get(TestUtils.testResourcesBase, "driver", "testPascalCompilerDriver", "testCheck", "testCheckWithSuccess"));
+    private static final int threads = 4;
+    private static final int rounds = 3;
+
+    /**
+     * Outcome of one compilation: the bytecode if generated, otherwise the failure
+     */
+    private static String compile(Path source) {
+        PascalCompilerDriverBuilder builder = new PascalCompilerDriverBuilder(
+                new DriverArgument(DriverCommand.COMPILE, source.toString()));
+        try {
+            builder.parse().check().run();
+            return Base64.getEncoder().encodeToString(builder.getByteCode());
+        } catch (Exception | LinkageError e) {
+            return e.getClass().getName();
+        }
+    }
+
+    private static List<Path> copyCorpus(Path target) throws IOException {
+        List<Path> copies = new ArrayList<>();
+        for (Path corpus : corpora) {
+            for (Path each : PascalBatchCompilerDriver.collectSources(corpus)) {
+                Path copy = target.resolve(corpus.getFileName()).resolve(corpus.relativize(each));
+                Files.createDirectories(copy.getParent());
+                copies.add(Files.copy(each, copy));
+            }
+        }
+        return copies;
+    }
+
+    @Test
+    public void testConcurrentCompilationIsByteIdentical(@TempDir Path dir) throws Exception {
+        List<Path> sequentialSources = copyCorpus(Files.createDirectory(dir.resolve("sequential")));
+        assertFalse(sequentialSources.isEmpty(), "No test resources found!");
+
+        List<String> expected = new ArrayList<>();
+        sequentialSources.forEach(each -> expected.add(compile(each)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < threads * rounds; i++) {
+                // each worker owns a copy of the corpus, generated class files must not collide
+                List<Path> sources = copyCorpus(Files.createDirectory(dir.resolve("worker" + i)));
+                futures.add(pool.submit(() -> {
+                    List<String> outcomes = new ArrayList<>();
+                    sources.forEach(each -> outcomes.add(compile(each)));
+                    return outcomes;
+                }));
+            }
+            for (Future<List<String>> future : futures) {
+                List<String> actual = future.get(5, TimeUnit.MINUTES);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i), actual.get(i), sequentialSources.get(i).toString());
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package driver;
+
+import ast.visitor.PascalCustomLexer;
+import ast.visitor.PascalParser;
+import org.antlr.v4.runtime.*;
+import org.antlr.v4.runtime.atn.PredictionMode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two-Stage (SLL then LL) Parsing Unit Test Cases
+ * Every test source, with or without syntactic errors, must give the same tree & diagnostics as a full LL parse
+ */
+@Tag("regression")
+@DisplayName("Two-Stage Parsing Unit Test - [PascalParserTwoStageUnitTest.java]")
+public class PascalParserTwoStageUnitTest {
+
+    private static final List<Path> corpora = List.of(
+            Paths.get("src", "test", "resources"),
+            Paths.get("src", "main", "resources", "pascal_test"));
+
+    /**
+     * Diagnostics collected in reporting order
+     */
+    private static class CollectingListener extends BaseErrorListener {
+        private final List<String> messages = new ArrayList<>();
+
+        @Override
+        public void syntaxError(Recognizer<?, ?> recognizer, Object offendingSymbol, int line, int charPositionInLine,
+                                String msg, RecognitionException e) {
+            messages.add(line + ":" + charPositionInLine + " " + msg);
+        }
+    }
+
+    private static PascalParser newParser(Path source, CollectingListener listener) throws IOException {
+        Lexer lexer = new PascalCustomLexer(CharStreams.fromPath(source));
+        lexer.removeErrorListeners();
+        PascalParser parser = new PascalParser(new CommonTokenStream(lexer));
+        parser.removeErrorListeners();
+        parser.addErrorListener(listener);
+        return parser;
+    }
+
+    @Test
+    public void testTwoStageMatchesFullLL() throws IOException {
+        List<Path> sources = new ArrayList<>();
+        for (Path corpus : corpora) {
+            try (Stream<Path> walk = Files.walk(corpus)) {
+                sources.addAll(walk.filter(each -> each.toString().endsWith(".pas")).sorted().collect(Collectors.toList()));
+            }
+        }
+        assertFalse(sources.isEmpty(), "No test resources found!");
+
+        int fallbacks = 0;
+        for (Path source : sources) {
+            CollectingListener expectedMessages = new CollectingListener();
+            PascalParser fullLL = newParser(source, expectedMessages);
+            fullLL.getInterpreter().setPredictionMode(PredictionMode.LL);
+            String expected = fullLL.program().toStringTree(fullLL);
+
+            CollectingListener actualMessages = new CollectingListener();
+            PascalParser twoStage = newParser(source, actualMessages);
+            String actual = PascalCompilerDriverBuilder.parseProgram(twoStage).toStringTree(twoStage);
+
+            assertEquals(expected, actual, source.toString());
+            assertEquals(expectedMessages.messages, actualMessages.messages, source.toString());
+            assertEquals(fullLL.getNumberOfSyntaxErrors(), twoStage.getNumberOfSyntaxErrors(), source.toString());
+            if (!expectedMessages.messages.isEmpty()) fallbacks++;
+        }
+        // the corpus must exercise the fallback to full LL as well
+        assertTrue(fallbacks > 0);
+    }
+}
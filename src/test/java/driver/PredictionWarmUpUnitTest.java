@@ -0,0 +1,79 @@
+package driver;
+
+import ast.visitor.PascalParser;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.ListTokenSource;
+import org.antlr.v4.runtime.dfa.DFA;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prediction Cache Warm-Up Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Prediction Warm-Up Unit Test - [PredictionWarmUpUnitTest.java]")
+public class PredictionWarmUpUnitTest {
+
+    private static final Path corpus = Paths.get("src", "main", "resources", "pascal_test");
+
+    @Test
+    public void testSnapshotRoundTrip(@TempDir Path dir) throws IOException {
+        List<Path> sources = PascalBatchCompilerDriver.collectSources(corpus);
+        PredictionWarmUp.Snapshot recorded = PredictionWarmUp.record(sources);
+        assertEquals(sources.size(), recorded.getPrograms().size());
+        assertFalse(recorded.getLexerSample().isEmpty());
+
+        Path file = dir.resolve("warmup.snapshot");
+        recorded.write(file);
+        PredictionWarmUp.Snapshot read = PredictionWarmUp.Snapshot.read(file);
+        assertNotNull(read);
+        assertEquals(recorded.getLexerSample(), read.getLexerSample());
+        for (int i = 0; i < recorded.getPrograms().size(); i++) {
+            assertArrayEquals(recorded.getPrograms().get(i), read.getPrograms().get(i));
+        }
+        assertDoesNotThrow(() -> PredictionWarmUp.replay(read));
+    }
+
+    /**
+     * The replay fills the decision DFA shared by all the parsers of the JVM
+     */
+    @Test
+    public void testReplayWarmsParserDfa() throws IOException {
+        PascalParser parser = new PascalParser(new CommonTokenStream(new ListTokenSource(List.of())));
+        parser.getInterpreter().clearDFA();
+        assertEquals(0, dfaStates(parser));
+        PredictionWarmUp.replay(PredictionWarmUp.record(PascalBatchCompilerDriver.collectSources(corpus)));
+        assertTrue(dfaStates(parser) > 0);
+    }
+
+    private static int dfaStates(PascalParser parser) {
+        int count = 0;
+        for (DFA each : parser.getInterpreter().decisionToDFA) count += each.states.size();
+        return count;
+    }
+
+    @Test
+    public void testStaleSnapshotIgnored(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("stale.snapshot");
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file))) {
+            out.writeInt(0x50544A57);
+            out.writeInt(1);
+            out.writeInt(PredictionWarmUp.grammarFingerprint() + 1);
+        }
+        assertNull(PredictionWarmUp.Snapshot.read(file));
+
+        Files.writeString(file, "not a snapshot");
+        assertThrows(IOException.class, () -> PredictionWarmUp.Snapshot.read(file));
+    }
+}
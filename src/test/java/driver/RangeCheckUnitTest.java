@@ -0,0 +1,65 @@
+package driver;
+
+import ir.Interval;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Range Check Unit Test Cases
+ * checks of the values proven in bounds removed, the ones left in a for loop hoisted before it
+ */
+@Tag("regression")
+@DisplayName("Range Check Unit Test - [RangeCheckUnitTest.java]")
+public class RangeCheckUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "rangeTest.pas");
+
+    @Test
+    public void testRangeChecks(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String output = run.getProgramOutput();
+        assertTrue(output.startsWith("385\n14\n16 100\n100\n16\nabcde\nafter"), output);
+        // the loop without its checks is not taken for n = 11
+        String failure = run.getFailure();
+        assertTrue(failure.contains("Value 11 out of range [1..10]"), failure);
+
+        // left: the original loop of total, the assignment of an unknown value to d & to e, even if never read
+        List<String> checks = new ArrayList<>();
+        TestUtils.bytecodeOf(dir.resolve("RangeTest.class"), name -> new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String method, String descriptor,
+                                        boolean isInterface) {
+                if (owner.equals("runtime/support/PascalRange")) checks.add(name);
+            }
+        });
+        assertEquals(List.of("total", "narrow", "main"), checks);
+    }
+
+    @Test
+    public void testInterval() {
+        Interval index = Interval.of(1, 10);
+        assertEquals(Interval.of(0, 9), index.subtract(Interval.of(1, 1)));
+        assertEquals(Interval.of(-10, 100), index.multiply(Interval.of(-1, 10)));
+        assertTrue(index.contains(Interval.of(3, 3)));
+        assertFalse(index.contains(Interval.of(0, 3)));
+        assertNull(index.intersect(Interval.of(11, 20)));
+        assertEquals(Interval.of(1, 20), index.join(Interval.of(11, 20)));
+        // may overflow
+        assertEquals(Interval.INTEGER, Interval.of(0, Integer.MAX_VALUE).add(index));
+        assertNull(Interval.of(2, 1));
+    }
+}
@@ -0,0 +1,83 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import runtime.support.PascalMath;
+import runtime.support.PascalRange;
+import runtime.support.PascalRuntimeException;
+import runtime.support.PascalStrings;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runtime Support Unit Test Cases
+ * builtin functions call the helpers of runtime.support, evaluated at compile time on constants
+ */
+@Tag("regression")
+@DisplayName("Runtime Support Unit Test - [RuntimeSupportUnitTest.java]")
+public class RuntimeSupportUnitTest {
+
+    private static final Path source = Paths.get(TestUtils.testResourcesBase,
+            "driver", "testIr", "runtimeTest.pas");
+
+    @Test
+    public void testBuiltins(@TempDir Path dir) throws Exception {
+        TestUtils.ProgramRun run = TestUtils.runProgram(source, dir);
+        assertEquals(PascalCompilerDriver.STATUS_OK, run.getStatus());
+        String output = run.getProgramOutput();
+        assertTrue(output.startsWith("2 1 1\n7 2.5 49 6.25 9\ntrue false -2 -3 3 7\n4.0 2.5\ncay 65 1 true false"), output);
+        String failure = run.getFailure();
+        assertTrue(failure.contains("No successor of 2"), failure);
+
+        // the builtins on variables call the library, the ones on constants are folded
+        List<String> calls = new ArrayList<>();
+        TestUtils.bytecodeOf(dir.resolve("RuntimeTest.class"), name -> new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public void visitMethodInsn(int opcode, String owner, String name, String descriptor,
+                                        boolean isInterface) {
+                if (owner.startsWith("runtime/support/Pascal") && !owner.endsWith("Output")
+                        && !owner.endsWith("Input")) {
+                    calls.add(owner.substring(owner.lastIndexOf('/') + 1) + "." + name);
+                }
+            }
+        });
+        assertEquals(List.of("PascalMath.abs", "PascalMath.abs", "PascalMath.sqr", "PascalMath.sqr",
+                "PascalMath.odd", "PascalMath.trunc", "PascalMath.round", "PascalMath.sqrt",
+                "PascalOrdinals.succ", "PascalOrdinals.pred", "PascalOrdinals.succ", "PascalOrdinals.succ",
+                "PascalOrdinals.ord"), calls);
+    }
+
+    @Test
+    public void testMath() {
+        assertEquals(3, PascalMath.round(2.5));
+        assertEquals(-3, PascalMath.round(-2.5));
+        assertEquals(0, PascalMath.round(0.49999999999999994));
+        assertEquals(Integer.MAX_VALUE, PascalMath.round(Integer.MAX_VALUE + 0.4));
+        assertEquals(-7, PascalMath.trunc(-7.9));
+        assertEquals(Integer.MIN_VALUE, PascalMath.trunc(Integer.MIN_VALUE - 0.9));
+        assertThrows(PascalRuntimeException.class, () -> PascalMath.trunc(1e10));
+        assertThrows(PascalRuntimeException.class, () -> PascalMath.round(Double.NaN));
+        assertThrows(PascalRuntimeException.class, () -> PascalMath.sqrt(-1));
+        assertTrue(PascalMath.odd(-3));
+    }
+
+    @Test
+    public void testRangeAndStrings() {
+        assertEquals(5, PascalRange.check(5, 1, 10));
+        assertThrows(PascalRuntimeException.class, () -> PascalRange.check(11, 1, 10));
+        // shared instance for the Latin-1 chars
+        assertSame(PascalStrings.valueOf('x'), PascalStrings.valueOf('x'));
+        assertEquals("é", PascalStrings.valueOf('é'));
+        assertEquals("€", PascalStrings.valueOf('€'));
+    }
+}
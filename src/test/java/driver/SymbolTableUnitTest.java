@@ -0,0 +1,122 @@
+package driver;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import runtime.RuntimeLibManager;
+import tableUtils.LocalVariableInformation;
+import tableUtils.LocalsTable;
+import tableUtils.SymbolTable;
+import tableUtils.Table;
+import tableUtils.TableManager;
+import type.TypeDescriptor;
+import type.primitive.integer.DefaultIntegerType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Scoped Symbol Table Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Symbol Table Unit Test - [SymbolTableUnitTest.java]")
+public class SymbolTableUnitTest {
+
+    @Test
+    public void testShadowingAcrossScopes() {
+        Table<Object, TypeDescriptor> table = new SymbolTable<>(new TableManager<>());
+        TypeDescriptor outer = DefaultIntegerType.of(1L);
+        TypeDescriptor inner = DefaultIntegerType.of(2L);
+
+        assertTrue(table.put("x", outer));
+        assertFalse(table.put("x", inner));
+        table.enterLocalScope();
+        assertSame(outer, table.get("x"));
+        assertTrue(table.put("x", inner));
+        assertTrue(table.put("y", inner));
+        assertSame(inner, table.get("x"));
+        assertEquals(2, table.sizeOfCurrentScope());
+        table.exitLocalScope();
+
+        assertSame(outer, table.get("x"));
+        assertNull(table.get("y"));
+        assertFalse(table.containsKey("y"));
+        // the global scope is never left
+        table.exitLocalScope();
+        assertSame(outer, table.get("x"));
+        assertEquals(3, table.getDefinitions());
+    }
+
+    @Test
+    public void testCurrentScopeInDefinitionOrder() {
+        Table<Object, TypeDescriptor> table = new SymbolTable<>(new TableManager<>());
+        TypeDescriptor type = DefaultIntegerType.of(0L);
+        List<String> expected = new ArrayList<>();
+        // deep enough & wide enough to grow every structure
+        for (int depth = 0; depth < 40; depth++) {
+            table.enterLocalScope();
+            for (int i = 0; i < 50; i++) table.put("id" + depth + "_" + i, type);
+        }
+        for (int i = 0; i < 50; i++) expected.add("id39_" + i);
+        assertEquals(expected, new ArrayList<>(table.getAllVarInCurrentScope().keySet()));
+        assertEquals(41, table.getScope_stack().size());
+
+        for (int depth = 39; depth >= 0; depth--) {
+            assertSame(type, table.get("id0_0"));
+            assertSame(type, table.get("id" + depth + "_49"));
+            table.exitLocalScope();
+            assertNull(table.get("id" + depth + "_49"));
+        }
+        assertTrue(table.getAllVarInCurrentScope().isEmpty());
+    }
+
+    @Test
+    public void testLocalsSlots() {
+        LocalsTable<Object, LocalVariableInformation> locals = new LocalsTable<>(new TableManager<>());
+        assertTrue(locals.put("a", 1, false));
+        assertTrue(locals.put("b", 2, false));
+        assertFalse(locals.put("a", 1, false));
+        int globalLength = locals.length();
+        locals.enterLocalScope();
+        assertTrue(locals.put("c", 2, false));
+        assertEquals(0, locals.get("c").getSlotNum());
+        assertEquals(2, locals.length());
+        // visible from the outer scope, not redefined
+        assertFalse(locals.put("a", 1, false));
+        locals.exitLocalScope();
+        assertNull(locals.get("c"));
+        assertEquals(1, locals.get("b").getSlotNum());
+        assertEquals(globalLength, locals.length());
+    }
+
+    @Test
+    public void testSharedPrelude() {
+        Map<Object, TypeDescriptor> prelude = RuntimeLibManager.getPrelude();
+        assertTrue(prelude.containsKey("maxint"));
+        assertTrue(prelude.containsKey("writeln"));
+        assertTrue(prelude.containsKey("new"));
+
+        Table<Object, TypeDescriptor> table = new SymbolTable<>(new TableManager<>());
+        RuntimeLibManager.fillTable(table);
+        TypeDescriptor type = DefaultIntegerType.of(0L);
+        assertSame(prelude.get("writeln"), table.get("writeln"));
+        // predefined in the global scope, shadowed in a local one
+        assertFalse(table.put("writeln", type));
+        table.enterLocalScope();
+        assertTrue(table.put("writeln", type));
+        assertSame(type, table.get("writeln"));
+        table.exitLocalScope();
+        assertSame(prelude.get("writeln"), table.get("writeln"));
+
+        assertTrue(table.put("x", type));
+        assertEquals(prelude.size() + 1, table.sizeOfCurrentScope());
+        assertEquals("x", new ArrayList<>(table.getAllVarInCurrentScope().keySet()).get(prelude.size()));
+        // never written through a table
+        assertFalse(prelude.containsKey("x"));
+        assertThrows(UnsupportedOperationException.class, () -> prelude.put("x", type));
+        assertSame(prelude, RuntimeLibManager.getPrelude());
+    }
+}
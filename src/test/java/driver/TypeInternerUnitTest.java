@@ -0,0 +1,81 @@
+package driver;
+
+import exception.PascalCompilerException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import type.Subrange;
+import type.TypeDescriptor;
+import type.TypeInterner;
+import type.primitive.integer.DefaultIntegerType;
+import type.structured.ArrayType;
+import utils.test.TestUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Type Interner Unit Test Cases
+ */
+@Tag("regression")
+@DisplayName("Type Interner Unit Test - [TypeInternerUnitTest.java]")
+public class TypeInternerUnitTest {
+
+    private static TypeDescriptor array(TypeInterner interner, long upper, boolean packed) {
+        TypeDescriptor subrange = interner.intern(new Subrange(DefaultIntegerType.of(1L, true),
+                DefaultIntegerType.of(upper, true)));
+        List<TypeDescriptor> indexList = new ArrayList<>();
+        indexList.add(subrange);
+        ArrayType arrayType = new ArrayType(DefaultIntegerType.instance, indexList);
+        arrayType.setPacked(packed);
+        return interner.intern(arrayType);
+    }
+
+    @Test
+    public void testStructurallyEqualTypesShared() {
+        TypeInterner interner = new TypeInterner();
+        TypeDescriptor first = array(interner, 10L, false);
+        assertSame(first, array(interner, 10L, false));
+        assertNotSame(first, array(interner, 11L, false));
+        assertNotSame(first, array(interner, 10L, true));
+        // 2 subranges, 3 arrays
+        assertEquals(5, interner.size());
+
+        assertTrue(first.equiv(first));
+        assertTrue(first.equiv(new ArrayType(DefaultIntegerType.instance, new ArrayList<>(
+                ((ArrayType) first).getIndexList()))));
+        // memoized against canonical arrays
+        TypeDescriptor other = array(interner, 11L, false);
+        assertFalse(first.equiv(other));
+        assertFalse(first.equiv(other));
+    }
+
+    @Test
+    public void testCanonicalTypesFrozen() {
+        ArrayType arrayType = (ArrayType) array(new TypeInterner(), 10L, false);
+        assertThrows(IllegalStateException.class, () -> arrayType.setPacked(true));
+        assertThrows(UnsupportedOperationException.class, () -> arrayType.getIndexList().clear());
+        assertThrows(IllegalStateException.class, () -> TypeInterner.BOOLEAN.setConstant(true));
+        assertThrows(IllegalStateException.class, () -> TypeInterner.INTEGER.setValue(1L));
+        // unchanged state is allowed
+        arrayType.setPacked(false);
+        TypeInterner.REAL.setConstant(false);
+    }
+
+    @Test
+    public void testConstantFromVariableRejected() {
+        Path source = Paths.get(TestUtils.testResourcesBase,
+                "driver", "testTypeInterner", "ConstantFromVariable.pas");
+        PascalCompilerDriverBuilder builder = new PascalCompilerDriverBuilder(
+                new DriverArgument(DriverCommand.CHECK, source.toString(), Map.of())).setCache(null);
+        assertThrows(PascalCompilerException.class, () -> builder.parse().check());
+        // the shared integer type is left untouched
+        assertEquals(1, builder.getContextualErrors());
+        assertFalse(DefaultIntegerType.instance.isConstant());
+    }
+}
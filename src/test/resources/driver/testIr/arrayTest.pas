@@ -0,0 +1,60 @@
+program arrayTest(output);
+type
+  color = (red, green, blue);
+  row = array[1..4] of integer;
+var
+  v: array[-2..2] of integer;
+  m: array[1..3, 1..4] of integer;
+  n: array[1..3] of row;
+  r: row;
+  w: array[1..4] of real;
+  count: array['a'..'e'] of integer;
+  flags: array[boolean] of boolean;
+  shade: array[color] of char;
+  i, j, k, s: integer;
+  c: char;
+
+procedure squares;
+var
+  t: array[0..9] of integer;
+begin
+  for k := 0 to 9 do t[k] := k * k;
+  writeln(t[3] + t[9])
+end;
+
+begin
+  for i := -2 to 2 do v[i] := i * 10;
+  writeln(v[-2], ' ', v[0], ' ', v[2]);
+  for i := 1 to 3 do
+    for j := 1 to 4 do
+    begin
+      m[i, j] := i * 10 + j;
+      n[i][j] := m[i][j] * 2
+    end;
+  writeln(m[2, 3], ' ', m[3][4], ' ', n[1, 1], ' ', n[3, 4]);
+  { rows copied as blocks of the flat arrays }
+  r := m[2];
+  writeln(r[1], ' ', r[4]);
+  n[1] := r;
+  writeln(n[1][2]);
+  for i := 1 to 4 do w[i] := i / 2;
+  writeln(w[3]);
+  c := 'a';
+  count[c] := 5;
+  count['e'] := 7;
+  writeln(count['a'] + count['e']);
+  flags[true] := true;
+  flags[false] := not flags[true];
+  writeln(flags[false], ' ', flags[true]);
+  shade[red] := 'r';
+  shade[blue] := 'b';
+  writeln(shade[red], shade[blue]);
+  squares;
+  s := 0;
+  for i := 1 to 3 do
+    for j := 1 to 4 do s := s + m[i, j];
+  writeln(s);
+  i := 3;
+  { fails at runtime, index out of the bounds }
+  writeln(v[i])
+end.
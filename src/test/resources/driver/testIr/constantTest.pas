@@ -0,0 +1,43 @@
+program constantTest(output);
+const
+  size = 10;
+  neg = -size;
+  half = 2.5;
+  nhalf = -half;
+  greeting = 'hello';
+  letter = 'x';
+  yes = true;
+  top = maxint;
+type
+  color = (red, green, blue);
+var
+  i: integer;
+  r: real;
+
+procedure show;
+const
+  local = 7;
+begin
+  writeln(local * size)
+end;
+
+begin
+  i := size * 2 + 1;
+  writeln(i);
+  writeln(neg);
+  r := half * 2;
+  writeln(r);
+  writeln(nhalf);
+  writeln(greeting);
+  writeln(letter);
+  writeln(yes);
+  writeln(top - 1);
+  writeln(ord(blue));
+  writeln(ord(succ(red)));
+  i := ord(pred(blue)) + 1;
+  writeln(i);
+  if size > 5 then writeln('big');
+  if (size < 5) and yes then writeln('small') else writeln('not small');
+  writeln(size div 3, ' ', size mod 3, ' ', size / 4);
+  show
+end.
@@ -0,0 +1,87 @@
+program deadCodeTest(output);
+const
+  debug = false;
+var
+  i: integer;
+
+procedure unused;
+begin
+  writeln('unused')
+end;
+
+procedure trace(n: integer);
+begin
+  writeln('trace ', n)
+end;
+
+procedure onlyFromUnused2;
+begin
+  writeln('never')
+end;
+
+procedure unused2;
+begin
+  onlyFromUnused2
+end;
+
+function square(x: integer): integer;
+var
+  t, u: integer;
+begin
+  t := x * 100;
+  u := 0;
+  t := x * x;
+  square := t
+end;
+
+function sum(n: integer): integer;
+var
+  k, s, tmp: integer;
+begin
+  s := 0;
+  for k := 1 to n do
+  begin
+    tmp := k * 2;
+    s := s + k
+  end;
+  sum := s
+end;
+
+function loopy(n: integer): integer;
+var
+  a, b: integer;
+begin
+  a := 0;
+  b := 0;
+  while n > 0 do
+  begin
+    b := a;
+    a := a + n;
+    n := n - 1
+  end;
+  loopy := b
+end;
+
+procedure divide(d: integer);
+var
+  q, r: integer;
+begin
+  { never read, kept as it fails for d = 0 }
+  q := 100 div d;
+  { never read, cannot fail }
+  r := d div 4;
+  writeln('divided')
+end;
+
+begin
+  if debug then trace(1);
+  if not debug then writeln('release') else unused;
+  while debug do unused;
+  repeat i := 1 until true;
+  for i := 5 to 1 do unused2;
+  writeln(square(7));
+  writeln(sum(4));
+  writeln(loopy(3));
+  writeln(i);
+  divide(0)
+end.
@@ -0,0 +1,21 @@
+program inputTest(input, output);
+var
+  i, j, sum: integer;
+  r: real;
+  c, d: char;
+begin
+  read(i, j);
+  readln(r);
+  readln(c);
+  readln;
+  read(d);
+  sum := 0;
+  read(i);
+  while i <> 0 do
+  begin
+    sum := sum + i;
+    read(i)
+  end;
+  writeln(i, ' ', j, ' ', r, ' ', c, d);
+  writeln(sum)
+end.
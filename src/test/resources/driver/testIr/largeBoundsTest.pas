@@ -0,0 +1,12 @@
+program largeBoundsTest(output);
+var a: array[100000000..100000002, 1..100] of integer;
+  i: integer;
+begin
+  i := 100000001;
+  a[i, 7] := 5;
+  a[100000002, 100] := 9;
+  a[100000000, 1] := 1;
+  writeln(a[i, 7] + a[100000002, 100] + a[100000000, 1]);
+  { sum of low * stride beyond maxint }
+  writeln(a[i + 1, 100])
+end.
@@ -0,0 +1,20 @@
+program outputTest(output);
+var
+  i: integer;
+  r: real;
+  c: char;
+  b: boolean;
+begin
+  i := -2147483647 - 1;
+  r := 12345678.9;
+  c := 'z';
+  b := false;
+  writeln(i, ' ', maxint, ' ', 0);
+  writeln(r, ' ', 0.5, ' ', -3.0, ' ', 1.0 / 3);
+  write(c, b, true);
+  writeln;
+  writeln('café', 'é');
+  i := 0;
+  { fails, what was written before still shows up }
+  writeln(1 div i)
+end.
@@ -0,0 +1,44 @@
+program RangeTest;
+type idx = 1..10;
+var a: array[1..10] of integer;
+    i, s, n: integer;
+    d: idx;
+    c: 'a'..'e';
+
+{ checks of a[i] hoisted: a copy of the loop without them runs if 1 <= n <= 10 }
+procedure total;
+begin
+  s := 0;
+  for i := 1 to n do s := s + a[i];
+  writeln(s)
+end;
+
+procedure narrow;
+var e: idx;
+begin
+  { never read, still checked }
+  e := n;
+  writeln('after')
+end;
+
+begin
+  { no check: i within 1..10 }
+  for i := 1 to 10 do a[i] := i * i;
+  n := 10;
+  total;
+  n := 3;
+  total;
+  d := 4;
+  writeln(a[d], ' ', a[d + 6]);
+  { s changed by total, checked when assigned to d }
+  d := s - 4;
+  writeln(a[d]);
+  { narrowed by the condition }
+  i := s - 10;
+  if (i >= 1) and (i <= 10) then writeln(a[i]);
+  for c := 'a' to 'e' do write(c);
+  writeln;
+  narrow;
+  n := 11;
+  total
+end.
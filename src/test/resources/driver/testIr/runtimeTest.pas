@@ -0,0 +1,21 @@
+program runtimeTest(output);
+type color = (red, green, blue);
+var
+  k: integer;
+  x: real;
+  c: char;
+  b: boolean;
+begin
+  writeln(ord(succ(green)), ' ', ord(pred(blue)), ' ', ord(succ(red)));
+  k := -7;
+  x := -2.5;
+  writeln(abs(k), ' ', abs(x), ' ', sqr(k), ' ', sqr(x), ' ', sqr(3));
+  writeln(odd(k), ' ', odd(4), ' ', trunc(x), ' ', round(x), ' ', round(2.5), ' ', trunc(7.9));
+  writeln(sqrt(16), ' ', sqrt(x * x));
+  { chars & booleans stay chars & booleans }
+  c := 'b';
+  b := false;
+  writeln(succ(c), pred(c), succ('x'), ' ', ord('A'), ' ', ord(true), ' ', succ(b), ' ', pred(true));
+  { fails at runtime, no successor of the last value }
+  writeln(ord(succ(blue)))
+end.
@@ -0,0 +1,74 @@
+program statementsTest(output);
+type
+  color = (red, green, blue);
+var
+  i, n, sum: integer;
+  r: real;
+  done: boolean;
+
+procedure outer(x: integer);
+var
+  y: integer;
+  c: color;
+
+  procedure inner;
+  begin
+    writeln('inner')
+  end;
+
+  { assigns its result & calls itself, the locals of outer are still there after it }
+  function twice(a: integer): integer;
+  begin
+    if a = 0 then
+      twice := 0
+    else
+      twice := twice(a - 1) + 2
+  end;
+
+begin
+  y := x;
+  y := twice(y);
+  c := succ(green);
+  inner;
+  writeln('outer ', y, ' ', ord(c))
+end;
+
+begin
+  { left associative chain }
+  writeln(10 - 4 - 3 - 2);
+  writeln(100 div 5 div 2);
+  { downto }
+  sum := 0;
+  for i := 5 downto 1 do
+    sum := sum * 10 + i;
+  writeln(sum);
+  { final value evaluated once }
+  n := 3;
+  for i := 1 to n do
+    n := n + 1;
+  writeln(n);
+  { up to maxint without overflowing the counter }
+  n := 0;
+  for i := maxint - 2 to maxint do
+    n := n + 1;
+  writeln(n);
+  { boolean conditions }
+  done := false;
+  i := 0;
+  while not done do
+  begin
+    i := i + 1;
+    done := i >= 3
+  end;
+  writeln(i);
+  if done and (i = 3) then
+    writeln('done')
+  else
+    writeln('not done');
+  r := i;
+  if r < 3.5 then
+    writeln('real')
+  else
+    writeln('no real');
+  outer(21)
+end.
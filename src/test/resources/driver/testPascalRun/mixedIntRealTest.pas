@@ -0,0 +1,12 @@
+program mixedIntRealTest;
+var i: integer;
+    r: real;
+begin
+  i := 2;
+  r := 2.5;
+  if i < r then writeln('lt') else writeln('ge');
+  r := i + r * 2;
+  writeln(r);
+  r := i * r;
+  writeln(r);
+end.
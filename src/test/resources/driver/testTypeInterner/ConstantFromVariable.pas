@@ -0,0 +1,7 @@
+program ConstantFromVariable;
+var i: integer;
+const k = i;
+begin
+  i := 3;
+  writeln(k);
+end.